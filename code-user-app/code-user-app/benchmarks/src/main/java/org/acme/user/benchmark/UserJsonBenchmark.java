@@ -0,0 +1,62 @@
+package org.acme.user.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.acme.user.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización Jackson de listas de usuarios, como las que devuelve GET /users
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserJsonBenchmark {
+
+    @Param({"10", "1000"})
+    int size;
+
+    private List<User> users;
+    private byte[] payload;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(new TypeReference<List<User>>() { });
+        reader = objectMapper.readerFor(new TypeReference<List<User>>() { });
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = UserRepositoryBenchmark.newUser(i);
+            user.setId(i + 1);
+            users.add(user);
+        }
+        payload = writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] encodeList() throws IOException {
+        return writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<User> decodeList() throws IOException {
+        return reader.readValue(payload);
+    }
+}
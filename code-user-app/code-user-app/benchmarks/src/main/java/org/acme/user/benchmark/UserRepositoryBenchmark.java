@@ -0,0 +1,78 @@
+package org.acme.user.benchmark;
+
+import org.acme.user.domain.User;
+import org.acme.user.repository.impl.UserRepositoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CRUD de UserRepositoryImpl con distintos tamaños.
+ * Las altas se compensan con bajas para que el tamaño no crezca durante la medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserRepositoryBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private UserRepositoryImpl repository;
+    private int firstId;
+    private int lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new UserRepositoryImpl();
+        firstId = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            User saved = repository.save(newUser(i));
+            firstId = Math.min(firstId, saved.getId());
+            lastId = saved.getId();
+        }
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public User update() {
+        int id = randomId();
+        User user = newUser(id);
+        user.setId(id);
+        return repository.update(user);
+    }
+
+    @Benchmark
+    public boolean saveAndDelete() {
+        User saved = repository.save(newUser(ThreadLocalRandom.current().nextInt(size)));
+        return repository.deleteById(saved.getId());
+    }
+
+    @Benchmark
+    public List<User> findPage() {
+        return repository.findPage(randomId(), 50);
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(firstId, lastId + 1);
+    }
+
+    static User newUser(int seed) {
+        return new User(0, "User " + seed, "user" + seed + "@example.com");
+    }
+}
@@ -0,0 +1,115 @@
+package org.acme.user.benchmark;
+
+import org.acme.user.domain.User;
+import org.acme.user.repository.VersionConflictException;
+import org.acme.user.repository.impl.UserRepositoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escrituras concurrentes de usuarios: la implementación original (CopyOnWriteArrayList, cada
+ * update busca el usuario recorriendo la lista y copia el array completo) frente a
+ * UserRepositoryImpl con versiones (índice por ID, update incondicional o compare-and-set).
+ *
+ * readModifyWrite es lo que hace un cliente que edita un usuario: leer y escribir. Con
+ * copy-on-write no hay versión que comprobar (la última escritura gana y se pierden cambios);
+ * con versiones se reintenta si otro hilo escribió en medio. Ejecución con contención:
+ * -Pjmh.include=UserVersionedWrite -Pjmh.threads=8,16,32
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserVersionedWriteBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"copy-on-write", "versioned"})
+    String implementation;
+
+    private CopyOnWriteArrayList<User> copyOnWrite;
+    private UserRepositoryImpl repository;
+    private int firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new UserRepositoryImpl();
+        copyOnWrite = new CopyOnWriteArrayList<>();
+        firstId = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            User saved = repository.save(UserRepositoryBenchmark.newUser(i));
+            copyOnWrite.add(saved);
+            firstId = Math.min(firstId, saved.getId());
+        }
+    }
+
+    @Benchmark
+    public User update() {
+        User user = newVersionOf(randomId());
+        return copyOnWrite() ? copyOnWriteUpdate(user) : repository.update(user);
+    }
+
+    @Benchmark
+    public User readModifyWrite() {
+        int id = randomId();
+        if (copyOnWrite()) {
+            copyOnWriteFind(id);
+            return copyOnWriteUpdate(newVersionOf(id));
+        }
+        while (true) {
+            long version = repository.findById(id).orElseThrow().getVersion();
+            try {
+                return repository.update(newVersionOf(id), version);
+            } catch (VersionConflictException e) {
+                // Otro hilo escribió entre la lectura y la escritura: se relee
+            }
+        }
+    }
+
+    private boolean copyOnWrite() {
+        return implementation.equals("copy-on-write");
+    }
+
+    /**
+     * El update original: recorrido lineal y set, que copia el array completo en cada escritura
+     */
+    private User copyOnWriteUpdate(User user) {
+        for (int i = 0; i < copyOnWrite.size(); i++) {
+            if (copyOnWrite.get(i).getId() == user.getId()) {
+                copyOnWrite.set(i, user);
+                return user;
+            }
+        }
+        return null;
+    }
+
+    private User copyOnWriteFind(int id) {
+        for (User user : copyOnWrite) {
+            if (user.getId() == id) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(firstId, firstId + size);
+    }
+
+    private static User newVersionOf(int id) {
+        User user = UserRepositoryBenchmark.newUser(id);
+        user.setId(id);
+        return user;
+    }
+}
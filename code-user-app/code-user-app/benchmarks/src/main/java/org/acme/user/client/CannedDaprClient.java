@@ -0,0 +1,44 @@
+package org.acme.user.client;
+
+import io.dapr.client.DaprClient;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * DaprClient que responde a invokeMethod al instante con payloads fijos, como si el sidecar
+ * ya hubiera devuelto los bytes: aísla el coste del PokemonClient (invocación + decodificación).
+ * Con latencia, simula además lo que tarda el pokemon-service sin ocupar ningún hilo.
+ */
+public final class CannedDaprClient {
+
+    private CannedDaprClient() {
+    }
+
+    /**
+     * PokemonClient sobre este DaprClient, para benchmarks de otros paquetes (sin init(): sin límite ni plazo)
+     */
+    public static PokemonClient pokemonClient(Function<String, byte[]> payloads, Duration latency) {
+        return new PokemonClient(of(payloads, latency));
+    }
+
+    static DaprClient of(Function<String, byte[]> payloads) {
+        return of(payloads, Duration.ZERO);
+    }
+
+    static DaprClient of(Function<String, byte[]> payloads, Duration latency) {
+        return (DaprClient) Proxy.newProxyInstance(
+                DaprClient.class.getClassLoader(),
+                new Class<?>[]{DaprClient.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "invokeMethod" -> latency.isZero()
+                            ? Mono.just(payloads.apply((String) args[1]))
+                            : Mono.just(payloads.apply((String) args[1])).delayElement(latency);
+                    case "close" -> null;
+                    case "toString" -> "CannedDaprClient";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
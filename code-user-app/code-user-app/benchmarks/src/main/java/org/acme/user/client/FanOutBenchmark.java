@@ -0,0 +1,36 @@
+package org.acme.user.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de FanOut.resolve con 6 consultas de 50 a 300 ms: con parallelism=1 es la suma
+ * (~1050 ms), con parallelism=6 la de la más lenta (~300 ms).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FanOutBenchmark {
+
+    private static final List<Integer> IDS = List.of(1, 2, 3, 4, 5, 6);
+
+    @Param({"1", "6"})
+    int parallelism;
+
+    @Benchmark
+    public List<FanOut.Outcome<Integer, String>> resolve() {
+        return FanOut.resolve(IDS, id -> CompletableFuture.supplyAsync(() -> "Pokemon " + id,
+                        CompletableFuture.delayedExecutor(id * 50L, TimeUnit.MILLISECONDS)),
+                parallelism, Duration.ofSeconds(5)).toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,77 @@
+package org.acme.user.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acme.user.domain.Pokemon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camino de respuesta del PokemonClient (invocación DAPR + decodificación de bytes)
+ * contra un sidecar simulado que devuelve payloads JSON fijos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PokemonClientBenchmark {
+
+    private static final List<Integer> BATCH_IDS = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+    @Param({"10", "1000"})
+    int catalogSize;
+
+    private PokemonClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Pokemon> catalog = new ArrayList<>(catalogSize);
+        for (int id = 1; id <= catalogSize; id++) {
+            catalog.add(new Pokemon(id, "Pokemon-" + id, "Fire/Flying", 1 + id % 100, List.of("Blaze", "Solar Power")));
+        }
+        byte[] single = objectMapper.writeValueAsBytes(catalog.get(0));
+        byte[] list = objectMapper.writeValueAsBytes(catalog);
+        byte[] batch = objectMapper.writeValueAsBytes(catalog.subList(0, Math.min(BATCH_IDS.size(), catalogSize)));
+        client = new PokemonClient(CannedDaprClient.of(method -> switch (method) {
+            case "pokemon/list" -> list;
+            case "pokemon/batch" -> batch;
+            default -> single;
+        }));
+    }
+
+    @Benchmark
+    public Pokemon getPokemonById() {
+        return client.getPokemonById(randomId());
+    }
+
+    @Benchmark
+    public Pokemon getPokemonByIdAsync() {
+        return client.getPokemonByIdAsync(randomId()).toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public List<Pokemon> getPokemonsByIdsAsync() {
+        return client.getPokemonsByIdsAsync(BATCH_IDS).toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public List<Pokemon> getAllPokemons() {
+        return client.getAllPokemons();
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, catalogSize + 1);
+    }
+}
@@ -0,0 +1,75 @@
+package org.acme.user.client;
+
+import io.dapr.client.DaprClient;
+import org.acme.user.client.DaprClientFactory.Protocol;
+import org.acme.user.client.DaprSidecarStandIn.Backend;
+import org.acme.user.client.DaprSidecarStandIn.FaultProfile;
+import org.acme.user.domain.Pokemon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getPokemonById con un DaprClient real contra el sidecar simulado (sin latencia inyectada), por
+ * las APIs HTTP y gRPC de invocación: el tiempo es el sobrecoste del cliente más el loopback.
+ * Detecta regresiones como reconstruir el cliente por llamada o el retardo de Nagle (~40 ms).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PokemonClientSidecarBenchmark {
+
+    private static final int CATALOG_SIZE = 200;
+
+    // Protocol es package-private: el código generado por JMH no puede instanciarlo
+    @Param({"HTTP", "GRPC"})
+    String protocol;
+
+    private DaprSidecarStandIn sidecar;
+    private DaprClient daprClient;
+    private PokemonClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Map<Integer, Pokemon> catalog = new LinkedHashMap<>();
+        for (int id = 1; id <= CATALOG_SIZE; id++) {
+            catalog.put(id, new Pokemon(id, "Pokemon-" + id, "Grass/Poison", id % 100, List.of("Overgrow", "Chlorophyll")));
+        }
+        sidecar = DaprSidecarStandIn.start(Backend.catalog(catalog), FaultProfile.NONE);
+        daprClient = sidecar.newDaprClient(Protocol.valueOf(protocol));
+        client = new PokemonClient(daprClient);
+    }
+
+    /**
+     * El sidecar guarda la duración de cada invocación: se vacía para que no crezca con la medición
+     */
+    @Setup(Level.Iteration)
+    public void resetSidecarStats() {
+        sidecar.resetStats();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        daprClient.close();
+        sidecar.close();
+    }
+
+    @Benchmark
+    public Pokemon getPokemonById() {
+        return client.getPokemonById(ThreadLocalRandom.current().nextInt(1, CATALOG_SIZE + 1));
+    }
+}
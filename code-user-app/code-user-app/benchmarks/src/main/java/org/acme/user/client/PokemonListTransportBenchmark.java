@@ -0,0 +1,128 @@
+package org.acme.user.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.acme.user.domain.Pokemon;
+import org.acme.user.grpc.ListPokemonsRequest;
+import org.acme.user.grpc.PokemonCatalogGrpc;
+import org.acme.user.grpc.PokemonList;
+import org.acme.user.grpc.PokemonMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listado completo por gRPC (PokemonGrpcClient, protobuf en streaming por páginas) frente al camino
+ * HTTP/JSON equivalente (serializa en cada petición y decodifica con PokemonResponseDecoder), ambos
+ * contra un servidor sobre loopback sin sidecar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PokemonListTransportBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000"})
+    int catalogSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PokemonResponseDecoder decoder = new PokemonResponseDecoder(objectMapper);
+    private List<Pokemon> catalog;
+    private Server grpcServer;
+    private ManagedChannel channel;
+    private PokemonGrpcClient grpcClient;
+    private HttpServer jsonServer;
+    private HttpClient httpClient;
+    private HttpRequest listRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        catalog = new ArrayList<>(catalogSize);
+        for (int id = 1; id <= catalogSize; id++) {
+            catalog.add(new Pokemon(id, "Pokemon-" + id, "Grass/Poison", id % 100, List.of("Overgrow", "Chlorophyll")));
+        }
+
+        grpcServer = ServerBuilder.forPort(0).addService(new Catalog()).build().start();
+        channel = ManagedChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+        grpcClient = new PokemonGrpcClient(channel, "pokemon-service");
+
+        jsonServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        jsonServer.createContext("/pokemon/list", exchange -> {
+            byte[] body = objectMapper.writeValueAsBytes(catalog);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        jsonServer.start();
+        httpClient = HttpClient.newHttpClient();
+        listRequest = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + jsonServer.getAddress().getPort() + "/pokemon/list")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        grpcServer.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        jsonServer.stop(0);
+    }
+
+    @Benchmark
+    public List<Pokemon> grpcList() {
+        return grpcClient.getAllPokemonsAsync().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public List<Pokemon> jsonList() throws IOException, InterruptedException {
+        return decoder.decodePokemonList(httpClient.send(listRequest, HttpResponse.BodyHandlers.ofByteArray()).body());
+    }
+
+    private class Catalog extends PokemonCatalogGrpc.PokemonCatalogImplBase {
+
+        @Override
+        public void listPokemons(ListPokemonsRequest request, StreamObserver<PokemonList> responseObserver) {
+            PokemonList.Builder page = PokemonList.newBuilder();
+            for (Pokemon pokemon : catalog) {
+                page.addPokemons(PokemonMessage.newBuilder()
+                        .setId(pokemon.getId())
+                        .setName(pokemon.getName())
+                        .setType(pokemon.getType())
+                        .setLevel(pokemon.getLevel())
+                        .addAllAbilities(pokemon.getAbilities()));
+                if (page.getPokemonsCount() == PAGE_SIZE) {
+                    responseObserver.onNext(page.build());
+                    page.clear();
+                }
+            }
+            if (page.getPokemonsCount() > 0) {
+                responseObserver.onNext(page.build());
+            }
+            responseObserver.onCompleted();
+        }
+    }
+}
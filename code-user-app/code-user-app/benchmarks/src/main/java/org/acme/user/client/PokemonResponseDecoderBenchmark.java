@@ -0,0 +1,67 @@
+package org.acme.user.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acme.user.domain.Pokemon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificación del listado de Pokemons: directa de bytes a List&lt;Pokemon&gt; frente al camino
+ * anterior (Object genérico en el SDK de DAPR, re-serialización a String y parseo final). Con
+ * -Pjmh.prof=gc se ven los bytes asignados por operación (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PokemonResponseDecoderBenchmark {
+
+    private static final TypeReference<List<Pokemon>> POKEMON_LIST = new TypeReference<>() {
+    };
+
+    @Param({"200"})
+    int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PokemonResponseDecoder decoder = new PokemonResponseDecoder(objectMapper);
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= size; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Pokemon-").append(i)
+                    .append("\",\"type\":\"Grass/Poison\",\"level\":").append(i % 100)
+                    .append(",\"abilities\":[\"Overgrow\",\"Chlorophyll\"]}");
+        }
+        payload = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Pokemon> typedDecode() throws IOException {
+        return decoder.decodePokemonList(payload);
+    }
+
+    @Benchmark
+    public List<Pokemon> objectRoundTrip() throws IOException {
+        Object response = objectMapper.readValue(payload, Object.class);
+        String jsonResponse = objectMapper.writeValueAsString(response);
+        return objectMapper.readValue(jsonResponse, POKEMON_LIST);
+    }
+}
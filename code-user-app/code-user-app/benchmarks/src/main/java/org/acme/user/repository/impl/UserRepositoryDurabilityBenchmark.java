@@ -0,0 +1,88 @@
+package org.acme.user.repository.impl;
+
+import org.acme.user.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Escrituras sostenidas de UserRepositoryImpl en memoria frente a persistentes: WAL con fsync
+ * por group commit, o WAL detrás del write-behind (sin esperar al fsync, volcado por lotes).
+ * Con varios hilos (-Pjmh.threads=1,8) se ve cuántas escrituras comparte cada fsync. El
+ * directorio del WAL es temporal (java.io.tmpdir).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserRepositoryDurabilityBenchmark {
+
+    private static final int SIZE = 1_000;
+
+    @Param({"memory", "wal", "wal-write-behind"})
+    String persistence;
+
+    private Path dir;
+    private UserRepositoryImpl repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        repository = new UserRepositoryImpl();
+        if (persistence.startsWith("wal")) {
+            dir = Files.createTempDirectory("user-wal-bench");
+            repository.openPersistence(new UserWriteAheadLog.Options(dir, 64 * 1024 * 1024,
+                    Duration.ofSeconds(5), 100_000));
+        }
+        if (persistence.endsWith("write-behind")) {
+            repository.enableWriteBehind(256, Duration.ofMillis(10), 10_000);
+        }
+        for (int i = 0; i < SIZE; i++) {
+            repository.save(newUser(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repository.close();
+        if (dir != null) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public User update() {
+        int id = ThreadLocalRandom.current().nextInt(1, SIZE + 1);
+        User user = newUser(id);
+        user.setId(id);
+        return repository.update(user);
+    }
+
+    @Benchmark
+    public boolean saveAndDelete() {
+        User saved = repository.save(newUser(ThreadLocalRandom.current().nextInt(SIZE)));
+        return repository.deleteById(saved.getId());
+    }
+
+    private static User newUser(int seed) {
+        return new User(0, "User " + seed, "user" + seed + "@example.com");
+    }
+}
@@ -0,0 +1,127 @@
+package org.acme.user.repository.impl;
+
+import org.acme.user.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Arranque de UserRepositoryImpl persistente con muchos usuarios: reproduciendo el log entero
+ * frente a cargar un snapshot que lo cubre. Cada operación es un arranque completo sobre una copia
+ * del directorio preparado: cerrar el repositorio (que escribe su snapshot final) no cambia el
+ * punto de partida de la siguiente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = "-Xmx2g")
+public class UserRepositoryStartupBenchmark {
+
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"log", "snapshot"})
+    String startFrom;
+
+    private Path prepared;
+    private Path dir;
+    private UserRepositoryImpl repository;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        prepared = Files.createTempDirectory("user-wal-startup");
+        long lastSequence = 0;
+        try (UserWriteAheadLog wal = UserWriteAheadLog.open(options(prepared), ignoringRecovery())) {
+            for (int id = 1; id <= size; id++) {
+                lastSequence = wal.append(UserWriteAheadLog.RecordType.CREATE, id,
+                        new User(id, "User " + id, "user" + id + "@example.com"));
+            }
+            wal.awaitDurable(lastSequence);
+        }
+        if (startFrom.equals("snapshot")) {
+            start(prepared).close();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void copyPrepared() throws IOException {
+        dir = Files.createTempDirectory("user-wal-startup-run");
+        try (Stream<Path> files = Files.list(prepared)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, dir.resolve(file.getFileName()));
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeRepository() throws IOException {
+        if (repository != null) {
+            repository.close();
+            repository = null;
+        }
+        delete(dir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        delete(prepared);
+    }
+
+    @Benchmark
+    public UserRepositoryImpl startup() {
+        repository = start(dir);
+        if (repository.findById(size).isEmpty()) {
+            throw new IllegalStateException("Arranque incompleto: falta el usuario " + size);
+        }
+        return repository;
+    }
+
+    private static UserRepositoryImpl start(Path dir) {
+        UserRepositoryImpl started = new UserRepositoryImpl();
+        started.openPersistence(options(dir));
+        return started;
+    }
+
+    private static UserWriteAheadLog.Options options(Path dir) {
+        // Sin snapshots periódicos durante la medición
+        return new UserWriteAheadLog.Options(dir, SEGMENT_SIZE, Duration.ofHours(1), Long.MAX_VALUE);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static UserWriteAheadLog.Target ignoringRecovery() {
+        return new UserWriteAheadLog.Target() {
+            @Override
+            public void put(User user) {
+            }
+
+            @Override
+            public void delete(int id) {
+            }
+        };
+    }
+}
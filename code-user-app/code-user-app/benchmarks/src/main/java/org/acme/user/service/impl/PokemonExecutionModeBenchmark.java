@@ -0,0 +1,88 @@
+package org.acme.user.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acme.user.client.CannedDaprClient;
+import org.acme.user.client.PokemonClient;
+import org.acme.user.domain.Pokemon;
+import org.acme.user.service.impl.PokemonClientAsyncServiceImpl.ExecutionMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /users/pokemon (sin la capa HTTP) con cada modo de ejecución y un pokemon-service que tarda
+ * 100 ms. Cada operación lanza concurrency peticiones a la vez y espera a todas: su tiempo es el de la
+ * más lenta. Con el pool worker (200 hilos, como el de Quarkus) pasa de 100 ms en cuanto hay más
+ * peticiones que hilos; con hilos virtuales o en asíncrono se mantiene. El PokemonClient no pasa por
+ * init(): el límite de concurrencia rechazaría las peticiones que se quieren comparar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PokemonExecutionModeBenchmark {
+
+    private static final Duration SERVICE_LATENCY = Duration.ofMillis(100);
+    private static final int WORKER_POOL_SIZE = 200; // Tamaño por defecto del pool worker de Quarkus
+
+    @Param({"ASYNC", "WORKER", "VIRTUAL_THREADS"})
+    ExecutionMode mode;
+
+    @Param({"100", "400", "800"})
+    int concurrency;
+
+    private ExecutorService executor;
+    private PokemonClientAsyncServiceImpl service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] pikachu = new ObjectMapper().writeValueAsBytes(
+                new Pokemon(25, "Pikachu", "Electric", 25, List.of("Static", "Lightning Rod")));
+        PokemonClient client = CannedDaprClient.pokemonClient(method -> pikachu, SERVICE_LATENCY);
+        executor = switch (mode) {
+            case ASYNC -> null;
+            case WORKER -> Executors.newFixedThreadPool(WORKER_POOL_SIZE);
+            case VIRTUAL_THREADS -> Executors.newVirtualThreadPerTaskExecutor();
+        };
+        PokemonClientServiceImpl blocking = new PokemonClientServiceImpl();
+        blocking.pokemonClient = client;
+        service = new PokemonClientAsyncServiceImpl();
+        service.pokemonClient = client;
+        service.blockingService = blocking;
+        service.executeOn(mode, executor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void concurrentRequests(Blackhole blackhole) {
+        List<CompletableFuture<Pokemon>> requests = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            requests.add(service.getRandomPokemon().toCompletableFuture());
+        }
+        for (CompletableFuture<Pokemon> request : requests) {
+            blackhole.consume(request.join());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.acme.user.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias de una ruta, en microsegundos, con dos histogramas:
+ *
+ * - response: desde el instante en que la petición DEBÍA salir según el plan de carga hasta la
+ *   respuesta. Corrige la coordinated omission: si el generador o el servidor se atascan, las
+ *   peticiones que no se pudieron enviar a tiempo acumulan su espera en lugar de desaparecer.
+ * - service: desde el envío real hasta la respuesta (lo que mediría un cliente ingenuo).
+ */
+final class EndpointStats {
+
+    private final String path;
+    private final Histogram response = new ConcurrentHistogram(3);
+    private final Histogram service = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String path) {
+        this.path = path;
+    }
+
+    /**
+     * @param intendedNanos Instante planificado de envío (System.nanoTime)
+     * @param sentNanos Instante real de envío
+     * @param doneNanos Instante de la respuesta (o del error)
+     * @param failed Error de transporte o estado HTTP distinto de 2xx
+     */
+    void record(long intendedNanos, long sentNanos, long doneNanos, boolean failed) {
+        response.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos));
+        service.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos));
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    String path() {
+        return path;
+    }
+
+    Histogram response() {
+        return response;
+    }
+
+    Histogram service() {
+        return service;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+}
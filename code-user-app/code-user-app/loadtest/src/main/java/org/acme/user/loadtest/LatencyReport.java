@@ -0,0 +1,85 @@
+package org.acme.user.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Informe de percentiles por ruta y total, con la latencia corregida (desde el instante
+ * planificado) y, para comparar, la sin corregir (desde el envío real).
+ */
+final class LatencyReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestOptions options;
+    private final List<EndpointStats> endpoints;
+    private final Duration measured;
+    private final Histogram totalResponse = new Histogram(3);
+    private final Histogram totalService = new Histogram(3);
+    private final long totalErrors;
+
+    LatencyReport(LoadTestOptions options, List<EndpointStats> endpoints, Duration measured) {
+        this.options = options;
+        this.endpoints = endpoints;
+        this.measured = measured;
+        long errors = 0;
+        for (EndpointStats endpoint : endpoints) {
+            totalResponse.add(endpoint.response());
+            totalService.add(endpoint.service());
+            errors += endpoint.errors();
+        }
+        this.totalErrors = errors;
+    }
+
+    Histogram totalResponse() {
+        return totalResponse;
+    }
+
+    Histogram totalService() {
+        return totalService;
+    }
+
+    long totalErrors() {
+        return totalErrors;
+    }
+
+    void print(PrintStream out) {
+        String target = options.mode() == LoadTestOptions.Mode.OPEN
+                ? String.format(Locale.ROOT, "%.0f req/s", options.rate())
+                : options.concurrency() + " clientes" + (options.rate() > 0
+                        ? String.format(Locale.ROOT, ", %.0f req/s", options.rate()) : ", sin ritmo");
+        out.printf(Locale.ROOT, "%n📊 INFORME DE LATENCIA - lazo %s (%s), %d s medidos%n",
+                options.mode() == LoadTestOptions.Mode.OPEN ? "abierto" : "cerrado", target, measured.toSeconds());
+        String header = String.format(Locale.ROOT, "%-34s %9s %7s %9s %9s %9s %9s %9s %9s",
+                "Ruta (latencia corregida, ms)", "Peticiones", "Errores", "req/s", "p50", "p90", "p99", "p99.9", "max");
+        out.println(header);
+        out.println("-".repeat(header.length()));
+        for (EndpointStats endpoint : endpoints) {
+            printRow(out, endpoint.path(), endpoint.response(), endpoint.errors());
+        }
+        out.println("-".repeat(header.length()));
+        printRow(out, "TOTAL corregida", totalResponse, totalErrors);
+        printRow(out, "TOTAL sin corregir (envío real)", totalService, totalErrors);
+    }
+
+    private void printRow(PrintStream out, String label, Histogram histogram, long errors) {
+        StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%-34s %9d %7d %9.1f", label,
+                histogram.getTotalCount(), errors, histogram.getTotalCount() / (double) measured.toMillis() * 1000));
+        for (double percentile : PERCENTILES) {
+            row.append(String.format(Locale.ROOT, " %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        row.append(String.format(Locale.ROOT, " %9.2f", histogram.getMaxValue() / 1000.0));
+        out.println(row);
+    }
+
+    /**
+     * Distribución completa corregida en formato .hgrm (valores en ms), para el plotter de HdrHistogram
+     */
+    void writeHgrm(PrintStream out) {
+        totalResponse.outputPercentileDistribution(out, 1000.0);
+    }
+}
@@ -0,0 +1,158 @@
+package org.acme.user.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Genera carga HTTP sobre las rutas configuradas (en turno rotatorio) y registra las latencias.
+ *
+ * Lazo abierto: un hilo planifica una petición cada 1/rate segundos y la envía sin esperar la
+ * respuesta, como llegan los usuarios reales. Si se alcanza --max-in-flight el envío espera,
+ * pero la latencia se sigue midiendo desde el instante planificado.
+ *
+ * Lazo cerrado: N clientes envían, esperan la respuesta y vuelven a enviar. Con --rate cada
+ * cliente sigue un plan de rate/N peticiones/s y la latencia se mide desde el instante
+ * planificado (corregida); sin --rate no hay plan y ambas medidas coinciden.
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final List<EndpointStats> endpoints;
+    private final AtomicLong sequence = new AtomicLong();
+
+    LoadGenerator(LoadTestOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .build();
+        this.endpoints = options.paths().stream().map(EndpointStats::new).toList();
+    }
+
+    LatencyReport run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        if (options.mode() == LoadTestOptions.Mode.OPEN) {
+            runOpenLoop(start, measureFrom, end);
+        } else {
+            runClosedLoop(start, measureFrom, end);
+        }
+        return new LatencyReport(options, endpoints, options.duration());
+    }
+
+    private void runOpenLoop(long start, long measureFrom, long end) throws InterruptedException {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            sleepUntil(intended);
+            inFlight.acquire();
+            EndpointStats endpoint = nextEndpoint();
+            long sent = System.nanoTime();
+            client.sendAsync(request(endpoint), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        inFlight.release();
+                        if (intended >= measureFrom) {
+                            endpoint.record(intended, sent, done, error != null || !isSuccess(response));
+                        }
+                    });
+        }
+        // Esperar a las respuestas pendientes (como mucho el timeout de una petición)
+        if (inFlight.tryAcquire(options.maxInFlight(), options.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            inFlight.release(options.maxInFlight());
+        }
+    }
+
+    private void runClosedLoop(long start, long measureFrom, long end) throws InterruptedException {
+        long pacingNanos = options.rate() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) * options.concurrency() / options.rate())
+                : 0;
+        ExecutorService clients = Executors.newFixedThreadPool(options.concurrency());
+        for (int c = 0; c < options.concurrency(); c++) {
+            // Clientes desfasados para que no envíen todos en el mismo instante
+            long offset = pacingNanos * c / options.concurrency();
+            clients.execute(() -> closedLoopClient(start + offset, pacingNanos, measureFrom, end));
+        }
+        clients.shutdown();
+        clients.awaitTermination(end - System.nanoTime() + options.timeout().toNanos() * 2, TimeUnit.NANOSECONDS);
+    }
+
+    private void closedLoopClient(long firstSend, long pacingNanos, long measureFrom, long end) {
+        long next = firstSend;
+        while (true) {
+            long intended = pacingNanos > 0 ? next : System.nanoTime();
+            if (intended >= end) {
+                return;
+            }
+            sleepUntil(intended);
+            EndpointStats endpoint = nextEndpoint();
+            long sent = System.nanoTime();
+            boolean failed;
+            try {
+                failed = !isSuccess(client.send(request(endpoint), HttpResponse.BodyHandlers.discarding()));
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (intended >= measureFrom) {
+                endpoint.record(intended, sent, System.nanoTime(), failed);
+            }
+            next += pacingNanos;
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private EndpointStats nextEndpoint() {
+        return endpoints.get((int) (sequence.getAndIncrement() % endpoints.size()));
+    }
+
+    private HttpRequest request(EndpointStats endpoint) {
+        String path = endpoint.path()
+                .replace("{userId}", String.valueOf(randomOf(options.userIds())))
+                .replace("{pokemonId}", String.valueOf(randomOf(options.pokemonIds())));
+        String base = path.startsWith("/users") ? options.usersUrl() : options.pokemonUrl();
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(options.timeout())
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private static int randomOf(List<Integer> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
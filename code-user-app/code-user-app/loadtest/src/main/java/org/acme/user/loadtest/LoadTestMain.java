@@ -0,0 +1,61 @@
+package org.acme.user.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Punto de entrada: gradle :loadtest:run --args="--mode=open --rate=500 --duration=30s [--standin]"
+ *
+ * Opciones (todas --clave=valor): mode (open|closed), rate, concurrency, max-in-flight, warmup,
+ * duration, timeout, users-url, pokemon-url, paths (separadas por comas, con {userId}/{pokemonId}),
+ * user-ids, pokemon-ids, standin, service-time y hgrm (fichero con la distribución completa).
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        StandInServers standIns = null;
+        if (options.standIn()) {
+            standIns = StandInServers.start(options.serviceTime());
+            options = options.withUrls(standIns.usersUrl(), standIns.pokemonUrl());
+            System.out.println("🧪 Stand-ins en proceso: " + options.usersUrl() + " y " + options.pokemonUrl()
+                    + " (tiempo de servicio " + options.serviceTime().toMillis() + " ms)");
+        }
+
+        System.out.println("🚀 Carga en lazo " + options.mode().name().toLowerCase() + " sobre " + options.paths()
+                + ": calentamiento " + options.warmup().toSeconds() + " s, medición " + options.duration().toSeconds() + " s");
+        LatencyReport report;
+        try (LoadGenerator generator = new LoadGenerator(options)) {
+            report = generator.run();
+        } finally {
+            if (standIns != null) {
+                standIns.close();
+            }
+        }
+
+        report.print(System.out);
+        if (options.hgrmFile() != null) {
+            Path file = Path.of(options.hgrmFile());
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            try (PrintStream out = new PrintStream(file.toFile())) {
+                report.writeHgrm(out);
+            }
+            System.out.println("📁 Distribución corregida en " + file.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.acme.user.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parámetros de una prueba de carga, leídos de argumentos --clave=valor.
+ *
+ * @param mode Lazo abierto (tasa de llegada constante) o cerrado (N clientes concurrentes)
+ * @param rate Peticiones/s objetivo; en lazo cerrado es opcional (0 = sin ritmo, cada cliente envía en cuanto recibe)
+ * @param concurrency Clientes del lazo cerrado
+ * @param maxInFlight Máximo de peticiones pendientes en lazo abierto (el resto espera, y esa espera cuenta como latencia)
+ * @param warmup Tiempo inicial cuyas peticiones no se registran
+ * @param duration Tiempo de medición
+ * @param timeout Tiempo máximo de cada petición
+ * @param usersUrl URL base de user-app
+ * @param pokemonUrl URL base de pokemon-service
+ * @param paths Rutas a recorrer en turno rotatorio; admiten {userId} y {pokemonId}
+ * @param userIds IDs de usuario para {userId}
+ * @param pokemonIds IDs de Pokemon para {pokemonId}
+ * @param standIn Arrancar stand-ins en proceso en lugar de usar las URLs
+ * @param serviceTime Tiempo de servicio simulado por los stand-ins
+ * @param hgrmFile Fichero opcional con la distribución completa corregida (formato .hgrm de HdrHistogram)
+ */
+public record LoadTestOptions(Mode mode, double rate, int concurrency, int maxInFlight, Duration warmup,
+                              Duration duration, Duration timeout, String usersUrl, String pokemonUrl,
+                              List<String> paths, List<Integer> userIds, List<Integer> pokemonIds,
+                              boolean standIn, Duration serviceTime, String hgrmFile) {
+
+    public enum Mode { OPEN, CLOSED }
+
+    static final List<String> DEFAULT_PATHS = List.of(
+            "/users/{userId}", "/users/page?limit=20", "/users/pokemon/{pokemonId}",
+            "/pokemon/{pokemonId}", "/pokemon/list?type=fire", "/pokemon/page?limit=20");
+
+    private static final List<String> KNOWN_KEYS = List.of("mode", "rate", "concurrency", "max-in-flight", "warmup",
+            "duration", "timeout", "users-url", "pokemon-url", "paths", "user-ids", "pokemon-ids", "standin",
+            "service-time", "hgrm");
+
+    public LoadTestOptions {
+        if (mode == Mode.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("El lazo abierto necesita --rate > 0");
+        }
+        if (rate < 0 || concurrency <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("--rate, --concurrency y --max-in-flight deben ser positivos");
+        }
+        if (duration.isZero() || duration.isNegative() || warmup.isNegative()) {
+            throw new IllegalArgumentException("--duration debe ser positiva y --warmup no negativa");
+        }
+        for (String path : paths) {
+            if (!path.startsWith("/users") && !path.startsWith("/pokemon")) {
+                throw new IllegalArgumentException("Ruta no soportada (debe empezar por /users o /pokemon): " + path);
+            }
+        }
+        paths = List.copyOf(paths);
+        userIds = List.copyOf(userIds);
+        pokemonIds = List.copyOf(pokemonIds);
+    }
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Argumento no reconocido: " + arg);
+            }
+            String[] pair = arg.substring(2).split("=", 2);
+            values.put(pair[0], pair.length == 2 ? pair[1] : "true");
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                Mode.valueOf(values.getOrDefault("mode", "open").toUpperCase()),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "1024")),
+                parseDuration(values.getOrDefault("warmup", "5s")),
+                parseDuration(values.getOrDefault("duration", "30s")),
+                parseDuration(values.getOrDefault("timeout", "10s")),
+                values.getOrDefault("users-url", "http://localhost:8088"),
+                values.getOrDefault("pokemon-url", "http://localhost:8086"),
+                values.containsKey("paths") ? List.of(values.get("paths").split(",")) : DEFAULT_PATHS,
+                parseIds(values.getOrDefault("user-ids", "1,2,3")),
+                parseIds(values.getOrDefault("pokemon-ids", "1,4,7,25")),
+                Boolean.parseBoolean(values.getOrDefault("standin", "false")),
+                parseDuration(values.getOrDefault("service-time", "1ms")),
+                values.get("hgrm"));
+        values.keySet().removeAll(KNOWN_KEYS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Opciones desconocidas: " + values.keySet());
+        }
+        return options;
+    }
+
+    /**
+     * Acepta "500ms", "30s", "2m" o milisegundos sin unidad
+     */
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofMillis(Long.parseLong(text));
+    }
+
+    private static List<Integer> parseIds(String value) {
+        List<Integer> ids = new ArrayList<>();
+        Arrays.stream(value.split(",")).map(String::trim).filter(id -> !id.isEmpty())
+                .forEach(id -> ids.add(Integer.parseInt(id)));
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("La lista de IDs no puede estar vacía");
+        }
+        return ids;
+    }
+
+    /**
+     * Mismas opciones apuntando a otras URLs base (p. ej. las de los stand-ins)
+     */
+    LoadTestOptions withUrls(String usersUrl, String pokemonUrl) {
+        return new LoadTestOptions(mode, rate, concurrency, maxInFlight, warmup, duration, timeout, usersUrl,
+                pokemonUrl, paths, userIds, pokemonIds, standIn, serviceTime, hgrmFile);
+    }
+}
@@ -0,0 +1,128 @@
+package org.acme.user.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stand-ins en proceso de user-app y pokemon-service con las mismas rutas y formas de respuesta
+ * (JSON precalculado) y un tiempo de servicio simulado.
+ *
+ * Sirven para ejecutar la herramienta en un agente sin DAPR ni servicios levantados: validan el
+ * generador de carga y miden su propio techo. /users/pokemon/* simula el salto al pokemon-service
+ * con el doble de tiempo de servicio.
+ */
+final class StandInServers implements AutoCloseable {
+
+    private static final byte[] POKEMON = json("""
+            {"id":25,"name":"Pikachu","type":"Electric","level":25,"abilities":["Static","Lightning Rod"]}""");
+    private static final byte[] POKEMON_LIST = json("""
+            [{"id":4,"name":"Charmander","type":"Fire","level":15,"abilities":["Blaze","Solar Power"]},\
+            {"id":6,"name":"Charizard","type":"Fire/Flying","level":36,"abilities":["Blaze","Solar Power"]}]""");
+    private static final byte[] POKEMON_PAGE = json("""
+            {"items":[{"id":1,"name":"Bulbasaur","type":"Grass/Poison","level":5,"abilities":["Overgrow"]}],\
+            "nextCursor":null}""");
+    private static final byte[] USER = json("""
+            {"id":1,"name":"Ash Ketchum","email":"ash@pokemon.com"}""");
+    private static final byte[] USER_PAGE = json("""
+            {"items":[{"id":1,"name":"Ash Ketchum","email":"ash@pokemon.com"}],"nextCursor":null}""");
+
+    static {
+        // Sin TCP_NODELAY el HttpServer del JDK escribe cabeceras y cuerpo por separado y el ACK retardado
+        // de Linux añade ~40 ms por respuesta; se lee una sola vez, al cargar la configuración del servidor
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer users;
+    private final HttpServer pokemon;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long serviceTimeNanos;
+
+    private StandInServers(Duration serviceTime) throws IOException {
+        this.serviceTimeNanos = serviceTime.toNanos();
+        InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        this.users = HttpServer.create(loopback, 1024);
+        this.pokemon = HttpServer.create(loopback, 1024);
+        users.createContext("/users", this::handleUsers);
+        pokemon.createContext("/pokemon", this::handlePokemon);
+        users.setExecutor(executor);
+        pokemon.setExecutor(executor);
+        users.start();
+        pokemon.start();
+    }
+
+    static StandInServers start(Duration serviceTime) throws IOException {
+        return new StandInServers(serviceTime);
+    }
+
+    String usersUrl() {
+        return "http://" + users.getAddress().getHostString() + ":" + users.getAddress().getPort();
+    }
+
+    String pokemonUrl() {
+        return "http://" + pokemon.getAddress().getHostString() + ":" + pokemon.getAddress().getPort();
+    }
+
+    private void handleUsers(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.startsWith("/users/pokemon")) {
+            simulateWork(2);
+            respond(exchange, path.endsWith("/list") ? POKEMON_LIST : POKEMON);
+        } else if (path.equals("/users/page")) {
+            simulateWork(1);
+            respond(exchange, USER_PAGE);
+        } else {
+            simulateWork(1);
+            respond(exchange, USER);
+        }
+    }
+
+    private void handlePokemon(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        simulateWork(1);
+        if (path.equals("/pokemon/list") || path.equals("/pokemon/batch")) {
+            respond(exchange, POKEMON_LIST);
+        } else if (path.equals("/pokemon/page")) {
+            respond(exchange, POKEMON_PAGE);
+        } else {
+            respond(exchange, POKEMON);
+        }
+    }
+
+    private void simulateWork(int hops) {
+        if (serviceTimeNanos > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(serviceTimeNanos * hops));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        users.stop(0);
+        pokemon.stop(0);
+        executor.shutdownNow();
+    }
+}
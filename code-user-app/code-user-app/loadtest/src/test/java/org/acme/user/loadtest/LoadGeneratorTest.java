@@ -0,0 +1,76 @@
+package org.acme.user.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTest {
+
+    @Test
+    void openLoopSendsAtTheTargetRate() throws Exception {
+        try (StandInServers standIns = StandInServers.start(Duration.ZERO)) {
+            LoadTestOptions options = LoadTestOptions.parse("--mode=open", "--rate=200", "--warmup=0s",
+                    "--duration=2s").withUrls(standIns.usersUrl(), standIns.pokemonUrl());
+
+            LatencyReport report;
+            try (LoadGenerator generator = new LoadGenerator(options)) {
+                report = generator.run();
+            }
+
+            assertEquals(400, report.totalResponse().getTotalCount(), 5);
+            assertEquals(0, report.totalErrors());
+        }
+    }
+
+    @Test
+    void correctedLatencyIncludesTimeSpentWaitingToSend() throws Exception {
+        // 100 req/s planificadas, pero con una sola petición pendiente y 50 ms de servicio solo caben ~20 req/s:
+        // el envío se retrasa cada vez más respecto al plan y esa espera debe aparecer en la latencia corregida
+        try (StandInServers standIns = StandInServers.start(Duration.ofMillis(50))) {
+            LoadTestOptions options = LoadTestOptions.parse("--mode=open", "--rate=100", "--max-in-flight=1",
+                    "--warmup=0s", "--duration=1s", "--paths=/pokemon/{pokemonId}")
+                    .withUrls(standIns.usersUrl(), standIns.pokemonUrl());
+
+            LatencyReport report;
+            try (LoadGenerator generator = new LoadGenerator(options)) {
+                report = generator.run();
+            }
+
+            long uncorrectedP99 = report.totalService().getValueAtPercentile(99);
+            long correctedP99 = report.totalResponse().getValueAtPercentile(99);
+            assertTrue(uncorrectedP99 < 200_000, "sin corregir: " + uncorrectedP99 + " µs");
+            assertTrue(correctedP99 > 500_000, "corregida: " + correctedP99 + " µs");
+        }
+    }
+
+    @Test
+    void closedLoopWithoutRateRecordsEveryResponse() throws Exception {
+        try (StandInServers standIns = StandInServers.start(Duration.ofMillis(5))) {
+            LoadTestOptions options = LoadTestOptions.parse("--mode=closed", "--rate=0", "--concurrency=4",
+                    "--warmup=0s", "--duration=1s").withUrls(standIns.usersUrl(), standIns.pokemonUrl());
+
+            LatencyReport report;
+            try (LoadGenerator generator = new LoadGenerator(options)) {
+                report = generator.run();
+            }
+
+            // Sin plan no hay espera que corregir: ambas medidas registran las mismas respuestas
+            assertTrue(report.totalResponse().getTotalCount() > 20);
+            assertEquals(report.totalService().getTotalCount(), report.totalResponse().getTotalCount());
+        }
+    }
+
+    @Test
+    void parseRejectsUnknownOptionsAndPaths() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--rps=10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--paths=/orders/1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mode=open", "--rate=0"));
+        assertEquals(List.of("/users/1"), LoadTestOptions.parse("--paths=/users/1").paths());
+        assertEquals(Duration.ofMillis(250), LoadTestOptions.parseDuration("250ms"));
+    }
+}
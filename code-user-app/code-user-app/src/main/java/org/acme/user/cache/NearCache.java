@@ -0,0 +1,199 @@
+package org.acme.user.cache;
+
+import org.jboss.logging.Logger;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en proceso acotada por tamaño (LRU) con TTL por entrada y refresco anticipado.
+ *
+ * - Una entrada caduca {@code ttlNanos} después de escribirse.
+ * - Cuando una entrada supera {@code refreshAfterNanos} se sigue sirviendo el valor actual
+ *   y se lanza una recarga asíncrona en segundo plano (refresh-ahead).
+ * - Se usa un ReentrantLock en lugar de synchronized: nunca se hace I/O con el lock tomado.
+ */
+public class NearCache<K, V> {
+    
+    private static final Logger LOG = Logger.getLogger(NearCache.class);
+    
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final LongSupplier clock;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    
+    public NearCache(String name, int maxSize, long ttlNanos, long refreshAfterNanos, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser mayor a 0");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.refreshAfterNanos = Math.min(refreshAfterNanos, ttlNanos);
+        this.clock = clock;
+        // accessOrder=true: el orden de iteración va del menos al más recientemente usado
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+    
+    /**
+     * Devuelve el valor cacheado o lo carga con {@code loader} si no existe o ha caducado
+     * @param key Clave a buscar
+     * @param loader Carga asíncrona del valor en caso de fallo de caché
+     * @return Etapa que se completa con el valor
+     */
+    public CompletionStage<V> get(K key, Function<K, CompletionStage<V>> loader) {
+        long now = clock.getAsLong();
+        Entry<V> entry = lookup(key, now);
+        
+        if (entry == null) {
+            misses.increment();
+            return loader.apply(key).thenApply(value -> {
+                put(key, value);
+                return value;
+            });
+        }
+        
+        hits.increment();
+        if (now - entry.writtenAt >= refreshAfterNanos && entry.refreshing.compareAndSet(false, true)) {
+            refreshes.increment();
+            loader.apply(key).whenComplete((value, error) -> {
+                if (error == null) {
+                    put(key, value);
+                } else {
+                    LOG.warn("Refresco anticipado fallido en caché " + name + " para " + key + ": " + error.getMessage());
+                    entry.refreshing.set(false);
+                }
+            });
+        }
+        return CompletableFuture.completedFuture(entry.value);
+    }
+    
+    /**
+     * Devuelve el valor cacheado si existe y no ha caducado, sin cargarlo ni refrescarlo
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = lookup(key, clock.getAsLong());
+        return entry == null ? null : entry.value;
+    }
+    
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, clock.getAsLong());
+        lock.lock();
+        try {
+            entries.put(key, entry);
+            evictIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Sustituye el valor solo si la clave ya está cacheada: no añade entradas ni provoca desalojos
+     * @return true si la clave estaba y se actualizó
+     */
+    public boolean replace(K key, V value) {
+        Entry<V> entry = new Entry<>(value, clock.getAsLong());
+        lock.lock();
+        try {
+            return entries.replace(key, entry) != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public Stats stats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return new Stats(name, size, maxSize, hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), refreshes.sum());
+    }
+    
+    private Entry<V> lookup(K key, long now) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && now - entry.writtenAt >= ttlNanos) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+    
+    private static final class Entry<V> {
+        private final V value;
+        private final long writtenAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        
+        private Entry(V value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+    }
+    
+    /**
+     * Contadores de la caché expuestos en /users/pokemon/stats
+     */
+    public record Stats(String name, int size, int maxSize, long hits, long misses,
+                        long evictions, long expirations, long refreshes) {
+        
+        @JsonProperty("hitRatio")
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
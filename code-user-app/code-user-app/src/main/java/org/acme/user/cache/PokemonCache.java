@@ -0,0 +1,150 @@
+package org.acme.user.cache;
+
+import org.acme.user.client.PokemonClient;
+import org.acme.user.domain.Pokemon;
+import org.acme.user.metrics.Measured;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Caché cercana (near cache) delante de {@link PokemonClient} para las consultas de catálogo.
+ *
+ * Coherencia entre la lista y las entradas por ID:
+ * - La lista se cachea junto con un índice por ID construido una sola vez al cargarla.
+ * - Un fallo por ID se resuelve primero contra ese índice, sin salto de red.
+ * - Al cargar o refrescar la lista solo se actualizan las entradas por ID ya cacheadas: el catálogo
+ *   completo no desaloja el conjunto caliente de la LRU.
+ * - Un ID que no está en la lista se pide al pokemon-service sin invalidar la lista (un ID inexistente
+ *   no debe vaciar la caché); de su obsolescencia se encargan el TTL y el refresco anticipado.
+ */
+@ApplicationScoped
+@Measured("cache")
+public class PokemonCache {
+    
+    private static final Logger LOG = Logger.getLogger(PokemonCache.class);
+    private static final String ALL_POKEMONS_KEY = "all";
+    
+    @Inject
+    PokemonClient pokemonClient;
+    
+    @Inject
+    MeterRegistry registry;
+    
+    @ConfigProperty(name = "pokemon-client.cache.enabled", defaultValue = "true")
+    boolean enabled;
+    
+    @ConfigProperty(name = "pokemon-client.cache.max-size", defaultValue = "1000")
+    int maxSize;
+    
+    @ConfigProperty(name = "pokemon-client.cache.ttl", defaultValue = "60s")
+    Duration ttl;
+    
+    @ConfigProperty(name = "pokemon-client.cache.refresh-ahead", defaultValue = "0.8")
+    double refreshAhead;
+    
+    private NearCache<Integer, Pokemon> byId;
+    private NearCache<String, Catalog> allPokemons;
+    
+    @PostConstruct
+    void init() {
+        long ttlNanos = ttl.toNanos();
+        long refreshAfterNanos = (long) (ttlNanos * refreshAhead);
+        this.byId = new NearCache<>("pokemon-by-id", maxSize, ttlNanos, refreshAfterNanos, System::nanoTime);
+        this.allPokemons = new NearCache<>("pokemon-list", 1, ttlNanos, refreshAfterNanos, System::nanoTime);
+        bindMetrics(byId);
+        bindMetrics(allPokemons);
+        LOG.info("PokemonCache inicializada: enabled=" + enabled + ", maxSize=" + maxSize
+                + ", ttl=" + ttl + ", refreshAhead=" + refreshAhead);
+    }
+    
+    /**
+     * Obtiene un Pokemon por ID desde la caché o, si no está, desde el Pokemon Service
+     */
+    public CompletionStage<Pokemon> getPokemonById(int id) {
+        if (!enabled) {
+            return pokemonClient.getPokemonByIdAsync(id);
+        }
+        return byId.get(id, this::loadPokemonById);
+    }
+    
+    /**
+     * Obtiene la lista completa de Pokemons desde la caché o, si no está, desde el Pokemon Service
+     */
+    public CompletionStage<List<Pokemon>> getAllPokemons() {
+        if (!enabled) {
+            return pokemonClient.getAllPokemonsAsync();
+        }
+        return allPokemons.get(ALL_POKEMONS_KEY, key -> loadAllPokemons()).thenApply(Catalog::pokemons);
+    }
+    
+    public void invalidateAll() {
+        byId.invalidateAll();
+        allPokemons.invalidateAll();
+    }
+    
+    public List<NearCache.Stats> stats() {
+        return List.of(byId.stats(), allPokemons.stats());
+    }
+    
+    /**
+     * Publica los contadores de la caché en Micrometer (se leen en cada scrape, sin coste por petición)
+     */
+    private void bindMetrics(NearCache<?, ?> cache) {
+        Tags tags = Tags.of("cache", cache.stats().name());
+        Gauge.builder("pokemon.client.cache.size", cache, c -> c.stats().size()).tags(tags).register(registry);
+        FunctionCounter.builder("pokemon.client.cache.requests", cache, c -> c.stats().hits())
+                .tags(tags).tag("result", "hit").register(registry);
+        FunctionCounter.builder("pokemon.client.cache.requests", cache, c -> c.stats().misses())
+                .tags(tags).tag("result", "miss").register(registry);
+        FunctionCounter.builder("pokemon.client.cache.evictions", cache, c -> c.stats().evictions()).tags(tags).register(registry);
+        FunctionCounter.builder("pokemon.client.cache.expirations", cache, c -> c.stats().expirations()).tags(tags).register(registry);
+        FunctionCounter.builder("pokemon.client.cache.refreshes", cache, c -> c.stats().refreshes()).tags(tags).register(registry);
+    }
+    
+    private CompletionStage<Pokemon> loadPokemonById(int id) {
+        Catalog catalog = allPokemons.getIfPresent(ALL_POKEMONS_KEY);
+        Pokemon cached = catalog == null ? null : catalog.byId().get(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return pokemonClient.getPokemonByIdAsync(id);
+    }
+    
+    private CompletionStage<Catalog> loadAllPokemons() {
+        return pokemonClient.getAllPokemonsAsync().thenApply(pokemons -> {
+            Catalog catalog = Catalog.of(pokemons);
+            // Solo las entradas ya presentes: no se añade nada ni se desaloja el conjunto caliente
+            for (Pokemon pokemon : pokemons) {
+                byId.replace(pokemon.getId(), pokemon);
+            }
+            return catalog;
+        });
+    }
+    
+    /**
+     * Lista cacheada con su índice por ID (se construye una vez por carga)
+     */
+    private record Catalog(List<Pokemon> pokemons, Map<Integer, Pokemon> byId) {
+        
+        static Catalog of(List<Pokemon> pokemons) {
+            Map<Integer, Pokemon> index = new HashMap<>(pokemons.size() * 2);
+            for (Pokemon pokemon : pokemons) {
+                index.put(pokemon.getId(), pokemon);
+            }
+            return new Catalog(pokemons, Map.copyOf(index));
+        }
+    }
+}
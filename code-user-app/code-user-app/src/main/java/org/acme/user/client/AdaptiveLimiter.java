@@ -0,0 +1,142 @@
+package org.acme.user.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Límite de concurrencia que se adapta a la latencia observada (por gradiente, estilo TCP Vegas).
+ *
+ * Compara la latencia reciente (media corta) con la de referencia (media larga). Mientras la reciente
+ * no supere TOLERANCE veces la de referencia, el límite crece en √límite (el margen de cola que se
+ * admite). Si la supera, el servicio está encolando y el límite se multiplica por el gradiente
+ * (referencia × TOLERANCE / reciente, como poco 0,5). Un timeout lo reduce un 10 %.
+ *
+ * Con menos de la mitad del límite en uso no se ajusta: es la carga, no el servicio, la que limita.
+ */
+final class AdaptiveLimiter {
+
+    // Latencia reciente admitida respecto a la de referencia antes de reducir el límite
+    private static final double TOLERANCE = 1.5;
+    // Peso de cada nuevo cálculo en el límite
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double TIMEOUT_BACKOFF = 0.9;
+    // Muestras de las medias exponenciales corta y larga
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 500;
+    // Si la referencia dobla a la reciente (el servicio se recuperó), se acerca más deprisa
+    private static final double LONG_RTT_DRIFT = 2.0;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile double limit;
+    // Protegidos por lock (0 = sin muestras)
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * Permiso de una llamada: se libera exactamente una vez con su resultado
+     */
+    final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * La llamada respondió: su latencia ajusta el límite
+         */
+        void success() {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+
+        /**
+         * La llamada venció su plazo: señal de sobrecarga
+         */
+        void dropped() {
+            inFlight.decrementAndGet();
+            onDropped();
+        }
+
+        /**
+         * La llamada falló por otro motivo: no dice nada de la latencia del servicio
+         */
+        void ignore() {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Límites de concurrencia inválidos: inicial=" + initialLimit
+                    + ", mínimo=" + minLimit + ", máximo=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return Permiso, o null si ya hay tantas llamadas en curso como el límite (la llamada se rechaza)
+     */
+    Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    void onSample(long rttNanos, int inFlightAtStart) {
+        lock.lock();
+        try {
+            double rtt = Math.max(1, rttNanos);
+            shortRtt = shortRtt == 0 ? rtt : shortRtt + (rtt - shortRtt) / SHORT_WINDOW;
+            longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / LONG_WINDOW;
+            if (longRtt > shortRtt * LONG_RTT_DRIFT) {
+                longRtt *= 0.95;
+            }
+
+            double current = limit;
+            if (inFlightAtStart < current / 2) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+            double target = current * gradient + Math.sqrt(current);
+            limit = clamp(current * (1 - SMOOTHING) + target * SMOOTHING);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onDropped() {
+        lock.lock();
+        try {
+            limit = clamp(limit * TIMEOUT_BACKOFF);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,171 @@
+package org.acme.user.client;
+
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * GET condicionales (If-None-Match) al pokemon-service por la API HTTP del sidecar
+ * (GET /v1.0/invoke/{appId}/method/{método}).
+ *
+ * El SDK de DAPR 1.10 descarta las cabeceras de la respuesta y convierte cualquier estado no 2xx,
+ * también 304, en DaprException, así que aquí se habla HTTP directamente con el sidecar, que
+ * reenvía If-None-Match al pokemon-service y le devuelve su 304 tal cual.
+ *
+ * Con app-protocol grpc el sidecar llega al pokemon-service por AppCallback.OnInvoke, donde no
+ * existe el 304: "no modificado" llega como 2xx sin cuerpo con el mismo ETag que se envió, y se
+ * trata igual que un 304.
+ *
+ * Por cada ruta (método + query) se guarda el último ETag y el valor ya decodificado; con 304 se
+ * devuelve ese mismo objeto, sin bytes en la red ni decodificación. Los valores se comparten entre
+ * llamadas y no deben modificarse. Solo hay una entrada por ruta distinta (la lista completa y
+ * cada proyección de fields=).
+ */
+public final class ConditionalInvoker {
+
+    private static final Logger LOG = Logger.getLogger(ConditionalInvoker.class);
+
+    private final HttpClient httpClient;
+    private final String invokeBase;
+    private final Optional<String> apiToken;
+    private final ConcurrentHashMap<String, Tagged> lastResponses = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    /**
+     * Contadores de las peticiones condicionales
+     * @param requests Peticiones enviadas
+     * @param notModified Respondidas con 304 (servidas con la copia ya decodificada)
+     */
+    public record Stats(long requests, long notModified) {
+    }
+
+    private record Tagged(String etag, Object value) {
+    }
+
+    /**
+     * @param host IP o nombre del sidecar
+     * @param httpPort Puerto de la API HTTP del sidecar
+     * @param appId App-id destino
+     */
+    ConditionalInvoker(String host, int httpPort, String appId) {
+        this.invokeBase = "http://" + host + ":" + httpPort + "/v1.0/invoke/" + appId + "/method/";
+        // HTTP/1.1 como el SDK: el sidecar no negocia h2c y el intento de upgrade solo añade latencia
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.apiToken = DaprClientFactory.env("DAPR_API_TOKEN");
+    }
+
+    /**
+     * GET condicional de un método del app-id
+     * @param method Método invocado, p. ej. "pokemon/list"
+     * @param query Query string ya codificado, o null
+     * @param decoder Decodifica el cuerpo de una respuesta 2xx
+     * @return Etapa con el valor decodificado, o con el de la respuesta anterior si el servidor responde 304
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletionStage<T> get(String method, String query, PokemonClient.ResponseDecoder<T> decoder) {
+        String path = query == null || query.isEmpty() ? method : method + "?" + query;
+        Tagged previous = lastResponses.get(path);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(invokeBase + path)).GET();
+        if (previous != null) {
+            request.header("If-None-Match", previous.etag());
+        }
+        apiToken.ifPresent(token -> request.header("dapr-api-token", token));
+        requests.increment();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<byte[]>> sent = httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        // Cancelar la etapa (plazo vencido o intento perdedor del hedging) aborta la petición al sidecar
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                sent.cancel(true);
+            }
+        });
+        sent.whenComplete((response, error) -> {
+            if (result.isDone()) {
+                // Cancelada por el llamante: no hay a quién entregar la respuesta
+                return;
+            }
+            if (error != null) {
+                LOG.error("❌ ERROR EN COMUNICACIÓN CON EL SIDECAR DAPR (GET /" + path + "): " + error.getMessage());
+                result.completeExceptionally(
+                    new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR", error));
+                return;
+            }
+            if (previous != null && notModified(response, previous.etag())) {
+                notModified.increment();
+                LOG.debugf("♻️ /%s sin cambios (ETag %s): se reutiliza la copia ya decodificada", path, previous.etag());
+                result.complete((T) previous.value());
+                return;
+            }
+            if (response.statusCode() / 100 != 2) {
+                String body = new String(response.body(), StandardCharsets.UTF_8);
+                LOG.error("❌ ERROR EN COMUNICACIÓN DAPR CON POKEMON SERVICE (GET /" + path + "): HTTP "
+                        + response.statusCode() + " " + body);
+                result.completeExceptionally(new RuntimeException(
+                        "Error comunicándose con Pokemon Service a través de DAPR: HTTP " + response.statusCode() + " " + body));
+                return;
+            }
+            try {
+                T value = decoder.decode(response.body());
+                Optional<String> etag = response.headers().firstValue("ETag");
+                if (etag.isPresent()) {
+                    lastResponses.put(path, new Tagged(etag.get(), value));
+                } else {
+                    // El servidor ya no versiona esta ruta: no hay nada con lo que revalidar
+                    lastResponses.remove(path);
+                }
+                LOG.debugf("✅ GET /%s completado (ETag %s)", path, etag.orElse("-"));
+                result.complete(value);
+            } catch (IOException e) {
+                LOG.error("❌ ERROR DECODIFICANDO RESPUESTA DEL POKEMON SERVICE (GET /" + path + "): " + e.getMessage());
+                result.completeExceptionally(
+                    new RuntimeException("Error decodificando la respuesta del Pokemon Service", e));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return true si la respuesta es un 304 o su equivalente por el canal gRPC de la aplicación
+     *         (2xx sin cuerpo con el ETag enviado en If-None-Match)
+     */
+    private static boolean notModified(HttpResponse<byte[]> response, String sentETag) {
+        if (response.statusCode() == 304) {
+            return true;
+        }
+        return response.statusCode() / 100 == 2 && response.body().length == 0
+                && response.headers().firstValue("ETag").filter(sentETag::equals).isPresent();
+    }
+
+    /**
+     * @param value Valor devuelto por {@link #get}
+     * @return ETag con el que el servidor etiquetó ese mismo objeto, o null si no es la copia vigente de ninguna ruta
+     */
+    String entityTag(Object value) {
+        for (Tagged tagged : lastResponses.values()) {
+            if (tagged.value() == value) {
+                return tagged.etag();
+            }
+        }
+        return null;
+    }
+
+    Stats stats() {
+        return new Stats(requests.sum(), notModified.sum());
+    }
+}
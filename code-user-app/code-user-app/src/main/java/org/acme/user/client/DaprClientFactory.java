@@ -0,0 +1,120 @@
+package org.acme.user.client;
+
+import io.dapr.client.DaprClient;
+import io.dapr.client.DaprClientBuilder;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Construye el DaprClient apuntando a un sidecar concreto.
+ *
+ * El SDK 1.10 solo lee el destino de las propiedades de sistema (dapr.http.port, ...) o de
+ * las variables de entorno que fija "dapr run" (DAPR_HTTP_PORT, ...). Las propiedades se
+ * fijan mientras se construye el cliente y se restauran después, bajo un lock para que dos
+ * clientes construidos a la vez (p. ej. tests contra sidecars simulados) no se mezclen.
+ */
+final class DaprClientFactory {
+
+    private static final Logger LOG = Logger.getLogger(DaprClientFactory.class);
+    private static final ReentrantLock BUILD_LOCK = new ReentrantLock();
+
+    // Puertos del sidecar de user-app documentados en DAPR-ARCHITECTURE-DIAGRAM.md
+    static final int DEFAULT_HTTP_PORT = 3502;
+    static final int DEFAULT_GRPC_PORT = 50003;
+
+    private DaprClientFactory() {
+    }
+
+    /**
+     * API del sidecar por la que viaja invokeMethod. Enum propio: el DaprApiProtocol del SDK está
+     * obsoleto, y el SDK 1.10 sigue leyendo la elección de la propiedad dapr.api.methodInvocation.protocol
+     */
+    enum Protocol {
+        // /v1.0/invoke
+        HTTP,
+        // Dapr/InvokeService
+        GRPC
+    }
+
+    /**
+     * Sidecar al que se conecta user-app
+     * @param host IP o nombre del sidecar
+     * @param httpPort Puerto de la API HTTP del sidecar
+     * @param grpcPort Puerto de la API gRPC del sidecar
+     * @param invocationProtocol API usada por invokeMethod (HTTP: /v1.0/invoke, GRPC: Dapr/InvokeService)
+     */
+    record Sidecar(String host, int httpPort, int grpcPort, Protocol invocationProtocol) {
+
+        /**
+         * Sidecar según la configuración pokemon-client.dapr.*; lo no configurado se toma de las
+         * variables de entorno de "dapr run" y, en su defecto, de los puertos documentados
+         */
+        static Sidecar fromConfig() {
+            Config config = ConfigProvider.getConfig();
+            String host = config.getOptionalValue("pokemon-client.dapr.host", String.class)
+                    .orElse(env("DAPR_SIDECAR_IP").orElse("127.0.0.1"));
+            int httpPort = config.getOptionalValue("pokemon-client.dapr.http-port", Integer.class)
+                    .orElse(env("DAPR_HTTP_PORT").map(Integer::parseInt).orElse(DEFAULT_HTTP_PORT));
+            int grpcPort = config.getOptionalValue("pokemon-client.dapr.grpc-port", Integer.class)
+                    .orElse(env("DAPR_GRPC_PORT").map(Integer::parseInt).orElse(DEFAULT_GRPC_PORT));
+            Protocol protocol = parseProtocol(config.getOptionalValue("pokemon-client.dapr.invocation-protocol", String.class)
+                    .orElse(Protocol.HTTP.name()));
+            return new Sidecar(host, httpPort, grpcPort, protocol);
+        }
+    }
+
+    static DaprClient create(Sidecar sidecar) {
+        return create(sidecar.host(), sidecar.httpPort(), sidecar.grpcPort(), sidecar.invocationProtocol());
+    }
+
+    /**
+     * @param host IP o nombre del sidecar
+     * @param httpPort Puerto de la API HTTP del sidecar
+     * @param grpcPort Puerto de la API gRPC del sidecar
+     * @param invocationProtocol API usada por invokeMethod (HTTP: /v1.0/invoke, GRPC: Dapr/InvokeService)
+     */
+    static DaprClient create(String host, int httpPort, int grpcPort, Protocol invocationProtocol) {
+        LOG.info("🔧 DaprClient hacia el sidecar " + host + " (HTTP " + httpPort + ", gRPC " + grpcPort
+                + ", invocación por " + invocationProtocol + ")");
+        Map<String, String> overrides = Map.of(
+                "dapr.sidecar.ip", host,
+                "dapr.http.port", Integer.toString(httpPort),
+                "dapr.grpc.port", Integer.toString(grpcPort),
+                "dapr.api.methodInvocation.protocol", invocationProtocol.name());
+
+        BUILD_LOCK.lock();
+        Map<String, String> previous = new HashMap<>();
+        try {
+            overrides.forEach((key, value) -> previous.put(key, System.setProperty(key, value)));
+            return new DaprClientBuilder().build();
+        } finally {
+            previous.forEach((key, value) -> {
+                if (value == null) {
+                    System.clearProperty(key);
+                } else {
+                    System.setProperty(key, value);
+                }
+            });
+            BUILD_LOCK.unlock();
+        }
+    }
+
+    static Protocol parseProtocol(String value) {
+        try {
+            return Protocol.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Protocolo de invocación DAPR desconocido: " + value + " (HTTP o GRPC)");
+        }
+    }
+
+    static Optional<String> env(String name) {
+        return Optional.ofNullable(System.getenv(name)).filter(value -> !value.isBlank());
+    }
+}
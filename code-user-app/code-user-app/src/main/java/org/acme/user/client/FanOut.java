@@ -0,0 +1,161 @@
+package org.acme.user.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Resuelve varias claves en paralelo (fan-out) con un máximo de consultas en curso y un plazo
+ * global. La respuesta tarda lo que la consulta más lenta, no la suma, y nunca más que el plazo:
+ * al vencer se devuelve lo que haya, con las claves pendientes (o sin empezar) como TIMEOUT.
+ *
+ * Una consulta vencida sigue su curso; su resultado se descarta. El plazo se cancela en cuanto
+ * se resuelven todas las claves, así no queda una tarea por fan-out esperando a vencer.
+ */
+public final class FanOut {
+
+    // Plazos de todos los fan-out: un hilo daemon propio, no el planificador compartido del JDK
+    private static final ScheduledThreadPoolExecutor DEADLINES = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "fan-out-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // Casi todos los plazos se cancelan antes de vencer: que no se queden en la cola
+        DEADLINES.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Resultado de una clave
+     */
+    public enum Status {
+        OK, ERROR, TIMEOUT
+    }
+
+    /**
+     * @param key Clave consultada
+     * @param status Estado de la consulta
+     * @param value Valor obtenido (solo con OK)
+     * @param error Motivo del fallo (solo con ERROR)
+     */
+    public record Outcome<K, V>(K key, Status status, V value, String error) {
+    }
+
+    private FanOut() {
+    }
+
+    /**
+     * @param keys Claves a resolver; los resultados se devuelven en el mismo orden
+     * @param lookup Consulta de una clave (asíncrona)
+     * @param parallelism Máximo de consultas en curso a la vez
+     * @param deadline Plazo para todas las consultas, contado desde la llamada
+     * @return Etapa que se completa, como tarde al vencer el plazo, con un resultado por clave (nunca falla)
+     */
+    public static <K, V> CompletionStage<List<Outcome<K, V>>> resolve(List<K> keys, Function<K, CompletionStage<V>> lookup,
+                                                                     int parallelism, Duration deadline) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor que 0: " + parallelism);
+        }
+        return new Run<>(List.copyOf(keys), lookup, deadline).start(parallelism);
+    }
+
+    /**
+     * @return Plazos programados que aún no han vencido ni se han cancelado
+     */
+    static int pendingDeadlines() {
+        return DEADLINES.getQueue().size();
+    }
+
+    private static final class Run<K, V> {
+
+        private final List<K> keys;
+        private final Function<K, CompletionStage<V>> lookup;
+        private final Duration deadline;
+        private final AtomicReferenceArray<Outcome<K, V>> outcomes;
+        // Siguiente clave por lanzar
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger pending;
+        private final CompletableFuture<List<Outcome<K, V>>> result = new CompletableFuture<>();
+        private volatile boolean expired;
+
+        Run(List<K> keys, Function<K, CompletionStage<V>> lookup, Duration deadline) {
+            this.keys = keys;
+            this.lookup = lookup;
+            this.deadline = deadline;
+            this.outcomes = new AtomicReferenceArray<>(keys.size());
+            this.pending = new AtomicInteger(keys.size());
+        }
+
+        CompletionStage<List<Outcome<K, V>>> start(int parallelism) {
+            if (keys.isEmpty()) {
+                return CompletableFuture.completedFuture(List.of());
+            }
+            ScheduledFuture<?> timer = DEADLINES.schedule(this::expire, deadline.toNanos(), TimeUnit.NANOSECONDS);
+            result.whenComplete((outcomes, error) -> timer.cancel(false));
+            for (int i = 0; i < Math.min(parallelism, keys.size()); i++) {
+                launchNext();
+            }
+            return result;
+        }
+
+        /**
+         * Lanza la siguiente clave; al terminar cada consulta se lanza otra, así nunca hay más de parallelism en curso
+         */
+        private void launchNext() {
+            int index = next.getAndIncrement();
+            if (index >= keys.size() || expired) {
+                return;
+            }
+            K key = keys.get(index);
+            CompletionStage<V> stage;
+            try {
+                stage = lookup.apply(key);
+            } catch (RuntimeException e) {
+                settle(index, new Outcome<>(key, Status.ERROR, null, message(e)));
+                launchNext();
+                return;
+            }
+            stage.whenComplete((value, error) -> {
+                settle(index, error == null
+                        ? new Outcome<>(key, Status.OK, value, null)
+                        : new Outcome<>(key, Status.ERROR, null, message(error)));
+                launchNext();
+            });
+        }
+
+        private void expire() {
+            expired = true;
+            for (int i = 0; i < keys.size(); i++) {
+                settle(i, new Outcome<>(keys.get(i), Status.TIMEOUT, null, null));
+            }
+        }
+
+        /**
+         * Fija el resultado de una clave si aún no lo tenía (el primero gana: consulta o plazo)
+         */
+        private void settle(int index, Outcome<K, V> outcome) {
+            if (outcomes.compareAndSet(index, null, outcome) && pending.decrementAndGet() == 0) {
+                List<Outcome<K, V>> all = new ArrayList<>(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    all.add(outcomes.get(i));
+                }
+                result.complete(List.copyOf(all));
+            }
+        }
+
+        private static String message(Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        }
+    }
+}
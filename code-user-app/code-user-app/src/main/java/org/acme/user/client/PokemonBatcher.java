@@ -0,0 +1,197 @@
+package org.acme.user.client;
+
+import org.acme.user.domain.Pokemon;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Agrupa llamadas individuales de getPokemonById en una sola consulta batch (estilo DataLoader).
+ *
+ * Los IDs se acumulan hasta que se cumple la ventana de tiempo o se alcanza el tamaño máximo;
+ * entonces se lanza una única invocación a /pokemon/batch y se reparte el resultado.
+ * Al cerrar se envía lo que quede pendiente; las cargas posteriores fallan sin encolarse.
+ */
+public class PokemonBatcher implements AutoCloseable {
+    
+    private static final Logger LOG = Logger.getLogger(PokemonBatcher.class);
+    
+    private final Function<List<Integer>, CompletionStage<List<Pokemon>>> batchLoader;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ScheduledExecutorService scheduler;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Integer, CompletableFuture<Pokemon>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+    
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    
+    public PokemonBatcher(Function<List<Integer>, CompletionStage<List<Pokemon>>> batchLoader,
+                          int maxBatchSize, Duration window) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo del batch debe ser mayor a 0");
+        }
+        this.batchLoader = batchLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pokemon-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Encola la carga de un Pokemon; se resolverá con el siguiente batch
+     * @param id ID del Pokemon
+     * @return Etapa que se completa con el Pokemon, o con error si no existe o el batcher está cerrado
+     */
+    public CompletionStage<Pokemon> load(int id) {
+        CompletableFuture<Pokemon> result;
+        Map<Integer, CompletableFuture<Pokemon>> fullBatch = null;
+        
+        lock.lock();
+        try {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("PokemonBatcher cerrado"));
+            }
+            requests.increment();
+            CompletableFuture<Pokemon> alreadyPending = pending.get(id);
+            if (alreadyPending != null) {
+                return alreadyPending.copy();
+            }
+            result = new CompletableFuture<>();
+            pending.put(id, result);
+            
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (pending.size() == 1) {
+                try {
+                    scheduledFlush = scheduler.schedule(this::flushWindow, windowNanos, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Sin planificador no hay ventana: se envía ya para no dejar el ID pendiente
+                    fullBatch = takePending();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        
+        // La invocación se lanza fuera del lock
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return result;
+    }
+    
+    public Stats stats() {
+        return new Stats(requests.sum(), batches.sum());
+    }
+    
+    /**
+     * Rechaza nuevas cargas y envía las pendientes sin esperar a la ventana
+     */
+    @Override
+    public void close() {
+        Map<Integer, CompletableFuture<Pokemon>> remaining;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            remaining = takePending();
+        } finally {
+            lock.unlock();
+        }
+        scheduler.shutdownNow();
+        if (!remaining.isEmpty()) {
+            dispatch(remaining);
+        }
+    }
+    
+    private void flushWindow() {
+        Map<Integer, CompletableFuture<Pokemon>> batch;
+        lock.lock();
+        try {
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+    
+    private Map<Integer, CompletableFuture<Pokemon>> takePending() {
+        Map<Integer, CompletableFuture<Pokemon>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+    
+    private void dispatch(Map<Integer, CompletableFuture<Pokemon>> batch) {
+        batches.increment();
+        LOG.debugf("Enviando batch de %s IDs al Pokemon Service", batch.size());
+        
+        CompletionStage<List<Pokemon>> response;
+        try {
+            response = batchLoader.apply(new ArrayList<>(batch.keySet()));
+        } catch (RuntimeException e) {
+            batch.values().forEach(waiter -> waiter.completeExceptionally(e));
+            return;
+        }
+        
+        response.whenComplete((pokemons, error) -> {
+            if (error != null) {
+                batch.values().forEach(waiter -> waiter.completeExceptionally(error));
+                return;
+            }
+            Map<Integer, Pokemon> byId = new HashMap<>();
+            for (Pokemon pokemon : pokemons) {
+                byId.put(pokemon.getId(), pokemon);
+            }
+            batch.forEach((id, waiter) -> {
+                Pokemon pokemon = byId.get(id);
+                if (pokemon != null) {
+                    waiter.complete(pokemon);
+                } else {
+                    waiter.completeExceptionally(new RuntimeException("Pokemon with ID " + id + " not found"));
+                }
+            });
+        });
+    }
+    
+    /**
+     * Contadores de batching expuestos en /users/pokemon/stats
+     */
+    public record Stats(long requests, long batches) {
+        
+        @JsonProperty("averageBatchSize")
+        public double averageBatchSize() {
+            return batches == 0 ? 0.0 : (double) requests / batches;
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package org.acme.user.client;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
+import org.acme.user.metrics.Measured;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 // DAPR Imports
 import io.dapr.client.DaprClient;
-import io.dapr.client.DaprClientBuilder;
+import io.dapr.client.DaprHttp;
 import io.dapr.client.domain.HttpExtension;
 import io.dapr.client.domain.Metadata;
 
@@ -18,428 +36,434 @@ import java.util.HashMap;
 import java.util.Map;
 
 @ApplicationScoped
+@Measured("client")
 public class PokemonClient {
     
     private static final Logger LOG = Logger.getLogger(PokemonClient.class);
     private final DaprClient daprClient;
     private final ObjectMapper objectMapper;
+    private final PokemonResponseDecoder decoder;
+    // GET condicionales de /pokemon/list por la API HTTP del sidecar (null con invocación gRPC o en tests)
+    private final ConditionalInvoker conditional;
+    // Agrupación de peticiones concurrentes idénticas, clave = endpoint (+ id)
+    private final SingleFlight<Integer, org.acme.user.domain.Pokemon> pokemonByIdFlights = new SingleFlight<>();
+    private final SingleFlight<String, List<org.acme.user.domain.Pokemon>> pokemonListFlights = new SingleFlight<>();
+    
+    // Batching de getPokemonById hacia /pokemon/batch
+    @ConfigProperty(name = "pokemon-client.batch.enabled", defaultValue = "true")
+    boolean batchEnabled;
+    
+    @ConfigProperty(name = "pokemon-client.batch.window", defaultValue = "5ms")
+    Duration batchWindow;
+    
+    @ConfigProperty(name = "pokemon-client.batch.max-size", defaultValue = "50")
+    int batchMaxSize;
+    
+    private PokemonBatcher batcher;
+    
+    // If-None-Match en /pokemon/list: con 304 se reutiliza la última lista decodificada
+    @ConfigProperty(name = "pokemon-client.conditional.enabled", defaultValue = "true")
+    boolean conditionalEnabled;
+    
+    // Límite de concurrencia adaptativo, plazo por llamada y hedging (ResilientInvoker)
+    @ConfigProperty(name = "pokemon-client.timeout", defaultValue = "2s")
+    Duration callTimeout;
+    
+    @ConfigProperty(name = "pokemon-client.limiter.initial-limit", defaultValue = "20")
+    int initialLimit;
+    
+    @ConfigProperty(name = "pokemon-client.limiter.min-limit", defaultValue = "2")
+    int minLimit;
+    
+    @ConfigProperty(name = "pokemon-client.limiter.max-limit", defaultValue = "200")
+    int maxLimit;
+    
+    @ConfigProperty(name = "pokemon-client.hedging.enabled", defaultValue = "false")
+    boolean hedgingEnabled;
+    
+    @ConfigProperty(name = "pokemon-client.hedging.min-delay", defaultValue = "5ms")
+    Duration hedgingMinDelay;
+    
+    @ConfigProperty(name = "pokemon-client.hedging.budget", defaultValue = "0.1")
+    double hedgingBudget;
+    
+    // null = llamadas sin proteger (tests y benchmarks que no pasan por init)
+    private ResilientInvoker invoker;
+    
+    // Camino protobuf/gRPC nativo (proxy gRPC de DAPR)
+    @Inject
+    PokemonGrpcClient grpcClient;
+    
+    @Inject
+    MeterRegistry registry;
     
     // DAPR Configuration
     private static final String POKEMON_SERVICE_APP_ID = "pokemon-service";
-    private static final String DAPR_HTTP_PORT = "3502"; // Puerto DAPR del User-App Service
     
     static {
         LOG.info("=== INICIALIZACIÓN: PokemonClient class ===");
         LOG.info("PokemonClient cargado en memoria");
         LOG.info("DAPR Pokemon Service App ID: " + POKEMON_SERVICE_APP_ID);
-        LOG.info("DAPR HTTP Port: " + DAPR_HTTP_PORT);
         LOG.info("=== FIN INICIALIZACIÓN: PokemonClient ===");
     }
     
     public PokemonClient() {
-        LOG.info("=== CONSTRUCTOR: PokemonClient ===");
-        
-        LOG.info("🔧 PASO 1: Configurando puerto DAPR...");
-        LOG.info("   - Puerto configurado: " + DAPR_HTTP_PORT);
-        LOG.info("   - Configurando variable de entorno DAPR_HTTP_PORT");
-        System.setProperty("DAPR_HTTP_PORT", DAPR_HTTP_PORT);
-        
-        LOG.info("🔧 PASO 2: Creando DaprClient...");
-        LOG.info("   - DAPR creará un cliente HTTP que se conectará al sidecar DAPR");
-        LOG.info("   - El sidecar DAPR manejará la comunicación con otros servicios");
-        this.daprClient = new DaprClientBuilder().build();
-        LOG.info("✅ DaprClient creado exitosamente");
-        
-        LOG.info("🔧 PASO 2: Creando ObjectMapper...");
-        LOG.info("   - ObjectMapper se usará para serializar/deserializar JSON");
+        this(DaprClientFactory.Sidecar.fromConfig());
+    }
+    
+    private PokemonClient(DaprClientFactory.Sidecar sidecar) {
+        // Con invocación gRPC no se mezcla transporte: las listas siguen por el SDK, sin revalidación
+        this(createDaprClient(sidecar), sidecar.invocationProtocol() == DaprClientFactory.Protocol.HTTP
+                ? new ConditionalInvoker(sidecar.host(), sidecar.httpPort(), POKEMON_SERVICE_APP_ID)
+                : null);
+    }
+    
+    /**
+     * Permite inyectar un DaprClient ya construido (tests y benchmarks sin sidecar)
+     * @param daprClient Cliente DAPR a utilizar
+     */
+    PokemonClient(DaprClient daprClient) {
+        this(daprClient, null);
+    }
+    
+    /**
+     * @param daprClient Cliente DAPR a utilizar
+     * @param conditional GET condicionales de /pokemon/list, o null para pedir siempre la lista completa
+     */
+    PokemonClient(DaprClient daprClient, ConditionalInvoker conditional) {
+        this.daprClient = daprClient;
+        this.conditional = conditional;
         this.objectMapper = new ObjectMapper();
-        LOG.info("✅ ObjectMapper creado exitosamente");
-        
-        LOG.info("🎯 CONFIGURACIÓN DAPR:");
-        LOG.info("   - Service Discovery: DAPR encontrará automáticamente el pokemon-service");
-        LOG.info("   - Load Balancing: DAPR distribuirá requests si hay múltiples instancias");
-        LOG.info("   - Resiliencia: DAPR manejará retries y circuit breakers automáticamente");
-        LOG.info("   - Observabilidad: DAPR añadirá tracing automático");
-        
-        LOG.info("✅ PokemonClient inicializado correctamente con DAPR");
-        LOG.info("=== FIN CONSTRUCTOR: PokemonClient ===");
+        // Lectores JSON pre-construidos para Pokemon y List<Pokemon>
+        this.decoder = new PokemonResponseDecoder(objectMapper);
+        LOG.debugf("PokemonClient creado: app-id=%s, GET condicionales=%s", POKEMON_SERVICE_APP_ID, conditional != null);
+    }
+    
+    @PostConstruct
+    void init() {
+        protectWith(new ResilientInvoker(new ResilientInvoker.Options(callTimeout, initialLimit, minLimit, maxLimit,
+            hedgingEnabled, hedgingMinDelay, hedgingBudget)));
+        LOG.info("✅ Llamadas al Pokemon Service protegidas: plazo=" + callTimeout + ", límite adaptativo=" + initialLimit
+            + " [" + minLimit + ", " + maxLimit + "], hedging=" + (hedgingEnabled ? "p95 (mínimo " + hedgingMinDelay + ")" : "no"));
+        Gauge.builder("pokemon.client.limiter.limit", invoker, i -> i.stats().limit()).register(registry);
+        Gauge.builder("pokemon.client.limiter.in.flight", invoker, i -> i.stats().inFlight()).register(registry);
+        FunctionCounter.builder("pokemon.client.limiter.rejections", invoker, i -> i.stats().rejections())
+            .register(registry);
+        FunctionCounter.builder("pokemon.client.timeouts", invoker, i -> i.stats().timeouts()).register(registry);
+        FunctionCounter.builder("pokemon.client.hedging.hedges", invoker, i -> i.stats().hedges()).register(registry);
+        FunctionCounter.builder("pokemon.client.hedging.wins", invoker, i -> i.stats().hedgeWins()).register(registry);
+        Gauge.builder("pokemon.client.hedging.win.rate", invoker, i -> i.stats().hedgeWinRate()).register(registry);
+        if (batchEnabled) {
+            this.batcher = new PokemonBatcher(this::getPokemonsByIdsAsync, batchMaxSize, batchWindow);
+            LOG.info("✅ Batching de getPokemonById habilitado: ventana=" + batchWindow + ", tamaño máximo=" + batchMaxSize);
+            FunctionCounter.builder("pokemon.client.batching.requests", batcher, b -> b.stats().requests())
+                .register(registry);
+            FunctionCounter.builder("pokemon.client.batching.batches", batcher, b -> b.stats().batches())
+                .register(registry);
+        }
+        bindMetrics("by-id", pokemonByIdFlights);
+        bindMetrics("list", pokemonListFlights);
+        if (conditional != null && conditionalEnabled) {
+            LOG.info("✅ GET condicionales (If-None-Match) habilitados en /pokemon/list");
+            FunctionCounter.builder("pokemon.client.conditional.requests", conditional, c -> c.stats().requests())
+                .register(registry);
+            FunctionCounter.builder("pokemon.client.conditional.not.modified", conditional, c -> c.stats().notModified())
+                .register(registry);
+        }
+    }
+    
+    /**
+     * Publica los contadores de agrupación en Micrometer (se leen en cada scrape)
+     */
+    private void bindMetrics(String flights, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("pokemon.client.coalescing.calls", singleFlight, f -> f.stats().calls())
+            .tag("flights", flights).register(registry);
+        FunctionCounter.builder("pokemon.client.coalescing.executions", singleFlight, f -> f.stats().executions())
+            .tag("flights", flights).register(registry);
+        Gauge.builder("pokemon.client.coalescing.in.flight", singleFlight, f -> f.stats().inFlight())
+            .tag("flights", flights).register(registry);
+    }
+    
+    /**
+     * Pasa todas las llamadas al pokemon-service por el invocador (límite, plazo y hedging)
+     * @return El invocador anterior (null si no había)
+     */
+    ResilientInvoker protectWith(ResilientInvoker invoker) {
+        ResilientInvoker previous = this.invoker;
+        this.invoker = invoker;
+        return previous;
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        if (invoker != null) {
+            invoker.close();
+        }
+    }
+    
+    private static DaprClient createDaprClient(DaprClientFactory.Sidecar sidecar) {
+        DaprClient daprClient = DaprClientFactory.create(sidecar);
+        LOG.info("✅ DaprClient creado para " + POKEMON_SERVICE_APP_ID + " (invocación " + sidecar.invocationProtocol() + ")");
+        return daprClient;
     }
     
     public org.acme.user.domain.Pokemon getRandomPokemon() {
-        LOG.info("=== MÉTODO LLAMADO: getRandomPokemon() ===");
-        LOG.info("🚀 INICIANDO COMUNICACIÓN DAPR CON POKEMON SERVICE");
-        LOG.info("   Objetivo: Obtener un Pokemon aleatorio usando DAPR Service Invocation");
-        
+        LOG.debug("=== MÉTODO LLAMADO: getRandomPokemon() ===");
         try {
-            LOG.info("🔧 PASO 1: Preparando DAPR Service Invocation...");
-            LOG.info("   - App ID destino: " + POKEMON_SERVICE_APP_ID);
-            LOG.info("   - Método HTTP: GET");
-            LOG.info("   - Endpoint: /pokemon/random");
-            LOG.info("   - DAPR manejará automáticamente:");
-            LOG.info("     * Service Discovery (encontrar el servicio)");
-            LOG.info("     * Load Balancing (si hay múltiples instancias)");
-            LOG.info("     * Retry Logic (reintentos automáticos)");
-            LOG.info("     * Circuit Breaker (protección contra fallos)");
-            
-            LOG.info("🔧 PASO 2: Preparando llamada DAPR...");
-            LOG.info("   - DAPR creará un request que será enviado al sidecar DAPR");
-            LOG.info("   - El sidecar DAPR se encargará de la comunicación real");
-            
-            LOG.info("🔧 PASO 3: Enviando request a través de DAPR...");
-            LOG.info("   - DaprClient enviará el request al sidecar DAPR local");
-            LOG.info("   - Sidecar DAPR buscará el pokemon-service usando service discovery");
-            LOG.info("   - Sidecar DAPR enviará el request HTTP al pokemon-service");
-            LOG.info("   - Sidecar DAPR recibirá la respuesta y la devolverá");
-            
-            long startTime = System.currentTimeMillis();
-            
-            // Usar el método correcto de DAPR para objetos JSON
-            LOG.info("🔧 PASO 4: Usando DAPR con Object.class y cast...");
-            Object response = daprClient.invokeMethod(
-                POKEMON_SERVICE_APP_ID, 
-                "pokemon/random", 
-                null, 
-                HttpExtension.GET, 
-                Object.class
-            ).block();
-            
-            LOG.info("🔧 PASO 5: Deserializando respuesta usando ObjectMapper...");
-            String jsonResponse = objectMapper.writeValueAsString(response);
-            org.acme.user.domain.Pokemon pokemon = objectMapper.readValue(
-                jsonResponse, 
-                org.acme.user.domain.Pokemon.class
-            );
-            
-            long endTime = System.currentTimeMillis();
-            
-            LOG.info("✅ RESPUESTA RECIBIDA DEL POKEMON SERVICE");
-            LOG.info("   - Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("   - Pokemon obtenido: " + pokemon.getName());
-            LOG.info("✅ Pokemon deserializado: " + pokemon.getName());
-            
-            LOG.info("🎉 COMUNICACIÓN DAPR EXITOSA");
-            LOG.info("   - Pokemon obtenido: " + pokemon.getName());
-            LOG.info("   - ID: " + pokemon.getId());
-            LOG.info("   - Tipo: " + pokemon.getType());
-            LOG.info("   - Nivel: " + pokemon.getLevel());
-            LOG.info("   - Habilidades: " + pokemon.getAbilities());
-            
-            LOG.info("=== FIN MÉTODO: getRandomPokemon() ===");
+            // Bytes crudos de la respuesta, decodificados en una sola pasada
+            byte[] response = invoke("pokemon/random", HttpExtension.GET, byte[].class).toCompletableFuture().join();
+            org.acme.user.domain.Pokemon pokemon = decoder.decodePokemon(response);
+            LOG.debugf("Pokemon aleatorio obtenido: %s (ID: %s)", pokemon.getName(), pokemon.getId());
             return pokemon;
-            
         } catch (Exception e) {
-            LOG.error("❌ ERROR EN COMUNICACIÓN DAPR CON POKEMON SERVICE");
-            LOG.error("   - Error: " + e.getMessage());
-            LOG.error("   - Stack trace: ", e);
-            LOG.error("   - DAPR no pudo comunicarse con el pokemon-service");
-            LOG.error("   - Posibles causas:");
-            LOG.error("     * pokemon-service no está ejecutándose");
-            LOG.error("     * DAPR sidecar no está configurado correctamente");
-            LOG.error("     * Problemas de red entre servicios");
-            
-            throw new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR", e);
+            throw communicationError("getRandomPokemon()", e);
         }
     }
     
     public org.acme.user.domain.Pokemon getPokemonById(int id) {
-        LOG.info("=== MÉTODO LLAMADO: getPokemonById(id=" + id + ") ===");
-        LOG.info("🚀 INICIANDO COMUNICACIÓN DAPR CON POKEMON SERVICE");
-        LOG.info("   Objetivo: Obtener Pokemon con ID " + id + " usando DAPR Service Invocation");
-        
+        LOG.debugf("=== MÉTODO LLAMADO: getPokemonById(id=%s) ===", id);
         try {
-            LOG.info("🔧 PASO 1: Preparando DAPR Service Invocation...");
-            LOG.info("   - App ID destino: " + POKEMON_SERVICE_APP_ID);
-            LOG.info("   - Método HTTP: GET");
-            LOG.info("   - Endpoint: /pokemon/" + id);
-            LOG.info("   - DAPR manejará automáticamente:");
-            LOG.info("     * Service Discovery (encontrar el servicio)");
-            LOG.info("     * Load Balancing (si hay múltiples instancias)");
-            LOG.info("     * Retry Logic (reintentos automáticos)");
-            LOG.info("     * Circuit Breaker (protección contra fallos)");
-            
-            LOG.info("🔧 PASO 2: Preparando llamada DAPR...");
-            LOG.info("   - DAPR creará un request que será enviado al sidecar DAPR");
-            LOG.info("   - El sidecar DAPR se encargará de la comunicación real");
-            
-            LOG.info("🔧 PASO 3: Enviando request a través de DAPR...");
-            LOG.info("   - DaprClient enviará el request al sidecar DAPR local");
-            LOG.info("   - Sidecar DAPR buscará el pokemon-service usando service discovery");
-            LOG.info("   - Sidecar DAPR enviará el request HTTP al pokemon-service");
-            LOG.info("   - Sidecar DAPR recibirá la respuesta y la devolverá");
-            
-            long startTime = System.currentTimeMillis();
-            
-            // Usar el método correcto de DAPR para objetos JSON
-            LOG.info("🔧 PASO 4: Usando DAPR con Object.class y cast...");
-            Object response = daprClient.invokeMethod(
-                POKEMON_SERVICE_APP_ID, 
-                "pokemon/" + id, 
-                null, 
-                HttpExtension.GET, 
-                Object.class
-            ).block();
-            
-            LOG.info("🔧 PASO 5: Deserializando respuesta usando ObjectMapper...");
-            String jsonResponse = objectMapper.writeValueAsString(response);
-            org.acme.user.domain.Pokemon pokemon = objectMapper.readValue(
-                jsonResponse, 
-                org.acme.user.domain.Pokemon.class
-            );
-            
-            long endTime = System.currentTimeMillis();
-            
-            LOG.info("✅ RESPUESTA RECIBIDA DEL POKEMON SERVICE");
-            LOG.info("   - Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("   - Pokemon obtenido: " + pokemon.getName());
-            LOG.info("✅ Pokemon deserializado: " + pokemon.getName());
-            
-            LOG.info("🎉 COMUNICACIÓN DAPR EXITOSA");
-            LOG.info("   - Pokemon obtenido: " + pokemon.getName());
-            LOG.info("   - ID: " + pokemon.getId());
-            LOG.info("   - Tipo: " + pokemon.getType());
-            LOG.info("   - Nivel: " + pokemon.getLevel());
-            LOG.info("   - Habilidades: " + pokemon.getAbilities());
-            
-            LOG.info("=== FIN MÉTODO: getPokemonById(id=" + id + ") ===");
+            byte[] response = invoke("pokemon/" + id, HttpExtension.GET, byte[].class).toCompletableFuture().join();
+            org.acme.user.domain.Pokemon pokemon = decoder.decodePokemon(response);
+            LOG.debugf("Pokemon obtenido: %s (ID: %s)", pokemon.getName(), id);
             return pokemon;
-            
         } catch (Exception e) {
-            LOG.error("❌ ERROR EN COMUNICACIÓN DAPR CON POKEMON SERVICE");
-            LOG.error("   - Error: " + e.getMessage());
-            LOG.error("   - Stack trace: ", e);
-            LOG.error("   - DAPR no pudo comunicarse con el pokemon-service");
-            LOG.error("   - Posibles causas:");
-            LOG.error("     * pokemon-service no está ejecutándose");
-            LOG.error("     * DAPR sidecar no está configurado correctamente");
-            LOG.error("     * Problemas de red entre servicios");
-            
-            throw new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR", e);
+            throw communicationError("getPokemonById(id=" + id + ")", e);
         }
     }
     
     public List<org.acme.user.domain.Pokemon> getAllPokemons() {
-        LOG.info("=== MÉTODO LLAMADO: getAllPokemons() ===");
-        LOG.info("🚀 INICIANDO COMUNICACIÓN DAPR CON POKEMON SERVICE");
-        LOG.info("   Objetivo: Obtener todos los Pokemons usando DAPR Service Invocation");
-        
+        LOG.debug("=== MÉTODO LLAMADO: getAllPokemons() ===");
         try {
-            LOG.info("🔧 PASO 1: Preparando DAPR Service Invocation...");
-            LOG.info("   - App ID destino: " + POKEMON_SERVICE_APP_ID);
-            LOG.info("   - Método HTTP: GET");
-            LOG.info("   - Endpoint: /pokemon/list");
-            LOG.info("   - DAPR manejará automáticamente:");
-            LOG.info("     * Service Discovery (encontrar el servicio)");
-            LOG.info("     * Load Balancing (si hay múltiples instancias)");
-            LOG.info("     * Retry Logic (reintentos automáticos)");
-            LOG.info("     * Circuit Breaker (protección contra fallos)");
-            
-            LOG.info("🔧 PASO 2: Preparando llamada DAPR...");
-            LOG.info("   - DAPR creará un request que será enviado al sidecar DAPR");
-            LOG.info("   - El sidecar DAPR se encargará de la comunicación real");
-            
-            LOG.info("🔧 PASO 3: Enviando request a través de DAPR...");
-            LOG.info("   - DaprClient enviará el request al sidecar DAPR local");
-            LOG.info("   - Sidecar DAPR buscará el pokemon-service usando service discovery");
-            LOG.info("   - Sidecar DAPR enviará el request HTTP al pokemon-service");
-            LOG.info("   - Sidecar DAPR recibirá la respuesta y la devolverá");
-            
-            long startTime = System.currentTimeMillis();
-            
-            // Usar el método correcto de DAPR para arrays JSON
-            LOG.info("🔧 PASO 4: Usando DAPR con Object.class y cast...");
-            Object response = daprClient.invokeMethod(
-                POKEMON_SERVICE_APP_ID, 
-                "pokemon/list", 
-                null, 
-                HttpExtension.GET, 
-                Object.class
-            ).block();
-            
-            LOG.info("🔧 PASO 5: Deserializando respuesta usando ObjectMapper...");
-            String jsonResponse = objectMapper.writeValueAsString(response);
-            List<org.acme.user.domain.Pokemon> pokemons = objectMapper.readValue(
-                jsonResponse, 
-                new TypeReference<List<org.acme.user.domain.Pokemon>>() {}
-            );
-            
-            long endTime = System.currentTimeMillis();
-            
-            LOG.info("✅ RESPUESTA RECIBIDA DEL POKEMON SERVICE");
-            LOG.info("   - Pokemons obtenidos: " + pokemons.size());
-            
-            LOG.info("✅ Lista de Pokemons deserializada: " + pokemons.size() + " Pokemons");
-            LOG.info("   - Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            
-            LOG.info("🎉 COMUNICACIÓN DAPR EXITOSA");
-            LOG.info("   - Pokemons obtenidos: " + pokemons.size());
-            LOG.info("   - Nombres: " + pokemons.stream().map(org.acme.user.domain.Pokemon::getName).toList());
-            
-            LOG.info("=== FIN MÉTODO: getAllPokemons() ===");
+            // Decodificación en streaming a List<Pokemon>
+            byte[] response = invoke("pokemon/list", HttpExtension.GET, byte[].class).toCompletableFuture().join();
+            List<org.acme.user.domain.Pokemon> pokemons = decoder.decodePokemonList(response);
+            LOG.debugf("Lista de Pokemons obtenida: %s Pokemons", pokemons.size());
             return pokemons;
-            
         } catch (Exception e) {
-            LOG.error("❌ ERROR EN COMUNICACIÓN DAPR CON POKEMON SERVICE");
-            LOG.error("   - Error: " + e.getMessage());
-            LOG.error("   - Stack trace: ", e);
-            LOG.error("   - DAPR no pudo comunicarse con el pokemon-service");
-            LOG.error("   - Posibles causas:");
-            LOG.error("     * pokemon-service no está ejecutándose");
-            LOG.error("     * DAPR sidecar no está configurado correctamente");
-            LOG.error("     * Problemas de red entre servicios");
-            
-            throw new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR", e);
+            throw communicationError("getAllPokemons()", e);
         }
     }
     
     public String getPokemonServiceHello() {
-        LOG.info("=== MÉTODO LLAMADO: getPokemonServiceHello() ===");
-        LOG.info("🚀 INICIANDO COMUNICACIÓN DAPR CON POKEMON SERVICE");
-        LOG.info("   Objetivo: Obtener saludo del Pokemon Service usando DAPR Service Invocation");
-        
+        LOG.debug("=== MÉTODO LLAMADO: getPokemonServiceHello() ===");
         try {
-            LOG.info("🔧 PASO 1: Preparando DAPR Service Invocation...");
-            LOG.info("   - App ID destino: " + POKEMON_SERVICE_APP_ID);
-            LOG.info("   - Método HTTP: GET");
-            LOG.info("   - Endpoint: /pokemon/hello");
-            LOG.info("   - DAPR manejará automáticamente:");
-            LOG.info("     * Service Discovery (encontrar el servicio)");
-            LOG.info("     * Load Balancing (si hay múltiples instancias)");
-            LOG.info("     * Retry Logic (reintentos automáticos)");
-            LOG.info("     * Circuit Breaker (protección contra fallos)");
-            
-            LOG.info("🔧 PASO 2: Preparando llamada DAPR...");
-            LOG.info("   - DAPR creará un request que será enviado al sidecar DAPR");
-            LOG.info("   - El sidecar DAPR se encargará de la comunicación real");
-            
-            LOG.info("🔧 PASO 3: Enviando request a través de DAPR...");
-            LOG.info("   - DaprClient enviará el request al sidecar DAPR local");
-            LOG.info("   - Sidecar DAPR buscará el pokemon-service usando service discovery");
-            LOG.info("   - Sidecar DAPR enviará el request HTTP al pokemon-service");
-            LOG.info("   - Sidecar DAPR recibirá la respuesta y la devolverá");
-            
-            long startTime = System.currentTimeMillis();
-            
-            // Usar el método correcto de DAPR para texto plano
-            LOG.info("🔧 PASO 4: Usando DAPR con Object.class para texto plano...");
-            Object response = daprClient.invokeMethod(
-                POKEMON_SERVICE_APP_ID, 
-                "pokemon/hello", 
-                null, 
-                HttpExtension.GET, 
-                Object.class
-            ).block();
-            
-            LOG.info("🔧 PASO 5: Convirtiendo respuesta a String...");
-            String responseBody = response.toString();
-            
-            long endTime = System.currentTimeMillis();
-            
-            LOG.info("✅ RESPUESTA RECIBIDA DEL POKEMON SERVICE");
-            LOG.info("   - Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("   - Response body: " + responseBody);
-            
-            LOG.info("🎉 COMUNICACIÓN DAPR EXITOSA");
-            LOG.info("   - Saludo obtenido: " + responseBody);
-            
-            LOG.info("=== FIN MÉTODO: getPokemonServiceHello() ===");
+            // Texto plano: Object.class
+            String responseBody = invoke("pokemon/hello", HttpExtension.GET, Object.class).toCompletableFuture().join().toString();
+            LOG.debugf("Saludo obtenido: %s", responseBody);
             return responseBody;
-            
         } catch (Exception e) {
-            LOG.error("❌ ERROR EN COMUNICACIÓN DAPR CON POKEMON SERVICE");
-            LOG.error("   - Error: " + e.getMessage());
-            LOG.error("   - Stack trace: ", e);
-            LOG.error("   - DAPR no pudo comunicarse con el pokemon-service");
-            LOG.error("   - Posibles causas:");
-            LOG.error("     * pokemon-service no está ejecutándose");
-            LOG.error("     * DAPR sidecar no está configurado correctamente");
-            LOG.error("     * Problemas de red entre servicios");
-            
-            throw new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR", e);
+            throw communicationError("getPokemonServiceHello()", e);
         }
     }
     
     public List<org.acme.user.domain.Pokemon> getAllPokemonsGrpc() {
-        LOG.info("=== MÉTODO LLAMADO: getAllPokemonsGrpc() ===");
-        LOG.info("🚀 INICIANDO COMUNICACIÓN DAPR gRPC CON POKEMON SERVICE");
-        LOG.info("   Objetivo: Obtener todos los Pokemons usando DAPR con puerto gRPC");
-        
+        // pokemon.v1.PokemonCatalog/ListPokemons por el proxy gRPC del sidecar (cabecera dapr-app-id)
+        LOG.debug("=== MÉTODO LLAMADO: getAllPokemonsGrpc() ===");
         try {
-            LOG.info("🔧 PASO 1: Configurando puerto gRPC DAPR...");
-            LOG.info("   - Puerto gRPC configurado: 50003");
-            LOG.info("   - Configurando variable de entorno DAPR_GRPC_PORT");
-            System.setProperty("DAPR_GRPC_PORT", "50003");
-            
-            LOG.info("🔧 PASO 2: Preparando DAPR Service Invocation via gRPC...");
-            LOG.info("   - App ID destino: " + POKEMON_SERVICE_APP_ID);
-            LOG.info("   - Método HTTP: GET");
-            LOG.info("   - Endpoint: /pokemon/list");
-            LOG.info("   - Protocolo: DAPR gRPC (puerto 50003)");
-            LOG.info("   - DAPR manejará automáticamente:");
-            LOG.info("     * Service Discovery (encontrar el servicio)");
-            LOG.info("     * Load Balancing (si hay múltiples instancias)");
-            LOG.info("     * Retry Logic (reintentos automáticos)");
-            LOG.info("     * Circuit Breaker (protección contra fallos)");
-            LOG.info("     * Comunicación gRPC entre sidecars");
-            
-            LOG.info("🔧 PASO 3: Preparando llamada DAPR gRPC...");
-            LOG.info("   - DAPR creará un request que será enviado al sidecar DAPR via gRPC");
-            LOG.info("   - El sidecar DAPR se encargará de la comunicación gRPC real");
-            
-            LOG.info("🔧 PASO 4: Enviando request a través de DAPR gRPC...");
-            LOG.info("   - DaprClient enviará el request al sidecar DAPR local via gRPC");
-            LOG.info("   - Sidecar DAPR buscará el pokemon-service usando service discovery");
-            LOG.info("   - Sidecar DAPR enviará el request HTTP al pokemon-service");
-            LOG.info("   - Sidecar DAPR recibirá la respuesta y la devolverá via gRPC");
-            
-            long startTime = System.currentTimeMillis();
-            
-            // Usar el método correcto de DAPR para arrays JSON via gRPC
-            LOG.info("🔧 PASO 5: Usando DAPR gRPC con Object.class y cast...");
-            Object response = daprClient.invokeMethod(
-                POKEMON_SERVICE_APP_ID, 
-                "pokemon/list", 
-                null, 
-                HttpExtension.GET, 
-                Object.class
-            ).block();
-            
-            LOG.info("🔧 PASO 6: Deserializando respuesta usando ObjectMapper...");
-            String jsonResponse = objectMapper.writeValueAsString(response);
-            List<org.acme.user.domain.Pokemon> pokemons = objectMapper.readValue(
-                jsonResponse, 
-                new TypeReference<List<org.acme.user.domain.Pokemon>>() {}
-            );
-            
-            long endTime = System.currentTimeMillis();
-            
-            LOG.info("✅ RESPUESTA DAPR gRPC RECIBIDA DEL POKEMON SERVICE");
-            LOG.info("   - Protocolo usado: DAPR gRPC (puerto 50003)");
-            LOG.info("   - Pokemons obtenidos: " + pokemons.size());
-            LOG.info("   - Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            
-            LOG.info("✅ Lista de Pokemons deserializada: " + pokemons.size() + " Pokemons");
-            LOG.info("   - Tiempo total: " + (endTime - startTime) + " ms");
-            
-            LOG.info("🎉 COMUNICACIÓN DAPR gRPC EXITOSA");
-            LOG.info("   - Protocolo: DAPR gRPC (más eficiente que HTTP directo)");
-            LOG.info("   - Pokemons obtenidos: " + pokemons.size());
-            LOG.info("   - Nombres: " + pokemons.stream().map(org.acme.user.domain.Pokemon::getName).toList());
-            
-            LOG.info("=== FIN MÉTODO: getAllPokemonsGrpc() ===");
+            // Con el mismo límite y plazo que el resto de llamadas: un servicio lento no retiene este hilo
+            List<org.acme.user.domain.Pokemon> pokemons = protect(grpcClient::getAllPokemonsAsync, true)
+                .toCompletableFuture().join();
+            LOG.debugf("Lista de Pokemons obtenida por gRPC: %s Pokemons", pokemons.size());
             return pokemons;
             
-        } catch (Exception e) {
-            LOG.error("❌ ERROR EN COMUNICACIÓN DAPR gRPC CON POKEMON SERVICE");
-            LOG.error("   - Error: " + e.getMessage());
-            LOG.error("   - Stack trace: ", e);
-            LOG.error("   - DAPR no pudo comunicarse con el pokemon-service via gRPC");
-            LOG.error("   - Posibles causas:");
-            LOG.error("     * pokemon-service no está ejecutándose");
-            LOG.error("     * DAPR sidecar no está configurado correctamente");
-            LOG.error("     * Problemas de red entre servicios");
-            LOG.error("     * Puerto gRPC no configurado correctamente");
-            
-            throw new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR gRPC", e);
+        } catch (CompletionException e) {
+            LOG.error("❌ ERROR EN COMUNICACIÓN DAPR gRPC CON POKEMON SERVICE (getAllPokemonsGrpc()): " + e.getCause().getMessage());
+            throw e.getCause() instanceof RuntimeException runtime
+                ? runtime
+                : new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR gRPC", e.getCause());
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Registra el fallo de una llamada bloqueante en una línea y lo envuelve como el resto del cliente
+     */
+    private static RuntimeException communicationError(String operation, Exception error) {
+        LOG.error("❌ ERROR EN COMUNICACIÓN DAPR CON POKEMON SERVICE (" + operation + "): " + error.getMessage(), error);
+        return new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR", error);
+    }
+
+    // ===== API asíncrona: no bloquea el hilo llamante durante el round trip al sidecar =====
+    
+    public CompletionStage<org.acme.user.domain.Pokemon> getRandomPokemonAsync() {
+        return invokeAsync("getRandomPokemonAsync()", "pokemon/random", decoder::decodePokemon);
+    }
+    
+    public CompletionStage<org.acme.user.domain.Pokemon> getPokemonByIdAsync(int id) {
+        if (batcher != null) {
+            // Las cargas individuales se agrupan en una sola llamada a /pokemon/batch
+            return pokemonByIdFlights.execute(id, () -> batcher.load(id));
+        }
+        return pokemonByIdFlights.execute(id,
+            () -> invokeAsync("getPokemonByIdAsync(id=" + id + ")", "pokemon/" + id, decoder::decodePokemon));
+    }
+    
+    /**
+     * Obtiene varios Pokemons en una sola invocación a /pokemon/batch
+     * @param ids IDs a consultar
+     * @return Etapa con los Pokemons encontrados (los inexistentes se omiten)
+     */
+    public CompletionStage<List<org.acme.user.domain.Pokemon>> getPokemonsByIdsAsync(List<Integer> ids) {
+        String joinedIds = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        HttpExtension batchGet = new HttpExtension(DaprHttp.HttpMethods.GET, Map.of("ids", List.of(joinedIds)), Map.of());
+        return invokeAsync("getPokemonsByIdsAsync(" + ids.size() + " ids)", "pokemon/batch", batchGet,
+            decoder::decodePokemonList);
+    }
+    
+    public CompletionStage<List<org.acme.user.domain.Pokemon>> getAllPokemonsAsync() {
+        return pokemonListFlights.execute("pokemon/list", () -> listAsync("getAllPokemonsAsync()", null));
+    }
+    
+    /**
+     * Obtiene todos los Pokemons pidiendo al pokemon-service solo algunos campos (/pokemon/list?fields=)
+     * @param fields Campos separados por comas, p. ej. "id,name"; null o vacío = Pokemons completos
+     * @return Etapa con los Pokemons; los campos no pedidos quedan a null/0
+     */
+    public CompletionStage<List<org.acme.user.domain.Pokemon>> getAllPokemonsAsync(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return getAllPokemonsAsync();
+        }
+        return pokemonListFlights.execute("pokemon/list?fields=" + fields,
+            () -> listAsync("getAllPokemonsAsync(fields=" + fields + ")", fields));
+    }
+    
+    /**
+     * GET /pokemon/list (con fields= si no es null). Con GET condicionales, un 304 devuelve la misma
+     * lista inmutable de la respuesta anterior, sin transferirla ni decodificarla otra vez
+     */
+    private CompletionStage<List<org.acme.user.domain.Pokemon>> listAsync(String operation, String fields) {
+        if (conditional != null && conditionalEnabled) {
+            LOG.debugf("=== MÉTODO LLAMADO: %s (condicional) ===", operation);
+            String query = fields == null ? null : "fields=" + URLEncoder.encode(fields, StandardCharsets.UTF_8);
+            return protect(() -> conditional.get("pokemon/list", query,
+                payload -> Collections.unmodifiableList(decoder.decodePokemonList(payload))), true);
+        }
+        HttpExtension listGet = fields == null
+            ? HttpExtension.GET
+            : new HttpExtension(DaprHttp.HttpMethods.GET, Map.of("fields", List.of(fields)), Map.of());
+        return invokeAsync(operation, "pokemon/list", listGet, decoder::decodePokemonList);
+    }
+    
+    /**
+     * ETag con el que el pokemon-service etiquetó una lista devuelta por getAllPokemonsAsync
+     * @param pokemons Lista tal como la devolvió el cliente (se compara por identidad)
+     * @return ETag, o null si no hay GET condicionales o la lista ya no es la vigente
+     */
+    public String entityTag(List<org.acme.user.domain.Pokemon> pokemons) {
+        return conditional == null || !conditionalEnabled ? null : conditional.entityTag(pokemons);
+    }
+    
+    public CompletionStage<String> getPokemonServiceHelloAsync() {
+        return invokeAsync("getPokemonServiceHelloAsync()", "pokemon/hello", decoder::decodeText);
+    }
+    
+    public CompletionStage<List<org.acme.user.domain.Pokemon>> getAllPokemonsGrpcAsync() {
+        // Clave propia: no se agrupa con el camino JSON para que cada endpoint use su protocolo
+        return pokemonListFlights.execute("grpc:pokemon/list", () -> protect(grpcClient::getAllPokemonsAsync, true));
+    }
+    
+    /**
+     * Procesa el catálogo completo Pokemon a Pokemon sin materializarlo (ListPokemons en streaming)
+     * @param consumer Procesa cada Pokemon según llega
+     * @return Etapa con el número de Pokemons procesados
+     */
+    public CompletionStage<Long> forEachPokemonAsync(Consumer<org.acme.user.domain.Pokemon> consumer) {
+        // Sin hedging: un segundo intento entregaría otra vez al consumidor los Pokemons ya procesados.
+        // Al vencer el plazo se cancela el stream
+        return protect(() -> grpcClient.streamAllPokemons(consumer), false);
+    }
+    
+    /**
+     * Contadores del batching de getPokemonById (null si está deshabilitado)
+     */
+    public PokemonBatcher.Stats batchingStats() {
+        return batcher == null ? null : batcher.stats();
+    }
+    
+    /**
+     * Contadores de los GET condicionales de /pokemon/list (null si están deshabilitados)
+     */
+    public ConditionalInvoker.Stats conditionalStats() {
+        return conditional == null || !conditionalEnabled ? null : conditional.stats();
+    }
+    
+    /**
+     * Contadores de agrupación de peticiones concurrentes idénticas (/pokemon/random no se agrupa)
+     */
+    public SingleFlight.Stats coalescingStats() {
+        SingleFlight.Stats byId = pokemonByIdFlights.stats();
+        SingleFlight.Stats list = pokemonListFlights.stats();
+        return new SingleFlight.Stats(
+            byId.calls() + list.calls(),
+            byId.executions() + list.executions(),
+            byId.inFlight() + list.inFlight());
+    }
+    
+    /**
+     * Invoca un endpoint GET del pokemon-service sin bloquear y decodifica la respuesta
+     * en el hilo que completa el Mono de DAPR
+     */
+    private <T> CompletionStage<T> invokeAsync(String operation, String method, ResponseDecoder<T> responseDecoder) {
+        return invokeAsync(operation, method, HttpExtension.GET, responseDecoder);
+    }
+    
+    private <T> CompletionStage<T> invokeAsync(String operation, String method, HttpExtension httpExtension,
+                                               ResponseDecoder<T> responseDecoder) {
+        LOG.debugf("=== MÉTODO LLAMADO: %s ===", operation);
+        LOG.debugf("🚀 Invocando /%s en %s sin bloquear el hilo llamante", method, POKEMON_SERVICE_APP_ID);
+        
+        CompletableFuture<T> result = new CompletableFuture<>();
+        
+        invoke(method, httpExtension, byte[].class).whenComplete((response, error) -> {
+            if (error != null) {
+                LOG.error("❌ ERROR EN COMUNICACIÓN DAPR CON POKEMON SERVICE (" + operation + "): " + error.getMessage());
+                result.completeExceptionally(
+                    new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR", error));
+                return;
+            }
+            try {
+                T value = responseDecoder.decode(response);
+                LOG.debugf("✅ %s completado", operation);
+                result.complete(value);
+            } catch (IOException | RuntimeException e) {
+                // Cualquier fallo al decodificar (payload vacío o nulo incluido) completa la etapa: nunca se queda colgada
+                LOG.error("❌ ERROR DECODIFICANDO RESPUESTA DEL POKEMON SERVICE (" + operation + "): " + e.getMessage());
+                result.completeExceptionally(
+                    new RuntimeException("Error decodificando la respuesta del Pokemon Service", e));
+            }
+        });
+        
+        return result;
+    }
+    
+    /**
+     * Invocación DAPR al pokemon-service. Cancelar la etapa cancela la suscripción al Mono, y con ella la petición
+     */
+    private <T> CompletionStage<T> invoke(String method, HttpExtension httpExtension, Class<T> type) {
+        return protect(() -> daprClient.invokeMethod(POKEMON_SERVICE_APP_ID, method, null, httpExtension, type).toFuture(),
+            httpExtension.getMethod() == DaprHttp.HttpMethods.GET);
+    }
+    
+    /**
+     * @param idempotent GET sin efectos: admite un segundo intento (hedging)
+     */
+    private <T> CompletionStage<T> protect(Supplier<CompletionStage<T>> invocation, boolean idempotent) {
+        ResilientInvoker current = invoker;
+        return current == null ? invocation.get() : current.call(invocation, idempotent);
+    }
+    
+    /**
+     * Límite de concurrencia, timeouts y hedging de las llamadas (null si no están protegidas)
+     */
+    public ResilientInvoker.Stats resilienceStats() {
+        return invoker == null ? null : invoker.stats();
+    }
+    
+    @FunctionalInterface
+    interface ResponseDecoder<T> {
+        T decode(byte[] payload) throws IOException;
+    }
+}
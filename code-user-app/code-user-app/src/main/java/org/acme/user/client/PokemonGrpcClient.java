@@ -0,0 +1,221 @@
+package org.acme.user.client;
+
+import io.grpc.Channel;
+import io.grpc.ClientInterceptors;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.user.domain.Pokemon;
+import org.acme.user.grpc.GetPokemonRequest;
+import org.acme.user.grpc.GetPokemonsByIdsRequest;
+import org.acme.user.grpc.ListPokemonsRequest;
+import org.acme.user.grpc.PokemonCatalogGrpc;
+import org.acme.user.grpc.PokemonList;
+import org.acme.user.grpc.PokemonMessage;
+import org.acme.user.metrics.Measured;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Cliente gRPC nativo del pokemon-service (pokemon.v1.PokemonCatalog).
+ *
+ * Las llamadas van al puerto gRPC del sidecar DAPR local con la cabecera dapr-app-id;
+ * DAPR las reenvía tal cual (proxy gRPC) al pokemon-service, que usa app-protocol grpc.
+ * El payload viaja en protobuf binario de extremo a extremo.
+ */
+@ApplicationScoped
+@Measured("client")
+public class PokemonGrpcClient {
+
+    private static final Logger LOG = Logger.getLogger(PokemonGrpcClient.class);
+    static final Metadata.Key<String> DAPR_APP_ID_HEADER =
+            Metadata.Key.of("dapr-app-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    @ConfigProperty(name = "pokemon-client.grpc.host", defaultValue = "localhost")
+    String host;
+
+    @ConfigProperty(name = "pokemon-client.grpc.port", defaultValue = "50003")
+    int port;
+
+    @ConfigProperty(name = "pokemon-client.grpc.app-id", defaultValue = "pokemon-service")
+    String appId;
+
+    private ManagedChannel channel;
+    private PokemonCatalogGrpc.PokemonCatalogStub stub;
+
+    public PokemonGrpcClient() {
+    }
+
+    /**
+     * Permite usar un canal ya construido (tests y benchmarks sin sidecar)
+     * @param channel Canal hacia un servidor PokemonCatalog
+     * @param appId App ID de DAPR a enviar en la cabecera dapr-app-id
+     */
+    PokemonGrpcClient(Channel channel, String appId) {
+        this.appId = appId;
+        this.stub = createStub(channel);
+    }
+
+    @PostConstruct
+    void init() {
+        LOG.info("🔧 Creando canal gRPC hacia el sidecar DAPR: " + host + ":" + port + " (dapr-app-id=" + appId + ")");
+        // El canal conecta de forma perezosa: no falla si el sidecar aún no está levantado
+        this.channel = ManagedChannelBuilder.forAddress(host, port)
+                .usePlaintext()
+                .build();
+        this.stub = createStub(channel);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (channel != null) {
+            channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private PokemonCatalogGrpc.PokemonCatalogStub createStub(Channel target) {
+        Metadata headers = new Metadata();
+        headers.put(DAPR_APP_ID_HEADER, appId);
+        return PokemonCatalogGrpc.newStub(
+                ClientInterceptors.intercept(target, MetadataUtils.newAttachHeadersInterceptor(headers)));
+    }
+
+    public CompletionStage<Pokemon> getPokemonByIdAsync(int id) {
+        UnaryCall<PokemonMessage, Pokemon> call = new UnaryCall<>("GetPokemon(id=" + id + ")", PokemonGrpcClient::toDomain);
+        stub.getPokemon(GetPokemonRequest.newBuilder().setId(id).build(), call);
+        return call.result;
+    }
+
+    public CompletionStage<List<Pokemon>> getPokemonsByIdsAsync(List<Integer> ids) {
+        UnaryCall<PokemonList, List<Pokemon>> call = new UnaryCall<>("GetPokemonsByIds(" + ids.size() + " ids)",
+                list -> list.getPokemonsList().stream().map(PokemonGrpcClient::toDomain).toList());
+        stub.getPokemonsByIds(GetPokemonsByIdsRequest.newBuilder().addAllIds(ids).build(), call);
+        return call.result;
+    }
+
+    /**
+     * Recibe el catálogo en streaming y lo acumula en una lista
+     */
+    public CompletionStage<List<Pokemon>> getAllPokemonsAsync() {
+        List<Pokemon> pokemons = new ArrayList<>();
+        CompletableFuture<Long> stream = streamAllPokemons(pokemons::add).toCompletableFuture();
+        CompletableFuture<List<Pokemon>> result = stream.thenApply(count -> pokemons);
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                stream.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Recorre el catálogo completo entregando cada Pokemon al consumidor según llega.
+     *
+     * Se pide una página cada vez (control de flujo manual): la siguiente no se solicita
+     * hasta que el consumidor ha procesado la anterior, así la memoria queda acotada por
+     * el tamaño de página aunque el catálogo sea enorme o el consumidor lento.
+     *
+     * @param consumer Procesa cada Pokemon (se invoca desde el hilo de gRPC, en orden)
+     * @return Etapa con el número de Pokemons procesados; cancelarla cancela el stream
+     */
+    public CompletionStage<Long> streamAllPokemons(Consumer<Pokemon> consumer) {
+        LOG.debugf("🚀 gRPC ListPokemons vía DAPR (%s)", appId);
+        CompletableFuture<Long> result = new CompletableFuture<>();
+
+        stub.listPokemons(ListPokemonsRequest.getDefaultInstance(), new ClientResponseObserver<ListPokemonsRequest, PokemonList>() {
+            private ClientCallStreamObserver<ListPokemonsRequest> requestStream;
+            private long processed;
+
+            @Override
+            public void beforeStart(ClientCallStreamObserver<ListPokemonsRequest> requestStream) {
+                this.requestStream = requestStream;
+                requestStream.disableAutoRequestWithInitial(1);
+                result.whenComplete((value, error) -> {
+                    if (result.isCancelled()) {
+                        requestStream.cancel("Llamada cancelada o plazo vencido", null);
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(PokemonList page) {
+                try {
+                    for (PokemonMessage message : page.getPokemonsList()) {
+                        consumer.accept(toDomain(message));
+                        processed++;
+                    }
+                } catch (RuntimeException e) {
+                    requestStream.cancel("Error en el consumidor del stream", e);
+                    return;
+                }
+                requestStream.request(1);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                LOG.error("❌ ERROR EN COMUNICACIÓN DAPR gRPC CON POKEMON SERVICE (ListPokemons): " + error.getMessage());
+                result.completeExceptionally(
+                        new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR gRPC", error));
+            }
+
+            @Override
+            public void onCompleted() {
+                LOG.debugf("✅ ListPokemons completado: %s Pokemons", processed);
+                result.complete(processed);
+            }
+        });
+        return result;
+    }
+
+    static Pokemon toDomain(PokemonMessage message) {
+        return new Pokemon(message.getId(), message.getName(), message.getType(), message.getLevel(),
+                List.copyOf(message.getAbilitiesList()));
+    }
+
+    /**
+     * Observador de una llamada unaria que completa un CompletableFuture con la respuesta convertida
+     */
+    private static final class UnaryCall<M, T> implements StreamObserver<M> {
+
+        private final String operation;
+        private final Function<M, T> mapper;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private UnaryCall(String operation, Function<M, T> mapper) {
+            this.operation = operation;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onNext(M message) {
+            result.complete(mapper.apply(message));
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            LOG.error("❌ ERROR EN COMUNICACIÓN DAPR gRPC CON POKEMON SERVICE (" + operation + "): " + error.getMessage());
+            result.completeExceptionally(
+                    new RuntimeException("Error comunicándose con Pokemon Service a través de DAPR gRPC", error));
+        }
+
+        @Override
+        public void onCompleted() {
+            LOG.debugf("✅ %s completado", operation);
+        }
+    }
+}
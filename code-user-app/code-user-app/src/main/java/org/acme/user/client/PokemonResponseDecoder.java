@@ -0,0 +1,64 @@
+package org.acme.user.client;
+
+import org.acme.user.domain.Pokemon;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodifica las respuestas del pokemon-service directamente desde los bytes
+ * devueltos por el sidecar DAPR.
+ *
+ * Los ObjectReader se construyen una sola vez y son thread-safe, de modo que cada
+ * llamada solo paga el parseo del payload (sin árbol intermedio ni String).
+ */
+public class PokemonResponseDecoder {
+
+    private final ObjectReader pokemonReader;
+
+    public PokemonResponseDecoder(ObjectMapper objectMapper) {
+        // Tolerar campos nuevos del pokemon-service sin romper el cliente
+        this.pokemonReader = objectMapper
+                .readerFor(Pokemon.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Decodifica un único Pokemon
+     * @param payload Bytes JSON de la respuesta
+     * @return Pokemon decodificado
+     */
+    public Pokemon decodePokemon(byte[] payload) throws IOException {
+        return pokemonReader.readValue(payload);
+    }
+
+    /**
+     * Decodifica un array JSON de Pokemons elemento a elemento con el parser en streaming
+     * @param payload Bytes JSON de la respuesta
+     * @return Lista de Pokemons decodificados
+     */
+    public List<Pokemon> decodePokemonList(byte[] payload) throws IOException {
+        List<Pokemon> pokemons = new ArrayList<>();
+        try (MappingIterator<Pokemon> iterator = pokemonReader.readValues(payload)) {
+            while (iterator.hasNextValue()) {
+                pokemons.add(iterator.nextValue());
+            }
+        }
+        return pokemons;
+    }
+
+    /**
+     * Decodifica una respuesta de texto plano (UTF-8)
+     * @param payload Bytes de la respuesta
+     * @return Texto decodificado
+     */
+    public String decodeText(byte[] payload) {
+        return payload == null ? "" : new String(payload, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,319 @@
+package org.acme.user.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Protege las llamadas al pokemon-service para que un servicio lento no acumule peticiones en user-app:
+ * - Límite de concurrencia adaptativo ({@link AdaptiveLimiter}): por encima, la llamada se rechaza al
+ *   momento (RejectedExecutionException) en lugar de esperar
+ * - Plazo por intento: al vencer, la etapa falla con TimeoutException y la invocación se cancela
+ * - Petición de cobertura (hedging), opcional y solo en llamadas idempotentes: si el primer intento no
+ *   respondió tras el p95 reciente, se lanza otro y gana el primero que responda (el otro se cancela).
+ *   Como mucho hedgeBudget de las llamadas, y solo si el límite admite el intento extra; nunca después
+ *   de que la llamada se haya resuelto
+ * Al resolverse la llamada (o cancelarla el llamante) se cancelan el temporizador del segundo intento y
+ * los intentos que sigan en curso: la invocación que cancela su etapa libera conexión y permiso.
+ */
+public class ResilientInvoker implements AutoCloseable {
+
+    // Latencias recientes de las que se calcula el p95 del hedging
+    private static final int LATENCY_WINDOW = 1024;
+    // Sin este mínimo de muestras el p95 no es fiable y no se hace hedging
+    private static final int MIN_LATENCY_SAMPLES = 100;
+    // Cada cuántas muestras se recalcula el p95
+    private static final int PERCENTILE_EVERY = 64;
+
+    /**
+     * @param timeout Plazo de cada intento
+     * @param initialLimit Límite de concurrencia inicial
+     * @param minLimit Límite mínimo
+     * @param maxLimit Límite máximo
+     * @param hedging Lanzar un segundo intento en llamadas idempotentes lentas
+     * @param minHedgeDelay Espera mínima antes del segundo intento (si el p95 es menor)
+     * @param hedgeBudget Fracción máxima de llamadas con segundo intento (0.1 = 10 %)
+     */
+    public record Options(Duration timeout, int initialLimit, int minLimit, int maxLimit,
+                          boolean hedging, Duration minHedgeDelay, double hedgeBudget) {
+    }
+
+    private final AdaptiveLimiter limiter;
+    private final long timeoutNanos;
+    private final Duration timeout;
+    private final boolean hedging;
+    private final long minHedgeDelayNanos;
+    private final double hedgeBudget;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final ReentrantLock latencyLock = new ReentrantLock();
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private long latencySamples;
+    // -1 = sin muestras suficientes
+    private volatile long p95Nanos = -1;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    // Llamadas que fallan por plazo (todos sus intentos vencieron)
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public ResilientInvoker(Options options) {
+        if (options.timeout().isNegative() || options.timeout().isZero()) {
+            throw new IllegalArgumentException("El plazo de las llamadas debe ser mayor que 0");
+        }
+        this.limiter = new AdaptiveLimiter(options.initialLimit(), options.minLimit(), options.maxLimit());
+        this.timeout = options.timeout();
+        this.timeoutNanos = options.timeout().toNanos();
+        this.hedging = options.hedging();
+        this.minHedgeDelayNanos = options.minHedgeDelay().toNanos();
+        this.hedgeBudget = options.hedgeBudget();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "pokemon-client-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Casi todos los plazos se cancelan antes de vencer: que no se queden en la cola
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @param invocation Lanza un intento; cancelar su etapa debe abortar la invocación si es posible
+     * @param idempotent Si admite un segundo intento (hedging)
+     * @return Etapa con el primer resultado correcto, o con el error si fallan todos los intentos
+     */
+    public <T> CompletionStage<T> call(Supplier<CompletionStage<T>> invocation, boolean idempotent) {
+        calls.increment();
+        AdaptiveLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            rejections.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Límite de concurrencia hacia el pokemon-service alcanzado (" + limiter.limit() + " llamadas en curso)"));
+        }
+        Call<T> call = new Call<>(invocation, permit);
+        call.start(hedging && idempotent ? p95Nanos : -1);
+        return call.result;
+    }
+
+    /**
+     * Una llamada con su primer intento y, si procede, el de cobertura
+     */
+    private final class Call<T> {
+
+        private final Supplier<CompletionStage<T>> invocation;
+        private final AdaptiveLimiter.Permit permit;
+        private final long startNanos = System.nanoTime();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger running = new AtomicInteger();
+        // Primer resultado definitivo (o cancelación por el llamante): el resto se ignora
+        private final AtomicBoolean settled = new AtomicBoolean();
+        // Hace atómicos el lanzamiento del segundo intento y el cierre de la llamada: o el segundo intento
+        // se lanza antes y cancelRemaining lo ve, o ve la llamada cerrada y no se lanza
+        private final ReentrantLock settleLock = new ReentrantLock();
+        private volatile CompletableFuture<T> primary;
+        private volatile CompletableFuture<T> hedge;
+        private volatile ScheduledFuture<?> hedgeTimer;
+
+        Call(Supplier<CompletionStage<T>> invocation, AdaptiveLimiter.Permit permit) {
+            this.invocation = invocation;
+            this.permit = permit;
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled() && settle()) {
+                    cancelRemaining();
+                    permit.ignore();
+                }
+            });
+        }
+
+        /**
+         * @param p95 p95 reciente, o -1 para no lanzar segundo intento
+         */
+        void start(long p95) {
+            running.incrementAndGet();
+            primary = attempt(invocation);
+            if (p95 >= 0 && !primary.isDone()) {
+                hedgeTimer = scheduler.schedule(this::launchHedge, Math.max(minHedgeDelayNanos, p95), TimeUnit.NANOSECONDS);
+            }
+            primary.whenComplete((value, error) -> onAttempt(value, error, false));
+        }
+
+        private void launchHedge() {
+            AdaptiveLimiter.Permit extra;
+            CompletableFuture<T> launched;
+            settleLock.lock();
+            try {
+                if (settled.get() || hedges.sum() >= hedgeBudget * calls.sum()) {
+                    return;
+                }
+                // El segundo intento también ocupa sitio: si el límite está lleno, no se lanza
+                extra = limiter.tryAcquire();
+                if (extra == null) {
+                    return;
+                }
+                hedges.increment();
+                running.incrementAndGet();
+                launched = attempt(invocation);
+                hedge = launched;
+            } finally {
+                settleLock.unlock();
+            }
+            launched.whenComplete((value, error) -> {
+                extra.ignore();
+                onAttempt(value, error, true);
+            });
+        }
+
+        private void onAttempt(T value, Throwable error, boolean fromHedge) {
+            int remaining = running.decrementAndGet();
+            if (error == null) {
+                if (settle()) {
+                    if (fromHedge) {
+                        hedgeWins.increment();
+                    }
+                    recordLatency(System.nanoTime() - startNanos);
+                    release(null);
+                    result.complete(value);
+                }
+            } else if (remaining == 0 && settle()) {
+                // Falla la llamada si no queda otro intento en curso
+                release(error);
+                result.completeExceptionally(error);
+            }
+        }
+
+        /**
+         * @return true si esta es la primera vez que se cierra la llamada
+         */
+        private boolean settle() {
+            settleLock.lock();
+            try {
+                return settled.compareAndSet(false, true);
+            } finally {
+                settleLock.unlock();
+            }
+        }
+
+        /**
+         * Libera el permiso antes de completar: quien espera el resultado ya ve el estado actualizado
+         */
+        private void release(Throwable error) {
+            cancelRemaining();
+            if (error == null) {
+                permit.success();
+            } else if (error instanceof TimeoutException) {
+                timeouts.increment();
+                permit.dropped();
+            } else {
+                permit.ignore();
+            }
+        }
+
+        private void cancelRemaining() {
+            ScheduledFuture<?> timer = hedgeTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            cancel(primary);
+            cancel(hedge);
+        }
+
+        private void cancel(CompletableFuture<T> attempt) {
+            if (attempt != null) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Un intento con su plazo: al vencer (o al cancelar el intento) se cancela la etapa de la invocación
+     */
+    private <T> CompletableFuture<T> attempt(Supplier<CompletionStage<T>> invocation) {
+        CompletableFuture<T> invoked;
+        try {
+            invoked = invocation.get().toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> bounded = new CompletableFuture<>();
+        AtomicReference<TimeoutException> expired = new AtomicReference<>();
+        ScheduledFuture<?> deadline = scheduler.schedule(() -> {
+            // Se aborta la invocación y el intento falla con el timeout, no con la cancelación
+            expired.set(new TimeoutException("Sin respuesta del pokemon-service en " + timeout));
+            invoked.cancel(true);
+        }, timeoutNanos, TimeUnit.NANOSECONDS);
+        invoked.whenComplete((value, error) -> {
+            deadline.cancel(false);
+            if (error == null) {
+                bounded.complete(value);
+            } else {
+                TimeoutException timedOut = expired.get();
+                bounded.completeExceptionally(timedOut != null && invoked.isCancelled() ? timedOut : error);
+            }
+        });
+        bounded.whenComplete((value, error) -> {
+            if (bounded.isCancelled()) {
+                deadline.cancel(false);
+                invoked.cancel(true);
+            }
+        });
+        return bounded;
+    }
+
+    private void recordLatency(long nanos) {
+        latencyLock.lock();
+        try {
+            latencies[(int) (latencySamples % LATENCY_WINDOW)] = nanos;
+            latencySamples++;
+            if (latencySamples >= MIN_LATENCY_SAMPLES && latencySamples % PERCENTILE_EVERY == 0) {
+                int size = (int) Math.min(latencySamples, LATENCY_WINDOW);
+                long[] sorted = Arrays.copyOf(latencies, size);
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) Math.ceil(size * 0.95) - 1];
+            }
+        } finally {
+            latencyLock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(limiter.limit(), limiter.inFlight(), calls.sum(), rejections.sum(), timeouts.sum(),
+                hedges.sum(), hedgeWins.sum(), p95Nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(p95Nanos));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Estado de la protección expuesto en /users/pokemon/stats
+     *
+     * @param p95Millis p95 reciente de las llamadas correctas (-1 sin muestras suficientes)
+     */
+    public record Stats(int limit, int inFlight, long calls, long rejections, long timeouts,
+                        long hedges, long hedgeWins, long p95Millis) {
+
+        /**
+         * Fracción de segundos intentos que respondieron antes que el primero
+         */
+        @JsonProperty("hedgeWinRate")
+        public double hedgeWinRate() {
+            return hedges == 0 ? 0.0 : (double) hedgeWins / hedges;
+        }
+    }
+}
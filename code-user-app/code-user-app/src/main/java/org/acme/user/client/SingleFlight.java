@@ -0,0 +1,71 @@
+package org.acme.user.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa llamadas concurrentes idénticas (single-flight): mientras hay una invocación en curso
+ * para una clave, las siguientes peticiones con esa clave esperan su resultado en lugar de
+ * lanzar otra invocación. Al completarse, la clave se libera y la próxima llamada vuelve a ejecutar.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    
+    /**
+     * Ejecuta {@code call} si no hay otra invocación en curso para {@code key}; si la hay, comparte su resultado
+     * @param key Clave que identifica peticiones idénticas (endpoint + parámetros)
+     * @param call Invocación real
+     * @return Etapa que se completa con el resultado compartido
+     */
+    public CompletionStage<V> execute(K key, Supplier<CompletionStage<V>> call) {
+        calls.increment();
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            // copy(): un consumidor no puede completar ni cancelar el future compartido
+            return existing.copy();
+        }
+        
+        executions.increment();
+        try {
+            call.get().whenComplete((value, error) -> {
+                inFlight.remove(key, leader);
+                if (error != null) {
+                    leader.completeExceptionally(error);
+                } else {
+                    leader.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, leader);
+            leader.completeExceptionally(e);
+        }
+        return leader.copy();
+    }
+    
+    public Stats stats() {
+        return new Stats(calls.sum(), executions.sum(), inFlight.size());
+    }
+    
+    /**
+     * Contadores de agrupación expuestos en /users/pokemon/stats
+     */
+    public record Stats(long calls, long executions, int inFlight) {
+        
+        /**
+         * Peticiones atendidas por cada invocación real (1.0 = sin agrupación)
+         */
+        @JsonProperty("collapseRatio")
+        public double collapseRatio() {
+            return executions == 0 ? 1.0 : (double) calls / executions;
+        }
+    }
+}
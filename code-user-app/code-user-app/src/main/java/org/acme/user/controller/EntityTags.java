@@ -0,0 +1,118 @@
+package org.acme.user.controller;
+
+import jakarta.ws.rs.core.EntityTag;
+
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ETags fuertes para los GET condicionales (If-None-Match → 304 Not Modified).
+ *
+ * El ETag de un listado es la versión de la colección precedida de un identificador de este
+ * arranque: tras un reinicio, o en otra réplica, la misma versión no describe los mismos datos
+ * y así nunca coincide por error. El de un usuario por ID es su versión con el mismo prefijo:
+ * el repositorio en memoria reinicia las versiones en cada arranque, y otro usuario guardado
+ * después con el mismo ID volvería a tener "1".
+ */
+final class EntityTags {
+
+    // Identificador de este arranque del proceso
+    static final String EPOCH = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    // Versión inalcanzable para un If-Match de otro arranque: el compare-and-set falla con el ETag actual
+    static final long STALE_VERSION = Long.MAX_VALUE;
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param version Versión de la colección
+     * @return ETag del listado para esa versión
+     */
+    static EntityTag collection(long version) {
+        return new EntityTag(EPOCH + "-" + version);
+    }
+
+    /**
+     * @param version Versión del usuario
+     * @return ETag del recurso para esa versión
+     */
+    static EntityTag resource(long version) {
+        return new EntityTag(EPOCH + "-" + version);
+    }
+
+    /**
+     * Versión esperada de un If-Match: un ETag de recurso de este arranque ("abc-3") o la versión
+     * sola ("3" o 3). Un ETag de otro arranque se traduce en una versión que nunca coincide (412).
+     *
+     * @param ifMatch Cabecera recibida (null si no vino)
+     * @return Versión esperada, o vacío sin cabecera o con "*" (actualización incondicional)
+     */
+    static OptionalLong expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return OptionalLong.empty();
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        int separator = tag.lastIndexOf('-');
+        String epoch = separator < 0 ? null : tag.substring(0, separator);
+        try {
+            long version = Long.parseLong(tag.substring(separator + 1));
+            if (version > 0 && epoch != null && !epoch.equals(EPOCH)) {
+                return OptionalLong.of(STALE_VERSION);
+            }
+            return OptionalLong.of(version);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match debe ser un único ETag fuerte del usuario: " + ifMatch);
+        }
+    }
+
+    /**
+     * @param header Valor de una cabecera ETag ("abc" o W/"abc"), o null
+     * @return ETag equivalente, o null si no hay cabecera
+     */
+    static EntityTag valueOf(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        String tag = header.trim();
+        boolean weak = tag.startsWith("W/");
+        if (weak) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        return new EntityTag(tag, weak);
+    }
+
+    /**
+     * Comparación débil de If-None-Match: "*" o cualquiera de los ETags de la lista
+     *
+     * @param ifNoneMatch Cabecera recibida (null si no vino)
+     * @param current ETag actual (null si el recurso no tiene)
+     * @return true si el cliente ya tiene la representación actual (se responde 304)
+     */
+    static boolean matches(String ifNoneMatch, EntityTag current) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || current == null) {
+            return false;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (tag.equals(current.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,156 @@
+package org.acme.user.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Proyección de campos de una respuesta JSON (?fields=id,name).
+ *
+ * Cada campo pedido se escribe directamente en el JsonGenerator desde el objeto del repositorio,
+ * sin Map, árbol ni DTO intermedio; los campos no pedidos ni se leen ni viajan.
+ *
+ * @param <T> Tipo proyectado
+ */
+final class FieldProjection<T> {
+
+    /**
+     * Escribe un campo (nombre y valor) del objeto en el generador
+     */
+    @FunctionalInterface
+    interface FieldWriter<T> {
+        void write(JsonGenerator generator, T value) throws IOException;
+    }
+
+    private final List<String> names;
+    private final List<FieldWriter<T>> writers;
+
+    private FieldProjection(List<String> names, List<FieldWriter<T>> writers) {
+        this.names = names;
+        this.writers = writers;
+    }
+
+    /**
+     * @param fields Campos separados por comas; null o vacío = sin proyección
+     * @param available Campos del tipo, en el orden en que se serializan
+     * @return Proyección con los campos pedidos (en el orden de available), o null si no se pidió ninguno
+     * @throws IllegalArgumentException si se pide un campo que el tipo no tiene
+     */
+    static <T> FieldProjection<T> parse(String fields, Map<String, FieldWriter<T>> available) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        for (String field : requested) {
+            if (!available.containsKey(field)) {
+                throw new IllegalArgumentException("campo desconocido en fields: " + field
+                        + " (admitidos: " + String.join(",", available.keySet()) + ")");
+            }
+        }
+        List<String> names = new ArrayList<>(requested.size());
+        List<FieldWriter<T>> writers = new ArrayList<>(requested.size());
+        for (Map.Entry<String, FieldWriter<T>> field : available.entrySet()) {
+            if (requested.contains(field.getKey())) {
+                names.add(field.getKey());
+                writers.add(field.getValue());
+            }
+        }
+        return new FieldProjection<>(List.copyOf(names), List.copyOf(writers));
+    }
+
+    /**
+     * Catálogo de campos de un tipo (orden de inserción = orden de serialización)
+     */
+    @SafeVarargs
+    static <T> Map<String, FieldWriter<T>> catalog(Map.Entry<String, FieldWriter<T>>... fields) {
+        Map<String, FieldWriter<T>> available = new LinkedHashMap<>();
+        for (Map.Entry<String, FieldWriter<T>> field : fields) {
+            available.put(field.getKey(), field.getValue());
+        }
+        return available;
+    }
+
+    /**
+     * @return Campos seleccionados separados por comas (forma canónica)
+     */
+    String fields() {
+        return String.join(",", names);
+    }
+
+    void write(JsonGenerator generator, T value) throws IOException {
+        generator.writeStartObject();
+        for (FieldWriter<T> writer : writers) {
+            writer.write(generator, value);
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Cuerpo de respuesta con un único objeto proyectado
+     */
+    StreamingOutput object(JsonFactory factory, T value) {
+        return output -> {
+            try (JsonGenerator generator = factory.createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                write(generator, value);
+            }
+        };
+    }
+
+    /**
+     * Cuerpo de respuesta con un array JSON, escrito según se recorre el stream (que se cierra al terminar)
+     */
+    StreamingOutput array(JsonFactory factory, Stream<T> values) {
+        return output -> {
+            try (values; JsonGenerator generator = factory.createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                Iterator<T> iterator = values.iterator();
+                while (iterator.hasNext()) {
+                    write(generator, iterator.next());
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Escribe una lista de Strings (null se escribe como null)
+     */
+    static void writeStrings(JsonGenerator generator, String name, List<String> values) throws IOException {
+        if (values == null) {
+            generator.writeNullField(name);
+            return;
+        }
+        generator.writeArrayFieldStart(name);
+        for (String value : values) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Escribe una lista de enteros
+     */
+    static void writeInts(JsonGenerator generator, String name, List<Integer> values) throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (int value : values) {
+            generator.writeNumber(value);
+        }
+        generator.writeEndArray();
+    }
+}
@@ -1,41 +1,97 @@
 package org.acme.user.controller;
 
+import org.acme.user.cache.PokemonCache;
+import org.acme.user.client.PokemonClient;
+import org.acme.user.controller.FieldProjection.FieldWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.acme.user.domain.Page;
 import org.acme.user.domain.Pokemon;
 import org.acme.user.domain.User;
-import org.acme.user.service.PokemonClientService;
+import org.acme.user.domain.UserTeam;
+import org.acme.user.repository.VersionConflictException;
+import org.acme.user.service.PokemonClientAsyncService;
 import org.acme.user.service.UserService;
+import org.acme.user.metrics.Measured;
 import org.jboss.logging.Logger;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 @Path("/users")
+@Measured("controller")
 public class UserResource {
 
     private static final Logger LOG = Logger.getLogger(UserResource.class);
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    // Cada cuántos usuarios se vacía el buffer hacia el cliente en /users/stream
+    private static final int STREAM_FLUSH_EVERY = 100;
+    // Retry-After de los 503 cuando el pokemon-service está saturado o no responde en plazo
+    private static final int POKEMON_RETRY_AFTER_SECONDS = 1;
+    // Campos admitidos en ?fields= (mismo orden y nombres que la serialización completa)
+    static final Map<String, FieldWriter<User>> USER_FIELDS = FieldProjection.catalog(
+            Map.entry("id", (generator, user) -> generator.writeNumberField("id", user.getId())),
+            Map.entry("name", (generator, user) -> generator.writeStringField("name", user.getName())),
+            Map.entry("email", (generator, user) -> generator.writeStringField("email", user.getEmail())),
+            Map.entry("team", (generator, user) -> FieldProjection.writeInts(generator, "team", user.getTeam())),
+            Map.entry("version", (generator, user) -> generator.writeNumberField("version", user.getVersion())));
+    static final Map<String, FieldWriter<Pokemon>> POKEMON_FIELDS = FieldProjection.catalog(
+            Map.entry("id", (generator, pokemon) -> generator.writeNumberField("id", pokemon.getId())),
+            Map.entry("name", (generator, pokemon) -> generator.writeStringField("name", pokemon.getName())),
+            Map.entry("type", (generator, pokemon) -> generator.writeStringField("type", pokemon.getType())),
+            Map.entry("level", (generator, pokemon) -> generator.writeNumberField("level", pokemon.getLevel())),
+            Map.entry("abilities", (generator, pokemon) -> FieldProjection.writeStrings(generator, "abilities", pokemon.getAbilities())));
     
     @Inject
-    PokemonClientService pokemonClientService;
+    PokemonClientAsyncService pokemonClientAsyncService;
     
     @Inject
     UserService userService;
     
+    @Inject
+    PokemonCache pokemonCache;
+    
+    @Inject
+    PokemonClient pokemonClient;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
     static {
         LOG.info("=== INICIALIZACIÓN: UserResource class ===");
         LOG.info("UserResource cargado en memoria");
         LOG.info("Endpoints disponibles:");
         LOG.info("  - GET /users/hello");
-        LOG.info("  - GET /users");
-        LOG.info("  - GET /users/{id}");
+        LOG.info("  - GET /users?fields=");
+        LOG.info("  - GET /users/page?cursor=&limit=");
+        LOG.info("  - GET /users/stream (NDJSON)");
+        LOG.info("  - GET /users/{id}?fields=");
+        LOG.info("  - GET /users/{id}/team");
         LOG.info("  - POST /users");
         LOG.info("  - PUT /users/{id}");
         LOG.info("  - DELETE /users/{id}");
         LOG.info("  - GET /users/pokemon");
         LOG.info("  - GET /users/pokemon/{id}");
-        LOG.info("  - GET /users/pokemon/list");
+        LOG.info("  - GET /users/pokemon/list?fields=");
         LOG.info("  - GET /users/pokemon-service/hello");
+        LOG.info("  - GET /users/pokemon/stats");
         LOG.info("=== FIN INICIALIZACIÓN: UserResource ===");
     }
 
@@ -43,16 +99,13 @@ public class UserResource {
     @Path("/hello")
     @Produces(MediaType.TEXT_PLAIN)
     public String hello() {
-        LOG.info("=== ENDPOINT LLAMADO: GET /users/hello ===");
-        LOG.info("Respondiendo saludo del User App Service");
+        LOG.debug("=== ENDPOINT LLAMADO: GET /users/hello ===");
+        LOG.debug("Respondiendo saludo del User App Service");
         
-        long startTime = System.currentTimeMillis();
         String response = "Hello from User App Service!";
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Respuesta enviada: " + response);
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN ENDPOINT: GET /users/hello ===");
+        LOG.debugf("Respuesta enviada: %s", response);
+        LOG.debug("=== FIN ENDPOINT: GET /users/hello ===");
         
         return response;
     }
@@ -60,42 +113,129 @@ public class UserResource {
     // Endpoints para gestión de usuarios
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public List<User> getAllUsers() {
-        LOG.info("=== ENDPOINT LLAMADO: GET /users ===");
-        LOG.info("Iniciando proceso para obtener todos los usuarios");
+    public Response getAllUsers(@QueryParam("fields") String fields,
+                                @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /users (fields=%s, If-None-Match: %s) ===", fields, ifNoneMatch);
+        LOG.debug("Iniciando proceso para obtener todos los usuarios");
         
-        long startTime = System.currentTimeMillis();
-        List<User> users = userService.getAllUsers();
-        long endTime = System.currentTimeMillis();
+        try {
+            FieldProjection<User> projection = FieldProjection.parse(fields, USER_FIELDS);
+            
+            // La versión se lee antes que los datos: el ETag nunca es más nuevo que el cuerpo
+            EntityTag tag = EntityTags.collection(userService.getUsersVersion());
+            if (EntityTags.matches(ifNoneMatch, tag)) {
+                LOG.debug("=== FIN ENDPOINT: GET /users (NOT_MODIFIED) ===");
+                return Response.notModified(tag).build();
+            }
+            
+            if (projection != null) {
+                // Solo los campos pedidos, escritos según se recorre el repositorio
+                LOG.debugf("Proyección de campos: %s", projection.fields());
+                LOG.debug("=== FIN ENDPOINT: GET /users ===");
+                return Response.ok(projection.array(objectMapper.getFactory(), userService.streamAllUsers())).tag(tag).build();
+            }
+            
+            List<User> users = userService.getAllUsers();
+            
+            LOG.debugf("Usuarios obtenidos: %s", users.size());
+            LOG.debug("=== FIN ENDPOINT: GET /users ===");
+            return Response.ok(users).tag(tag).build();
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            LOG.debug("=== FIN ENDPOINT: GET /users (BAD_REQUEST) ===");
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error de validación: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/page")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getUserPage(@QueryParam("cursor") String cursor,
+                                @QueryParam("limit") @DefaultValue("100") int limit) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /users/page?cursor=%s&limit=%s ===", cursor, limit);
         
-        LOG.info("Usuarios obtenidos: " + users.size());
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN ENDPOINT: GET /users ===");
+        try {
+            Page<User> page = userService.getUserPage(cursor, limit);
+            
+            LOG.debugf("Usuarios en la página: %s", page.items().size());
+            LOG.debug("=== FIN ENDPOINT: GET /users/page (SUCCESS) ===");
+            return Response.ok(page).build();
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            LOG.debug("=== FIN ENDPOINT: GET /users/page (BAD_REQUEST) ===");
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error de validación: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(APPLICATION_NDJSON)
+    public StreamingOutput streamAllUsers() {
+        LOG.debug("=== ENDPOINT LLAMADO: GET /users/stream ===");
         
-        return users;
+        // Un usuario por línea, escrito según se recorre el repositorio (sin lista intermedia)
+        ObjectWriter writer = objectMapper.writerFor(User.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return output -> {
+            long written = 0;
+            try (Stream<User> users = userService.streamAllUsers();
+                 JsonGenerator generator = objectMapper.createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Separador propio ('\n' tras cada usuario) en lugar del espacio por defecto de Jackson
+                generator.setRootValueSeparator(null);
+                Iterator<User> iterator = users.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    if (++written % STREAM_FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+            LOG.debugf("Usuarios emitidos: %s", written);
+            LOG.debug("=== FIN ENDPOINT: GET /users/stream ===");
+        };
     }
 
     @GET
     @Path("/{id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getUserById(@PathParam("id") int id) {
-        LOG.info("=== ENDPOINT LLAMADO: GET /users/" + id + " ===");
-        LOG.info("Iniciando proceso para obtener usuario con ID: " + id);
+    public Response getUserById(@PathParam("id") int id, @QueryParam("fields") String fields,
+                                @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /users/%s (fields=%s, If-None-Match: %s) ===", id, fields, ifNoneMatch);
+        LOG.debugf("Iniciando proceso para obtener usuario con ID: %s", id);
+        
+        FieldProjection<User> projection;
+        try {
+            projection = FieldProjection.parse(fields, USER_FIELDS);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            LOG.debugf("=== FIN ENDPOINT: GET /users/%s (BAD_REQUEST) ===", id);
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error de validación: " + e.getMessage())
+                    .build();
+        }
         
-        long startTime = System.currentTimeMillis();
         var userOptional = userService.getUserById(id);
-        long endTime = System.currentTimeMillis();
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            LOG.info("Usuario encontrado: " + user.getName() + " (ID: " + id + ")");
-            LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("=== FIN ENDPOINT: GET /users/" + id + " (SUCCESS) ===");
-            return Response.ok(user).build();
+            LOG.debugf("Usuario encontrado: %s (ID: %s)", user.getName(), id);
+            EntityTag tag = entityTag(user);
+            if (EntityTags.matches(ifNoneMatch, tag)) {
+                LOG.debugf("=== FIN ENDPOINT: GET /users/%s (NOT_MODIFIED) ===", id);
+                return Response.notModified(tag).build();
+            }
+            LOG.debugf("=== FIN ENDPOINT: GET /users/%s (SUCCESS) ===", id);
+            Object entity = projection == null ? user : projection.object(objectMapper.getFactory(), user);
+            return Response.ok(entity).tag(tag).build();
         } else {
             LOG.warn("Usuario no encontrado con ID: " + id);
-            LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("=== FIN ENDPOINT: GET /users/" + id + " (NOT_FOUND) ===");
+            LOG.debugf("=== FIN ENDPOINT: GET /users/%s (NOT_FOUND) ===", id);
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Usuario con ID " + id + " no encontrado")
                     .build();
@@ -106,22 +246,19 @@ public class UserResource {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response createUser(User user) {
-        LOG.info("=== ENDPOINT LLAMADO: POST /users ===");
-        LOG.info("Iniciando proceso para crear nuevo usuario");
+        LOG.debug("=== ENDPOINT LLAMADO: POST /users ===");
+        LOG.debug("Iniciando proceso para crear nuevo usuario");
         
         try {
-            long startTime = System.currentTimeMillis();
             User createdUser = userService.createUser(user);
-            long endTime = System.currentTimeMillis();
             
-            LOG.info("Usuario creado: " + createdUser.getName() + " (ID: " + createdUser.getId() + ")");
-            LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("=== FIN ENDPOINT: POST /users (SUCCESS) ===");
+            LOG.debugf("Usuario creado: %s (ID: %s)", createdUser.getName(), createdUser.getId());
+            LOG.debug("=== FIN ENDPOINT: POST /users (SUCCESS) ===");
             
-            return Response.status(Response.Status.CREATED).entity(createdUser).build();
+            return Response.status(Response.Status.CREATED).entity(createdUser).tag(entityTag(createdUser)).build();
         } catch (IllegalArgumentException e) {
             LOG.error("Error de validación: " + e.getMessage());
-            LOG.info("=== FIN ENDPOINT: POST /users (BAD_REQUEST) ===");
+            LOG.debug("=== FIN ENDPOINT: POST /users (BAD_REQUEST) ===");
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Error de validación: " + e.getMessage())
                     .build();
@@ -132,168 +269,287 @@ public class UserResource {
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response updateUser(@PathParam("id") int id, User user) {
-        LOG.info("=== ENDPOINT LLAMADO: PUT /users/" + id + " ===");
-        LOG.info("Iniciando proceso para actualizar usuario con ID: " + id);
+    public Response updateUser(@PathParam("id") int id, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch, User user) {
+        LOG.debugf("=== ENDPOINT LLAMADO: PUT /users/%s (If-Match: %s) ===", id, ifMatch);
+        LOG.debugf("Iniciando proceso para actualizar usuario con ID: %s", id);
         
         user.setId(id); // Asegurar que el ID coincida con el path parameter
         
         try {
-            long startTime = System.currentTimeMillis();
-            User updatedUser = userService.updateUser(user);
-            long endTime = System.currentTimeMillis();
+            // Con If-Match la actualización es compare-and-set sobre la versión (ETag)
+            OptionalLong expectedVersion = expectedVersion(ifMatch);
+            User updatedUser = expectedVersion.isPresent()
+                    ? userService.updateUser(user, expectedVersion.getAsLong())
+                    : userService.updateUser(user);
             
             if (updatedUser != null) {
-                LOG.info("Usuario actualizado: " + updatedUser.getName());
-                LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-                LOG.info("=== FIN ENDPOINT: PUT /users/" + id + " (SUCCESS) ===");
-                return Response.ok(updatedUser).build();
+                LOG.debugf("Usuario actualizado: %s (versión %s)", updatedUser.getName(), updatedUser.getVersion());
+                LOG.debugf("=== FIN ENDPOINT: PUT /users/%s (SUCCESS) ===", id);
+                return Response.ok(updatedUser).tag(entityTag(updatedUser)).build();
             } else {
                 LOG.warn("Usuario con ID " + id + " no encontrado para actualizar");
-                LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-                LOG.info("=== FIN ENDPOINT: PUT /users/" + id + " (NOT_FOUND) ===");
+                LOG.debugf("=== FIN ENDPOINT: PUT /users/%s (NOT_FOUND) ===", id);
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("Usuario con ID " + id + " no encontrado")
                         .build();
             }
+        } catch (VersionConflictException e) {
+            LOG.warn("Conflicto de versión: " + e.getMessage());
+            LOG.debugf("=== FIN ENDPOINT: PUT /users/%s (PRECONDITION_FAILED) ===", id);
+            // El ETag actual permite al cliente releer y reintentar
+            return Response.status(Response.Status.PRECONDITION_FAILED)
+                    .tag(EntityTags.resource(e.getCurrentVersion()))
+                    .entity("Conflicto de versión: " + e.getMessage())
+                    .build();
         } catch (IllegalArgumentException e) {
             LOG.error("Error de validación: " + e.getMessage());
-            LOG.info("=== FIN ENDPOINT: PUT /users/" + id + " (BAD_REQUEST) ===");
+            LOG.debugf("=== FIN ENDPOINT: PUT /users/%s (BAD_REQUEST) ===", id);
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Error de validación: " + e.getMessage())
                     .build();
         }
     }
 
+    /**
+     * Versión esperada de un If-Match (ver {@link EntityTags#expectedVersion}). Sin cabecera o con "*"
+     * la actualización es incondicional (si el usuario no existe ya responde 404).
+     */
+    static OptionalLong expectedVersion(String ifMatch) {
+        return EntityTags.expectedVersion(ifMatch);
+    }
+
+    /**
+     * Fallo de una llamada al pokemon-service en los endpoints que devuelven el cuerpo directamente:
+     * la saturación o el plazo vencido salen como 503 con Retry-After; el resto, como hasta ahora
+     */
+    private static <T> T pokemonServiceFailure(Throwable error) {
+        Throwable overload = pokemonServiceOverload(error);
+        if (overload != null) {
+            throw new WebApplicationException(pokemonServiceUnavailable(overload));
+        }
+        throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+    }
+
+    /**
+     * @return El rechazo del límite de concurrencia o el plazo vencido (ResilientInvoker) en la cadena de
+     *         causas, o null. No es que el Pokemon no exista: el cliente puede reintentar
+     */
+    private static Throwable pokemonServiceOverload(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException || cause instanceof TimeoutException) {
+                return cause;
+            }
+        }
+        return null;
+    }
+
+    private static Response pokemonServiceUnavailable(Throwable overload) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, POKEMON_RETRY_AFTER_SECONDS)
+                .entity("Pokemon Service saturado o sin respuesta, reintente más tarde: " + overload.getMessage())
+                .build();
+    }
+
+    private static EntityTag entityTag(User user) {
+        return EntityTags.resource(user.getVersion());
+    }
+
     @DELETE
     @Path("/{id}")
     public Response deleteUser(@PathParam("id") int id) {
-        LOG.info("=== ENDPOINT LLAMADO: DELETE /users/" + id + " ===");
-        LOG.info("Iniciando proceso para eliminar usuario con ID: " + id);
+        LOG.debugf("=== ENDPOINT LLAMADO: DELETE /users/%s ===", id);
+        LOG.debugf("Iniciando proceso para eliminar usuario con ID: %s", id);
         
         try {
-            long startTime = System.currentTimeMillis();
             boolean deleted = userService.deleteUser(id);
-            long endTime = System.currentTimeMillis();
             
             if (deleted) {
-                LOG.info("Usuario con ID " + id + " eliminado correctamente");
-                LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-                LOG.info("=== FIN ENDPOINT: DELETE /users/" + id + " (SUCCESS) ===");
+                LOG.debugf("Usuario con ID %s eliminado correctamente", id);
+                LOG.debugf("=== FIN ENDPOINT: DELETE /users/%s (SUCCESS) ===", id);
                 return Response.noContent().build();
             } else {
                 LOG.warn("Usuario con ID " + id + " no encontrado para eliminar");
-                LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-                LOG.info("=== FIN ENDPOINT: DELETE /users/" + id + " (NOT_FOUND) ===");
+                LOG.debugf("=== FIN ENDPOINT: DELETE /users/%s (NOT_FOUND) ===", id);
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("Usuario con ID " + id + " no encontrado")
                         .build();
             }
         } catch (IllegalArgumentException e) {
             LOG.error("Error de validación: " + e.getMessage());
-            LOG.info("=== FIN ENDPOINT: DELETE /users/" + id + " (BAD_REQUEST) ===");
+            LOG.debugf("=== FIN ENDPOINT: DELETE /users/%s (BAD_REQUEST) ===", id);
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Error de validación: " + e.getMessage())
                     .build();
         }
     }
 
-    // Endpoints para comunicación con Pokemon Service
     @GET
-    @Path("/pokemon")
+    @Path("/{id}/team")
     @Produces(MediaType.APPLICATION_JSON)
-    public Pokemon getRandomPokemon() {
-        LOG.info("=== ENDPOINT LLAMADO: GET /users/pokemon ===");
-        LOG.info("Iniciando proceso para obtener Pokemon aleatorio desde Pokemon Service");
+    public CompletionStage<Response> getUserTeam(@PathParam("id") int id) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /users/%s/team ===", id);
+        LOG.debugf("Iniciando proceso para obtener el equipo Pokemon del usuario con ID: %s", id);
         
-        long startTime = System.currentTimeMillis();
-        Pokemon pokemon = pokemonClientService.getRandomPokemon();
-        long endTime = System.currentTimeMillis();
+        var userOptional = userService.getUserById(id);
+        if (userOptional.isEmpty()) {
+            LOG.warn("Usuario no encontrado con ID: " + id);
+            LOG.debugf("=== FIN ENDPOINT: GET /users/%s/team (NOT_FOUND) ===", id);
+            return CompletableFuture.completedFuture(Response.status(Response.Status.NOT_FOUND)
+                    .entity("Usuario con ID " + id + " no encontrado")
+                    .build());
+        }
         
-        LOG.info("Pokemon aleatorio obtenido: " + pokemon.getName());
-        LOG.info("Tiempo total de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN ENDPOINT: GET /users/pokemon ===");
+        // Los Pokemons se piden en paralelo; si alguno no llega en plazo la respuesta es parcial
+        // (200 con complete=false y el estado de cada miembro)
+        User user = userOptional.get();
+        return pokemonClientAsyncService.getPokemonTeam(user.getTeam())
+                .thenApply(members -> {
+                    boolean complete = members.stream().allMatch(member -> member.status().equals("OK"));
+                    LOG.debugf("Equipo de %s: %s Pokemons (completo: %s)", user.getName(), members.size(), complete);
+                    LOG.debugf("=== FIN ENDPOINT: GET /users/%s/team (SUCCESS) ===", id);
+                    return Response.ok(new UserTeam(user, members, complete)).build();
+                });
+    }
+
+    // Endpoints para comunicación con Pokemon Service
+    // Devuelven CompletionStage: RESTEasy Reactive no reserva un hilo worker durante la llamada DAPR.
+    // Con pokemon-client.execution-mode=worker|virtual-threads el servicio espera en esos hilos
+    @GET
+    @Path("/pokemon")
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<Pokemon> getRandomPokemon() {
+        LOG.debug("=== ENDPOINT LLAMADO: GET /users/pokemon ===");
+        LOG.debug("Iniciando proceso para obtener Pokemon aleatorio desde Pokemon Service");
         
-        return pokemon;
+        return pokemonClientAsyncService.getRandomPokemon()
+                .thenApply(pokemon -> {
+                    LOG.debugf("Pokemon aleatorio obtenido: %s", pokemon.getName());
+                    LOG.debug("=== FIN ENDPOINT: GET /users/pokemon ===");
+                    return pokemon;
+                })
+                .exceptionally(UserResource::pokemonServiceFailure);
     }
 
     @GET
     @Path("/pokemon/{id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getPokemonById(@PathParam("id") int id) {
-        LOG.info("=== ENDPOINT LLAMADO: GET /users/pokemon/" + id + " ===");
-        LOG.info("Iniciando proceso para obtener Pokemon con ID: " + id + " desde Pokemon Service");
+    public CompletionStage<Response> getPokemonById(@PathParam("id") int id) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /users/pokemon/%s ===", id);
+        LOG.debugf("Iniciando proceso para obtener Pokemon con ID: %s desde Pokemon Service", id);
         
-        try {
-            long startTime = System.currentTimeMillis();
-            Pokemon pokemon = pokemonClientService.getPokemonById(id);
-            long endTime = System.currentTimeMillis();
-            
-            LOG.info("Pokemon obtenido: " + pokemon.getName());
-            LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("=== FIN ENDPOINT: GET /users/pokemon/" + id + " (SUCCESS) ===");
-            
-            return Response.ok(pokemon).build();
-        } catch (Exception e) {
-            LOG.error("Error obteniendo Pokemon: " + e.getMessage());
-            LOG.info("=== FIN ENDPOINT: GET /users/pokemon/" + id + " (ERROR) ===");
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Pokemon with ID " + id + " not found or service unavailable")
-                    .build();
-        }
+        return pokemonClientAsyncService.getPokemonById(id)
+                .thenApply(pokemon -> {
+                    LOG.debugf("Pokemon obtenido: %s", pokemon.getName());
+                    LOG.debugf("=== FIN ENDPOINT: GET /users/pokemon/%s (SUCCESS) ===", id);
+                    return Response.ok(pokemon).build();
+                })
+                .exceptionally(e -> {
+                    // Las etapas encadenadas envuelven el error original en CompletionException
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    LOG.error("Error obteniendo Pokemon: " + cause.getMessage());
+                    LOG.debugf("=== FIN ENDPOINT: GET /users/pokemon/%s (ERROR) ===", id);
+                    Throwable overload = pokemonServiceOverload(cause);
+                    if (overload != null) {
+                        return pokemonServiceUnavailable(overload);
+                    }
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("Pokemon with ID " + id + " not found or service unavailable")
+                            .build();
+                });
     }
 
     @GET
     @Path("/pokemon/list")
     @Produces(MediaType.APPLICATION_JSON)
-    public List<Pokemon> getAllPokemons() {
-        LOG.info("=== ENDPOINT LLAMADO: GET /users/pokemon/list ===");
-        LOG.info("Iniciando proceso para obtener lista de Pokemons desde Pokemon Service");
-        
-        long startTime = System.currentTimeMillis();
-        List<Pokemon> pokemons = pokemonClientService.getAllPokemons();
-        long endTime = System.currentTimeMillis();
+    public CompletionStage<Response> getAllPokemons(@QueryParam("fields") String fields,
+                                                    @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /users/pokemon/list (fields=%s, If-None-Match: %s) ===", fields, ifNoneMatch);
+        LOG.debug("Iniciando proceso para obtener lista de Pokemons desde Pokemon Service");
         
-        LOG.info("Lista de Pokemons obtenida: " + pokemons.size() + " Pokemons");
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN ENDPOINT: GET /users/pokemon/list ===");
+        FieldProjection<Pokemon> projection;
+        try {
+            projection = FieldProjection.parse(fields, POKEMON_FIELDS);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            LOG.debug("=== FIN ENDPOINT: GET /users/pokemon/list (BAD_REQUEST) ===");
+            return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error de validación: " + e.getMessage())
+                    .build());
+        }
         
-        return pokemons;
+        // Con proyección el pokemon-service ya devuelve solo esos campos; aquí se omiten los
+        // que el decodificador dejó a null/0 en lugar de reenviarlos
+        CompletionStage<List<Pokemon>> pokemons = projection == null
+                ? pokemonClientAsyncService.getAllPokemons()
+                : pokemonClientAsyncService.getAllPokemons(projection.fields());
+        return pokemons.thenApply(list -> {
+            LOG.debugf("Lista de Pokemons obtenida: %s Pokemons", list.size());
+            // El cuerpo depende solo de la lista, así que vale el ETag que le dio el pokemon-service
+            EntityTag tag = EntityTags.valueOf(pokemonClient.entityTag(list));
+            if (EntityTags.matches(ifNoneMatch, tag)) {
+                LOG.debug("=== FIN ENDPOINT: GET /users/pokemon/list (NOT_MODIFIED) ===");
+                return Response.notModified(tag).build();
+            }
+            LOG.debug("=== FIN ENDPOINT: GET /users/pokemon/list ===");
+            return projection == null
+                    ? Response.ok(list).tag(tag).build()
+                    : Response.ok(projection.array(objectMapper.getFactory(), list.stream())).tag(tag).build();
+        }).exceptionally(e -> {
+            Throwable overload = pokemonServiceOverload(e);
+            if (overload == null) {
+                throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+            }
+            LOG.debug("=== FIN ENDPOINT: GET /users/pokemon/list (SERVICE_UNAVAILABLE) ===");
+            return pokemonServiceUnavailable(overload);
+        });
     }
 
     @GET
     @Path("/pokemon/list/grpc")
     @Produces(MediaType.APPLICATION_JSON)
-    public List<Pokemon> getAllPokemonsGrpc() {
-        LOG.info("=== ENDPOINT LLAMADO: GET /users/pokemon/list/grpc ===");
-        LOG.info("Iniciando proceso para obtener lista de Pokemons via DAPR gRPC desde Pokemon Service");
-        
-        long startTime = System.currentTimeMillis();
-        List<Pokemon> pokemons = pokemonClientService.getAllPokemonsGrpc();
-        long endTime = System.currentTimeMillis();
-        
-        LOG.info("Lista de Pokemons obtenida via gRPC: " + pokemons.size() + " Pokemons");
-        LOG.info("Tiempo de respuesta gRPC: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN ENDPOINT: GET /users/pokemon/list/grpc ===");
+    public CompletionStage<List<Pokemon>> getAllPokemonsGrpc() {
+        LOG.debug("=== ENDPOINT LLAMADO: GET /users/pokemon/list/grpc ===");
+        LOG.debug("Iniciando proceso para obtener lista de Pokemons via DAPR gRPC desde Pokemon Service");
         
-        return pokemons;
+        return pokemonClientAsyncService.getAllPokemonsGrpc()
+                .thenApply(pokemons -> {
+                    LOG.debugf("Lista de Pokemons obtenida via gRPC: %s Pokemons", pokemons.size());
+                    LOG.debug("=== FIN ENDPOINT: GET /users/pokemon/list/grpc ===");
+                    return pokemons;
+                })
+                .exceptionally(UserResource::pokemonServiceFailure);
     }
 
     @GET
     @Path("/pokemon-service/hello")
     @Produces(MediaType.TEXT_PLAIN)
-    public String getPokemonServiceHello() {
-        LOG.info("=== ENDPOINT LLAMADO: GET /users/pokemon-service/hello ===");
-        LOG.info("Iniciando proceso para obtener saludo desde Pokemon Service");
+    public CompletionStage<String> getPokemonServiceHello() {
+        LOG.debug("=== ENDPOINT LLAMADO: GET /users/pokemon-service/hello ===");
+        LOG.debug("Iniciando proceso para obtener saludo desde Pokemon Service");
         
-        long startTime = System.currentTimeMillis();
-        String response = pokemonClientService.getPokemonServiceHello();
-        long endTime = System.currentTimeMillis();
+        return pokemonClientAsyncService.getPokemonServiceHello()
+                .thenApply(response -> {
+                    LOG.debugf("Saludo obtenido: %s", response);
+                    LOG.debug("=== FIN ENDPOINT: GET /users/pokemon-service/hello ===");
+                    return response;
+                })
+                .exceptionally(UserResource::pokemonServiceFailure);
+    }
+
+    @GET
+    @Path("/pokemon/stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Object> getPokemonClientStats() {
+        LOG.debug("=== ENDPOINT LLAMADO: GET /users/pokemon/stats ===");
         
-        LOG.info("Saludo obtenido: " + response);
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN ENDPOINT: GET /users/pokemon-service/hello ===");
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cache", pokemonCache.stats());
+        stats.put("coalescing", pokemonClient.coalescingStats());
+        stats.put("batching", pokemonClient.batchingStats());
+        stats.put("conditional", pokemonClient.conditionalStats());
+        stats.put("resilience", pokemonClient.resilienceStats());
         
-        return response;
+        LOG.debug("=== FIN ENDPOINT: GET /users/pokemon/stats ===");
+        return stats;
     }
-} 
\ No newline at end of file
+}
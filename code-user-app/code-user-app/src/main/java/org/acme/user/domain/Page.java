@@ -0,0 +1,12 @@
+package org.acme.user.domain;
+
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor.
+ *
+ * @param items Elementos de la página, ordenados por ID
+ * @param nextCursor Cursor para pedir la página siguiente (null si no hay más)
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+}
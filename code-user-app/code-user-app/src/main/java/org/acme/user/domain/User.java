@@ -1,9 +1,20 @@
 package org.acme.user.domain;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class User {
+    // Tamaño máximo del equipo Pokemon de un usuario
+    public static final int MAX_TEAM_SIZE = 6;
+
     private int id;
     private String name;
     private String email;
+    // IDs de los Pokemons del equipo, en orden (nunca null)
+    private List<Integer> team = List.of();
+    // Versión del registro: 1 al crearse, +1 en cada actualización (0 = sin guardar)
+    private long version;
 
     public User() {}
 
@@ -23,12 +34,23 @@ public class User {
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
 
+    public List<Integer> getTeam() { return team; }
+    // Copia inmutable que admite IDs null (p. ej. "team":[1,null]): la validación del servicio los rechaza con un 400
+    public void setTeam(List<Integer> team) {
+        this.team = team == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(team));
+    }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     @Override
     public String toString() {
         return "User{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
+                ", team=" + team +
+                ", version=" + version +
                 '}';
     }
 } 
\ No newline at end of file
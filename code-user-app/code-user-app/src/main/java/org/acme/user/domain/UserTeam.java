@@ -0,0 +1,25 @@
+package org.acme.user.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Usuario con su equipo Pokemon resuelto (GET /users/{id}/team).
+ *
+ * @param user Usuario
+ * @param members Un elemento por Pokemon del equipo, en el orden del equipo
+ * @param complete true si se obtuvieron todos los Pokemons del equipo
+ */
+public record UserTeam(User user, List<Member> members, boolean complete) {
+
+    /**
+     * @param pokemonId ID del Pokemon en el equipo
+     * @param status OK, ERROR (el Pokemon Service falló o no lo tiene) o TIMEOUT (no llegó a tiempo)
+     * @param pokemon Pokemon (solo con OK)
+     * @param error Motivo del fallo (solo con ERROR)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Member(int pokemonId, String status, Pokemon pokemon, String error) {
+    }
+}
@@ -0,0 +1,35 @@
+package org.acme.user.logging;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+/**
+ * Una línea INFO por petición HTTP con formato clave=valor (método, ruta, estado, duración).
+ *
+ * Es el único log por petición en el modo de producción; el detalle paso a paso de
+ * controller/service/repository queda en DEBUG y no se construye si ese nivel está desactivado.
+ */
+public class RequestSummaryFilter {
+
+    private static final Logger LOG = Logger.getLogger(RequestSummaryFilter.class);
+    private static final String START_NANOS = RequestSummaryFilter.class.getName() + ".start";
+
+    @ServerRequestFilter
+    public void start(ContainerRequestContext requestContext) {
+        requestContext.setProperty(START_NANOS, System.nanoTime());
+    }
+
+    @ServerResponseFilter
+    public void summary(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (!LOG.isInfoEnabled()) {
+            return;
+        }
+        Object start = requestContext.getProperty(START_NANOS);
+        long durationMicros = start instanceof Long nanos ? (System.nanoTime() - nanos) / 1_000 : -1;
+        LOG.infof("http method=%s path=%s status=%d duration_us=%d", requestContext.getMethod(),
+                requestContext.getUriInfo().getPath(), responseContext.getStatus(), durationMicros);
+    }
+}
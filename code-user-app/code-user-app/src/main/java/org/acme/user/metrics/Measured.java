@@ -0,0 +1,25 @@
+package org.acme.user.metrics;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mide cada método público del bean con {@link MeasuredInterceptor}: latencia (p50/p95/p99),
+ * errores y llamadas en curso, etiquetados con la capa, la clase y el método.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Measured {
+
+    /**
+     * Capa a la que pertenece el bean (controller, service, repository, client...)
+     */
+    @Nonbinding
+    String value() default "";
+}
@@ -3,6 +3,7 @@ package org.acme.user.repository;
 import org.acme.user.domain.User;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository {
     
@@ -19,6 +20,27 @@ public interface UserRepository {
      */
     List<User> findAll();
     
+    /**
+     * Recorre todos los usuarios sin copiar la colección
+     * @return Stream sobre una instantánea de los datos
+     */
+    Stream<User> streamAll();
+    
+    /**
+     * Versión de la colección: crece con cada alta, actualización o borrado. Debe leerse antes que
+     * los datos, para que una versión nunca sea más nueva que lo que se devuelve con ella
+     * @return Versión actual (0 al arrancar)
+     */
+    long collectionVersion();
+    
+    /**
+     * Obtiene una página de usuarios ordenada por ID
+     * @param afterId Solo se devuelven usuarios con ID mayor que este (0 = desde el principio)
+     * @param limit Número máximo de usuarios a devolver
+     * @return Usuarios de la página, ordenados por ID
+     */
+    List<User> findPage(int afterId, int limit);
+    
     /**
      * Guarda un usuario
      * @param user Usuario a guardar
@@ -33,6 +55,15 @@ public interface UserRepository {
      */
     User update(User user);
     
+    /**
+     * Actualiza un usuario solo si sigue en la versión esperada (compare-and-set)
+     * @param user Usuario a actualizar
+     * @param expectedVersion Versión que el cliente leyó
+     * @return Usuario actualizado con su nueva versión, o null si no existe
+     * @throws VersionConflictException si el usuario ya está en otra versión
+     */
+    User update(User user, long expectedVersion);
+    
     /**
      * Elimina un usuario por su ID
      * @param id ID del usuario a eliminar
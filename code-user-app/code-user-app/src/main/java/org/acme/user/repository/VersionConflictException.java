@@ -0,0 +1,24 @@
+package org.acme.user.repository;
+
+/**
+ * Actualización condicional rechazada: la versión esperada ya no es la del usuario guardado
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final int id;
+    private final long expectedVersion;
+    private final long currentVersion;
+
+    public VersionConflictException(int id, long expectedVersion, long currentVersion) {
+        super("Usuario " + id + " en versión " + currentVersion + ", se esperaba " + expectedVersion);
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+
+    public int getId() { return id; }
+
+    public long getExpectedVersion() { return expectedVersion; }
+
+    public long getCurrentVersion() { return currentVersion; }
+}
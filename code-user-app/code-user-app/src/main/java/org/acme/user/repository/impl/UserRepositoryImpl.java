@@ -2,110 +2,518 @@ package org.acme.user.repository.impl;
 
 import org.acme.user.domain.User;
 import org.acme.user.repository.UserRepository;
+import org.acme.user.repository.VersionConflictException;
+import org.acme.user.metrics.Measured;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @ApplicationScoped
+@Measured("repository")
 public class UserRepositoryImpl implements UserRepository {
     
     private static final Logger LOG = Logger.getLogger(UserRepositoryImpl.class);
+    // Usuarios leídos por página al recorrer el repositorio completo
+    private static final int STREAM_PAGE_SIZE = 256;
+    // Versión esperada de un update incondicional
+    private static final long ANY_VERSION = -1;
+    // Locks de escritura por ID (potencia de 2): las escrituras sobre IDs distintos no se esperan
+    private static final int WRITE_STRIPES = 64;
     
     // Datos mock - en una implementación real esto vendría de una base de datos
-    private final CopyOnWriteArrayList<User> users = new CopyOnWriteArrayList<>();
+    // Índice por ID: lecturas O(1) sin lock, escrituras sin copiar la colección
+    private final IntIndex<User> users = new IntIndex<>();
+    // Último ID asignado; se adelanta también con los IDs explícitos para no repetirlos
+    private final AtomicInteger idSequence = new AtomicInteger();
+    // Ordenan las escrituras de un mismo ID: su orden en el WAL es el orden en que se aplican al índice
+    private final ReentrantLock[] writeLocks = new ReentrantLock[WRITE_STRIPES];
+    // Las escrituras lo comparten (read) entre el WAL y el índice; el checkpoint de un snapshot lo toma
+    // en exclusiva (write) para que todo registro anterior a su secuencia esté ya en el índice
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    // Versión de la colección: se incrementa después de aplicar cada escritura
+    private final AtomicLong collectionVersion = new AtomicLong();
+    
+    // Persistencia opcional: WAL + snapshots en disco, recuperados al arrancar
+    @ConfigProperty(name = "user-repository.persistence.enabled", defaultValue = "false")
+    boolean persistenceEnabled;
+    
+    @ConfigProperty(name = "user-repository.persistence.dir", defaultValue = "data/user-app")
+    String persistenceDir;
+    
+    @ConfigProperty(name = "user-repository.persistence.segment-size", defaultValue = "64M")
+    MemorySize segmentSize;
+    
+    @ConfigProperty(name = "user-repository.persistence.snapshot-interval", defaultValue = "1m")
+    Duration snapshotInterval;
+    
+    @ConfigProperty(name = "user-repository.persistence.snapshot-min-records", defaultValue = "100000")
+    long snapshotMinRecords;
+    
+    // Write-behind delante del WAL: la escritura vuelve sin esperar al fsync y el volcado va por lotes
+    @ConfigProperty(name = "user-repository.write-behind.enabled", defaultValue = "false")
+    boolean writeBehindEnabled;
+    
+    @ConfigProperty(name = "user-repository.write-behind.batch-size", defaultValue = "256")
+    int writeBehindBatchSize;
+    
+    @ConfigProperty(name = "user-repository.write-behind.max-delay", defaultValue = "10ms")
+    Duration writeBehindMaxDelay;
+    
+    @ConfigProperty(name = "user-repository.write-behind.capacity", defaultValue = "10000")
+    int writeBehindCapacity;
+    
+    @Inject
+    MeterRegistry registry;
+    
+    // null sin persistencia
+    private UserWriteAheadLog wal;
+    // null sin write-behind
+    private WriteBehindBuffer<User> writeBehind;
+    private ScheduledExecutorService snapshotScheduler;
     
     public UserRepositoryImpl() {
+        for (int i = 0; i < WRITE_STRIPES; i++) {
+            writeLocks[i] = new ReentrantLock();
+        }
         // Inicializar con algunos usuarios de ejemplo
-        users.add(new User(1, "John Doe", "john.doe@example.com"));
-        users.add(new User(2, "Jane Smith", "jane.smith@example.com"));
-        users.add(new User(3, "Bob Johnson", "bob.johnson@example.com"));
+        sampleUsers().forEach(this::save);
         LOG.info("UserRepositoryImpl inicializado con " + users.size() + " usuarios de ejemplo");
     }
 
+    /**
+     * Usuarios de ejemplo con los que arranca un repositorio vacío (instancias nuevas en cada llamada)
+     */
+    static List<User> sampleUsers() {
+        return List.of(
+            sampleUser(1, "John Doe", "john.doe@example.com", List.of(25, 4, 7)),
+            sampleUser(2, "Jane Smith", "jane.smith@example.com", List.of(1, 133)),
+            sampleUser(3, "Bob Johnson", "bob.johnson@example.com", List.of()));
+    }
+
+    private static User sampleUser(int id, String name, String email, List<Integer> team) {
+        User user = new User(id, name, email);
+        user.setTeam(team);
+        return user;
+    }
+
+    @PostConstruct
+    void init() {
+        if (persistenceEnabled) {
+            openPersistence(new UserWriteAheadLog.Options(Path.of(persistenceDir), (int) segmentSize.asLongValue(),
+                    snapshotInterval, snapshotMinRecords));
+            if (writeBehindEnabled) {
+                enableWriteBehind(writeBehindBatchSize, writeBehindMaxDelay, writeBehindCapacity);
+            }
+        } else if (writeBehindEnabled) {
+            LOG.warn("⚠️ user-repository.write-behind.enabled sin persistencia: no hay nada que volcar, se ignora");
+        }
+    }
+
+    /**
+     * Activa la persistencia: el estado en disco (snapshot + log) sustituye a los usuarios de
+     * ejemplo; si el directorio está vacío, los usuarios de ejemplo se escriben en el log.
+     */
+    void openPersistence(UserWriteAheadLog.Options options) {
+        long lastSequence = 0;
+        checkpointLock.writeLock().lock();
+        try {
+            sampleUsers().forEach(user -> users.remove(user.getId()));
+            idSequence.set(0);
+            wal = UserWriteAheadLog.open(options, new UserWriteAheadLog.Target() {
+                @Override
+                public void put(User user) {
+                    users.put(user.getId(), user);
+                }
+
+                @Override
+                public void delete(int id) {
+                    users.remove(id);
+                }
+            });
+            UserWriteAheadLog.Recovery recovery = wal.recovery();
+            idSequence.set(recovery.maxId());
+            if (recovery.snapshotSequence() == 0 && recovery.replayedRecords() == 0) {
+                for (User user : sampleUsers()) {
+                    user.setVersion(1);
+                    lastSequence = wal.append(UserWriteAheadLog.RecordType.CREATE, user.getId(), user);
+                    users.put(user.getId(), user);
+                    idSequence.accumulateAndGet(user.getId(), Math::max);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir la persistencia de usuarios en " + options.dir(), e);
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+        awaitDurable(lastSequence);
+
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("user-snapshot").daemon().factory());
+        long periodMillis = options.snapshotInterval().toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(this::snapshotIfDue, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        LOG.info("💾 Persistencia de usuarios activa en " + options.dir() + ": " + users.size() + " usuarios");
+    }
+
+    /**
+     * Las escrituras dejan de esperar al fsync: se aplican al índice (las lecturas las ven ya)
+     * y se vuelcan al WAL por lotes, fundiendo las del mismo ID. Lo no volcado se pierde si el
+     * proceso cae.
+     */
+    void enableWriteBehind(int batchSize, Duration maxDelay, int capacity) {
+        writeBehind = new WriteBehindBuffer<>("users", this::appendBatch, batchSize, maxDelay, capacity, registry);
+        LOG.info("✅ Write-behind de usuarios: lote=" + batchSize + ", espera máxima=" + maxDelay + ", capacidad=" + capacity);
+    }
+
+    /**
+     * Vuelca un lote al WAL con un solo fsync al final
+     */
+    private void appendBatch(List<WriteBehindBuffer.Mutation<User>> batch) throws IOException {
+        long lastSequence = 0;
+        for (WriteBehindBuffer.Mutation<User> mutation : batch) {
+            // Al recuperar, CREATE y UPDATE se aplican igual: basta con el estado final del ID
+            lastSequence = mutation.isDelete()
+                    ? wal.append(UserWriteAheadLog.RecordType.DELETE, mutation.id(), null)
+                    : wal.append(UserWriteAheadLog.RecordType.UPDATE, mutation.id(), mutation.value());
+        }
+        wal.awaitDurable(lastSequence);
+    }
+
+    /**
+     * Escribe un snapshot si desde el anterior se han escrito suficientes registros
+     */
+    void snapshotIfDue() {
+        try {
+            if (wal.recordsSinceSnapshot() >= wal.options().snapshotMinRecords()) {
+                snapshot();
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.error("❌ Error escribiendo el snapshot de usuarios: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Snapshot sin detener las escrituras: solo se toma la secuencia (y se cambia de segmento) con el lock
+     */
+    void snapshot() throws IOException {
+        long sequence;
+        int maxId;
+        checkpointLock.writeLock().lock();
+        try {
+            sequence = wal.checkpoint();
+            maxId = idSequence.get();
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+        wal.writeSnapshot(sequence, maxId, streamAll());
+    }
+
+    UserWriteAheadLog wal() {
+        return wal;
+    }
+
+    WriteBehindBuffer<User> writeBehind() {
+        return writeBehind;
+    }
+
+    @PreDestroy
+    void close() {
+        if (wal == null) {
+            return;
+        }
+        snapshotScheduler.shutdownNow();
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+        try {
+            if (wal.recordsSinceSnapshot() > 0) {
+                snapshot();
+            }
+        } catch (IOException e) {
+            LOG.error("❌ Error escribiendo el snapshot de usuarios al cerrar: " + e.getMessage());
+        }
+        wal.close();
+    }
+
     @Override
     public Optional<User> findById(int id) {
-        LOG.info("=== REPOSITORY: findById(id=" + id + ") ===");
+        LOG.debugf("=== REPOSITORY: findById(id=%s) ===", id);
         
-        Optional<User> user = users.stream()
-                .filter(u -> u.getId() == id)
-                .findFirst();
+        Optional<User> user = Optional.ofNullable(users.get(id));
         
         if (user.isPresent()) {
-            LOG.info("Usuario encontrado: " + user.get().getName());
+            LOG.debugf("Usuario encontrado: %s", user.get().getName());
         } else {
             LOG.warn("Usuario con ID " + id + " no encontrado");
         }
         
-        LOG.info("=== FIN REPOSITORY: findById(id=" + id + ") ===");
+        LOG.debugf("=== FIN REPOSITORY: findById(id=%s) ===", id);
         return user;
     }
 
     @Override
     public List<User> findAll() {
-        LOG.info("=== REPOSITORY: findAll() ===");
-        List<User> userList = List.copyOf(users);
+        LOG.debug("=== REPOSITORY: findAll() ===");
+        List<User> userList = streamAll().toList();
         
-        LOG.info("Lista de usuarios obtenida: " + userList.size() + " usuarios");
-        LOG.info("Usuarios en la lista: " + userList.stream().map(User::getName).toList());
-        LOG.info("=== FIN REPOSITORY: findAll() ===");
+        LOG.debugf("Lista de usuarios obtenida: %s usuarios", userList.size());
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Usuarios en la lista: %s", userList.stream().map(User::getName).toList());
+        }
+        LOG.debug("=== FIN REPOSITORY: findAll() ===");
         
         return userList;
     }
 
+    @Override
+    public Stream<User> streamAll() {
+        LOG.debug("=== REPOSITORY: streamAll() ===");
+        // Recorrido por páginas en orden de ID: en memoria solo la página en curso
+        Iterator<User> iterator = new Iterator<>() {
+            private List<User> page = List.of();
+            private int position;
+            private int lastId = Integer.MIN_VALUE;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (position < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = users.valuesAfter(lastId, STREAM_PAGE_SIZE);
+                position = 0;
+                exhausted = page.size() < STREAM_PAGE_SIZE;
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getId();
+                }
+                return !page.isEmpty();
+            }
+
+            @Override
+            public User next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(position++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public List<User> findPage(int afterId, int limit) {
+        LOG.debugf("=== REPOSITORY: findPage(afterId=%s, limit=%s) ===", afterId, limit);
+        
+        List<User> page = users.valuesAfter(afterId, limit);
+        
+        LOG.debugf("Página obtenida: %s usuarios", page.size());
+        LOG.debug("=== FIN REPOSITORY: findPage() ===");
+        return page;
+    }
+
+    @Override
+    public long collectionVersion() {
+        return collectionVersion.get();
+    }
+
     @Override
     public User save(User user) {
-        LOG.info("=== REPOSITORY: save(user=" + user.getName() + ") ===");
+        LOG.debugf("=== REPOSITORY: save(user=%s) ===", user.getName());
         
-        // Generar ID si no tiene uno
-        if (user.getId() == 0) {
-            int newId = users.stream()
-                    .mapToInt(User::getId)
-                    .max()
-                    .orElse(0) + 1;
-            user.setId(newId);
-            LOG.info("ID generado para nuevo usuario: " + newId);
+        long sequence;
+        User stored;
+        checkpointLock.readLock().lock();
+        try {
+            // Generar ID si no tiene uno (secuencia atómica: sin IDs duplicados bajo concurrencia)
+            int id = user.getId();
+            if (id == 0) {
+                id = idSequence.incrementAndGet();
+                LOG.debugf("ID generado para nuevo usuario: %s", id);
+            } else {
+                idSequence.accumulateAndGet(id, Math::max);
+            }
+            ReentrantLock lock = writeLock(id);
+            lock.lock();
+            try {
+                // Guardar sobre un ID existente cuenta como una versión más
+                User current = users.get(id);
+                stored = copyOf(user, id, current == null ? 1 : current.getVersion() + 1);
+                sequence = log(UserWriteAheadLog.RecordType.CREATE, id, stored);
+                users.put(id, stored);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            checkpointLock.readLock().unlock();
         }
+        collectionVersion.incrementAndGet();
+        // El fsync se espera fuera de los locks: las escrituras concurrentes comparten el mismo (group commit)
+        awaitDurable(sequence);
+        LOG.debugf("Usuario guardado: %s (ID: %s)", stored.getName(), stored.getId());
+        LOG.debug("=== FIN REPOSITORY: save() ===");
         
-        users.add(user);
-        LOG.info("Usuario guardado: " + user.getName() + " (ID: " + user.getId() + ")");
-        LOG.info("=== FIN REPOSITORY: save() ===");
-        
-        return user;
+        return stored;
     }
 
     @Override
     public User update(User user) {
-        LOG.info("=== REPOSITORY: update(user=" + user.getName() + ", ID=" + user.getId() + ") ===");
+        return update(user, ANY_VERSION);
+    }
+
+    @Override
+    public User update(User user, long expectedVersion) {
+        LOG.debugf("=== REPOSITORY: update(user=%s, ID=%s, expectedVersion=%s) ===", user.getName(), user.getId(),
+                expectedVersion);
         
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getId() == user.getId()) {
-                users.set(i, user);
-                LOG.info("Usuario actualizado: " + user.getName());
-                LOG.info("=== FIN REPOSITORY: update() ===");
-                return user;
+        int id = user.getId();
+        long sequence = -1;
+        User stored = null;
+        checkpointLock.readLock().lock();
+        ReentrantLock lock = writeLock(id);
+        lock.lock();
+        try {
+            // Compare-and-set sobre la ranura del ID: solo se sustituye la versión comprobada. El lock del
+            // ID mantiene además el orden del WAL igual al del índice entre escrituras del mismo ID
+            for (User current = users.get(id); current != null; current = users.get(id)) {
+                if (expectedVersion != ANY_VERSION && current.getVersion() != expectedVersion) {
+                    throw new VersionConflictException(id, expectedVersion, current.getVersion());
+                }
+                User candidate = copyOf(user, id, current.getVersion() + 1);
+                if (users.replace(id, current, candidate)) {
+                    try {
+                        sequence = log(UserWriteAheadLog.RecordType.UPDATE, id, candidate);
+                    } catch (RuntimeException e) {
+                        // Sin registro en el WAL no se aplica: el índice vuelve a la versión anterior
+                        users.replace(id, candidate, current);
+                        throw e;
+                    }
+                    stored = candidate;
+                    break;
+                }
             }
+        } finally {
+            lock.unlock();
+            checkpointLock.readLock().unlock();
+        }
+        
+        if (stored != null) {
+            collectionVersion.incrementAndGet();
+            awaitDurable(sequence);
+            LOG.debugf("Usuario actualizado: %s (versión %s)", stored.getName(), stored.getVersion());
+            LOG.debug("=== FIN REPOSITORY: update() ===");
+            return stored;
         }
         
-        LOG.warn("Usuario con ID " + user.getId() + " no encontrado para actualizar");
-        LOG.info("=== FIN REPOSITORY: update() ===");
+        LOG.warn("Usuario con ID " + id + " no encontrado para actualizar");
+        LOG.debug("=== FIN REPOSITORY: update() ===");
         return null;
     }
 
     @Override
     public boolean deleteById(int id) {
-        LOG.info("=== REPOSITORY: deleteById(id=" + id + ") ===");
+        LOG.debugf("=== REPOSITORY: deleteById(id=%s) ===", id);
         
-        boolean removed = users.removeIf(user -> user.getId() == id);
+        long sequence = -1;
+        checkpointLock.readLock().lock();
+        ReentrantLock lock = writeLock(id);
+        lock.lock();
+        try {
+            if (users.containsKey(id)) {
+                sequence = log(UserWriteAheadLog.RecordType.DELETE, id, null);
+                users.remove(id);
+            }
+        } finally {
+            lock.unlock();
+            checkpointLock.readLock().unlock();
+        }
+        boolean removed = sequence >= 0;
         
         if (removed) {
-            LOG.info("Usuario con ID " + id + " eliminado correctamente");
+            collectionVersion.incrementAndGet();
+            awaitDurable(sequence);
+            LOG.debugf("Usuario con ID %s eliminado correctamente", id);
         } else {
             LOG.warn("Usuario con ID " + id + " no encontrado para eliminar");
         }
         
-        LOG.info("=== FIN REPOSITORY: deleteById() ===");
+        LOG.debug("=== FIN REPOSITORY: deleteById() ===");
         return removed;
     }
-} 
\ No newline at end of file
+
+    private ReentrantLock writeLock(int id) {
+        return writeLocks[id & (WRITE_STRIPES - 1)];
+    }
+
+    /**
+     * Copia que guarda el repositorio: la instancia del llamante no se modifica ni se comparte
+     */
+    private static User copyOf(User user, int id, long version) {
+        User copy = new User(id, user.getName(), user.getEmail());
+        copy.setTeam(user.getTeam());
+        copy.setVersion(version);
+        return copy;
+    }
+
+    /**
+     * Escribe el cambio en el WAL o en el write-behind (con el lock del ID tomado, para que el
+     * orden por ID sea el del índice)
+     *
+     * @return Secuencia del registro a esperar, o 0 si no hay que esperar
+     */
+    private long log(UserWriteAheadLog.RecordType type, int id, User user) {
+        if (writeBehind != null) {
+            if (type == UserWriteAheadLog.RecordType.DELETE) {
+                writeBehind.delete(id);
+            } else {
+                writeBehind.put(id, user);
+            }
+            return 0;
+        }
+        if (wal == null) {
+            return 0;
+        }
+        try {
+            return wal.append(type, id, user);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el WAL de usuarios", e);
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        if (wal == null || sequence == 0) {
+            return;
+        }
+        try {
+            wal.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,701 @@
+package org.acme.user.repository.impl;
+
+import org.acme.user.domain.User;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log de usuarios en disco con snapshots compactados.
+ *
+ * El log son segmentos preasignados y mapeados en memoria (wal-{primera secuencia}.log) con
+ * registros CREATE/UPDATE/DELETE que llevan el estado completo del usuario (versión incluida),
+ * su número de secuencia y un CRC. Un hilo flusher hace el fsync (force del mapeo) de todo lo
+ * escrito desde el anterior: los escritores que esperan a la vez comparten un solo fsync
+ * (group commit).
+ *
+ * El snapshot (snapshot-{secuencia}.snap) se escribe sin detener las escrituras: contiene todo
+ * lo anterior a su secuencia y quizá algo posterior. Como los registros son idempotentes
+ * (estado completo), recuperar = cargar el snapshot y reaplicar en orden los registros con
+ * secuencia mayor. Tras escribirlo se borran los segmentos que ya no hacen falta.
+ *
+ * Un registro cortado a medias al final del último segmento (caída durante la escritura) se
+ * detecta por el CRC y se descarta; las escrituras continúan en ese punto.
+ */
+final class UserWriteAheadLog implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(UserWriteAheadLog.class);
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int SNAPSHOT_MAGIC = 0x55534E50; // "USNP"
+    // 2: los registros llevan la versión del usuario; 3: y su equipo Pokemon
+    private static final int SNAPSHOT_VERSION = 3;
+    // Formato de cada registro, en los 4 bits altos del byte de tipo. 0: sin equipo (WAL y snapshots v2,
+    // se recuperan con el equipo vacío); 1: con equipo
+    private static final int LEGACY_RECORD_FORMAT = 0;
+    private static final int RECORD_FORMAT = 1;
+    // length + crc
+    private static final int FRAME_HEADER = 8;
+
+    enum RecordType {
+        CREATE, UPDATE, DELETE
+    }
+
+    /**
+     * @param dir Directorio de segmentos y snapshots
+     * @param segmentSize Tamaño preasignado de cada segmento en bytes
+     * @param snapshotInterval Cada cuánto se comprueba si toca snapshot
+     * @param snapshotMinRecords Registros escritos desde el último snapshot para hacer uno nuevo
+     */
+    record Options(Path dir, int segmentSize, Duration snapshotInterval, long snapshotMinRecords) {
+    }
+
+    /**
+     * Destino de la recuperación (el índice del repositorio)
+     */
+    interface Target {
+        void put(User user);
+
+        void delete(int id);
+    }
+
+    /**
+     * @param snapshotSequence Secuencia del snapshot cargado (0 si no había)
+     * @param snapshotUsers Usuarios cargados del snapshot
+     * @param replayedRecords Registros del log reaplicados tras el snapshot
+     * @param maxId Mayor ID visto (para continuar la secuencia de IDs)
+     * @param elapsed Duración de la recuperación
+     */
+    record Recovery(long snapshotSequence, long snapshotUsers, long replayedRecords, int maxId, Duration elapsed) {
+    }
+
+    private final Options options;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingWrites = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Thread flusher;
+    private Recovery recovery;
+
+    // Estado protegido por lock
+    private MappedByteBuffer segment;
+    private long segmentFirstSequence;
+    private int forcedPosition;
+    private long writtenSequence;
+    private long durableSequence;
+    private long recordsSinceSnapshot;
+    private long fsyncs;
+    private IOException failure;
+    private boolean closed;
+
+    private UserWriteAheadLog(Options options) {
+        this.options = options;
+        this.flusher = Thread.ofPlatform().name("user-wal-flusher").daemon().unstarted(this::flushLoop);
+    }
+
+    /**
+     * Abre el log y recupera su contenido sobre el destino (snapshot + cola del log)
+     */
+    static UserWriteAheadLog open(Options options, Target target) throws IOException {
+        Files.createDirectories(options.dir());
+        UserWriteAheadLog wal = new UserWriteAheadLog(options);
+        wal.recovery = wal.recover(target);
+        wal.flusher.start();
+        return wal;
+    }
+
+    /**
+     * @return Resultado de la recuperación hecha al abrir
+     */
+    Recovery recovery() {
+        return recovery;
+    }
+
+    /**
+     * Añade un registro al log (sin esperar al fsync). El llamante serializa las escrituras
+     * para que el orden del log sea el de aplicación al índice.
+     *
+     * @param user Estado completo del usuario (null en DELETE)
+     * @return Secuencia asignada, para {@link #awaitDurable(long)}
+     */
+    long append(RecordType type, int id, User user) throws IOException {
+        byte[] name = user == null ? null : utf8(user.getName());
+        byte[] email = user == null ? null : utf8(user.getEmail());
+        lock.lock();
+        try {
+            checkOpen();
+            long sequence = writtenSequence + 1;
+            ByteBuffer frame = encode(sequence, type, id, user == null ? 0 : user.getVersion(), name, email,
+                    user == null ? List.of() : user.getTeam());
+            if (frame.remaining() > options.segmentSize()) {
+                throw new IllegalArgumentException("el usuario ocupa más que un segmento del WAL: " + frame.remaining() + " bytes");
+            }
+            if (segment.remaining() < frame.remaining()) {
+                roll(sequence);
+            }
+            segment.put(frame);
+            writtenSequence = sequence;
+            recordsSinceSnapshot++;
+            pendingWrites.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bloquea hasta que el registro con esa secuencia (y todos los anteriores) está en disco
+     */
+    void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new IOException("El WAL no pudo sincronizar con el disco", failure);
+                }
+                if (closed) {
+                    throw new IOException("WAL cerrado antes de confirmar la secuencia " + sequence);
+                }
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Punto de snapshot: cambia de segmento para que todos los anteriores queden cubiertos por
+     * el snapshot y se puedan borrar. El llamante no debe tener escrituras en curso.
+     *
+     * @return Última secuencia escrita
+     */
+    long checkpoint() throws IOException {
+        lock.lock();
+        try {
+            checkOpen();
+            if (segment.position() > 0) {
+                roll(writtenSequence + 1);
+            }
+            return writtenSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long recordsSinceSnapshot() {
+        lock.lock();
+        try {
+            return recordsSinceSnapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Número de fsyncs realizados (con group commit, menos que registros)
+     */
+    long fsyncs() {
+        lock.lock();
+        try {
+            return fsyncs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Options options() {
+        return options;
+    }
+
+    /**
+     * Escribe un snapshot y borra los segmentos que cubre.
+     *
+     * @param sequence Secuencia devuelta por {@link #checkpoint()}
+     * @param users Usuarios actuales (pueden incluir cambios posteriores a la secuencia)
+     * @param maxId Mayor ID asignado hasta ahora
+     * @return Usuarios escritos
+     */
+    long writeSnapshot(long sequence, int maxId, Stream<User> users) throws IOException {
+        long start = System.nanoTime();
+        Path target = options.dir().resolve(snapshotName(sequence));
+        Path temp = options.dir().resolve(snapshotName(sequence) + ".tmp");
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(nonClosing(channel), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(sequence);
+            out.writeInt(maxId);
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                ByteBuffer frame = encode(sequence, RecordType.CREATE, user.getId(), user.getVersion(),
+                        utf8(user.getName()), utf8(user.getEmail()), user.getTeam());
+                out.write(frame.array(), 0, frame.limit());
+                count++;
+            }
+            out.writeInt(0);
+            out.writeLong(count);
+            out.flush();
+            channel.force(true);
+        }
+        // Publicación atómica: un snapshot con su nombre definitivo siempre está completo
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        lock.lock();
+        try {
+            recordsSinceSnapshot = Math.max(0, writtenSequence - sequence);
+        } finally {
+            lock.unlock();
+        }
+        int deleted = deleteCoveredFiles(sequence);
+        LOG.infof("📸 Snapshot de usuarios en la secuencia %s: %s usuarios en %s ms (%s ficheros antiguos borrados)",
+                sequence, count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), deleted);
+        return count;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pendingWrites.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            // Lo que quede sin sincronizar se fuerza aquí
+            segment.force();
+            durableSequence = writtenSequence;
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bucle del flusher: sincroniza de una vez todo lo escrito desde el último fsync
+     */
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            int from;
+            int to;
+            long sequence;
+            lock.lock();
+            try {
+                while (writtenSequence == durableSequence && !closed) {
+                    pendingWrites.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                target = segment;
+                from = forcedPosition;
+                to = segment.position();
+                sequence = writtenSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (to > from) {
+                    target.force(from, to - from);
+                }
+            } catch (UncheckedIOException e) {
+                lock.lock();
+                try {
+                    failure = e.getCause();
+                    durable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                LOG.error("❌ Error sincronizando el WAL de usuarios: " + e.getMessage());
+                return;
+            }
+
+            lock.lock();
+            try {
+                // Si entretanto se cambió de segmento, roll() ya dejó el anterior en disco
+                if (segment == target) {
+                    forcedPosition = Math.max(forcedPosition, to);
+                }
+                fsyncs++;
+                durableSequence = Math.max(durableSequence, sequence);
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Cierra el segmento lleno (sincronizándolo entero) y abre uno nuevo; requiere el lock
+     */
+    private void roll(long nextSequence) throws IOException {
+        segment.force();
+        fsyncs++;
+        durableSequence = writtenSequence;
+        durable.signalAll();
+        openSegment(nextSequence, 0);
+    }
+
+    private void openSegment(long firstSequence, int position) throws IOException {
+        Path path = options.dir().resolve(segmentName(firstSequence));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, options.segmentSize());
+        }
+        segment.position(position);
+        segmentFirstSequence = firstSequence;
+        forcedPosition = position;
+    }
+
+    private Recovery recover(Target target) throws IOException {
+        long start = System.nanoTime();
+        deleteTemporaryFiles();
+
+        long snapshotSequence = 0;
+        long snapshotUsers = 0;
+        int maxId = 0;
+        List<Long> snapshots = listSequences(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (!snapshots.isEmpty()) {
+            snapshotSequence = snapshots.get(snapshots.size() - 1);
+            long[] loaded = loadSnapshot(options.dir().resolve(snapshotName(snapshotSequence)), snapshotSequence, target);
+            snapshotUsers = loaded[0];
+            maxId = (int) loaded[1];
+        }
+
+        long lastSequence = snapshotSequence;
+        long replayed = 0;
+        List<Long> segments = listSequences(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        long lastSegment = -1;
+        int appendPosition = 0;
+        int tornLength = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            long firstSequence = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            ByteBuffer data = mapForRecovery(options.dir().resolve(segmentName(firstSequence)));
+            int position = 0;
+            while (true) {
+                Frame frame = readFrame(data, position);
+                // Las secuencias son consecutivas: un salto es basura tras un registro perdido
+                if (frame == null || (frame.sequence() != lastSequence + 1 && lastSequence > snapshotSequence)) {
+                    break;
+                }
+                if (frame.sequence() > snapshotSequence) {
+                    apply(frame, target);
+                    replayed++;
+                }
+                maxId = Math.max(maxId, frame.id());
+                lastSequence = Math.max(lastSequence, frame.sequence());
+                position = frame.end();
+            }
+            boolean torn = hasData(data, position);
+            if (torn && !last) {
+                throw new IOException("WAL de usuarios corrupto en " + segmentName(firstSequence) + " (posición " + position + ")");
+            }
+            if (last) {
+                lastSegment = firstSequence;
+                appendPosition = position;
+                if (torn) {
+                    tornLength = data.limit() - position;
+                    LOG.warn("⚠️ Registro incompleto al final del WAL (posición " + position + "): se descarta");
+                }
+            }
+        }
+
+        if (lastSegment < 0) {
+            openSegment(lastSequence + 1, 0);
+        } else {
+            openSegment(lastSegment, appendPosition);
+            if (tornLength > 0) {
+                // Limpia la cola del registro cortado para que no se confunda con uno válido
+                segment.put(appendPosition, new byte[tornLength], 0, tornLength);
+                segment.force(appendPosition, tornLength);
+            }
+        }
+        writtenSequence = lastSequence;
+        durableSequence = lastSequence;
+        recordsSinceSnapshot = lastSequence - snapshotSequence;
+
+        Recovery recovery = new Recovery(snapshotSequence, snapshotUsers, replayed, maxId,
+                Duration.ofNanos(System.nanoTime() - start));
+        LOG.infof("♻️ Usuarios recuperados de %s: snapshot %s (%s usuarios) + %s registros del log en %s ms",
+                options.dir(), snapshotSequence, snapshotUsers, replayed, recovery.elapsed().toMillis());
+        return recovery;
+    }
+
+    /**
+     * Con un mapeo, las páginas pueden llegar al disco en cualquier orden: tras el último
+     * registro válido puede haber restos de otros posteriores, no solo un registro cortado
+     */
+    private static boolean hasData(ByteBuffer data, int position) {
+        int p = position;
+        for (; p + Long.BYTES <= data.limit(); p += Long.BYTES) {
+            if (data.getLong(p) != 0) {
+                return true;
+            }
+        }
+        for (; p < data.limit(); p++) {
+            if (data.get(p) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void apply(Frame frame, Target target) {
+        if (frame.type() == RecordType.DELETE) {
+            target.delete(frame.id());
+        } else {
+            User user = new User(frame.id(), frame.name(), frame.email());
+            user.setTeam(frame.team());
+            user.setVersion(frame.version());
+            target.put(user);
+        }
+    }
+
+    /**
+     * @return {usuarios cargados, mayor ID}
+     */
+    private static long[] loadSnapshot(Path path, long sequence, Target target) throws IOException {
+        ByteBuffer data = mapForRecovery(path);
+        if (data.limit() < 20 || data.getInt(0) != SNAPSHOT_MAGIC || data.getInt(4) < 2
+                || data.getInt(4) > SNAPSHOT_VERSION || data.getLong(8) != sequence) {
+            throw new IOException("Cabecera de snapshot no válida: " + path);
+        }
+        int maxId = data.getInt(16);
+        long count = 0;
+        int position = 20;
+        Frame frame;
+        while ((frame = readFrame(data, position)) != null) {
+            apply(frame, target);
+            maxId = Math.max(maxId, frame.id());
+            count++;
+            position = frame.end();
+        }
+        // Tras el último usuario: marca de fin (0) y número de usuarios
+        if (position + 12 != data.limit() || data.getInt(position) != 0 || data.getLong(position + 4) != count) {
+            throw new IOException("Snapshot incompleto o corrupto: " + path);
+        }
+        return new long[]{count, maxId};
+    }
+
+    private static ByteBuffer mapForRecovery(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Borra los snapshots anteriores y los segmentos cuyos registros son todos &lt;= sequence
+     */
+    private int deleteCoveredFiles(long sequence) throws IOException {
+        long currentSegment;
+        lock.lock();
+        try {
+            currentSegment = segmentFirstSequence;
+        } finally {
+            lock.unlock();
+        }
+        int deleted = 0;
+        for (long snapshot : listSequences(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (snapshot < sequence && Files.deleteIfExists(options.dir().resolve(snapshotName(snapshot)))) {
+                deleted++;
+            }
+        }
+        List<Long> segments = listSequences(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            // El segmento i acaba justo antes de que empiece el siguiente
+            if (segments.get(i) != currentSegment && segments.get(i + 1) <= sequence + 1
+                    && Files.deleteIfExists(options.dir().resolve(segmentName(segments.get(i))))) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private void deleteTemporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(options.dir())) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private List<Long> listSequences(String prefix, String suffix) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(options.dir())) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .forEach(name -> sequences.add(Long.parseLong(
+                            name.substring(prefix.length(), name.length() - suffix.length()))));
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    private static String snapshotName(long sequence) {
+        return String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX);
+    }
+
+    private void checkOpen() throws IOException {
+        if (failure != null) {
+            throw new IOException("El WAL no pudo sincronizar con el disco", failure);
+        }
+        if (closed) {
+            throw new IOException("WAL de usuarios cerrado");
+        }
+    }
+
+    // ===== Formato de registro: length | crc32c(payload) | seq | format/type | id | version | name | email | team =====
+
+    private static ByteBuffer encode(long sequence, RecordType type, int id, long version, byte[] name, byte[] email,
+                                     List<Integer> team) {
+        int payload = 8 + 1 + 4 + 8 + stringSize(name) + stringSize(email) + 4 + 4 * team.size();
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + payload);
+        frame.position(FRAME_HEADER);
+        frame.putLong(sequence).put((byte) (RECORD_FORMAT << 4 | type.ordinal())).putInt(id).putLong(version);
+        putString(frame, name);
+        putString(frame, email);
+        frame.putInt(team.size());
+        for (int pokemonId : team) {
+            frame.putInt(pokemonId);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(frame.array(), FRAME_HEADER, payload);
+        frame.putInt(0, payload).putInt(4, (int) crc.getValue());
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * @return Registro válido en la posición, o null si no hay (fin del log o registro cortado)
+     * @throws IOException Si el registro es íntegro pero de un formato posterior: descartarlo perdería datos
+     */
+    private static Frame readFrame(ByteBuffer data, int position) throws IOException {
+        if (position + FRAME_HEADER > data.limit()) {
+            return null;
+        }
+        int length = data.getInt(position);
+        if (length <= 0 || length > data.limit() - position - FRAME_HEADER) {
+            return null;
+        }
+        ByteBuffer payload = data.slice(position + FRAME_HEADER, length);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != data.getInt(position + 4)) {
+            return null;
+        }
+        try {
+            long sequence = payload.getLong();
+            int formatAndType = payload.get() & 0xFF;
+            int format = formatAndType >>> 4;
+            if (format > RECORD_FORMAT) {
+                throw new IOException("Registro del WAL de usuarios con formato desconocido (" + format
+                        + ") en la posición " + position);
+            }
+            RecordType type = RecordType.values()[formatAndType & 0x0F];
+            int id = payload.getInt();
+            long version = payload.getLong();
+            String name = getString(payload);
+            String email = getString(payload);
+            int teamSize = format == LEGACY_RECORD_FORMAT ? 0 : payload.getInt();
+            if (teamSize < 0 || teamSize > payload.remaining() / 4) {
+                return null;
+            }
+            Integer[] team = new Integer[teamSize];
+            for (int i = 0; i < team.length; i++) {
+                team[i] = payload.getInt();
+            }
+            return new Frame(sequence, type, id, version, name, email, List.of(team), position + FRAME_HEADER + length);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static int stringSize(byte[] value) {
+        return 4 + (value == null ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static OutputStream nonClosing(FileChannel channel) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        };
+    }
+
+    private record Frame(long sequence, RecordType type, int id, long version, String name, String email,
+                         List<Integer> team, int end) {
+    }
+}
@@ -0,0 +1,58 @@
+package org.acme.user.service;
+
+import org.acme.user.domain.Pokemon;
+import org.acme.user.domain.UserTeam;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Variante asíncrona de {@link PokemonClientService}: ningún método bloquea el hilo
+ * llamante mientras se espera la respuesta del Pokemon Service a través de DAPR.
+ */
+public interface PokemonClientAsyncService {
+    
+    /**
+     * Obtiene un Pokemon aleatorio desde el Pokemon Service
+     * @return Etapa que se completa con el Pokemon aleatorio
+     */
+    CompletionStage<Pokemon> getRandomPokemon();
+    
+    /**
+     * Obtiene un Pokemon por su ID desde el Pokemon Service
+     * @param id ID del Pokemon
+     * @return Etapa que se completa con el Pokemon encontrado
+     */
+    CompletionStage<Pokemon> getPokemonById(int id);
+    
+    /**
+     * Obtiene en paralelo los Pokemons de un equipo, con un plazo global
+     * @param pokemonIds IDs de los Pokemons, en el orden del equipo
+     * @return Etapa que se completa (como tarde al vencer el plazo) con el estado de cada Pokemon
+     */
+    CompletionStage<List<UserTeam.Member>> getPokemonTeam(List<Integer> pokemonIds);
+    
+    /**
+     * Obtiene todos los Pokemons desde el Pokemon Service
+     * @return Etapa que se completa con la lista de todos los Pokemons
+     */
+    CompletionStage<List<Pokemon>> getAllPokemons();
+    
+    /**
+     * Obtiene todos los Pokemons con solo los campos indicados (el resto quedan a null/0)
+     * @param fields Campos separados por comas, p. ej. "id,name"
+     * @return Etapa que se completa con la lista de Pokemons proyectados
+     */
+    CompletionStage<List<Pokemon>> getAllPokemons(String fields);
+    
+    /**
+     * Obtiene el saludo del Pokemon Service
+     * @return Etapa que se completa con el saludo del servicio
+     */
+    CompletionStage<String> getPokemonServiceHello();
+    
+    /**
+     * Obtiene todos los Pokemons desde el Pokemon Service usando DAPR gRPC
+     * @return Etapa que se completa con la lista de todos los Pokemons
+     */
+    CompletionStage<List<Pokemon>> getAllPokemonsGrpc();
+}
@@ -24,6 +24,13 @@ public interface PokemonClientService {
      */
     List<Pokemon> getAllPokemons();
     
+    /**
+     * Obtiene todos los Pokemons con solo los campos indicados (el resto quedan a null/0)
+     * @param fields Campos separados por comas, p. ej. "id,name"
+     * @return Lista de Pokemons proyectados
+     */
+    List<Pokemon> getAllPokemons(String fields);
+    
     /**
      * Obtiene el saludo del Pokemon Service
      * @return Saludo del servicio
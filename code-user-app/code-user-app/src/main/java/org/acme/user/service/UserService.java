@@ -1,8 +1,10 @@
 package org.acme.user.service;
 
+import org.acme.user.domain.Page;
 import org.acme.user.domain.User;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserService {
     
@@ -19,6 +21,26 @@ public interface UserService {
      */
     List<User> getAllUsers();
     
+    /**
+     * Recorre todos los usuarios sin materializar la lista completa
+     * @return Stream de usuarios (debe consumirse una sola vez)
+     */
+    Stream<User> streamAllUsers();
+    
+    /**
+     * Versión de la colección de usuarios (crece con cada escritura); se lee antes que los datos que etiqueta
+     * @return Versión actual
+     */
+    long getUsersVersion();
+    
+    /**
+     * Obtiene una página de usuarios ordenada por ID
+     * @param cursor Cursor devuelto por la página anterior (null o vacío para la primera)
+     * @param limit Tamaño de página (entre 1 y el máximo permitido)
+     * @return Página con los usuarios y el cursor de la siguiente
+     */
+    Page<User> getUserPage(String cursor, int limit);
+    
     /**
      * Crea un nuevo usuario
      * @param user Usuario a crear
@@ -33,6 +55,15 @@ public interface UserService {
      */
     User updateUser(User user);
     
+    /**
+     * Actualiza un usuario existente solo si sigue en la versión esperada (If-Match)
+     * @param user Usuario a actualizar
+     * @param expectedVersion Versión que el cliente leyó
+     * @return Usuario actualizado, o null si no existe
+     * @throws org.acme.user.repository.VersionConflictException si el usuario ya está en otra versión
+     */
+    User updateUser(User user, long expectedVersion);
+    
     /**
      * Elimina un usuario por su ID
      * @param id ID del usuario a eliminar
@@ -0,0 +1,194 @@
+package org.acme.user.service.impl;
+
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import org.acme.user.domain.Pokemon;
+import org.acme.user.domain.UserTeam;
+import org.acme.user.service.PokemonClientAsyncService;
+import org.acme.user.service.PokemonClientService;
+import org.acme.user.cache.PokemonCache;
+import org.acme.user.client.FanOut;
+import org.acme.user.client.PokemonClient;
+import org.acme.user.metrics.Measured;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Llamadas al Pokemon Service de los endpoints /users/pokemon*, según pokemon-client.execution-mode:
+ * - async (por defecto): etapas del cliente, ningún hilo espera a DAPR
+ * - worker: el servicio bloqueante en el pool worker de Quarkus, un hilo ocupado por llamada en curso
+ * - virtual-threads: el servicio bloqueante en un hilo virtual por llamada; al esperar a DAPR el hilo
+ *   se desmonta y libera su carrier. El camino bloqueante del cliente no usa synchronized (las cachés
+ *   y el batcher usan ReentrantLock), así que no fija el carrier mientras espera
+ */
+@ApplicationScoped
+@Measured("service")
+public class PokemonClientAsyncServiceImpl implements PokemonClientAsyncService {
+    
+    private static final Logger LOG = Logger.getLogger(PokemonClientAsyncServiceImpl.class);
+    
+    @Inject
+    PokemonClient pokemonClient;
+    
+    @Inject
+    PokemonCache pokemonCache;
+    
+    @Inject
+    PokemonClientService blockingService;
+    
+    @Inject
+    @VirtualThreads
+    ExecutorService virtualThreads;
+    
+    @ConfigProperty(name = "pokemon-client.execution-mode", defaultValue = "async")
+    ExecutionMode executionMode;
+    
+    @ConfigProperty(name = "pokemon-client.fan-out.parallelism", defaultValue = "6")
+    int fanOutParallelism;
+    
+    @ConfigProperty(name = "pokemon-client.fan-out.deadline", defaultValue = "500ms")
+    Duration fanOutDeadline;
+    
+    // null en modo ASYNC
+    private Executor blockingExecutor;
+    
+    /**
+     * Dónde se ejecutan las llamadas de los endpoints /users/pokemon*
+     */
+    public enum ExecutionMode {
+        ASYNC, WORKER, VIRTUAL_THREADS
+    }
+    
+    @PostConstruct
+    void init() {
+        executeOn(executionMode, switch (executionMode) {
+            case ASYNC -> null;
+            case WORKER -> Infrastructure.getDefaultWorkerPool();
+            case VIRTUAL_THREADS -> virtualThreads;
+        });
+    }
+    
+    /**
+     * @param mode Modo de ejecución
+     * @param executor Hilos en los que se ejecuta el servicio bloqueante (ignorado en modo ASYNC)
+     */
+    void executeOn(ExecutionMode mode, Executor executor) {
+        this.executionMode = mode;
+        this.blockingExecutor = mode == ExecutionMode.ASYNC ? null : executor;
+        LOG.info("🧵 Llamadas al Pokemon Service de /users/pokemon*: modo " + mode);
+    }
+    
+    /**
+     * En modo WORKER o VIRTUAL_THREADS ejecuta la llamada bloqueante en su executor; en ASYNC usa la etapa
+     */
+    private <T> CompletionStage<T> call(Supplier<T> blocking, Supplier<CompletionStage<T>> async) {
+        Executor executor = blockingExecutor;
+        return executor == null ? async.get() : CompletableFuture.supplyAsync(blocking, executor);
+    }
+    
+    @Override
+    public CompletionStage<Pokemon> getRandomPokemon() {
+        LOG.debug("=== EXTERNAL SERVICE (ASYNC): getRandomPokemon() ===");
+        
+        return call(blockingService::getRandomPokemon, pokemonClient::getRandomPokemonAsync)
+                .whenComplete((pokemon, error) -> {
+                    if (error == null) {
+                        LOG.debugf("Pokemon aleatorio obtenido: %s", pokemon.getName());
+                    }
+                    LOG.debug("=== FIN EXTERNAL SERVICE (ASYNC): getRandomPokemon() ===");
+                });
+    }
+
+    @Override
+    public CompletionStage<Pokemon> getPokemonById(int id) {
+        LOG.debugf("=== EXTERNAL SERVICE (ASYNC): getPokemonById(id=%s) ===", id);
+        
+        return call(() -> blockingService.getPokemonById(id), () -> pokemonCache.getPokemonById(id))
+                .whenComplete((pokemon, error) -> {
+                    if (error == null) {
+                        LOG.debugf("Pokemon obtenido: %s", pokemon.getName());
+                    }
+                    LOG.debugf("=== FIN EXTERNAL SERVICE (ASYNC): getPokemonById(id=%s) ===", id);
+                });
+    }
+
+    @Override
+    public CompletionStage<List<UserTeam.Member>> getPokemonTeam(List<Integer> pokemonIds) {
+        LOG.debugf("=== EXTERNAL SERVICE (ASYNC): getPokemonTeam(ids=%s) ===", pokemonIds);
+        
+        // Cada Pokemon pasa por getPokemonById (caché, agrupación y batching): las consultas
+        // lanzadas a la vez suelen acabar en una sola llamada a /pokemon/batch
+        return FanOut.resolve(pokemonIds, this::getPokemonById, fanOutParallelism, fanOutDeadline)
+                .thenApply(outcomes -> {
+                    List<UserTeam.Member> members = outcomes.stream()
+                            .map(outcome -> new UserTeam.Member(outcome.key(), outcome.status().name(),
+                                    outcome.value(), outcome.error()))
+                            .toList();
+                    LOG.debugf("=== FIN EXTERNAL SERVICE (ASYNC): getPokemonTeam(ids=%s) ===", pokemonIds);
+                    return members;
+                });
+    }
+
+    @Override
+    public CompletionStage<List<Pokemon>> getAllPokemons() {
+        LOG.debug("=== EXTERNAL SERVICE (ASYNC): getAllPokemons() ===");
+        
+        return call(blockingService::getAllPokemons, pokemonCache::getAllPokemons)
+                .whenComplete((pokemons, error) -> {
+                    if (error == null) {
+                        LOG.debugf("Lista de Pokemons obtenida: %s Pokemons", pokemons.size());
+                    }
+                    LOG.debug("=== FIN EXTERNAL SERVICE (ASYNC): getAllPokemons() ===");
+                });
+    }
+
+    @Override
+    public CompletionStage<List<Pokemon>> getAllPokemons(String fields) {
+        LOG.debugf("=== EXTERNAL SERVICE (ASYNC): getAllPokemons(fields=%s) ===", fields);
+        
+        // Sin caché: los Pokemons proyectados están incompletos y no deben servir lecturas por ID
+        return call(() -> blockingService.getAllPokemons(fields), () -> pokemonClient.getAllPokemonsAsync(fields))
+                .whenComplete((pokemons, error) -> {
+                    if (error == null) {
+                        LOG.debugf("Lista de Pokemons proyectada obtenida: %s Pokemons", pokemons.size());
+                    }
+                    LOG.debugf("=== FIN EXTERNAL SERVICE (ASYNC): getAllPokemons(fields=%s) ===", fields);
+                });
+    }
+
+    @Override
+    public CompletionStage<String> getPokemonServiceHello() {
+        LOG.debug("=== EXTERNAL SERVICE (ASYNC): getPokemonServiceHello() ===");
+        
+        return call(blockingService::getPokemonServiceHello, pokemonClient::getPokemonServiceHelloAsync)
+                .whenComplete((response, error) -> {
+                    if (error == null) {
+                        LOG.debugf("Saludo obtenido: %s", response);
+                    }
+                    LOG.debug("=== FIN EXTERNAL SERVICE (ASYNC): getPokemonServiceHello() ===");
+                });
+    }
+
+    @Override
+    public CompletionStage<List<Pokemon>> getAllPokemonsGrpc() {
+        LOG.debug("=== EXTERNAL SERVICE (ASYNC): getAllPokemonsGrpc() ===");
+        
+        return call(blockingService::getAllPokemonsGrpc, pokemonClient::getAllPokemonsGrpcAsync)
+                .whenComplete((pokemons, error) -> {
+                    if (error == null) {
+                        LOG.debugf("Lista de Pokemons obtenida via gRPC: %s Pokemons", pokemons.size());
+                    }
+                    LOG.debug("=== FIN EXTERNAL SERVICE (ASYNC): getAllPokemonsGrpc() ===");
+                });
+    }
+}
@@ -2,13 +2,18 @@ package org.acme.user.service.impl;
 
 import org.acme.user.domain.Pokemon;
 import org.acme.user.service.PokemonClientService;
+import org.acme.user.cache.PokemonCache;
 import org.acme.user.client.PokemonClient;
+import org.acme.user.metrics.Measured;
 import org.jboss.logging.Logger;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 @ApplicationScoped
+@Measured("service")
 public class PokemonClientServiceImpl implements PokemonClientService {
     
     private static final Logger LOG = Logger.getLogger(PokemonClientServiceImpl.class);
@@ -16,83 +21,98 @@ public class PokemonClientServiceImpl implements PokemonClientService {
     @Inject
     PokemonClient pokemonClient;
     
+    @Inject
+    PokemonCache pokemonCache;
+    
     @Override
     public Pokemon getRandomPokemon() {
-        LOG.info("=== EXTERNAL SERVICE: getRandomPokemon() ===");
-        LOG.info("Iniciando proceso para obtener Pokemon aleatorio desde Pokemon Service");
+        LOG.debug("=== EXTERNAL SERVICE: getRandomPokemon() ===");
+        LOG.debug("Iniciando proceso para obtener Pokemon aleatorio desde Pokemon Service");
         
-        long startTime = System.currentTimeMillis();
         Pokemon pokemon = pokemonClient.getRandomPokemon();
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Pokemon aleatorio obtenido: " + pokemon.getName());
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN EXTERNAL SERVICE: getRandomPokemon() ===");
+        LOG.debugf("Pokemon aleatorio obtenido: %s", pokemon.getName());
+        LOG.debug("=== FIN EXTERNAL SERVICE: getRandomPokemon() ===");
         
         return pokemon;
     }
 
     @Override
     public Pokemon getPokemonById(int id) {
-        LOG.info("=== EXTERNAL SERVICE: getPokemonById(id=" + id + ") ===");
-        LOG.info("Iniciando proceso para obtener Pokemon con ID: " + id + " desde Pokemon Service");
+        LOG.debugf("=== EXTERNAL SERVICE: getPokemonById(id=%s) ===", id);
+        LOG.debugf("Iniciando proceso para obtener Pokemon con ID: %s desde Pokemon Service", id);
         
-        long startTime = System.currentTimeMillis();
-        Pokemon pokemon = pokemonClient.getPokemonById(id);
-        long endTime = System.currentTimeMillis();
+        Pokemon pokemon = await(pokemonCache.getPokemonById(id));
         
-        LOG.info("Pokemon obtenido: " + pokemon.getName());
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN EXTERNAL SERVICE: getPokemonById(id=" + id + ") ===");
+        LOG.debugf("Pokemon obtenido: %s", pokemon.getName());
+        LOG.debugf("=== FIN EXTERNAL SERVICE: getPokemonById(id=%s) ===", id);
         
         return pokemon;
     }
 
     @Override
     public List<Pokemon> getAllPokemons() {
-        LOG.info("=== EXTERNAL SERVICE: getAllPokemons() ===");
-        LOG.info("Iniciando proceso para obtener lista de Pokemons desde Pokemon Service");
+        LOG.debug("=== EXTERNAL SERVICE: getAllPokemons() ===");
+        LOG.debug("Iniciando proceso para obtener lista de Pokemons desde Pokemon Service");
         
-        long startTime = System.currentTimeMillis();
-        List<Pokemon> pokemons = pokemonClient.getAllPokemons();
-        long endTime = System.currentTimeMillis();
+        List<Pokemon> pokemons = await(pokemonCache.getAllPokemons());
         
-        LOG.info("Lista de Pokemons obtenida: " + pokemons.size() + " Pokemons");
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN EXTERNAL SERVICE: getAllPokemons() ===");
+        LOG.debugf("Lista de Pokemons obtenida: %s Pokemons", pokemons.size());
+        LOG.debug("=== FIN EXTERNAL SERVICE: getAllPokemons() ===");
+        
+        return pokemons;
+    }
+
+    @Override
+    public List<Pokemon> getAllPokemons(String fields) {
+        LOG.debugf("=== EXTERNAL SERVICE: getAllPokemons(fields=%s) ===", fields);
+        
+        // Sin caché: los Pokemons proyectados están incompletos y no deben servir lecturas por ID
+        List<Pokemon> pokemons = await(pokemonClient.getAllPokemonsAsync(fields));
+        
+        LOG.debugf("Lista de Pokemons proyectada obtenida: %s Pokemons", pokemons.size());
+        LOG.debugf("=== FIN EXTERNAL SERVICE: getAllPokemons(fields=%s) ===", fields);
         
         return pokemons;
     }
 
     @Override
     public String getPokemonServiceHello() {
-        LOG.info("=== EXTERNAL SERVICE: getPokemonServiceHello() ===");
-        LOG.info("Iniciando proceso para obtener saludo desde Pokemon Service");
+        LOG.debug("=== EXTERNAL SERVICE: getPokemonServiceHello() ===");
+        LOG.debug("Iniciando proceso para obtener saludo desde Pokemon Service");
         
-        long startTime = System.currentTimeMillis();
         String response = pokemonClient.getPokemonServiceHello();
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Saludo obtenido: " + response);
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN EXTERNAL SERVICE: getPokemonServiceHello() ===");
+        LOG.debugf("Saludo obtenido: %s", response);
+        LOG.debug("=== FIN EXTERNAL SERVICE: getPokemonServiceHello() ===");
         
         return response;
     }
 
     @Override
     public List<Pokemon> getAllPokemonsGrpc() {
-        LOG.info("=== EXTERNAL SERVICE: getAllPokemonsGrpc() ===");
-        LOG.info("Iniciando proceso para obtener lista de Pokemons via DAPR gRPC desde Pokemon Service");
+        LOG.debug("=== EXTERNAL SERVICE: getAllPokemonsGrpc() ===");
+        LOG.debug("Iniciando proceso para obtener lista de Pokemons via DAPR gRPC desde Pokemon Service");
         
-        long startTime = System.currentTimeMillis();
         List<Pokemon> pokemons = pokemonClient.getAllPokemonsGrpc();
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Lista de Pokemons obtenida via gRPC: " + pokemons.size() + " Pokemons");
-        LOG.info("Tiempo de respuesta gRPC: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN EXTERNAL SERVICE: getAllPokemonsGrpc() ===");
+        LOG.debugf("Lista de Pokemons obtenida via gRPC: %s Pokemons", pokemons.size());
+        LOG.debug("=== FIN EXTERNAL SERVICE: getAllPokemonsGrpc() ===");
         
         return pokemons;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Espera el resultado de la caché conservando la excepción original del cliente
+     */
+    private static <T> T await(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
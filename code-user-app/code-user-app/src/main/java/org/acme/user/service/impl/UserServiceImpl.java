@@ -1,64 +1,112 @@
 package org.acme.user.service.impl;
 
+import org.acme.user.domain.Page;
 import org.acme.user.domain.User;
 import org.acme.user.repository.UserRepository;
 import org.acme.user.service.UserService;
+import org.acme.user.metrics.Measured;
 import org.jboss.logging.Logger;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @ApplicationScoped
+@Measured("service")
 public class UserServiceImpl implements UserService {
     
     private static final Logger LOG = Logger.getLogger(UserServiceImpl.class);
     
+    // Máximo de usuarios por página
+    static final int MAX_PAGE_SIZE = 500;
+    
     @Inject
     UserRepository userRepository;
     
     @Override
     public Optional<User> getUserById(int id) {
-        LOG.info("=== SERVICE: getUserById(id=" + id + ") ===");
-        LOG.info("Iniciando proceso para obtener usuario con ID: " + id);
+        LOG.debugf("=== SERVICE: getUserById(id=%s) ===", id);
+        LOG.debugf("Iniciando proceso para obtener usuario con ID: %s", id);
         
-        long startTime = System.currentTimeMillis();
         Optional<User> user = userRepository.findById(id);
-        long endTime = System.currentTimeMillis();
         
         if (user.isPresent()) {
-            LOG.info("Usuario encontrado: " + user.get().getName() + " (ID: " + id + ")");
+            LOG.debugf("Usuario encontrado: %s (ID: %s)", user.get().getName(), id);
         } else {
             LOG.warn("Usuario no encontrado con ID: " + id);
         }
         
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: getUserById(id=" + id + ") ===");
+        LOG.debugf("=== FIN SERVICE: getUserById(id=%s) ===", id);
         
         return user;
     }
 
     @Override
     public List<User> getAllUsers() {
-        LOG.info("=== SERVICE: getAllUsers() ===");
-        LOG.info("Iniciando proceso para obtener lista de todos los usuarios");
+        LOG.debug("=== SERVICE: getAllUsers() ===");
+        LOG.debug("Iniciando proceso para obtener lista de todos los usuarios");
         
-        long startTime = System.currentTimeMillis();
         List<User> users = userRepository.findAll();
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Lista de usuarios obtenida: " + users.size() + " usuarios");
-        LOG.info("Usuarios en la lista: " + users.stream().map(User::getName).toList());
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: getAllUsers() ===");
+        LOG.debugf("Lista de usuarios obtenida: %s usuarios", users.size());
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Usuarios en la lista: %s", users.stream().map(User::getName).toList());
+        }
+        LOG.debug("=== FIN SERVICE: getAllUsers() ===");
         
         return users;
     }
 
+    @Override
+    public long getUsersVersion() {
+        return userRepository.collectionVersion();
+    }
+
+    @Override
+    public Stream<User> streamAllUsers() {
+        LOG.debug("=== SERVICE: streamAllUsers() ===");
+        return userRepository.streamAll();
+    }
+
+    @Override
+    public Page<User> getUserPage(String cursor, int limit) {
+        LOG.debugf("=== SERVICE: getUserPage(cursor=%s, limit=%s) ===", cursor, limit);
+        
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            LOG.error("Error: Tamaño de página inválido: " + limit);
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        
+        int afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Integer.parseInt(cursor.trim());
+            } catch (NumberFormatException e) {
+                LOG.error("Error: Cursor inválido: " + cursor);
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+        }
+        
+        // Se pide un elemento de más para saber si existe una página siguiente
+        List<User> users = userRepository.findPage(afterId, limit + 1);
+        
+        String nextCursor = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            nextCursor = String.valueOf(users.get(limit - 1).getId());
+        }
+        
+        LOG.debugf("Página obtenida: %s usuarios, siguiente cursor: %s", users.size(), nextCursor);
+        LOG.debug("=== FIN SERVICE: getUserPage() ===");
+        
+        return new Page<>(List.copyOf(users), nextCursor);
+    }
+
     @Override
     public User createUser(User user) {
-        LOG.info("=== SERVICE: createUser(user=" + user.getName() + ") ===");
-        LOG.info("Iniciando proceso para crear nuevo usuario");
+        LOG.debugf("=== SERVICE: createUser(user=%s) ===", user.getName());
+        LOG.debug("Iniciando proceso para crear nuevo usuario");
         
         // Validaciones de negocio
         if (user.getName() == null || user.getName().trim().isEmpty()) {
@@ -71,22 +119,45 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("El email del usuario no puede estar vacío");
         }
         
-        long startTime = System.currentTimeMillis();
+        validateTeam(user);
         User createdUser = userRepository.save(user);
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Usuario creado: " + createdUser.getName() + " (ID: " + createdUser.getId() + ")");
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: createUser() ===");
+        LOG.debugf("Usuario creado: %s (ID: %s)", createdUser.getName(), createdUser.getId());
+        LOG.debug("=== FIN SERVICE: createUser() ===");
         
         return createdUser;
     }
 
     @Override
     public User updateUser(User user) {
-        LOG.info("=== SERVICE: updateUser(user=" + user.getName() + ", ID=" + user.getId() + ") ===");
-        LOG.info("Iniciando proceso para actualizar usuario");
+        LOG.debugf("=== SERVICE: updateUser(user=%s, ID=%s) ===", user.getName(), user.getId());
+        LOG.debug("Iniciando proceso para actualizar usuario");
         
+        validateForUpdate(user);
+        User updatedUser = userRepository.update(user);
+        logUpdate(user, updatedUser);
+        
+        return updatedUser;
+    }
+
+    @Override
+    public User updateUser(User user, long expectedVersion) {
+        LOG.debugf("=== SERVICE: updateUser(user=%s, ID=%s, expectedVersion=%s) ===", user.getName(), user.getId(),
+                expectedVersion);
+        LOG.debug("Iniciando proceso para actualizar usuario de forma condicional");
+        
+        validateForUpdate(user);
+        if (expectedVersion <= 0) {
+            LOG.error("Error: Versión esperada inválida: " + expectedVersion);
+            throw new IllegalArgumentException("La versión esperada debe ser mayor que 0");
+        }
+        User updatedUser = userRepository.update(user, expectedVersion);
+        logUpdate(user, updatedUser);
+        
+        return updatedUser;
+    }
+
+    private static void validateForUpdate(User user) {
         // Validaciones de negocio
         if (user.getId() <= 0) {
             LOG.error("Error: ID de usuario inválido: " + user.getId());
@@ -103,26 +174,37 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("El email del usuario no puede estar vacío");
         }
         
-        long startTime = System.currentTimeMillis();
-        User updatedUser = userRepository.update(user);
-        long endTime = System.currentTimeMillis();
+        validateTeam(user);
+    }
+
+    private static void validateTeam(User user) {
+        if (user.getTeam().size() > User.MAX_TEAM_SIZE) {
+            LOG.error("Error: Equipo demasiado grande: " + user.getTeam().size());
+            throw new IllegalArgumentException("El equipo no puede tener más de " + User.MAX_TEAM_SIZE + " Pokemons");
+        }
         
+        for (Integer pokemonId : user.getTeam()) {
+            if (pokemonId == null || pokemonId <= 0) {
+                LOG.error("Error: ID de Pokemon inválido en el equipo: " + pokemonId);
+                throw new IllegalArgumentException("ID de Pokemon inválido en el equipo: " + pokemonId);
+            }
+        }
+    }
+
+    private static void logUpdate(User user, User updatedUser) {
         if (updatedUser != null) {
-            LOG.info("Usuario actualizado: " + updatedUser.getName());
+            LOG.debugf("Usuario actualizado: %s (versión %s)", updatedUser.getName(), updatedUser.getVersion());
         } else {
             LOG.warn("Usuario con ID " + user.getId() + " no encontrado para actualizar");
         }
         
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: updateUser() ===");
-        
-        return updatedUser;
+        LOG.debug("=== FIN SERVICE: updateUser() ===");
     }
 
     @Override
     public boolean deleteUser(int id) {
-        LOG.info("=== SERVICE: deleteUser(id=" + id + ") ===");
-        LOG.info("Iniciando proceso para eliminar usuario");
+        LOG.debugf("=== SERVICE: deleteUser(id=%s) ===", id);
+        LOG.debug("Iniciando proceso para eliminar usuario");
         
         // Validaciones de negocio
         if (id <= 0) {
@@ -130,18 +212,15 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("ID de usuario inválido");
         }
         
-        long startTime = System.currentTimeMillis();
         boolean deleted = userRepository.deleteById(id);
-        long endTime = System.currentTimeMillis();
         
         if (deleted) {
-            LOG.info("Usuario con ID " + id + " eliminado correctamente");
+            LOG.debugf("Usuario con ID %s eliminado correctamente", id);
         } else {
             LOG.warn("Usuario con ID " + id + " no encontrado para eliminar");
         }
         
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: deleteUser() ===");
+        LOG.debug("=== FIN SERVICE: deleteUser() ===");
         
         return deleted;
     }
@@ -0,0 +1,79 @@
+package org.acme.user.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NearCacheTest {
+
+    private static final long TTL = TimeUnit.SECONDS.toNanos(10);
+    private static final long REFRESH_AFTER = TimeUnit.SECONDS.toNanos(8);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Integer, CompletionStage<String>> loader =
+            key -> CompletableFuture.completedFuture("value-" + key + "-" + loads.incrementAndGet());
+
+    @Test
+    void servesHitsWithoutCallingTheLoader() {
+        NearCache<Integer, String> cache = new NearCache<>("test", 10, TTL, REFRESH_AFTER, clock::get);
+
+        assertEquals("value-1-1", get(cache, 1));
+        assertEquals("value-1-1", get(cache, 1));
+
+        NearCache.Stats stats = cache.stats();
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        NearCache<Integer, String> cache = new NearCache<>("test", 2, TTL, REFRESH_AFTER, clock::get);
+        get(cache, 1);
+        get(cache, 2);
+        get(cache, 1); // 2 pasa a ser la menos usada
+        get(cache, 3);
+
+        assertNull(cache.getIfPresent(2));
+        assertEquals("value-1-1", cache.getIfPresent(1));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        NearCache<Integer, String> cache = new NearCache<>("test", 10, TTL, TTL, clock::get);
+        get(cache, 1);
+
+        clock.addAndGet(TTL);
+
+        assertEquals("value-1-2", get(cache, 1));
+        assertEquals(1, cache.stats().expirations());
+    }
+
+    @Test
+    void refreshesAheadOfExpiryWhileServingCurrentValue() {
+        NearCache<Integer, String> cache = new NearCache<>("test", 10, TTL, REFRESH_AFTER, clock::get);
+        get(cache, 1);
+
+        clock.addAndGet(REFRESH_AFTER);
+
+        // Se sirve el valor actual y el refresco reemplaza la entrada en segundo plano
+        assertEquals("value-1-1", get(cache, 1));
+        assertEquals("value-1-2", get(cache, 1));
+        assertEquals(1, cache.stats().refreshes());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    private String get(NearCache<Integer, String> cache, int key) {
+        return cache.get(key, loader).toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,82 @@
+package org.acme.user.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acme.user.client.FakeDaprClient;
+import org.acme.user.domain.Pokemon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PokemonCacheTest {
+
+    private static final int CATALOG_SIZE = 20;
+
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private PokemonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PokemonCache();
+        cache.pokemonClient = FakeDaprClient.pokemonClient(Duration.ZERO, path -> {
+            calls.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            if (path.equals("pokemon/list")) {
+                return IntStream.rangeClosed(1, CATALOG_SIZE).mapToObj(FakeDaprClient::pokemonJson)
+                        .collect(Collectors.joining(",", "[", "]"));
+            }
+            return FakeDaprClient.pokemonJson(Integer.parseInt(path.substring("pokemon/".length())));
+        }, new AtomicInteger());
+        cache.registry = new SimpleMeterRegistry();
+        cache.enabled = true;
+        cache.maxSize = 5;
+        cache.ttl = Duration.ofMinutes(1);
+        cache.refreshAhead = 0.8;
+        cache.init();
+    }
+
+    @Test
+    void byIdMissesAreServedFromTheCachedListWithoutACall() {
+        cache.getAllPokemons().toCompletableFuture().join();
+
+        Pokemon pokemon = cache.getPokemonById(7).toCompletableFuture().join();
+
+        assertEquals(7, pokemon.getId());
+        assertNull(calls.get("pokemon/7"));
+    }
+
+    @Test
+    void unknownIdsDoNotInvalidateTheCachedList() {
+        cache.getAllPokemons().toCompletableFuture().join();
+
+        for (int id = 1000; id < 1010; id++) {
+            cache.getPokemonById(id).toCompletableFuture().join();
+        }
+        List<Pokemon> pokemons = cache.getAllPokemons().toCompletableFuture().join();
+
+        assertEquals(CATALOG_SIZE, pokemons.size());
+        assertEquals(1, calls.get("pokemon/list").get());
+    }
+
+    @Test
+    void loadingTheListDoesNotEvictTheHotByIdEntries() {
+        // Conjunto caliente cargado antes que la lista
+        for (int id = 1001; id <= 1003; id++) {
+            cache.getPokemonById(id).toCompletableFuture().join();
+        }
+
+        cache.getAllPokemons().toCompletableFuture().join();
+
+        NearCache.Stats byId = cache.stats().get(0);
+        assertEquals(3, byId.size());
+        assertEquals(0, byId.evictions());
+    }
+}
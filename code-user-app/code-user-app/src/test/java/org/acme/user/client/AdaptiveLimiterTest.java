@@ -0,0 +1,78 @@
+package org.acme.user.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void rejectsCallsAboveTheLimitUntilOneIsReleased() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10);
+        AdaptiveLimiter.Permit first = limiter.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(limiter.tryAcquire());
+        assertNull(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+
+        first.ignore();
+        assertNotNull(limiter.tryAcquire());
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsStableAndShrinksWhenTheServiceQueues() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 100);
+        sample(limiter, FAST, 300);
+        int grown = limiter.limit();
+        assertEquals(100, grown);
+
+        // El servicio se ralentiza x10: el límite baja en pocas muestras
+        sample(limiter, SLOW, 30);
+        int shrunk = limiter.limit();
+        assertTrue(shrunk < grown / 4, "Límite tras la ralentización: " + shrunk);
+
+        // Vuelve la latencia anterior: el límite se recupera
+        sample(limiter, FAST, 300);
+        assertTrue(limiter.limit() > shrunk * 2, "Límite tras la recuperación: " + limiter.limit());
+    }
+
+    @Test
+    void limitDoesNotGrowWhenLessThanHalfIsInUse() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 2, 100);
+        for (int i = 0; i < 300; i++) {
+            limiter.onSample(FAST, 5);
+        }
+        assertEquals(20, limiter.limit());
+    }
+
+    @Test
+    void timeoutsBackOffDownToTheMinimum() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(50, 4, 100);
+        List<AdaptiveLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            permits.add(limiter.tryAcquire());
+        }
+        permits.forEach(AdaptiveLimiter.Permit::dropped);
+        assertEquals(4, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    /**
+     * Muestras con el límite en uso (como bajo carga)
+     */
+    private static void sample(AdaptiveLimiter limiter, long rttNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            limiter.onSample(rttNanos, limiter.limit());
+        }
+    }
+}
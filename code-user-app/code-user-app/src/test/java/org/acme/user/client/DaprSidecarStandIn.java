@@ -0,0 +1,414 @@
+package org.acme.user.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.dapr.client.DaprClient;
+import io.dapr.v1.CommonProtos;
+import io.dapr.v1.DaprGrpc;
+import io.dapr.v1.DaprProtos;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.acme.user.domain.Pokemon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sidecar DAPR simulado en proceso: implementa la invocación de servicios de la API HTTP
+ * (GET /v1.0/invoke/{appId}/method/{método}) y de la API gRPC (Dapr/InvokeService) sobre
+ * loopback, para ejercitar un DaprClient real sin dapr ni pokemon-service levantados.
+ *
+ * Las invocaciones a app-id "pokemon-service" se resuelven con un {@link Backend}: el
+ * catálogo embebido (mismas rutas de lectura que pokemon-service) o un pokemon-service real
+ * arrancado sin sidecar. El {@link FaultProfile} añade latencia y errores antes de cada
+ * invocación y puede cambiarse en caliente.
+ *
+ * Cada invocación registra el tiempo pasado dentro del sidecar; restándolo de la latencia
+ * observada en el cliente queda el coste propio de PokemonClient + SDK de DAPR + transporte.
+ */
+final class DaprSidecarStandIn implements AutoCloseable {
+
+    static final String POKEMON_APP_ID = "pokemon-service";
+
+    static {
+        // Sin TCP_NODELAY el HttpServer del JDK añade ~40 ms por respuesta (Nagle + ACK retardado)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final Backend backend;
+    private final HttpServer httpServer;
+    private final Server grpcServer;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final ConcurrentLinkedQueue<Long> sidecarNanos = new ConcurrentLinkedQueue<>();
+    private volatile FaultProfile profile;
+
+    private DaprSidecarStandIn(Backend backend, FaultProfile profile) throws IOException {
+        this.backend = backend;
+        this.profile = profile;
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        this.httpServer = HttpServer.create(new InetSocketAddress(loopback, 0), 0);
+        this.httpServer.createContext("/v1.0/invoke/", this::handleHttpInvoke);
+        this.httpServer.setExecutor(executor);
+        this.httpServer.start();
+        this.grpcServer = Grpc.newServerBuilderForPort(0, InsecureServerCredentials.create())
+                .addService(new InvokeService())
+                .executor(executor)
+                .build()
+                .start();
+    }
+
+    static DaprSidecarStandIn start(Backend backend, FaultProfile profile) throws IOException {
+        return new DaprSidecarStandIn(backend, profile);
+    }
+
+    /**
+     * DaprClient del SDK apuntando a este sidecar
+     * @param invocationProtocol HTTP (/v1.0/invoke) o GRPC (Dapr/InvokeService)
+     */
+    DaprClient newDaprClient(DaprClientFactory.Protocol invocationProtocol) {
+        return DaprClientFactory.create("127.0.0.1", httpPort(), grpcPort(), invocationProtocol);
+    }
+
+    int httpPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    int grpcPort() {
+        return grpcServer.getPort();
+    }
+
+    void setProfile(FaultProfile profile) {
+        this.profile = Objects.requireNonNull(profile);
+    }
+
+    long invocations() {
+        return invocations.sum();
+    }
+
+    long injectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    /**
+     * Tiempo dentro del sidecar de cada invocación, en orden de finalización
+     */
+    List<Long> sidecarNanos() {
+        return new ArrayList<>(sidecarNanos);
+    }
+
+    void resetStats() {
+        invocations.reset();
+        injectedErrors.reset();
+        sidecarNanos.clear();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        httpServer.stop(0);
+        grpcServer.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Aplica el perfil de fallos y resuelve la invocación con el backend
+     */
+    private Response invoke(String appId, String method, String querystring, String ifNoneMatch) {
+        long start = System.nanoTime();
+        invocations.increment();
+        try {
+            FaultProfile current = profile;
+            current.sleep();
+            if (current.shouldFail()) {
+                injectedErrors.increment();
+                return Response.daprError(500, "ERR_DIRECT_INVOKE", "fallo inyectado por el perfil del sidecar simulado");
+            }
+            if (!POKEMON_APP_ID.equals(appId)) {
+                return Response.daprError(500, "ERR_DIRECT_INVOKE", "app-id desconocido: " + appId);
+            }
+            return backend.invoke(method, querystring, ifNoneMatch);
+        } finally {
+            sidecarNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void handleHttpInvoke(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // /v1.0/invoke/{appId}/method/{método...}
+            String path = exchange.getRequestURI().getRawPath().substring("/v1.0/invoke/".length());
+            int separator = path.indexOf("/method/");
+            Response response = separator < 0
+                    ? Response.daprError(404, "ERR_DIRECT_INVOKE", "ruta de invocación no válida")
+                    : invoke(path.substring(0, separator), path.substring(separator + "/method/".length()),
+                            exchange.getRequestURI().getRawQuery(), exchange.getRequestHeaders().getFirst("If-None-Match"));
+            exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            if (response.etag() != null) {
+                exchange.getResponseHeaders().set("ETag", response.etag());
+            }
+            // Como el sidecar real, el 304 de la aplicación se devuelve tal cual (sin cuerpo)
+            exchange.sendResponseHeaders(response.status(), response.status() == 304 ? -1 : response.body().length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response.body());
+            }
+        }
+    }
+
+    /**
+     * API gRPC del sidecar: solo InvokeService, el resto responde UNIMPLEMENTED
+     */
+    private final class InvokeService extends DaprGrpc.DaprImplBase {
+
+        @Override
+        public void invokeService(DaprProtos.InvokeServiceRequest request,
+                                  StreamObserver<CommonProtos.InvokeResponse> responseObserver) {
+            CommonProtos.InvokeRequest message = request.getMessage();
+            Response response = invoke(request.getId(), message.getMethod(), message.getHttpExtension().getQuerystring(), null);
+            if (response.status() >= 300) {
+                Status status = switch (response.status()) {
+                    case 400 -> Status.INVALID_ARGUMENT;
+                    case 404 -> Status.NOT_FOUND;
+                    default -> Status.INTERNAL;
+                };
+                responseObserver.onError(status
+                        .withDescription(new String(response.body(), StandardCharsets.UTF_8))
+                        .asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(CommonProtos.InvokeResponse.newBuilder()
+                    .setData(Any.newBuilder().setValue(ByteString.copyFrom(response.body())))
+                    .setContentType(response.contentType())
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    /**
+     * Latencia y errores inyectados en cada invocación
+     * @param latency Latencia fija añadida
+     * @param jitter Latencia extra aleatoria uniforme en [0, jitter)
+     * @param errorRate Fracción de invocaciones que fallan con 500 (0..1)
+     */
+    record FaultProfile(Duration latency, Duration jitter, double errorRate) {
+
+        static final FaultProfile NONE = new FaultProfile(Duration.ZERO, Duration.ZERO, 0);
+
+        FaultProfile {
+            if (errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("errorRate debe estar entre 0 y 1: " + errorRate);
+            }
+        }
+
+        static FaultProfile latency(Duration latency) {
+            return new FaultProfile(latency, Duration.ZERO, 0);
+        }
+
+        static FaultProfile errors(double errorRate) {
+            return new FaultProfile(Duration.ZERO, Duration.ZERO, errorRate);
+        }
+
+        private void sleep() {
+            long nanos = latency.toNanos();
+            if (!jitter.isZero()) {
+                nanos += ThreadLocalRandom.current().nextLong(jitter.toNanos());
+            }
+            if (nanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(nanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private boolean shouldFail() {
+            return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+        }
+    }
+
+    /**
+     * @param etag Cabecera ETag de la respuesta (solo por la API HTTP), o null
+     */
+    record Response(int status, byte[] body, String contentType, String etag) {
+
+        Response(int status, byte[] body, String contentType) {
+            this(status, body, contentType, null);
+        }
+
+        static Response notModified(String etag) {
+            return new Response(304, new byte[0], "application/json", etag);
+        }
+
+        /**
+         * "No modificado" del callback OnInvoke (app-protocol grpc): gRPC no tiene 304, así que
+         * el sidecar lo devuelve como 200 sin cuerpo con el ETag del cliente
+         */
+        static Response notModifiedOverGrpcChannel(String etag) {
+            return new Response(200, new byte[0], "application/json", etag);
+        }
+
+        Response withETag(String etag) {
+            return new Response(status, body, contentType, etag);
+        }
+
+        static Response json(byte[] body) {
+            return new Response(200, body, "application/json");
+        }
+
+        static Response text(String body) {
+            return new Response(200, body.getBytes(StandardCharsets.UTF_8), "text/plain");
+        }
+
+        /**
+         * Error con el formato de la API de DAPR ({"errorCode": ..., "message": ...})
+         */
+        static Response daprError(int status, String errorCode, String message) {
+            String body = "{\"errorCode\":\"" + errorCode + "\",\"message\":\"" + message.replace("\"", "'") + "\"}";
+            return new Response(status, body.getBytes(StandardCharsets.UTF_8), "application/json");
+        }
+    }
+
+    /**
+     * Destino de las invocaciones a pokemon-service
+     */
+    @FunctionalInterface
+    interface Backend {
+
+        /**
+         * @param method Método invocado, p. ej. "pokemon/25"
+         * @param querystring Query string codificado, o null
+         */
+        Response invoke(String method, String querystring);
+
+        /**
+         * Invocación con la cabecera If-None-Match del cliente (solo llega por la API HTTP); por
+         * defecto se ignora y se responde completo
+         * @param ifNoneMatch Cabecera If-None-Match, o null
+         */
+        default Response invoke(String method, String querystring, String ifNoneMatch) {
+            return invoke(method, querystring);
+        }
+
+        /**
+         * pokemon-service embebido: rutas de lectura (hello, random, list, batch, {id}) sobre un
+         * catálogo en memoria, serializado una vez al arrancar
+         */
+        static Backend catalog(Map<Integer, Pokemon> pokemons) {
+            ObjectMapper mapper = new ObjectMapper();
+            List<Pokemon> all = pokemons.values().stream().toList();
+            byte[] list = writeJson(mapper, all);
+            return (method, querystring) -> switch (method) {
+                case "pokemon/hello" -> Response.text("Hello from Pokemon Service!");
+                case "pokemon/list" -> Response.json(list);
+                case "pokemon/random" -> Response.json(writeJson(mapper,
+                        all.get(ThreadLocalRandom.current().nextInt(all.size()))));
+                case "pokemon/batch" -> Response.json(writeJson(mapper, queryIds(querystring).stream()
+                        .map(pokemons::get)
+                        .filter(Objects::nonNull)
+                        .toList()));
+                default -> {
+                    Pokemon pokemon = null;
+                    if (method.startsWith("pokemon/")) {
+                        try {
+                            pokemon = pokemons.get(Integer.parseInt(method.substring("pokemon/".length())));
+                        } catch (NumberFormatException e) {
+                            // Ruta desconocida: 404 como el pokemon-service real
+                        }
+                    }
+                    yield pokemon == null
+                            ? new Response(404, new byte[0], "text/plain")
+                            : Response.json(writeJson(mapper, pokemon));
+                }
+            };
+        }
+
+        /**
+         * Reenvía por HTTP a un pokemon-service real arrancado sin sidecar (como el canal
+         * de aplicación de DAPR con app-protocol http)
+         * @param appBaseUrl URL base de la aplicación, p. ej. http://localhost:8086
+         */
+        static Backend forwardTo(URI appBaseUrl) {
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String base = appBaseUrl.toString().replaceAll("/+$", "");
+            return new Backend() {
+                @Override
+                public Response invoke(String method, String querystring) {
+                    return invoke(method, querystring, null);
+                }
+
+                @Override
+                public Response invoke(String method, String querystring, String ifNoneMatch) {
+                    URI target = URI.create(base + "/" + method + (querystring == null || querystring.isEmpty() ? "" : "?" + querystring));
+                    HttpRequest.Builder request = HttpRequest.newBuilder(target).GET();
+                    if (ifNoneMatch != null) {
+                        request.header("If-None-Match", ifNoneMatch);
+                    }
+                    try {
+                        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                        return new Response(response.statusCode(), response.body(),
+                                response.headers().firstValue("Content-Type").orElse("application/json"),
+                                response.headers().firstValue("ETag").orElse(null));
+                    } catch (IOException e) {
+                        return Response.daprError(500, "ERR_DIRECT_INVOKE", "pokemon-service no responde: " + e.getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return Response.daprError(500, "ERR_DIRECT_INVOKE", "invocación interrumpida");
+                    }
+                }
+            };
+        }
+
+        private static byte[] writeJson(ObjectMapper mapper, Object value) {
+            try {
+                return mapper.writeValueAsBytes(value);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static List<Integer> queryIds(String querystring) {
+            List<Integer> ids = new ArrayList<>();
+            if (querystring == null) {
+                return ids;
+            }
+            for (String param : querystring.split("&")) {
+                String[] pair = param.split("=", 2);
+                if (pair.length == 2 && "ids".equals(pair[0])) {
+                    for (String id : URLDecoder.decode(pair[1], StandardCharsets.UTF_8).split(",")) {
+                        if (!id.isBlank()) {
+                            ids.add(Integer.parseInt(id.trim()));
+                        }
+                    }
+                }
+            }
+            return ids;
+        }
+    }
+}
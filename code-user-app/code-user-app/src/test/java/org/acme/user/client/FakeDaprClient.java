@@ -0,0 +1,114 @@
+package org.acme.user.client;
+
+import io.dapr.client.DaprClient;
+import io.dapr.client.domain.HttpExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * DaprClient de pruebas: responde a invokeMethod con un payload fijo tras una latencia simulada,
+ * sin sidecar ni red (un payload null simula una respuesta sin cuerpo). Las respuestas se eligen por
+ * método, con la query si la hay (p. ej. "pokemon/batch?ids=1,2"). El resto de métodos de la API no están soportados.
+ */
+public final class FakeDaprClient {
+
+    private FakeDaprClient() {
+    }
+
+    /**
+     * PokemonClient sobre este DaprClient, para tests de otros paquetes
+     */
+    public static PokemonClient pokemonClient(Duration latency, Function<String, String> responses, AtomicInteger invocations) {
+        return new PokemonClient(withLatency(latency, responses, invocations));
+    }
+
+    /**
+     * PokemonClient inicializado como el bean con la configuración por defecto (init()): límite de
+     * concurrencia y plazo, batching de getPokemonById y métricas
+     */
+    public static PokemonClient initializedPokemonClient(Duration latency, Function<String, String> responses,
+                                                         AtomicInteger invocations) {
+        PokemonClient client = pokemonClient(latency, responses, invocations);
+        client.batchEnabled = true;
+        client.batchWindow = Duration.ofMillis(5);
+        client.batchMaxSize = 50;
+        client.callTimeout = Duration.ofSeconds(2);
+        client.initialLimit = 20;
+        client.minLimit = 2;
+        client.maxLimit = 200;
+        client.hedgingMinDelay = Duration.ofMillis(5);
+        client.hedgingBudget = 0.1;
+        client.registry = new SimpleMeterRegistry();
+        client.init();
+        return client;
+    }
+
+    /**
+     * Deja el cliente sin capacidad hacia el pokemon-service: el único permiso lo ocupa una llamada que no
+     * termina, así que el resto se rechaza al momento (RejectedExecutionException). Al cerrar se restaura
+     * la protección anterior
+     */
+    public static AutoCloseable saturate(PokemonClient client) {
+        ResilientInvoker saturated = new ResilientInvoker(new ResilientInvoker.Options(Duration.ofMinutes(1), 1, 1, 1,
+                false, Duration.ofMillis(20), 0.1));
+        saturated.call(CompletableFuture::new, false);
+        ResilientInvoker previous = client.protectWith(saturated);
+        return () -> {
+            client.protectWith(previous);
+            saturated.close();
+        };
+    }
+
+    static DaprClient withLatency(Duration latency, Function<String, String> responses, AtomicInteger invocations) {
+        return (DaprClient) Proxy.newProxyInstance(
+                DaprClient.class.getClassLoader(),
+                new Class<?>[]{DaprClient.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "invokeMethod" -> {
+                            invocations.incrementAndGet();
+                            String response = responses.apply(target((String) args[1],
+                                    args.length > 3 && args[3] instanceof HttpExtension extension ? extension : null));
+                            if (response == null) {
+                                // Respuesta sin cuerpo: el Mono termina vacío
+                                return Mono.delay(latency).then(Mono.empty());
+                            }
+                            byte[] payload = response.getBytes(StandardCharsets.UTF_8);
+                            return Mono.delay(latency).map(tick -> payload);
+                        }
+                        case "close" -> {
+                            return null;
+                        }
+                        case "toString" -> {
+                            return "FakeDaprClient";
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static String target(String method, HttpExtension httpExtension) {
+        Map<String, List<String>> query = httpExtension == null ? Map.of() : httpExtension.getQueryParams();
+        if (query.isEmpty()) {
+            return method;
+        }
+        return method + "?" + query.entrySet().stream()
+                .map(param -> param.getKey() + "=" + String.join(",", param.getValue()))
+                .collect(Collectors.joining("&"));
+    }
+
+    public static String pokemonJson(int id) {
+        return "{\"id\":" + id + ",\"name\":\"Pokemon-" + id + "\",\"type\":\"Fire\",\"level\":5,"
+                + "\"abilities\":[\"Blaze\"]}";
+    }
+}
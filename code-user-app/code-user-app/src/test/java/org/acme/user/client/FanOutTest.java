@@ -0,0 +1,111 @@
+package org.acme.user.client;
+
+import org.acme.user.client.FanOut.Outcome;
+import org.acme.user.client.FanOut.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FanOutTest {
+
+    @Test
+    void allLookupsAreInFlightAtOnceAndResultsKeepTheKeyOrder() {
+        // La latencia es la de la consulta más lenta, no la suma (medida en FanOutBenchmark)
+        List<Integer> ids = List.of(1, 2, 3, 4, 5, 6);
+        Map<Integer, CompletableFuture<String>> lookups = new ConcurrentHashMap<>();
+
+        CompletableFuture<List<Outcome<Integer, String>>> resolved = FanOut.resolve(ids,
+                id -> lookups.computeIfAbsent(id, key -> new CompletableFuture<>()), 6, Duration.ofSeconds(5))
+                .toCompletableFuture();
+
+        assertEquals(ids.size(), lookups.size());
+        assertFalse(resolved.isDone());
+        // Responden en orden inverso
+        for (int i = ids.size(); i >= 1; i--) {
+            lookups.get(i).complete("Pokemon " + i);
+        }
+        List<Outcome<Integer, String>> outcomes = resolved.join();
+        assertEquals(ids, outcomes.stream().map(Outcome::key).toList());
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == Status.OK));
+        assertEquals("Pokemon 4", outcomes.get(3).value());
+    }
+
+    @Test
+    void deadlineReturnsPartialResultsWithPerItemStatus() {
+        CompletableFuture<String> neverAnswers = new CompletableFuture<>();
+
+        List<Outcome<Integer, String>> outcomes = FanOut.resolve(List.of(1, 2, 3), id -> switch (id) {
+            case 1 -> CompletableFuture.completedFuture("Bulbasaur");
+            case 2 -> neverAnswers;
+            default -> CompletableFuture.failedFuture(new IllegalStateException("Pokemon no encontrado"));
+        }, 3, Duration.ofMillis(200)).toCompletableFuture().join();
+
+        assertEquals(Status.OK, outcomes.get(0).status());
+        assertEquals("Bulbasaur", outcomes.get(0).value());
+        assertEquals(Status.TIMEOUT, outcomes.get(1).status());
+        assertEquals(Status.ERROR, outcomes.get(2).status());
+        assertEquals("Pokemon no encontrado", outcomes.get(2).error());
+
+        // Una respuesta tardía no cambia el resultado ya entregado
+        neverAnswers.complete("Ivysaur");
+        assertEquals(Status.TIMEOUT, outcomes.get(1).status());
+    }
+
+    @Test
+    void finishingBeforeTheDeadlineCancelsItsTimer() {
+        int before = FanOut.pendingDeadlines();
+
+        List<Outcome<Integer, String>> outcomes = FanOut.resolve(List.of(1, 2, 3),
+                id -> CompletableFuture.completedFuture("Pokemon " + id), 3, Duration.ofHours(1))
+                .toCompletableFuture().join();
+
+        assertEquals(3, outcomes.size());
+        // El plazo de una hora no queda retenido en la cola del temporizador
+        assertEquals(before, FanOut.pendingDeadlines());
+    }
+
+    @Test
+    void parallelismBoundsTheLookupsInFlight() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        List<Outcome<Integer, Integer>> outcomes = FanOut.resolve(List.of(1, 2, 3, 4, 5, 6, 7, 8), id -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return delayed(id, 20).whenComplete((value, error) -> inFlight.decrementAndGet());
+        }, 2, Duration.ofSeconds(5)).toCompletableFuture().join();
+
+        assertEquals(8, outcomes.size());
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == Status.OK));
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void keysNotStartedBeforeTheDeadlineTimeOutAndAreNeverLookedUp() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        List<Outcome<Integer, String>> outcomes = FanOut.resolve(List.of(1, 2, 3), id -> {
+            lookups.incrementAndGet();
+            return new CompletableFuture<String>();
+        }, 1, Duration.ofMillis(50)).toCompletableFuture().join();
+
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == Status.TIMEOUT));
+        assertEquals(1, lookups.get());
+        assertEquals(List.of(), FanOut.resolve(List.<Integer>of(), id -> delayed("x", 0), 1, Duration.ofMillis(50))
+                .toCompletableFuture().join());
+    }
+
+    private static <V> CompletionStage<V> delayed(V value, long millis) {
+        return CompletableFuture.supplyAsync(() -> value, CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,93 @@
+package org.acme.user.client;
+
+import org.acme.user.domain.Pokemon;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PokemonBatcherTest {
+
+    private final List<List<Integer>> batchesSent = new CopyOnWriteArrayList<>();
+
+    @Test
+    void lookupsWithinWindowCostOneRoundTrip() {
+        try (PokemonBatcher batcher = new PokemonBatcher(this::fakeBatchEndpoint, 50, Duration.ofMillis(20))) {
+            List<CompletableFuture<Pokemon>> lookups = new ArrayList<>();
+            for (int id = 1; id <= 30; id++) {
+                lookups.add(batcher.load(id).toCompletableFuture());
+            }
+
+            for (int i = 0; i < lookups.size(); i++) {
+                assertEquals(i + 1, lookups.get(i).join().getId());
+            }
+            assertEquals(1, batchesSent.size());
+            assertEquals(30, batchesSent.get(0).size());
+            assertEquals(30.0, batcher.stats().averageBatchSize());
+        }
+    }
+
+    @Test
+    void flushesImmediatelyWhenMaxSizeIsReached() {
+        try (PokemonBatcher batcher = new PokemonBatcher(this::fakeBatchEndpoint, 10, Duration.ofSeconds(30))) {
+            List<CompletableFuture<Pokemon>> lookups = new ArrayList<>();
+            for (int id = 1; id <= 20; id++) {
+                lookups.add(batcher.load(id).toCompletableFuture());
+            }
+
+            // Dos batches completos sin esperar la ventana de 30 s
+            lookups.forEach(CompletableFuture::join);
+            assertEquals(2, batchesSent.size());
+        }
+    }
+
+    @Test
+    void missingIdsFailIndividually() {
+        try (PokemonBatcher batcher = new PokemonBatcher(this::fakeBatchEndpoint, 50, Duration.ofMillis(5))) {
+            CompletableFuture<Pokemon> found = batcher.load(25).toCompletableFuture();
+            CompletableFuture<Pokemon> missing = batcher.load(-1).toCompletableFuture();
+
+            assertEquals(25, found.join().getId());
+            assertThrows(CompletionException.class, missing::join);
+        }
+    }
+
+    @Test
+    void closeDispatchesPendingLoadsAndRejectsLaterOnes() {
+        PokemonBatcher batcher = new PokemonBatcher(this::fakeBatchEndpoint, 50, Duration.ofSeconds(30));
+        CompletableFuture<Pokemon> queued = batcher.load(7).toCompletableFuture();
+
+        // El cierre no espera la ventana de 30 s ni deja la carga encolada sin completar
+        batcher.close();
+        assertEquals(7, queued.join().getId());
+        assertEquals(List.of(List.of(7)), batchesSent);
+
+        CompletionException rejected = assertThrows(CompletionException.class, () -> batcher.load(7).toCompletableFuture().join());
+        assertInstanceOf(IllegalStateException.class, rejected.getCause());
+        assertEquals(1, batchesSent.size());
+        assertEquals(1, batcher.stats().requests());
+        batcher.close();
+    }
+
+    /**
+     * Simula /pokemon/batch: devuelve un Pokemon por cada ID positivo
+     */
+    private CompletableFuture<List<Pokemon>> fakeBatchEndpoint(List<Integer> ids) {
+        batchesSent.add(ids);
+        List<Pokemon> pokemons = new ArrayList<>();
+        for (Integer id : ids) {
+            if (id > 0) {
+                pokemons.add(new Pokemon(id, "Pokemon-" + id, "Fire", 5, List.of("Blaze")));
+            }
+        }
+        return CompletableFuture.completedFuture(pokemons);
+    }
+}
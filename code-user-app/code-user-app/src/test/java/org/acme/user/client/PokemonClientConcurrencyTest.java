@@ -0,0 +1,62 @@
+package org.acme.user.client;
+
+import org.acme.user.domain.Pokemon;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Camino asíncrono del PokemonClient: las llamadas no ocupan un hilo mientras el sidecar responde.
+ * La comparación de tiempos con el camino bloqueante está en el módulo benchmarks
+ * (PokemonExecutionModeBenchmark, modos ASYNC y WORKER).
+ */
+class PokemonClientConcurrencyTest {
+
+    private static final int CONCURRENT_REQUESTS = 1_000;
+    // Más de lo que se tarda en lanzar todas las llamadas: ninguna responde antes
+    private static final Duration SIDECAR_LATENCY = Duration.ofSeconds(1);
+
+    @Test
+    void asyncCallsAreAllInFlightAtOnceWithoutBlockingTheCaller() {
+        AtomicInteger invocations = new AtomicInteger();
+        PokemonClient client = new PokemonClient(FakeDaprClient.withLatency(
+                SIDECAR_LATENCY, path -> FakeDaprClient.pokemonJson(Integer.parseInt(path.substring("pokemon/".length()))),
+                invocations));
+        // IDs distintos en cada petición: se mide la concurrencia, no la agrupación de peticiones idénticas
+
+        List<CompletableFuture<Pokemon>> calls = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            calls.add(client.getPokemonByIdAsync(i + 1).toCompletableFuture());
+        }
+
+        // Todas llegaron al sidecar desde este hilo y ninguna ha respondido aún
+        assertEquals(CONCURRENT_REQUESTS, invocations.get());
+        assertTrue(calls.stream().noneMatch(CompletableFuture::isDone));
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            assertEquals(i + 1, calls.get(i).join().getId());
+        }
+    }
+
+    @Test
+    void undecodableResponsesFailTheStageInsteadOfLeavingItPending() {
+        // Cuerpo vacío (null para Jackson) y JSON que no es un Pokemon
+        PokemonClient client = new PokemonClient(FakeDaprClient.withLatency(Duration.ZERO,
+                path -> path.equals("pokemon/1") ? null : "[1,2,3]", new AtomicInteger()));
+
+        for (int id : new int[]{1, 2}) {
+            CompletableFuture<Pokemon> call = client.getPokemonByIdAsync(id).toCompletableFuture();
+            ExecutionException error = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertEquals("Error decodificando la respuesta del Pokemon Service", error.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.acme.user.client;
+
+import io.dapr.client.DaprClient;
+import org.acme.user.client.DaprClientFactory.Protocol;
+import org.acme.user.client.DaprSidecarStandIn.Backend;
+import org.acme.user.client.DaprSidecarStandIn.FaultProfile;
+import org.acme.user.client.DaprSidecarStandIn.Response;
+import org.acme.user.domain.Pokemon;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PokemonClient con un DaprClient real contra el sidecar simulado, por las APIs HTTP y gRPC
+ * de invocación: respuestas y errores inyectados. El sobrecoste propio del cliente está en el módulo
+ * benchmarks (PokemonClientSidecarBenchmark).
+ */
+class PokemonClientSidecarTest {
+
+    private static final int CATALOG_SIZE = 200;
+
+    private DaprSidecarStandIn sidecar;
+    private DaprClient daprClient;
+
+    @BeforeEach
+    void startSidecar() throws Exception {
+        sidecar = DaprSidecarStandIn.start(Backend.catalog(buildCatalog()), FaultProfile.NONE);
+    }
+
+    @AfterEach
+    void stopSidecar() throws Exception {
+        if (daprClient != null) {
+            daprClient.close();
+        }
+        sidecar.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Protocol.class)
+    void invokesPokemonServiceThroughSidecar(Protocol protocol) {
+        PokemonClient client = newClient(protocol);
+
+        assertEquals("Pokemon-25", client.getPokemonById(25).getName());
+        assertEquals(CATALOG_SIZE, client.getAllPokemons().size());
+        List<Pokemon> batch = client.getPokemonsByIdsAsync(List.of(1, 4, 9999, 7)).toCompletableFuture().join();
+        assertEquals(List.of(1, 4, 7), batch.stream().map(Pokemon::getId).toList());
+        assertEquals(3, sidecar.invocations());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Protocol.class)
+    void forwardsFieldProjectionToPokemonService(Protocol protocol) throws Exception {
+        sidecar.close();
+        List<String> invocations = new CopyOnWriteArrayList<>();
+        sidecar = DaprSidecarStandIn.start((method, querystring) -> {
+            invocations.add(method + "?" + URLDecoder.decode(String.valueOf(querystring), StandardCharsets.UTF_8));
+            return Response.json("[{\"id\":1,\"name\":\"Bulbasaur\"},{\"id\":4,\"name\":\"Charmander\"}]"
+                    .getBytes(StandardCharsets.UTF_8));
+        }, FaultProfile.NONE);
+        PokemonClient client = newClient(protocol);
+
+        List<Pokemon> pokemons = client.getAllPokemonsAsync("id,name").toCompletableFuture().join();
+
+        assertEquals(List.of("pokemon/list?fields=id,name"), invocations);
+        assertEquals(List.of("Bulbasaur", "Charmander"), pokemons.stream().map(Pokemon::getName).toList());
+        // Los campos no pedidos no viajan: quedan sin valor en el cliente
+        assertNull(pokemons.get(0).getType());
+        assertNull(pokemons.get(0).getAbilities());
+    }
+
+    @Test
+    void conditionalListReusesTheDecodedCopyWhileTheCatalogIsUnchanged() throws Exception {
+        sidecar.close();
+        AtomicLong version = new AtomicLong(1);
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        sidecar = DaprSidecarStandIn.start(new Backend() {
+            @Override
+            public Response invoke(String method, String querystring) {
+                return invoke(method, querystring, null);
+            }
+
+            @Override
+            public Response invoke(String method, String querystring, String ifNoneMatch) {
+                conditions.add(method + " " + ifNoneMatch);
+                String etag = "\"v" + version.get() + "\"";
+                if (etag.equals(ifNoneMatch)) {
+                    return Response.notModified(etag);
+                }
+                return Response.json(("[{\"id\":1,\"name\":\"Bulbasaur-v" + version.get() + "\"}]")
+                        .getBytes(StandardCharsets.UTF_8)).withETag(etag);
+            }
+        }, FaultProfile.NONE);
+        daprClient = sidecar.newDaprClient(Protocol.HTTP);
+        PokemonClient client = new PokemonClient(daprClient,
+                new ConditionalInvoker("127.0.0.1", sidecar.httpPort(), DaprSidecarStandIn.POKEMON_APP_ID));
+        client.conditionalEnabled = true;
+
+        List<Pokemon> first = client.getAllPokemonsAsync().toCompletableFuture().join();
+        List<Pokemon> second = client.getAllPokemonsAsync().toCompletableFuture().join();
+        // 304: el mismo objeto ya decodificado, sin volver a leer el cuerpo
+        assertSame(first, second);
+        assertEquals("\"v1\"", client.entityTag(second));
+
+        version.set(2);
+        List<Pokemon> changed = client.getAllPokemonsAsync().toCompletableFuture().join();
+        assertNotSame(first, changed);
+        assertEquals("Bulbasaur-v2", changed.get(0).getName());
+        assertEquals("\"v2\"", client.entityTag(changed));
+        assertNull(client.entityTag(first));
+
+        // Cada proyección se revalida con su propio ETag
+        client.getAllPokemonsAsync("id,name").toCompletableFuture().join();
+        assertEquals(List.of("pokemon/list null", "pokemon/list \"v1\"", "pokemon/list \"v1\"", "pokemon/list null"),
+                conditions);
+        assertEquals(new ConditionalInvoker.Stats(4, 1), client.conditionalStats());
+
+        sidecar.setProfile(FaultProfile.errors(1.0));
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> client.getAllPokemonsAsync().toCompletableFuture().join());
+        assertTrue(failure.getCause().getMessage().contains("DAPR"));
+    }
+
+    @Test
+    void conditionalListUnderstandsTheNotModifiedOfTheGrpcAppChannel() throws Exception {
+        sidecar.close();
+        sidecar = DaprSidecarStandIn.start(new Backend() {
+            @Override
+            public Response invoke(String method, String querystring) {
+                return invoke(method, querystring, null);
+            }
+
+            @Override
+            public Response invoke(String method, String querystring, String ifNoneMatch) {
+                String etag = "\"abc-1\"";
+                if (etag.equals(ifNoneMatch)) {
+                    return Response.notModifiedOverGrpcChannel(etag);
+                }
+                return Response.json("[{\"id\":1,\"name\":\"Bulbasaur\"}]".getBytes(StandardCharsets.UTF_8))
+                        .withETag(etag);
+            }
+        }, FaultProfile.NONE);
+        daprClient = sidecar.newDaprClient(Protocol.HTTP);
+        PokemonClient client = new PokemonClient(daprClient,
+                new ConditionalInvoker("127.0.0.1", sidecar.httpPort(), DaprSidecarStandIn.POKEMON_APP_ID));
+        client.conditionalEnabled = true;
+
+        List<Pokemon> first = client.getAllPokemonsAsync().toCompletableFuture().join();
+        List<Pokemon> second = client.getAllPokemonsAsync().toCompletableFuture().join();
+        // 200 sin cuerpo con el mismo ETag: la copia ya decodificada, y el ETag sigue guardado
+        assertSame(first, second);
+        assertEquals("\"abc-1\"", client.entityTag(second));
+        assertSame(first, client.getAllPokemonsAsync().toCompletableFuture().join());
+        assertEquals(new ConditionalInvoker.Stats(3, 2), client.conditionalStats());
+    }
+
+    @Test
+    void cancellingAConditionalGetAbortsItAndKeepsNoValidator() throws Exception {
+        sidecar.close();
+        CountDownLatch arrived = new CountDownLatch(1);
+        CountDownLatch answer = new CountDownLatch(1);
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        sidecar = DaprSidecarStandIn.start(new Backend() {
+            @Override
+            public Response invoke(String method, String querystring) {
+                return invoke(method, querystring, null);
+            }
+
+            @Override
+            public Response invoke(String method, String querystring, String ifNoneMatch) {
+                conditions.add(ifNoneMatch);
+                arrived.countDown();
+                try {
+                    answer.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Response.json("[]".getBytes(StandardCharsets.UTF_8)).withETag("\"abc-1\"");
+            }
+        }, FaultProfile.NONE);
+        ConditionalInvoker invoker = new ConditionalInvoker("127.0.0.1", sidecar.httpPort(), DaprSidecarStandIn.POKEMON_APP_ID);
+
+        // Como hace ResilientInvoker al vencer el plazo o al perder el hedging
+        CountDownLatch decoded = new CountDownLatch(1);
+        CompletableFuture<String> timedOut = invoker.get("pokemon/list", null, body -> {
+            decoded.countDown();
+            return new String(body, StandardCharsets.UTF_8);
+        }).toCompletableFuture();
+        assertTrue(arrived.await(5, TimeUnit.SECONDS));
+        timedOut.cancel(true);
+        answer.countDown();
+
+        // La respuesta de la petición cancelada no se decodifica ni deja un ETag con el que revalidar
+        assertFalse(decoded.await(500, TimeUnit.MILLISECONDS));
+        assertEquals("[]", invoker.get("pokemon/list", null, body -> new String(body, StandardCharsets.UTF_8))
+                .toCompletableFuture().join());
+        assertEquals(Arrays.asList(null, null), conditions);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Protocol.class)
+    void surfacesInjectedErrorsAndRecovers(Protocol protocol) {
+        PokemonClient client = newClient(protocol);
+
+        sidecar.setProfile(FaultProfile.errors(1.0));
+        assertThrows(RuntimeException.class, () -> client.getPokemonById(1));
+        CompletionException async = assertThrows(CompletionException.class,
+                () -> client.getRandomPokemonAsync().toCompletableFuture().join());
+        assertTrue(async.getCause().getMessage().contains("DAPR"));
+        assertEquals(2, sidecar.injectedErrors());
+
+        sidecar.setProfile(FaultProfile.NONE);
+        assertEquals(1, client.getPokemonById(1).getId());
+    }
+
+    private PokemonClient newClient(Protocol protocol) {
+        daprClient = sidecar.newDaprClient(protocol);
+        return new PokemonClient(daprClient);
+    }
+
+    private static Map<Integer, Pokemon> buildCatalog() {
+        Map<Integer, Pokemon> catalog = new LinkedHashMap<>();
+        for (int id = 1; id <= CATALOG_SIZE; id++) {
+            catalog.put(id, new Pokemon(id, "Pokemon-" + id, "Grass/Poison", id % 100, List.of("Overgrow", "Chlorophyll")));
+        }
+        return catalog;
+    }
+}
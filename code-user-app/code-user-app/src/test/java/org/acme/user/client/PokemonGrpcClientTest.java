@@ -0,0 +1,240 @@
+package org.acme.user.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.acme.user.domain.Pokemon;
+import org.acme.user.grpc.GetPokemonRequest;
+import org.acme.user.grpc.GetPokemonsByIdsRequest;
+import org.acme.user.grpc.ListPokemonsRequest;
+import org.acme.user.grpc.PokemonCatalogGrpc;
+import org.acme.user.grpc.PokemonList;
+import org.acme.user.grpc.PokemonMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba el cliente gRPC contra un PokemonCatalog real sobre loopback. La latencia del listado
+ * completo frente al camino HTTP/JSON está en el módulo benchmarks (PokemonListTransportBenchmark).
+ */
+class PokemonGrpcClientTest {
+
+    private static final int CATALOG_SIZE = 1_000;
+
+    private final Map<Integer, Pokemon> catalog = buildCatalog();
+    private final List<String> appIdHeaders = new CopyOnWriteArrayList<>();
+    private Server server;
+    private ManagedChannel channel;
+    private PokemonGrpcClient client;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = ServerBuilder.forPort(0)
+                .addService(ServerInterceptors.intercept(new FakeCatalog(), new AppIdRecorder()))
+                .build()
+                .start();
+        channel = ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+        client = new PokemonGrpcClient(channel, "pokemon-service");
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void unaryBatchAndStreamingCallsCarryDaprAppId() {
+        assertEquals("Pokemon-25", client.getPokemonByIdAsync(25).toCompletableFuture().join().getName());
+        assertEquals(List.of(7, 3),
+                client.getPokemonsByIdsAsync(List.of(7, 99_999, 3)).toCompletableFuture().join()
+                        .stream().map(Pokemon::getId).toList());
+        assertEquals(CATALOG_SIZE, client.getAllPokemonsAsync().toCompletableFuture().join().size());
+
+        assertEquals(List.of("pokemon-service", "pokemon-service", "pokemon-service"), appIdHeaders);
+    }
+
+    @Test
+    void streamingConsumerProcessesEveryPokemonInOrder() {
+        List<Integer> ids = new ArrayList<>();
+        long processed = client.streamAllPokemons(pokemon -> ids.add(pokemon.getId())).toCompletableFuture().join();
+
+        assertEquals(CATALOG_SIZE, processed);
+        assertEquals(new ArrayList<>(catalog.keySet()), ids);
+    }
+
+    @Test
+    void failingConsumerCancelsTheStream() {
+        CompletionException error = assertThrows(CompletionException.class, () -> client.streamAllPokemons(pokemon -> {
+            if (pokemon.getId() == 150) {
+                throw new IllegalStateException("fallo del consumidor");
+            }
+        }).toCompletableFuture().join());
+        assertEquals(Status.Code.CANCELLED, Status.fromThrowable(error.getCause().getCause()).getCode());
+    }
+
+    @Test
+    void notFoundFailsTheStage() {
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> client.getPokemonByIdAsync(99_999).toCompletableFuture().join());
+        assertEquals(Status.Code.NOT_FOUND, Status.fromThrowable(error.getCause().getCause()).getCode());
+    }
+
+    @Test
+    void streamingIsBoundedByTheCallDeadlineAndCancelledWhenItExpires() {
+        PokemonClient pokemonClient = new PokemonClient(FakeDaprClient.withLatency(Duration.ZERO,
+                path -> null, new AtomicInteger()));
+        pokemonClient.grpcClient = client;
+        try (ResilientInvoker invoker = new ResilientInvoker(new ResilientInvoker.Options(
+                Duration.ofMillis(200), 10, 1, 10, true, Duration.ofMillis(20), 1.0))) {
+            pokemonClient.protectWith(invoker);
+            // Latencias para el p95: una llamada idempotente tendría segundo intento a los 20 ms
+            for (int i = 0; i < 128; i++) {
+                invoker.call(() -> CompletableFuture.completedFuture("warmup"), true).toCompletableFuture().join();
+            }
+            List<Integer> ids = new CopyOnWriteArrayList<>();
+
+            // Consumidor lento: el catálogo completo tardaría ~1 s
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> pokemonClient.forEachPokemonAsync(pokemon -> {
+                        ids.add(pokemon.getId());
+                        sleep(1);
+                    }).toCompletableFuture().join());
+
+            assertInstanceOf(TimeoutException.class, error.getCause());
+            assertEquals(1, invoker.stats().timeouts());
+            assertEquals(0, invoker.stats().hedges());
+            // El stream se cancela: como mucho termina la página en curso
+            sleep(300);
+            assertTrue(ids.size() < CATALOG_SIZE, "Pokemons procesados tras el plazo: " + ids.size());
+        }
+    }
+
+    @Test
+    void blockingGrpcListGoesThroughTheConcurrencyLimit() throws Exception {
+        PokemonClient pokemonClient = new PokemonClient(FakeDaprClient.withLatency(Duration.ZERO,
+                path -> null, new AtomicInteger()));
+        pokemonClient.grpcClient = client;
+        try (AutoCloseable saturated = FakeDaprClient.saturate(pokemonClient)) {
+            assertThrows(RejectedExecutionException.class, pokemonClient::getAllPokemonsGrpc);
+            assertTrue(appIdHeaders.isEmpty(), "La llamada rechazada no llega al servicio");
+        }
+    }
+
+    @Test
+    void protobufListPayloadIsSmallerThanJson() throws Exception {
+        List<Pokemon> pokemons = new ArrayList<>(catalog.values());
+        int jsonBytes = new ObjectMapper().writeValueAsBytes(pokemons).length;
+        PokemonList.Builder protoList = PokemonList.newBuilder();
+        pokemons.forEach(pokemon -> protoList.addPokemons(toMessage(pokemon)));
+
+        assertTrue(protoList.build().getSerializedSize() < jsonBytes, "El payload protobuf debería ser más pequeño que el JSON");
+    }
+
+    private static Map<Integer, Pokemon> buildCatalog() {
+        List<Pokemon> pokemons = new ArrayList<>();
+        for (int i = 1; i <= CATALOG_SIZE; i++) {
+            pokemons.add(new Pokemon(i, "Pokemon-" + i, "Grass/Poison", i % 100, List.of("Overgrow", "Chlorophyll")));
+        }
+        return pokemons.stream().collect(Collectors.toMap(Pokemon::getId, Function.identity(),
+                (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static PokemonMessage toMessage(Pokemon pokemon) {
+        return PokemonMessage.newBuilder()
+                .setId(pokemon.getId())
+                .setName(pokemon.getName())
+                .setType(pokemon.getType())
+                .setLevel(pokemon.getLevel())
+                .addAllAbilities(pokemon.getAbilities())
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class FakeCatalog extends PokemonCatalogGrpc.PokemonCatalogImplBase {
+
+        @Override
+        public void getPokemon(GetPokemonRequest request, StreamObserver<PokemonMessage> responseObserver) {
+            Pokemon pokemon = catalog.get(request.getId());
+            if (pokemon == null) {
+                responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(toMessage(pokemon));
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void getPokemonsByIds(GetPokemonsByIdsRequest request, StreamObserver<PokemonList> responseObserver) {
+            PokemonList.Builder response = PokemonList.newBuilder();
+            request.getIdsList().stream().map(catalog::get).filter(Objects::nonNull)
+                    .forEach(pokemon -> response.addPokemons(toMessage(pokemon)));
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void listPokemons(ListPokemonsRequest request, StreamObserver<PokemonList> responseObserver) {
+            PokemonList.Builder page = PokemonList.newBuilder();
+            for (Pokemon pokemon : catalog.values()) {
+                page.addPokemons(toMessage(pokemon));
+                if (page.getPokemonsCount() == 100) {
+                    responseObserver.onNext(page.build());
+                    page.clear();
+                }
+            }
+            if (page.getPokemonsCount() > 0) {
+                responseObserver.onNext(page.build());
+            }
+            responseObserver.onCompleted();
+        }
+    }
+
+    private class AppIdRecorder implements ServerInterceptor {
+
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                     ServerCallHandler<ReqT, RespT> next) {
+            appIdHeaders.add(headers.get(PokemonGrpcClient.DAPR_APP_ID_HEADER));
+            return next.startCall(call, headers);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.acme.user.client;
+
+import org.acme.user.domain.Pokemon;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PokemonResponseDecoderTest {
+
+    private static final byte[] POKEMON_PAYLOAD = ("{\"id\":25,\"name\":\"Pikachu\",\"type\":\"Electric\","
+            + "\"level\":5,\"abilities\":[\"Static\",\"Lightning Rod\"]}").getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PokemonResponseDecoder decoder = new PokemonResponseDecoder(objectMapper);
+
+    @Test
+    void decodesSinglePokemon() throws Exception {
+        Pokemon pokemon = decoder.decodePokemon(POKEMON_PAYLOAD);
+
+        assertEquals(25, pokemon.getId());
+        assertEquals("Pikachu", pokemon.getName());
+        assertEquals(List.of("Static", "Lightning Rod"), pokemon.getAbilities());
+    }
+
+    @Test
+    void decodesPokemonListAndIgnoresUnknownFields() throws Exception {
+        byte[] payload = ("[{\"id\":1,\"name\":\"Bulbasaur\",\"type\":\"Grass/Poison\",\"level\":5,"
+                + "\"abilities\":[\"Overgrow\"],\"unknown\":true},"
+                + "{\"id\":4,\"name\":\"Charmander\",\"type\":\"Fire\",\"level\":5,\"abilities\":[\"Blaze\"]}]")
+                .getBytes(StandardCharsets.UTF_8);
+
+        List<Pokemon> pokemons = decoder.decodePokemonList(payload);
+
+        assertEquals(2, pokemons.size());
+        assertEquals("Charmander", pokemons.get(1).getName());
+    }
+}
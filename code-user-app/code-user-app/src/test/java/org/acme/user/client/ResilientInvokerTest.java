@@ -0,0 +1,145 @@
+package org.acme.user.client;
+
+import org.acme.user.domain.Pokemon;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientInvokerTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(200);
+
+    @Test
+    void attemptsThatMissTheirDeadlineFailAndAreCancelled() {
+        try (ResilientInvoker invoker = invoker(10, false)) {
+            CompletableFuture<String> neverAnswers = new CompletableFuture<>();
+
+            long start = System.nanoTime();
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> invoker.call(() -> neverAnswers, true).toCompletableFuture().join());
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertInstanceOf(TimeoutException.class, error.getCause());
+            assertTrue(neverAnswers.isCancelled());
+            assertTrue(elapsedMillis >= 190 && elapsedMillis < 1000, "Plazo de 200 ms: " + elapsedMillis + " ms");
+            assertEquals(1, invoker.stats().timeouts());
+            assertEquals(0, invoker.stats().inFlight());
+        }
+    }
+
+    @Test
+    void callsAboveTheLimitAreRejectedWithoutWaiting() {
+        try (ResilientInvoker invoker = invoker(2, false)) {
+            CompletableFuture<String> slow = new CompletableFuture<>();
+            invoker.call(() -> slow, true);
+            invoker.call(() -> slow, true);
+
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> invoker.call(() -> CompletableFuture.completedFuture("Pikachu"), true).toCompletableFuture().join());
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+            assertEquals(1, invoker.stats().rejections());
+
+            slow.complete("Snorlax");
+            assertEquals("Pikachu", invoker.call(() -> CompletableFuture.completedFuture("Pikachu"), true)
+                    .toCompletableFuture().join());
+        }
+    }
+
+    @Test
+    void hedgedRequestAnswersWhenTheFirstAttemptIsSlow() {
+        try (ResilientInvoker invoker = invoker(10, true)) {
+            // Latencias recientes para el p95
+            for (int i = 0; i < 128; i++) {
+                invoker.call(() -> CompletableFuture.completedFuture("warmup"), true).toCompletableFuture().join();
+            }
+
+            AtomicInteger attempts = new AtomicInteger();
+            CompletableFuture<String> stuck = new CompletableFuture<>();
+            long start = System.nanoTime();
+            String pokemon = invoker.call(() -> attempts.incrementAndGet() == 1
+                    ? stuck
+                    : CompletableFuture.completedFuture("Mewtwo"), true).toCompletableFuture().join();
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals("Mewtwo", pokemon);
+            assertEquals(2, attempts.get());
+            assertTrue(stuck.isCancelled(), "El intento perdedor se cancela");
+            assertTrue(elapsedMillis < TIMEOUT.toMillis(), "Respuesta del segundo intento: " + elapsedMillis + " ms");
+            ResilientInvoker.Stats stats = invoker.stats();
+            assertEquals(1, stats.hedges());
+            assertEquals(1, stats.hedgeWins());
+            assertEquals(1.0, stats.hedgeWinRate());
+        }
+    }
+
+    @Test
+    void nonIdempotentCallsAreNeverHedged() {
+        try (ResilientInvoker invoker = invoker(10, true)) {
+            for (int i = 0; i < 128; i++) {
+                invoker.call(() -> CompletableFuture.completedFuture("warmup"), true).toCompletableFuture().join();
+            }
+            AtomicInteger attempts = new AtomicInteger();
+            assertThrows(CompletionException.class, () -> invoker.call(() -> {
+                attempts.incrementAndGet();
+                return new CompletableFuture<String>();
+            }, false).toCompletableFuture().join());
+            assertEquals(1, attempts.get());
+            assertEquals(0, invoker.stats().hedges());
+        }
+    }
+
+    @Test
+    void slowPokemonServiceNoLongerPilesUpCallsInTheClient() {
+        // pokemon-service colgado (5 s por respuesta) con 100 llamadas concurrentes
+        AtomicInteger invocations = new AtomicInteger();
+        PokemonClient client = new PokemonClient(FakeDaprClient.withLatency(Duration.ofSeconds(5),
+                path -> FakeDaprClient.pokemonJson(25), invocations));
+        // Plazo de 1 s: lanzar las 100 llamadas (con log DEBUG) no debe consumirlo
+        try (ResilientInvoker invoker = invoker(10, false, Duration.ofSeconds(1))) {
+            client.protectWith(invoker);
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Pokemon>> calls = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                calls.add(client.getRandomPokemonAsync().toCompletableFuture());
+            }
+            calls.forEach(call -> assertThrows(CompletionException.class, call::join));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Solo el límite llega al servicio; el resto se rechaza al momento, y nadie espera más que el plazo
+            ResilientInvoker.Stats stats = invoker.stats();
+            assertEquals(10, invocations.get());
+            assertEquals(90, stats.rejections());
+            assertEquals(10, stats.timeouts());
+            assertTrue(stats.limit() < 10, "El límite baja tras los timeouts: " + stats.limit());
+            assertTrue(elapsedMillis < 3000, "Todas las llamadas terminan en el plazo: " + elapsedMillis + " ms");
+
+            // El camino bloqueante tampoco espera indefinidamente
+            long blockingStart = System.nanoTime();
+            assertThrows(RuntimeException.class, () -> client.getPokemonById(25));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - blockingStart) < 3000);
+        }
+    }
+
+    private static ResilientInvoker invoker(int limit, boolean hedging) {
+        return invoker(limit, hedging, TIMEOUT);
+    }
+
+    private static ResilientInvoker invoker(int limit, boolean hedging, Duration timeout) {
+        return new ResilientInvoker(new ResilientInvoker.Options(timeout, limit, 1, limit, hedging,
+                Duration.ofMillis(20), 0.1));
+    }
+}
@@ -0,0 +1,64 @@
+package org.acme.user.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentIdenticalCallsShareOneExecution() {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        List<CompletableFuture<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            waiters.add(singleFlight.execute(25, () -> {
+                executions.incrementAndGet();
+                return pending;
+            }).toCompletableFuture());
+        }
+        pending.complete("Pikachu");
+
+        assertEquals(1, executions.get());
+        waiters.forEach(waiter -> assertEquals("Pikachu", waiter.join()));
+        SingleFlight.Stats stats = singleFlight.stats();
+        assertEquals(100, stats.calls());
+        assertEquals(1, stats.executions());
+        assertEquals(100.0, stats.collapseRatio());
+        assertEquals(0, stats.inFlight());
+    }
+
+    @Test
+    void releasesKeyAfterCompletionAndPropagatesErrors() {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+        CompletionStage<String> failed = singleFlight.execute(1,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("sidecar caído")));
+
+        assertTrue(failed.toCompletableFuture().isCompletedExceptionally());
+        assertEquals("Bulbasaur", singleFlight.execute(1,
+                () -> CompletableFuture.completedFuture("Bulbasaur")).toCompletableFuture().join());
+        assertEquals(2, singleFlight.stats().executions());
+    }
+
+    @Test
+    void waitersCannotCancelTheSharedCall() {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute(7, () -> pending).toCompletableFuture();
+        CompletableFuture<String> second = singleFlight.execute(7, () -> pending).toCompletableFuture();
+
+        first.cancel(true);
+        pending.complete("Squirtle");
+
+        assertEquals("Squirtle", second.join());
+    }
+}
@@ -0,0 +1,282 @@
+package org.acme.user.controller;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.acme.user.client.FakeDaprClient;
+import org.acme.user.client.PokemonClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class UserResourceTest {
+
+    @Inject
+    PokemonClient pokemonClient;
+
+    @Test
+    void pageWalksUsersInIdOrderWithCursor() {
+        given()
+          .when().get("/users/page?limit=2")
+          .then()
+             .statusCode(200)
+             .body("items.id", contains(1, 2))
+             .body("nextCursor", is("2"));
+
+        given()
+          .when().get("/users/page?cursor=2&limit=2")
+          .then()
+             .statusCode(200)
+             .body("items.id", contains(3))
+             .body("nextCursor", nullValue());
+    }
+
+    @Test
+    void pageRejectsInvalidLimit() {
+        given()
+          .when().get("/users/page?limit=501")
+          .then()
+             .statusCode(400);
+    }
+
+    @Test
+    void streamEmitsOneUserPerLine() {
+        String body = given()
+          .when().get("/users/stream")
+          .then()
+             .statusCode(200)
+             .contentType("application/x-ndjson")
+             .extract().asString();
+
+        List<String> lines = List.of(body.split("\n"));
+        assertTrue(lines.size() >= 3);
+        assertTrue(lines.stream().allMatch(line -> line.startsWith("{\"id\":") && line.endsWith("}")), body);
+    }
+
+    @Test
+    void fieldsProjectUsersToTheRequestedProperties() {
+        String body = given()
+          .when().get("/users?fields=name,id")
+          .then()
+             .statusCode(200)
+             .contentType("application/json")
+             .body("id", hasItems(1, 2))
+             .body("email", everyItem(nullValue()))
+             .extract().asString();
+        assertTrue(body.startsWith("[{\"id\":1,\"name\":"), body);
+
+        given()
+          .when().get("/users/1?fields=email")
+          .then()
+             .statusCode(200)
+             .header("ETag", notNullValue())
+             .body("email", is("john.doe@example.com"))
+             .body("name", nullValue());
+
+        given()
+          .when().get("/users?fields=password")
+          .then()
+             .statusCode(400)
+             .body(containsString("password"));
+
+        given()
+          .when().get("/users/pokemon/list?fields=id,weight")
+          .then()
+             .statusCode(400);
+    }
+
+    @Test
+    void putWithIfMatchIsACompareAndSetOnTheVersion() {
+        String etag = given()
+          .when().get("/users/3")
+          .then()
+             .statusCode(200)
+             .extract().header("ETag");
+        // El ETag lleva delante el identificador de arranque: "<arranque>-<versión>"
+        assertTrue(etag.startsWith("\"" + EntityTags.EPOCH + "-"), etag);
+        long version = Long.parseLong(etag.substring(etag.lastIndexOf('-') + 1, etag.length() - 1));
+
+        String updated = given()
+          .contentType("application/json")
+          .header("If-Match", etag)
+          .body("{\"name\":\"Bob J.\",\"email\":\"bob.j@example.com\"}")
+          .when().put("/users/3")
+          .then()
+             .statusCode(200)
+             .body("version", is((int) version + 1))
+             .extract().header("ETag");
+        assertEquals("\"" + EntityTags.EPOCH + "-" + (version + 1) + "\"", updated);
+
+        // Otro cliente con la versión anterior: 412 con el ETag actual, sin pisar el cambio
+        given()
+          .contentType("application/json")
+          .header("If-Match", etag)
+          .body("{\"name\":\"Stale\",\"email\":\"stale@example.com\"}")
+          .when().put("/users/3")
+          .then()
+             .statusCode(412)
+             .header("ETag", updated);
+
+        // La misma versión de otro arranque puede ser otro usuario: tampoco coincide
+        given()
+          .contentType("application/json")
+          .header("If-Match", "\"otroarranque-" + (version + 1) + "\"")
+          .body("{\"name\":\"Stale\",\"email\":\"stale@example.com\"}")
+          .when().put("/users/3")
+          .then()
+             .statusCode(412)
+             .header("ETag", updated);
+
+        given()
+          .when().get("/users/3")
+          .then()
+             .statusCode(200)
+             .body("name", is("Bob J."));
+    }
+
+    @Test
+    void putRejectsMalformedIfMatch() {
+        given()
+          .contentType("application/json")
+          .header("If-Match", "W/\"1\"")
+          .body("{\"name\":\"Jane\",\"email\":\"jane@example.com\"}")
+          .when().put("/users/2")
+          .then()
+             .statusCode(400)
+             .body(containsString("If-Match"));
+    }
+
+    @Test
+    void ifNoneMatchAnswersNotModifiedUntilUsersChange() {
+        String etag = given()
+          .when().get("/users")
+          .then()
+             .statusCode(200)
+             .extract().header("ETag");
+
+        given()
+          .header("If-None-Match", etag)
+          .when().get("/users?fields=id")
+          .then()
+             .statusCode(304)
+             .header("ETag", etag);
+
+        String userTag = given()
+          .when().get("/users/2")
+          .then()
+             .statusCode(200)
+             .extract().header("ETag");
+        given()
+          .header("If-None-Match", userTag)
+          .when().get("/users/2")
+          .then()
+             .statusCode(304);
+
+        // Una escritura cambia la versión de la colección y la del usuario
+        given()
+          .contentType("application/json")
+          .body("{\"name\":\"Jane Smith\",\"email\":\"jane.smith@example.com\"}")
+          .when().put("/users/2")
+          .then()
+             .statusCode(200);
+        String changed = given()
+          .header("If-None-Match", etag)
+          .when().get("/users")
+          .then()
+             .statusCode(200)
+             .extract().header("ETag");
+        assertNotEquals(etag, changed);
+        given()
+          .header("If-None-Match", userTag)
+          .when().get("/users/2")
+          .then()
+             .statusCode(200)
+             .body("name", is("Jane Smith"));
+    }
+
+    @Test
+    void pokemonEndpointsAnswer503WithRetryAfterWhenThePokemonServiceIsSaturated() throws Exception {
+        try (AutoCloseable saturated = FakeDaprClient.saturate(pokemonClient)) {
+            for (String path : List.of("/users/pokemon/25", "/users/pokemon", "/users/pokemon/list",
+                    "/users/pokemon/list/grpc", "/users/pokemon-service/hello")) {
+                given()
+                  .when().get(path)
+                  .then()
+                     .statusCode(503)
+                     .header("Retry-After", "1")
+                     .body(containsString("Límite de concurrencia"));
+            }
+        }
+
+        // Un fallo que no es de capacidad sigue respondiendo 404 (sin sidecar DAPR en los tests)
+        given()
+          .when().get("/users/pokemon/25")
+          .then()
+             .statusCode(404);
+    }
+
+    @Test
+    void teamEndpointReturnsPartialResultsWhenPokemonServiceIsUnavailable() {
+        // Sin sidecar DAPR en los tests ningún Pokemon se obtiene: la respuesta es parcial, no un error
+        given()
+          .when().get("/users/1/team")
+          .then()
+             .statusCode(200)
+             .body("user.id", is(1))
+             .body("user.team", contains(25, 4, 7))
+             .body("members.pokemonId", contains(25, 4, 7))
+             .body("members.status", everyItem(anyOf(is("ERROR"), is("TIMEOUT"))))
+             .body("members.pokemon", everyItem(nullValue()))
+             .body("complete", is(false));
+
+        given()
+          .when().get("/users/999/team")
+          .then()
+             .statusCode(404);
+
+        given()
+          .when().get("/users/1?fields=team")
+          .then()
+             .statusCode(200)
+             .body("team", contains(25, 4, 7));
+    }
+
+    @Test
+    void createRejectsInvalidTeams() {
+        given()
+          .contentType("application/json")
+          .body("{\"name\":\"Ash\",\"email\":\"ash@example.com\",\"team\":[1,2,3,4,5,6,7]}")
+          .when().post("/users")
+          .then()
+             .statusCode(400)
+             .body(containsString("equipo"));
+
+        given()
+          .contentType("application/json")
+          .body("{\"name\":\"Ash\",\"email\":\"ash@example.com\",\"team\":[25,0]}")
+          .when().post("/users")
+          .then()
+             .statusCode(400);
+
+        given()
+          .contentType("application/json")
+          .body("{\"name\":\"Ash\",\"email\":\"ash@example.com\",\"team\":[1,null]}")
+          .when().post("/users")
+          .then()
+             .statusCode(400)
+             .body(containsString("ID de Pokemon inválido en el equipo: null"));
+    }
+}
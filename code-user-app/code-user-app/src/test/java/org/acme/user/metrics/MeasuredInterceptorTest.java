@@ -0,0 +1,54 @@
+package org.acme.user.metrics;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+
+@QuarkusTest
+class MeasuredInterceptorTest {
+
+    @Test
+    void recordsLatencyPercentilesPerLayer() {
+        given().when().get("/users/1").then().statusCode(200);
+
+        given()
+          .when().get("/q/metrics")
+          .then()
+             .statusCode(200)
+             .body(containsString("app_layer_calls_seconds_count{class=\"UserResource\",layer=\"controller\",method=\"getUserById\",outcome=\"success\"}"))
+             .body(containsString("app_layer_calls_seconds{class=\"UserServiceImpl\",layer=\"service\",method=\"getUserById\",outcome=\"success\",quantile=\"0.5\"}"))
+             .body(containsString("app_layer_calls_seconds_bucket{class=\"UserRepositoryImpl\",layer=\"repository\",method=\"findById\",outcome=\"success\""));
+    }
+
+    @Test
+    void countsErrorsByExceptionType() {
+        given()
+          .contentType(ContentType.JSON)
+          .body("{\"name\": \"\", \"email\": \"ash@example.com\"}")
+          .when().post("/users")
+          .then()
+             .statusCode(400);
+
+        given()
+          .when().get("/q/metrics")
+          .then()
+             .statusCode(200)
+             .body(containsString("app_layer_errors_total{class=\"UserServiceImpl\",exception=\"IllegalArgumentException\",layer=\"service\",method=\"createUser\"}"));
+    }
+
+    @Test
+    void exposesPokemonClientStats() {
+        given().when().get("/users/pokemon/stats").then().statusCode(200);
+
+        given()
+          .when().get("/q/metrics")
+          .then()
+             .statusCode(200)
+             .body(containsString("pokemon_client_cache_requests_total{cache=\"pokemon-by-id\",result=\"hit\"}"))
+             .body(containsString("pokemon_client_coalescing_calls_total{flights=\"by-id\"}"))
+             .body(containsString("pokemon_client_batching_batches_total"));
+    }
+}
@@ -0,0 +1,139 @@
+package org.acme.user.repository.impl;
+
+import org.acme.user.domain.User;
+import org.acme.user.repository.VersionConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserRepositoryImplTest {
+
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 250;
+    private static final int INCREMENTS_PER_THREAD = 500;
+
+    @Test
+    void concurrentSavesNeverRepeatIds() throws Exception {
+        UserRepositoryImpl repository = new UserRepositoryImpl();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Callable<List<Integer>> task = () -> {
+                    start.await();
+                    List<Integer> ids = new ArrayList<>();
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        User user = new User(0, "User " + thread + "-" + i, "user" + thread + "-" + i + "@example.com");
+                        ids.add(repository.save(user).getId());
+                    }
+                    return ids;
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+
+            Set<Integer> ids = new HashSet<>();
+            for (Future<List<Integer>> result : results) {
+                ids.addAll(result.get());
+            }
+            assertEquals(THREADS * SAVES_PER_THREAD, ids.size());
+            assertTrue(ids.stream().allMatch(id -> id > 3));
+            List<User> all = repository.findAll();
+            assertEquals(3 + THREADS * SAVES_PER_THREAD, all.size());
+            assertEquals(List.of(1, 2, 3, 4), all.stream().limit(4).map(User::getId).toList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void compareAndSetUpdateRejectsStaleVersions() {
+        UserRepositoryImpl repository = new UserRepositoryImpl();
+        assertEquals(1, repository.findById(1).orElseThrow().getVersion());
+        long collectionVersion = repository.collectionVersion();
+
+        User updated = repository.update(new User(1, "John", "john@example.com"), 1);
+        assertEquals(2, updated.getVersion());
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> repository.update(new User(1, "Stale", "stale@example.com"), 1));
+        assertEquals(2, conflict.getCurrentVersion());
+        assertEquals("John", repository.findById(1).orElseThrow().getName());
+        // El update incondicional también avanza la versión
+        assertEquals(3, repository.update(new User(1, "Johnny", "john@example.com")).getVersion());
+        // La versión de la colección cuenta las escrituras aplicadas, no la rechazada
+        assertEquals(collectionVersion + 2, repository.collectionVersion());
+    }
+
+    @Test
+    void writesStoreACopyOfTheCallersUser() {
+        UserRepositoryImpl repository = new UserRepositoryImpl();
+        User draft = new User(0, "Misty", "misty@example.com");
+        draft.setTeam(List.of(120, 121));
+
+        User saved = repository.save(draft);
+        assertNotSame(draft, saved);
+        assertEquals(0, draft.getId());
+        assertEquals(0, draft.getVersion());
+        assertEquals(List.of(120, 121), repository.findById(saved.getId()).orElseThrow().getTeam());
+
+        User change = new User(saved.getId(), "Misty W.", "misty@example.com");
+        User updated = repository.update(change, 1);
+        assertNotSame(change, updated);
+        assertEquals(0, change.getVersion());
+        assertEquals(2, repository.findById(saved.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void concurrentReadModifyWriteLosesNoUpdates() throws Exception {
+        UserRepositoryImpl repository = new UserRepositoryImpl();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                        // Lee, incrementa el contador del nombre y escribe solo si nadie se adelantó
+                        while (true) {
+                            User current = repository.findById(2).orElseThrow();
+                            int counter = current.getName().startsWith("#") ? Integer.parseInt(current.getName().substring(1)) : 0;
+                            try {
+                                repository.update(new User(2, "#" + (counter + 1), current.getEmail()), current.getVersion());
+                                break;
+                            } catch (VersionConflictException e) {
+                                // Otro hilo escribió entre la lectura y la escritura: se relee
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+
+            User user = repository.findById(2).orElseThrow();
+            assertEquals("#" + THREADS * INCREMENTS_PER_THREAD, user.getName());
+            assertEquals(1 + THREADS * INCREMENTS_PER_THREAD, user.getVersion());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.acme.user.repository.impl;
+
+import org.acme.user.domain.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Persistencia de UserRepositoryImpl: WAL con group commit, snapshots y recuperación.
+ * Un "reinicio" es abrir otro repositorio sobre el mismo directorio sin cerrar el anterior
+ * (como tras una caída: sin snapshot final).
+ */
+class UserWriteAheadLogTest {
+
+    private static final int SMALL_SEGMENT = 4096;
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 250;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversEveryChangeAfterACrash() {
+        UserRepositoryImpl repository = open(SMALL_SEGMENT);
+        assertEquals(List.of(1, 2, 3), ids(repository));
+        User alice = repository.save(new User(0, "Alice", "alice@example.com"));
+        User jane = new User(2, "Jane Doe", null);
+        jane.setTeam(List.of(94, 25));
+        repository.update(jane);
+        repository.deleteById(1);
+        for (int i = 0; i < 200; i++) {
+            repository.save(new User(0, "User " + i, "user" + i + "@example.com"));
+        }
+        repository.deleteById(alice.getId() + 200);
+
+        UserRepositoryImpl restarted = open(SMALL_SEGMENT);
+        assertEquals(ids(repository), ids(restarted));
+        assertEquals("Jane Doe", restarted.findById(2).orElseThrow().getName());
+        assertEquals(2, restarted.findById(2).orElseThrow().getVersion());
+        assertNull(restarted.findById(2).orElseThrow().getEmail());
+        assertEquals(List.of(94, 25), restarted.findById(2).orElseThrow().getTeam());
+        assertEquals("Alice", restarted.findById(alice.getId()).orElseThrow().getName());
+        // La secuencia de IDs continúa donde estaba, también tras borrar el último
+        assertEquals(alice.getId() + 201, restarted.save(new User(0, "Bob", "bob@example.com")).getId());
+    }
+
+    @Test
+    void snapshotPlusLogTailRestoresTheStateAndDropsCoveredSegments() throws Exception {
+        UserRepositoryImpl repository = open(SMALL_SEGMENT);
+        for (int i = 0; i < 300; i++) {
+            repository.save(new User(0, "User " + i, "user" + i + "@example.com"));
+        }
+        long segmentsBefore = countFiles("wal-");
+        repository.snapshot();
+        assertTrue(countFiles("wal-") < segmentsBefore);
+        assertEquals(1, countFiles("snapshot-"));
+
+        User updated = new User(10, "Updated", "updated@example.com");
+        updated.setTeam(List.of(6, 9, 3));
+        repository.update(updated);
+        repository.deleteById(11);
+        repository.save(new User(0, "After snapshot", "after@example.com"));
+
+        UserRepositoryImpl restarted = open(SMALL_SEGMENT);
+        UserWriteAheadLog.Recovery recovery = restarted.wal().recovery();
+        assertEquals(303, recovery.snapshotUsers());
+        assertEquals(3, recovery.replayedRecords());
+        assertEquals(ids(repository), ids(restarted));
+        assertEquals("Updated", restarted.findById(10).orElseThrow().getName());
+        assertEquals(List.of(6, 9, 3), restarted.findById(10).orElseThrow().getTeam());
+        // El equipo de los usuarios de ejemplo viene del snapshot
+        assertEquals(UserRepositoryImpl.sampleUsers().get(0).getTeam(), restarted.findById(1).orElseThrow().getTeam());
+        assertTrue(restarted.findById(11).isEmpty());
+    }
+
+    @Test
+    void tornRecordAtTheEndOfTheLogIsDiscarded() throws Exception {
+        UserRepositoryImpl repository = open(SMALL_SEGMENT);
+        repository.save(new User(0, "Alice", "alice@example.com"));
+        repository.wal().close();
+
+        // Caída a mitad de escribir un registro: cabecera con longitud pero sin contenido válido
+        Path lastSegment = lastFile("wal-");
+        try (FileChannel channel = FileChannel.open(lastSegment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int end = endOfRecords(channel);
+            channel.write(ByteBuffer.allocate(20).putInt(60).putInt(0xCAFE).putLong(99).flip(), end);
+        }
+
+        UserRepositoryImpl restarted = open(SMALL_SEGMENT);
+        assertEquals(List.of(1, 2, 3, 4), ids(restarted));
+        restarted.save(new User(0, "Bob", "bob@example.com"));
+
+        assertEquals(List.of(1, 2, 3, 4, 5), ids(open(SMALL_SEGMENT)));
+    }
+
+    @Test
+    void recordsWrittenBeforeTeamsExistedAreReplayedWithAnEmptyTeam() throws Exception {
+        // Segmento de una versión anterior: registros sin equipo (seq | type | id | version | name | email)
+        ByteBuffer segment = ByteBuffer.allocate(SMALL_SEGMENT);
+        putLegacyFrame(segment, 1, 0, 1, 1, "Ash", "ash@example.com");
+        putLegacyFrame(segment, 2, 0, 2, 1, "Misty", "misty@example.com");
+        putLegacyFrame(segment, 3, 1, 1, 2, "Ash Ketchum", null);
+        Files.write(dir.resolve("wal-00000000000000000001.log"), segment.array());
+
+        UserRepositoryImpl repository = open(SMALL_SEGMENT);
+        assertEquals(List.of(1, 2), ids(repository));
+        User ash = repository.findById(1).orElseThrow();
+        assertEquals("Ash Ketchum", ash.getName());
+        assertEquals(2, ash.getVersion());
+        assertEquals(List.of(), ash.getTeam());
+
+        // Los registros nuevos (con equipo) siguen a los antiguos en el mismo segmento
+        ash.setTeam(List.of(25, 6));
+        repository.update(ash);
+        UserRepositoryImpl restarted = open(SMALL_SEGMENT);
+        assertEquals(List.of(25, 6), restarted.findById(1).orElseThrow().getTeam());
+        assertEquals(List.of(), restarted.findById(2).orElseThrow().getTeam());
+    }
+
+    @Test
+    void concurrentWritersShareFsyncs() throws Exception {
+        UserRepositoryImpl repository = open(64 * 1024 * 1024);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        repository.save(new User(0, "User " + thread + "-" + i, "user" + thread + "-" + i + "@example.com"));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        int writes = THREADS * SAVES_PER_THREAD;
+        long fsyncs = repository.wal().fsyncs();
+
+        assertTrue(fsyncs < writes, "El group commit debería agrupar escrituras en cada fsync");
+        assertEquals(3 + writes, open(64 * 1024 * 1024).findAll().size());
+    }
+
+    private UserRepositoryImpl open(int segmentSize) {
+        return open(options(segmentSize));
+    }
+
+    private static UserRepositoryImpl open(UserWriteAheadLog.Options options) {
+        UserRepositoryImpl repository = new UserRepositoryImpl();
+        repository.openPersistence(options);
+        return repository;
+    }
+
+    private UserWriteAheadLog.Options options(int segmentSize) {
+        // Sin snapshots periódicos: los pide cada test
+        return new UserWriteAheadLog.Options(dir, segmentSize, Duration.ofHours(1), Long.MAX_VALUE);
+    }
+
+    private static List<Integer> ids(UserRepositoryImpl repository) {
+        return repository.findAll().stream().map(User::getId).toList();
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private Path lastFile(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted().reduce((a, b) -> b)
+                    .orElseThrow();
+        }
+    }
+
+    /**
+     * Posición tras el último registro: cada uno empieza por su longitud y un CRC
+     */
+    private static int endOfRecords(FileChannel channel) throws IOException {
+        ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        int position = 0;
+        while (data.getInt(position) != 0) {
+            position += 8 + data.getInt(position);
+        }
+        return position;
+    }
+
+    private static void putLegacyFrame(ByteBuffer segment, long sequence, int type, int id, long version,
+                                       String name, String email) {
+        ByteBuffer payload = ByteBuffer.allocate(256);
+        payload.putLong(sequence).put((byte) type).putInt(id).putLong(version);
+        for (String value : new String[]{name, email}) {
+            if (value == null) {
+                payload.putInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                payload.putInt(bytes.length).put(bytes);
+            }
+        }
+        payload.flip();
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        segment.putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload);
+    }
+}
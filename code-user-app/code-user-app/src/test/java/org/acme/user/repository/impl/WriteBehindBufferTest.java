@@ -0,0 +1,150 @@
+package org.acme.user.repository.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acme.user.domain.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindBufferTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+    private static final int WRITES = 20_000;
+    private static final int HOT_IDS = 100;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void coalescesUpdatesToTheSameIdAndFlushesBySize() {
+        List<List<WriteBehindBuffer.Mutation<String>>> batches = new CopyOnWriteArrayList<>();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (WriteBehindBuffer<String> buffer = new WriteBehindBuffer<>("test", batches::add, 4, NEVER, 100, registry)) {
+            buffer.put(1, "a");
+            buffer.put(1, "b");
+            buffer.put(2, "x");
+            buffer.delete(2);
+            buffer.put(3, "c");
+            assertEquals("b", buffer.lookup(1).value());
+            assertTrue(buffer.lookup(2).isDelete());
+            assertNull(buffer.lookup(4));
+            assertTrue(batches.isEmpty());
+
+            buffer.put(4, "d");
+            buffer.flush();
+            assertEquals(1, batches.size());
+            assertEquals(List.of(new WriteBehindBuffer.Mutation<>(1, "b"), new WriteBehindBuffer.Mutation<String>(2, null),
+                    new WriteBehindBuffer.Mutation<>(3, "c"), new WriteBehindBuffer.Mutation<>(4, "d")), batches.get(0));
+            assertNull(buffer.lookup(1));
+            assertEquals(2, buffer.stats().coalesced());
+        }
+        assertEquals(1, registry.get("repository.write.behind.flush").timer().count());
+        assertEquals(4.0, registry.get("repository.write.behind.batch.size").summary().totalAmount());
+        assertEquals(0.0, registry.get("repository.write.behind.queue.depth").gauge().value());
+    }
+
+    @Test
+    void flushesAfterMaxDelay() throws Exception {
+        CompletableFuture<List<WriteBehindBuffer.Mutation<String>>> flushed = new CompletableFuture<>();
+        try (WriteBehindBuffer<String> buffer = new WriteBehindBuffer<>("test", flushed::complete, 100,
+                Duration.ofMillis(20), 100, null)) {
+            buffer.put(7, "late");
+            assertEquals(List.of(new WriteBehindBuffer.Mutation<>(7, "late")), flushed.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void fullQueueBlocksWritersUntilTheFlushMakesRoom() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (WriteBehindBuffer<String> buffer = new WriteBehindBuffer<>("test", batch -> release.await(), 2, NEVER, 2, null)) {
+            buffer.put(1, "a");
+            buffer.put(2, "b");
+            // Lote 1-2 en vuelo (bloqueado); 3-4 llenan la cola
+            buffer.put(3, "c");
+            buffer.put(4, "d");
+            assertEquals("a", buffer.lookup(1).value());
+
+            CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> buffer.put(5, "e"));
+            assertThrows(TimeoutException.class, () -> blocked.get(200, TimeUnit.MILLISECONDS));
+            // Un ID ya pendiente no ocupa sitio nuevo: no espera
+            buffer.put(3, "c2");
+            assertEquals(4, buffer.stats().queueDepth());
+
+            release.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+            buffer.flush();
+            assertEquals(0, buffer.stats().queueDepth());
+        }
+    }
+
+    @Test
+    void failedFlushIsRetriedWithoutOverwritingNewerMutations() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        List<WriteBehindBuffer.Mutation<String>> stored = new CopyOnWriteArrayList<>();
+        CountDownLatch firstAttempt = new CountDownLatch(1);
+        CountDownLatch newerWritten = new CountDownLatch(1);
+        WriteBehindBuffer.Sink<String> flakySink = batch -> {
+            if (attempts.incrementAndGet() == 1) {
+                firstAttempt.countDown();
+                newerWritten.await();
+                throw new IllegalStateException("store caído");
+            }
+            stored.addAll(batch);
+        };
+        try (WriteBehindBuffer<String> buffer = new WriteBehindBuffer<>("test", flakySink, 2, NEVER, 10, null)) {
+            buffer.put(1, "old");
+            buffer.put(2, "two");
+            firstAttempt.await();
+            buffer.put(1, "new");
+            newerWritten.countDown();
+            buffer.flush();
+
+            assertEquals(1, buffer.stats().failures());
+            assertEquals(List.of(new WriteBehindBuffer.Mutation<>(1, "new"), new WriteBehindBuffer.Mutation<>(2, "two")), stored);
+        }
+    }
+
+    @Test
+    void userRepositoryWritesBehindTheWriteAheadLog() {
+        UserWriteAheadLog.Options options = new UserWriteAheadLog.Options(dir, 64 * 1024 * 1024, NEVER, Long.MAX_VALUE);
+        UserRepositoryImpl repository = new UserRepositoryImpl();
+        repository.openPersistence(options);
+        repository.enableWriteBehind(256, Duration.ofMillis(5), 10_000);
+
+        for (int i = 0; i < WRITES; i++) {
+            int id = 1 + i % HOT_IDS;
+            if (repository.update(new User(id, "User " + i, "user" + i + "@example.com")) == null) {
+                repository.save(new User(id, "User " + i, "user" + i + "@example.com"));
+            }
+        }
+        // Las lecturas ven lo escrito aunque no se haya volcado
+        assertEquals("User " + (WRITES - 1), repository.findById(HOT_IDS).orElseThrow().getName());
+        repository.deleteById(1);
+        assertFalse(repository.findById(1).isPresent());
+
+        repository.writeBehind().flush();
+        WriteBehindBuffer.Stats stats = repository.writeBehind().stats();
+        assertTrue(stats.flushed() < WRITES, "Las escrituras al mismo ID deberían fundirse");
+        repository.close();
+
+        UserRepositoryImpl restarted = new UserRepositoryImpl();
+        restarted.openPersistence(options);
+        assertEquals(repository.findAll().stream().map(User::getName).toList(),
+                restarted.findAll().stream().map(User::getName).toList());
+    }
+}
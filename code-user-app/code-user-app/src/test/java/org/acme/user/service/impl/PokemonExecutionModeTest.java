@@ -0,0 +1,123 @@
+package org.acme.user.service.impl;
+
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordingStream;
+import org.acme.user.client.FakeDaprClient;
+import org.acme.user.client.PokemonClient;
+import org.acme.user.domain.Pokemon;
+import org.acme.user.service.PokemonClientAsyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Modo VIRTUAL_THREADS con los beans reales (servicio bloqueante, caché cercana) y un PokemonClient
+ * inicializado como en producción (límite de concurrencia, plazo y batching): las esperas al
+ * pokemon-service no fijan el hilo virtual a su carrier. La comparación de rendimiento entre modos
+ * está en el módulo benchmarks (PokemonExecutionModeBenchmark).
+ */
+@QuarkusTest
+@TestProfile(PokemonExecutionModeTest.VirtualThreads.class)
+class PokemonExecutionModeTest {
+
+    private static final Duration SERVICE_LATENCY = Duration.ofMillis(50);
+    private static final int POKEMON_IDS = 100;
+    // Por debajo del límite inicial de concurrencia: ninguna se rechaza
+    private static final int RANDOM_CALLS = 10;
+
+    public static class VirtualThreads implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("pokemon-client.execution-mode", "virtual-threads");
+        }
+    }
+
+    @Inject
+    PokemonClientAsyncService service;
+
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final List<String> batches = new ArrayList<>();
+    private final LongAdder callsFromPlatformThreads = new LongAdder();
+    private PokemonClient client;
+
+    @BeforeEach
+    void installClient() {
+        client = FakeDaprClient.initializedPokemonClient(SERVICE_LATENCY, this::respond, invocations);
+        QuarkusMock.installMockForType(client, PokemonClient.class);
+    }
+
+    @Test
+    void virtualThreadsWaitOnTheProtectedBatchedAndCachedPathsWithoutPinning() throws Exception {
+        LongAdder pinned = new LongAdder();
+        try (RecordingStream recording = new RecordingStream()) {
+            // Un hilo virtual que espera a DAPR dentro de synchronized fijaría su carrier
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1));
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+            recording.startAsync();
+
+            List<Pokemon> loaded = getByIds();
+            int invocationsAfterLoad = invocations.get();
+            List<Pokemon> cached = getByIds();
+            List<Pokemon> random = join(IntStream.range(0, RANDOM_CALLS)
+                    .mapToObj(i -> service.getRandomPokemon().toCompletableFuture()).toList());
+            recording.stop();
+
+            assertEquals(IntStream.rangeClosed(1, POKEMON_IDS).boxed().toList(), ids(loaded));
+            assertEquals(ids(loaded), ids(cached));
+            assertTrue(random.stream().allMatch(pokemon -> pokemon.getId() == 25));
+            // Los getPokemonById concurrentes se agrupan en /pokemon/batch y la segunda ronda sale de la caché
+            assertTrue(batches.size() < POKEMON_IDS, "Llamadas a /pokemon/batch: " + batches.size());
+            assertEquals(invocationsAfterLoad + RANDOM_CALLS, invocations.get());
+            // Las llamadas bloqueantes pasaron por el límite de concurrencia y se lanzaron desde hilos virtuales
+            assertTrue(client.resilienceStats().calls() >= batches.size() + RANDOM_CALLS);
+            assertEquals(0, client.resilienceStats().rejections());
+            assertEquals(0, callsFromPlatformThreads.sum(), "Llamadas bloqueantes fuera de hilos virtuales");
+        }
+        assertEquals(0, pinned.sum(), "Hilos virtuales fijados a su carrier durante la espera");
+    }
+
+    private List<Pokemon> getByIds() {
+        return join(IntStream.rangeClosed(1, POKEMON_IDS)
+                .mapToObj(id -> service.getPokemonById(id).toCompletableFuture()).toList());
+    }
+
+    private String respond(String target) {
+        if (target.startsWith("pokemon/batch?ids=")) {
+            String ids = target.substring("pokemon/batch?ids=".length());
+            synchronized (batches) {
+                batches.add(ids);
+            }
+            return Arrays.stream(ids.split(",")).map(Integer::parseInt).map(FakeDaprClient::pokemonJson)
+                    .collect(Collectors.joining(",", "[", "]"));
+        }
+        if (target.equals("pokemon/random") && !Thread.currentThread().isVirtual()) {
+            callsFromPlatformThreads.increment();
+        }
+        return FakeDaprClient.pokemonJson(25);
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> calls) {
+        return calls.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static List<Integer> ids(List<Pokemon> pokemons) {
+        return pokemons.stream().map(Pokemon::getId).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package org.acme.pokemon.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lanza los benchmarks una vez por cada número de hilos y escribe todos los resultados
+ * en un único JSON (formato estándar de JMH, comparable entre versiones).
+ *
+ * Propiedades: jmh.include (regex, por defecto todos), jmh.threads (p. ej. "1,4"),
+ * jmh.quick (menos iteraciones, para comprobar que todo funciona) y jmh.result (fichero JSON).
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = System.getProperty("jmh.include", "org.acme.pokemon.*Benchmark.*");
+        String threads = System.getProperty("jmh.threads", "1,4");
+        boolean quick = System.getProperty("jmh.quick") != null;
+        Path resultFile = Path.of(System.getProperty("jmh.result", "build/results/jmh/results.json"));
+
+        List<RunResult> results = new ArrayList<>();
+        for (String threadCount : threads.split(",")) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(Integer.parseInt(threadCount.trim()))
+                    .forks(1)
+                    .warmupIterations(quick ? 1 : 3)
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(quick ? 1 : 5)
+                    .measurementTime(TimeValue.seconds(1));
+            results.addAll(new Runner(options.build()).run());
+        }
+
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(resultFile.toFile())) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+        }
+        System.out.println("Resultados JMH (" + results.size() + " benchmarks) en " + resultFile.toAbsolutePath());
+    }
+}
@@ -0,0 +1,99 @@
+package org.acme.pokemon.benchmark;
+
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.repository.PokemonRepository;
+import org.acme.pokemon.repository.impl.ColumnarPokemonRepository;
+import org.acme.pokemon.repository.impl.PokemonRepositoryImpl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Heap retenido por los repositorios en memoria con catálogos grandes: PokemonRepositoryImpl
+ * (un objeto Pokemon por entrada más índice por ID e índices secundarios) frente a
+ * ColumnarPokemonRepository.
+ *
+ * Cada Pokemon llega con sus propios String de tipo y lista de habilidades, como al
+ * deserializarlo de una petición: el grafo de objetos los retiene, el columnar los codifica.
+ * Si un tamaño no cabe en el heap (-Xmx) se extrapola desde el mayor tamaño medido.
+ *
+ * Ejecución: gradle :benchmarks:heapReport [-Pheap.sizes=1000000,10000000] [-Pheap.xmx=3g]
+ */
+public final class PokemonHeapReport {
+
+    private static final String[] TYPES = {"Normal", "Fire", "Water", "Grass/Poison", "Electric", "Fire/Flying",
+            "Psychic", "Dragon", "Bug/Flying", "Rock/Ground", "Ghost/Poison", "Ice/Psychic"};
+    private static final String[][] ABILITIES = {{"Run Away", "Adaptability"}, {"Blaze", "Solar Power"},
+            {"Torrent", "Rain Dish"}, {"Overgrow", "Chlorophyll"}, {"Static", "Lightning Rod"}, {"Levitate"}};
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private PokemonHeapReport() {
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = Arrays.stream(System.getProperty("heap.sizes", "1000000,10000000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim())).toArray();
+        System.out.printf("Heap máximo: %d MB%n", Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf("%-10s %12s %14s %12s%n", "Repo", "Entradas", "Heap (MB)", "Bytes/entrada");
+        report("memory", sizes, PokemonRepositoryImpl::new);
+        report("columnar", sizes, ColumnarPokemonRepository::new);
+    }
+
+    private static void report(String name, int[] sizes, Supplier<PokemonRepository> factory) {
+        double bytesPerEntry = Double.NaN;
+        for (int size : sizes) {
+            long bytes = retainedBytes(factory, size);
+            if (bytes >= 0) {
+                bytesPerEntry = (double) bytes / size;
+                System.out.printf("%-10s %,12d %,14.1f %,12.1f%n", name, size, bytes / 1048576.0, bytesPerEntry);
+            } else if (!Double.isNaN(bytesPerEntry)) {
+                System.out.printf("%-10s %,12d %,14.1f %,12.1f  (no cabe en el heap: extrapolado)%n",
+                        name, size, bytesPerEntry * size / 1048576.0, bytesPerEntry);
+            } else {
+                System.out.printf("%-10s %,12d %14s%n", name, size, "no cabe en el heap");
+            }
+        }
+    }
+
+    /**
+     * @return Bytes de heap que retiene el repositorio con size entradas, o -1 si no cabe
+     */
+    private static long retainedBytes(Supplier<PokemonRepository> factory, int size) {
+        long before = usedAfterGc();
+        PokemonRepository repository = factory.get();
+        try {
+            for (int i = 0; i < size; i++) {
+                repository.save(newPokemon(i));
+            }
+        } catch (OutOfMemoryError e) {
+            repository = null;
+            usedAfterGc();
+            return -1;
+        }
+        long after = usedAfterGc();
+        // Mantiene el repositorio vivo hasta después de medir
+        return repository.findById(1).isPresent() ? after - before : -1;
+    }
+
+    private static long usedAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Tipo y habilidades como copias propias de cada Pokemon (no literales compartidos)
+     */
+    private static Pokemon newPokemon(int seed) {
+        List<String> abilities = new ArrayList<>();
+        for (String ability : ABILITIES[seed % ABILITIES.length]) {
+            abilities.add(new String(ability));
+        }
+        return new Pokemon(0, "Pokemon-" + seed, new String(TYPES[seed % TYPES.length]), 1 + seed % 100, abilities);
+    }
+}
@@ -0,0 +1,62 @@
+package org.acme.pokemon.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.acme.pokemon.domain.Pokemon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización Jackson de listas de Pokemons, como las que devuelve GET /pokemon/list
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PokemonJsonBenchmark {
+
+    @Param({"10", "1000"})
+    int size;
+
+    private List<Pokemon> pokemons;
+    private byte[] payload;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(new TypeReference<List<Pokemon>>() { });
+        reader = objectMapper.readerFor(new TypeReference<List<Pokemon>>() { });
+        pokemons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Pokemon pokemon = PokemonRepositoryBenchmark.newPokemon(i);
+            pokemon.setId(i + 1);
+            pokemons.add(pokemon);
+        }
+        payload = writer.writeValueAsBytes(pokemons);
+    }
+
+    @Benchmark
+    public byte[] encodeList() throws IOException {
+        return writer.writeValueAsBytes(pokemons);
+    }
+
+    @Benchmark
+    public List<Pokemon> decodeList() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,103 @@
+package org.acme.pokemon.benchmark;
+
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.repository.PokemonRepository;
+import org.acme.pokemon.repository.impl.ColumnarPokemonRepository;
+import org.acme.pokemon.repository.impl.PokemonRepositoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CRUD de los repositorios en memoria con distintos tamaños de catálogo: PokemonRepositoryImpl
+ * (grafo de objetos con índices secundarios) y ColumnarPokemonRepository (columnas de primitivos,
+ * materializa cada lectura y filtra recorriendo columnas).
+ * Las altas se compensan con bajas para que el tamaño no crezca durante la medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PokemonRepositoryBenchmark {
+
+    private static final PokemonFilter RARE_TYPE = new PokemonFilter("Dragon", null, null, null);
+    private static final PokemonFilter LEVEL_RANGE = new PokemonFilter(null, 40, 42, null);
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"memory", "columnar"})
+    String implementation;
+
+    private PokemonRepository repository;
+    private int firstId;
+    private int lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = implementation.equals("columnar") ? new ColumnarPokemonRepository() : new PokemonRepositoryImpl();
+        firstId = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Pokemon saved = repository.save(newPokemon(i));
+            firstId = Math.min(firstId, saved.getId());
+            lastId = saved.getId();
+        }
+    }
+
+    @Benchmark
+    public Optional<Pokemon> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public Pokemon update() {
+        int id = randomId();
+        Pokemon pokemon = newPokemon(id);
+        pokemon.setId(id);
+        return repository.update(pokemon);
+    }
+
+    @Benchmark
+    public boolean saveAndDelete() {
+        Pokemon saved = repository.save(newPokemon(ThreadLocalRandom.current().nextInt(size)));
+        return repository.deleteById(saved.getId());
+    }
+
+    @Benchmark
+    public List<Pokemon> findPage() {
+        return repository.findPage(randomId(), 50);
+    }
+
+    @Benchmark
+    public List<Pokemon> findByRareType() {
+        return repository.findByFilter(RARE_TYPE);
+    }
+
+    @Benchmark
+    public List<Pokemon> findByLevelRange() {
+        return repository.findByFilter(LEVEL_RANGE);
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(firstId, lastId + 1);
+    }
+
+    /**
+     * 1 de cada 100 es Dragon; nivel entre 1 y 100
+     */
+    static Pokemon newPokemon(int seed) {
+        String type = seed % 100 == 0 ? "Dragon" : (seed % 2 == 0 ? "Fire/Flying" : "Water");
+        return new Pokemon(0, "Pokemon-" + seed, type, 1 + seed % 100, List.of("Blaze", "Torrent"));
+    }
+}
@@ -0,0 +1,78 @@
+package org.acme.pokemon.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.acme.pokemon.domain.Pokemon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /pokemon/list completo (ObjectWriter de Jackson) frente a ?fields=id,name (FieldProjection
+ * escribiendo en el generador). El tamaño de cada payload se imprime al preparar el estado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PokemonProjectionBenchmark {
+
+    @Param({"1000"})
+    int size;
+
+    @Param({"id,name", "id,name,type,level,abilities,version"})
+    String fields;
+
+    private List<Pokemon> pokemons;
+    private ObjectWriter writer;
+    private JsonFactory factory;
+    private FieldProjection<Pokemon> projection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(new TypeReference<List<Pokemon>>() { });
+        factory = objectMapper.getFactory();
+        projection = FieldProjection.parse(fields, PokemonResource.POKEMON_FIELDS);
+        pokemons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pokemons.add(new Pokemon(i + 1, "Pokemon-" + i, i % 2 == 0 ? "Fire/Flying" : "Water", 1 + i % 100,
+                    List.of("Blaze", "Torrent")));
+        }
+        System.out.printf("%n%d Pokemons: completo %d bytes | fields=%s %d bytes%n",
+                size, full().length, fields, projected().length);
+    }
+
+    @Benchmark
+    public byte[] full() throws IOException {
+        return writer.writeValueAsBytes(pokemons);
+    }
+
+    @Benchmark
+    public byte[] projected() throws IOException {
+        // Lo mismo que FieldProjection.array sin el StreamingOutput de JAX-RS
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JsonGenerator generator = factory.createGenerator(output)) {
+            generator.writeStartArray();
+            for (Pokemon pokemon : pokemons) {
+                projection.write(generator, pokemon);
+            }
+            generator.writeEndArray();
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,89 @@
+package org.acme.pokemon.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.repository.impl.PokemonRepositoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cuerpo de GET /pokemon/list y GET /pokemon/{id} serializado en cada petición (lo que hacía el
+ * endpoint, y con gzip lo que haría un filtro de compresión) frente a los bytes de
+ * PokemonResponseCache. Con un hilo, el inverso de las operaciones por segundo es el tiempo de
+ * CPU por petición. Los tamaños de cada variante se imprimen al preparar el estado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PokemonResponseCacheBenchmark {
+
+    @Param({"1000"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private PokemonRepositoryImpl repository;
+    private PokemonResponseCache cache;
+    private String gzipEncoding;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        repository = new PokemonRepositoryImpl();
+        for (int i = repository.findAll().size(); i < size; i++) {
+            repository.save(new Pokemon(0, "Pokemon-" + i, i % 2 == 0 ? "Fire/Flying" : "Water", 1 + i % 100,
+                    List.of("Blaze", "Torrent")));
+        }
+        cache = new PokemonResponseCache(repository::collectionVersion, repository::findAll,
+                repository::findById, objectMapper, 1024, null);
+        gzipEncoding = cache.catalog().negotiate("gzip");
+        System.out.printf("%n%d Pokemons: JSON %d bytes | gzip por petición %d bytes | gzip en caché %d bytes%n",
+                size, serializeEachTime().length, serializeAndGzipEachTime().length, cachedGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serializeEachTime() throws IOException {
+        return objectMapper.writeValueAsBytes(repository.findAll());
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzipEachTime() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(objectMapper.writeValueAsBytes(repository.findAll()));
+        }
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cachedIdentity() {
+        return cache.catalog().bytes(null);
+    }
+
+    @Benchmark
+    public byte[] cachedGzip() {
+        return cache.catalog().bytes(gzipEncoding);
+    }
+
+    @Benchmark
+    public byte[] pokemonEachTime() throws IOException {
+        return objectMapper.writeValueAsBytes(repository.findById(25).orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] cachedPokemon() {
+        return cache.pokemon(25).orElseThrow().bytes(null);
+    }
+}
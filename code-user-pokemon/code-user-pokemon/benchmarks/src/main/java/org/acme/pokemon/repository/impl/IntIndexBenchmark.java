@@ -0,0 +1,85 @@
+package org.acme.pokemon.repository.impl;
+
+import org.acme.pokemon.domain.Pokemon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda y actualización por ID: índice int frente a la lista copy-on-write anterior (recorrido
+ * lineal y copia completa en cada escritura). Se usa el índice directamente para no medir el coste
+ * del logging del repositorio. sparsePage mide una página de valuesAfter sobre un índice con una de
+ * cada diez claves (IDs tras muchos borrados), desde el principio como el primer paso de streamAll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IntIndexBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    private IntIndex<Pokemon> index;
+    private CopyOnWriteArrayList<Pokemon> list;
+    private IntIndex<Pokemon> sparse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new IntIndex<>(size);
+        List<Pokemon> seed = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            Pokemon pokemon = new Pokemon(id, "Pokemon " + id, "Normal", 1, List.of());
+            index.put(id, pokemon);
+            seed.add(pokemon);
+        }
+        list = new CopyOnWriteArrayList<>(seed);
+        sparse = new IntIndex<>(size / 10);
+        for (int id = 10; id <= size; id += 10) {
+            sparse.put(id, new Pokemon(id, "Pokemon " + id, "Normal", 1, List.of()));
+        }
+    }
+
+    @Benchmark
+    public List<Pokemon> sparsePage() {
+        return sparse.valuesAfter(Integer.MIN_VALUE, 100);
+    }
+
+    @Benchmark
+    public Pokemon intIndex() {
+        int id = randomId();
+        if (index.get(id) == null) {
+            throw new IllegalStateException("Falta el ID " + id);
+        }
+        return index.replace(id, new Pokemon(id, "Updated " + id, "Normal", 2, List.of()));
+    }
+
+    @Benchmark
+    public Pokemon copyOnWriteList() {
+        int id = randomId();
+        if (list.stream().noneMatch(p -> p.getId() == id)) {
+            throw new IllegalStateException("Falta el ID " + id);
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getId() == id) {
+                return list.set(i, new Pokemon(id, "Updated " + id, "Normal", 2, List.of()));
+            }
+        }
+        return null;
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, size + 1);
+    }
+}
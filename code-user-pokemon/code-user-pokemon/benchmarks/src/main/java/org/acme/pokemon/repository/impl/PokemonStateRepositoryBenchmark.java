@@ -0,0 +1,149 @@
+package org.acme.pokemon.repository.impl;
+
+import io.dapr.client.DaprClient;
+import io.dapr.client.DaprClientBuilder;
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.repository.PokemonRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Repositorio en memoria frente al repositorio sobre la API de estado de DAPR, sin y con
+ * write-behind (update y las bajas se vuelcan por lotes).
+ *
+ * Por defecto dapr-state usa el sidecar simulado en proceso (StateStoreSidecarStandIn, semántica
+ * de state.in-memory sobre gRPC real). Con DAPR_GRPC_PORT definida usa un sidecar real, p. ej.:
+ *   dapr run --app-id pokemon-bench --dapr-grpc-port 50010 --resources-path ../../components/statestore-inmemory
+ *     -- gradle :benchmarks:jmh -Pjmh.include=StateRepository
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PokemonStateRepositoryBenchmark {
+
+    private static final String STORE_NAME = "pokemon-statestore";
+    private static final int BATCH_SIZE = 20;
+
+    @Param({"memory", "dapr-state", "dapr-state-write-behind"})
+    String implementation;
+
+    @Param({"1000"})
+    int size;
+
+    private StateStoreSidecarStandIn sidecar;
+    private DaprClient daprClient;
+    private PokemonRepository repository;
+    private int firstId;
+    private int lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if ("memory".equals(implementation)) {
+            repository = new PokemonRepositoryImpl();
+        } else {
+            if (System.getenv("DAPR_GRPC_PORT") != null) {
+                daprClient = new DaprClientBuilder().build();
+            } else {
+                sidecar = StateStoreSidecarStandIn.start(STORE_NAME);
+                daprClient = sidecar.newDaprClient();
+            }
+            DaprStatePokemonRepository stateRepository = new DaprStatePokemonRepository(daprClient, STORE_NAME);
+            if (implementation.endsWith("write-behind")) {
+                stateRepository.enableWriteBehind(100, Duration.ofMillis(20), 5000);
+            }
+            repository = stateRepository;
+        }
+        firstId = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Pokemon saved = repository.save(newPokemon(i));
+            firstId = Math.min(firstId, saved.getId());
+            lastId = saved.getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (repository instanceof DaprStatePokemonRepository stateRepository && stateRepository.writeBehind() != null) {
+            stateRepository.writeBehind().close();
+        }
+        if (daprClient != null) {
+            daprClient.close();
+        }
+        if (sidecar != null) {
+            sidecar.close();
+        }
+    }
+
+    @Benchmark
+    public Optional<Pokemon> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Pokemon> findAllById() {
+        int start = randomId();
+        return repository.findAllById(IntStream.range(start, start + BATCH_SIZE).boxed().toList());
+    }
+
+    @Benchmark
+    public List<Pokemon> findPage() {
+        return repository.findPage(randomId(), 50);
+    }
+
+    @Benchmark
+    public Pokemon update() {
+        int id = randomId();
+        Pokemon pokemon = newPokemon(id);
+        pokemon.setId(id);
+        return repository.update(pokemon);
+    }
+
+    @Benchmark
+    public boolean saveAndDelete() {
+        Pokemon pokemon = newPokemon(ThreadLocalRandom.current().nextInt(size));
+        Pokemon saved = retryingConflicts(() -> {
+            pokemon.setId(0);
+            return repository.save(pokemon);
+        });
+        return retryingConflicts(() -> repository.deleteById(saved.getId()));
+    }
+
+    /**
+     * Con varios hilos las altas y bajas compiten por el ETag del índice y pueden agotar los
+     * reintentos del repositorio (IllegalStateException): se repite la operación
+     */
+    private static <T> T retryingConflicts(Supplier<T> operation) {
+        while (true) {
+            try {
+                return operation.get();
+            } catch (IllegalStateException e) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(firstId, lastId + 1);
+    }
+
+    private static Pokemon newPokemon(int seed) {
+        return new Pokemon(0, "Pokemon-" + seed, seed % 2 == 0 ? "Fire/Flying" : "Water", 1 + seed % 100,
+                List.of("Blaze", "Torrent"));
+    }
+}
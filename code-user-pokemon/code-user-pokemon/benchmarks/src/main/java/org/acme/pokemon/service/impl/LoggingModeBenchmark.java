@@ -0,0 +1,103 @@
+package org.acme.pokemon.service.impl;
+
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.logging.RequestSummaryFilter;
+import org.acme.pokemon.repository.impl.PokemonRepositoryImpl;
+import org.jboss.logmanager.handlers.AsyncHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Peticiones/segundo de service + repository con el log exhaustivo (DEBUG, síncrono) frente
+ * al modo de producción (INFO: una línea resumen por petición, handler asíncrono).
+ * La salida va a un stream nulo: se mide construir y formatear los mensajes, no la consola.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(jvmArgsAppend = "-Djava.util.logging.manager=org.jboss.logmanager.LogManager")
+public class LoggingModeBenchmark {
+
+    @Param({"verbose", "production"})
+    String mode;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private Logger appLogger;
+    private Handler handler;
+    private PokemonServiceImpl service;
+    private org.jboss.logging.Logger summary;
+
+    @Setup
+    public void setUp() {
+        appLogger = Logger.getLogger("org.acme.pokemon");
+        appLogger.setUseParentHandlers(false);
+        if (mode.equals("production")) {
+            AsyncHandler async = new AsyncHandler(16_384);
+            async.setOverflowAction(AsyncHandler.OverflowAction.DISCARD);
+            async.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+            handler = async;
+            appLogger.setLevel(Level.INFO);
+        } else {
+            handler = new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter());
+            appLogger.setLevel(Level.FINE);
+        }
+        appLogger.addHandler(handler);
+        service = new PokemonServiceImpl();
+        service.pokemonRepository = new PokemonRepositoryImpl();
+        summary = org.jboss.logging.Logger.getLogger(RequestSummaryFilter.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        appLogger.removeHandler(handler);
+        handler.close();
+    }
+
+    /**
+     * Mezcla de lecturas típica: por ID, listado completo, página y búsqueda filtrada
+     */
+    @Benchmark
+    public Object request() {
+        long startNanos = System.nanoTime();
+        Object result;
+        String path;
+        switch (requests.getAndIncrement() & 3) {
+            case 0 -> {
+                result = service.getPokemonById(25);
+                path = "/pokemon/25";
+            }
+            case 1 -> {
+                result = service.getAllPokemons();
+                path = "/pokemon/list";
+            }
+            case 2 -> {
+                result = service.getPokemonPage(null, 4);
+                path = "/pokemon/page";
+            }
+            default -> {
+                result = service.findPokemons(new PokemonFilter("Fire", null, null, null));
+                path = "/pokemon/list?type=Fire";
+            }
+        }
+        summary.infof("http method=%s path=%s status=%d duration_us=%d", "GET", path, 200,
+                (System.nanoTime() - startNanos) / 1_000);
+        return result;
+    }
+}
@@ -0,0 +1,348 @@
+package org.acme.pokemon.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Empty;
+import com.google.protobuf.UnsafeByteOperations;
+import io.dapr.v1.AppCallbackGrpc;
+import io.dapr.v1.CommonProtos;
+import io.dapr.v1.DaprAppCallbackProtos;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.quarkus.grpc.GrpcService;
+import io.quarkus.grpc.RegisterInterceptor;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import org.acme.pokemon.domain.Page;
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.service.PokemonService;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Callback de aplicación de DAPR para sidecars con app-protocol grpc.
+ *
+ * Con app-protocol grpc el sidecar ya no reenvía las invocaciones HTTP (invokeMethod)
+ * a la API REST, sino a AppCallback.OnInvoke. Este servicio traduce esas invocaciones
+ * a las mismas consultas de lectura que expone PokemonResource (salvo /pokemon/stream,
+ * cuyo equivalente es ListPokemons) para que el camino JSON de user-app siga
+ * funcionando junto al servicio gRPC nativo.
+ *
+ * fields= se respeta igual que en la API REST (list, page, batch y por ID): con proyección
+ * solo se escriben los campos pedidos, directamente desde el repositorio.
+ *
+ * pokemon/list y pokemon/{id} llevan los mismos ETags que la API REST (EntityTags) y atienden
+ * If-None-Match. gRPC no tiene 304 (DAPR traduce el código gRPC a HTTP y no lo contempla):
+ * el equivalente es una respuesta OK sin cuerpo cuyo ETag es el que envió el cliente, que
+ * ConditionalInvoker (user-app) trata como "no modificado".
+ *
+ * La lista completa y los Pokemons por ID (sin fields=) salen de la misma PokemonResponseCache
+ * que usa la API REST: bytes serializados una vez por versión del catálogo.
+ */
+@GrpcService
+@RegisterInterceptor(DaprConditionalInterceptor.class)
+public class DaprAppCallbackService extends AppCallbackGrpc.AppCallbackImplBase {
+
+    private static final Logger LOG = Logger.getLogger(DaprAppCallbackService.class);
+    private static final String APPLICATION_JSON = "application/json";
+    private static final String TEXT_PLAIN = "text/plain";
+    // Mismo valor por defecto que GET /pokemon/page
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+    // Equivalente del 304: sin cuerpo; el ETag va en la metadata de la respuesta
+    private static final CommonProtos.InvokeResponse NOT_MODIFIED = CommonProtos.InvokeResponse.newBuilder()
+            .setContentType(APPLICATION_JSON)
+            .build();
+
+    @Inject
+    PokemonService pokemonService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    PokemonResponseCacheHolder responseCacheHolder;
+
+    @Override
+    public void onInvoke(CommonProtos.InvokeRequest request, StreamObserver<CommonProtos.InvokeResponse> responseObserver) {
+        String method = request.getMethod();
+        CommonProtos.HTTPExtension.Verb verb = request.getHttpExtension().getVerb();
+        LOG.debugf("=== DAPR OnInvoke: %s /%s ===", verb, method);
+
+        if (verb != CommonProtos.HTTPExtension.Verb.GET) {
+            responseObserver.onError(Status.UNIMPLEMENTED
+                    .withDescription("Solo se admiten consultas GET vía DAPR: " + verb + " /" + method)
+                    .asRuntimeException());
+            return;
+        }
+
+        try {
+            responseObserver.onNext(dispatch(method, request.getHttpExtension().getQuerystring()));
+            responseObserver.onCompleted();
+            LOG.debugf("=== FIN DAPR OnInvoke: GET /%s (SUCCESS) ===", method);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Error de validación: " + e.getMessage())
+                    .asRuntimeException());
+        } catch (IOException e) {
+            LOG.error("Error serializando la respuesta de /" + method + ": " + e.getMessage());
+            responseObserver.onError(Status.INTERNAL.withCause(e).asRuntimeException());
+        } catch (RuntimeException e) {
+            responseObserver.onError(Status.fromThrowable(e).asRuntimeException());
+        }
+    }
+
+    private CommonProtos.InvokeResponse dispatch(String method, String querystring) throws IOException {
+        if (method.equals("pokemon/hello")) {
+            return response("Hello from Pokemon Service!".getBytes(StandardCharsets.UTF_8), TEXT_PLAIN);
+        }
+        if (method.equals("pokemon/random")) {
+            return json(pokemonService.getRandomPokemon());
+        }
+        FieldProjection<Pokemon> projection = FieldProjection.parse(firstValue(querystring, "fields"),
+                PokemonResource.POKEMON_FIELDS);
+        switch (method) {
+            case "pokemon/list":
+                return list(querystring, projection);
+            case "pokemon/batch":
+                return pokemons(pokemonService.getPokemonsByIds(parseIds(querystring)), projection);
+            case "pokemon/page":
+                return page(pokemonService.getPokemonPage(firstValue(querystring, "cursor"), parseLimit(querystring)),
+                        projection);
+            default:
+                return byId(parseId(method), projection);
+        }
+    }
+
+    private CommonProtos.InvokeResponse list(String querystring, FieldProjection<Pokemon> projection) throws IOException {
+        PokemonFilter filter = new PokemonFilter(firstValue(querystring, "type"),
+                PokemonResource.parseLevel("minLevel", firstValue(querystring, "minLevel")),
+                PokemonResource.parseLevel("maxLevel", firstValue(querystring, "maxLevel")),
+                firstValue(querystring, "ability"));
+        // La versión se lee antes que los datos: el ETag nunca es más nuevo que el cuerpo
+        EntityTag tag = catalogTag();
+        if (notModified(tag)) {
+            return NOT_MODIFIED;
+        }
+        PokemonResponseCache responseCache = responseCacheHolder.cache();
+        if (projection == null && filter.isEmpty() && responseCache != null) {
+            EncodedBody body = responseCache.catalog();
+            if (tag != null) {
+                // Etiqueta con la versión con la que se serializó (nunca anterior a la leída arriba)
+                tag(EntityTags.collection(body.version()));
+            }
+            return cached(body);
+        }
+        return pokemons(filter.isEmpty() ? pokemonService.getAllPokemons() : pokemonService.findPokemons(filter),
+                projection);
+    }
+
+    private CommonProtos.InvokeResponse byId(int id, FieldProjection<Pokemon> projection) throws IOException {
+        PokemonResponseCache responseCache = responseCacheHolder.cache();
+        if (projection == null && responseCache != null) {
+            EncodedBody body = responseCache.pokemon(id).orElseThrow(() -> pokemonNotFound(id));
+            return notModified(EntityTags.resource(body.version())) ? NOT_MODIFIED : cached(body);
+        }
+        Pokemon pokemon = pokemonService.getPokemonById(id).orElseThrow(() -> pokemonNotFound(id));
+        if (notModified(EntityTags.resource(pokemon.getVersion()))) {
+            return NOT_MODIFIED;
+        }
+        return projection == null ? json(pokemon) : json(generator -> projection.write(generator, pokemon));
+    }
+
+    /**
+     * Respuesta con los bytes de la caché, sin copiarlos (no se modifican nunca)
+     */
+    private static CommonProtos.InvokeResponse cached(EncodedBody body) {
+        return response(UnsafeByteOperations.unsafeWrap(body.bytes(null)), APPLICATION_JSON);
+    }
+
+    /**
+     * Compara el If-None-Match de la invocación con el ETag actual y deja en la respuesta el que
+     * corresponda: el de la variante del cliente si coincide, si no el actual
+     *
+     * @param tag ETag actual (null si no hay versión)
+     * @return true si el cliente ya tiene esta versión
+     */
+    private static boolean notModified(EntityTag tag) {
+        DaprConditionalInterceptor.Conditional conditional = DaprConditionalInterceptor.current();
+        if (conditional == null || tag == null) {
+            return false;
+        }
+        EntityTag clientTag = EntityTags.matching(conditional.ifNoneMatch(), tag);
+        conditional.etag(clientTag != null ? clientTag : tag);
+        return clientTag != null;
+    }
+
+    /**
+     * @param tag ETag que enviar en las cabeceras de la respuesta
+     */
+    private static void tag(EntityTag tag) {
+        DaprConditionalInterceptor.Conditional conditional = DaprConditionalInterceptor.current();
+        if (conditional != null) {
+            conditional.etag(tag);
+        }
+    }
+
+    /**
+     * ETag del catálogo en su versión actual, o null si el repositorio no la mantiene
+     */
+    private EntityTag catalogTag() {
+        OptionalLong version = pokemonService.getCatalogVersion();
+        return version.isPresent() ? EntityTags.collection(version.getAsLong()) : null;
+    }
+
+    private CommonProtos.InvokeResponse pokemons(List<Pokemon> pokemons, FieldProjection<Pokemon> projection)
+            throws IOException {
+        if (projection == null) {
+            return json(pokemons);
+        }
+        return json(generator -> writeArray(generator, pokemons, projection));
+    }
+
+    private CommonProtos.InvokeResponse page(Page<Pokemon> page, FieldProjection<Pokemon> projection)
+            throws IOException {
+        if (projection == null) {
+            return json(page);
+        }
+        // Misma forma que la serialización completa de Page: {"items":[...],"nextCursor":...}
+        return json(generator -> {
+            generator.writeStartObject();
+            generator.writeFieldName("items");
+            writeArray(generator, page.items(), projection);
+            generator.writeStringField("nextCursor", page.nextCursor());
+            generator.writeEndObject();
+        });
+    }
+
+    private static void writeArray(JsonGenerator generator, List<Pokemon> pokemons, FieldProjection<Pokemon> projection)
+            throws IOException {
+        generator.writeStartArray();
+        for (Pokemon pokemon : pokemons) {
+            projection.write(generator, pokemon);
+        }
+        generator.writeEndArray();
+    }
+
+    private static int parseId(String method) {
+        if (method.startsWith("pokemon/")) {
+            try {
+                return Integer.parseInt(method.substring("pokemon/".length()));
+            } catch (NumberFormatException e) {
+                // Método desconocido
+            }
+        }
+        throw Status.NOT_FOUND.withDescription("Método desconocido: /" + method).asRuntimeException();
+    }
+
+    private static StatusRuntimeException pokemonNotFound(int id) {
+        return Status.NOT_FOUND.withDescription("Pokemon con ID " + id + " no encontrado").asRuntimeException();
+    }
+
+    /**
+     * Extrae los IDs de un query string codificado (ids=1,4,7 o ids=1&ids=4)
+     */
+    static List<Integer> parseIds(String querystring) {
+        List<Integer> ids = new ArrayList<>();
+        for (String value : queryValues(querystring, "ids")) {
+            for (String id : value.split(",")) {
+                if (!id.isBlank()) {
+                    try {
+                        ids.add(Integer.parseInt(id.trim()));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("los IDs deben ser numéricos");
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static int parseLimit(String querystring) {
+        String limit = firstValue(querystring, "limit");
+        if (limit == null) {
+            return DEFAULT_PAGE_LIMIT;
+        }
+        try {
+            return Integer.parseInt(limit.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("el límite debe ser numérico");
+        }
+    }
+
+    private static String firstValue(String querystring, String name) {
+        List<String> values = queryValues(querystring, name);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    private static List<String> queryValues(String querystring, String name) {
+        List<String> values = new ArrayList<>();
+        if (querystring == null || querystring.isBlank()) {
+            return values;
+        }
+        for (String param : querystring.split("&")) {
+            String[] pair = param.split("=", 2);
+            if (pair.length == 2 && name.equals(URLDecoder.decode(pair[0], StandardCharsets.UTF_8))) {
+                values.add(URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private CommonProtos.InvokeResponse json(Object body) throws IOException {
+        return response(objectMapper.writeValueAsBytes(body), APPLICATION_JSON);
+    }
+
+    /**
+     * Cuerpo JSON escrito campo a campo (proyecciones de fields=)
+     */
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private CommonProtos.InvokeResponse json(JsonBody body) throws IOException {
+        ByteString.Output output = ByteString.newOutput();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            body.write(generator);
+        }
+        return response(output.toByteString(), APPLICATION_JSON);
+    }
+
+    private static CommonProtos.InvokeResponse response(byte[] body, String contentType) {
+        return response(ByteString.copyFrom(body), contentType);
+    }
+
+    private static CommonProtos.InvokeResponse response(ByteString body, String contentType) {
+        return CommonProtos.InvokeResponse.newBuilder()
+                .setData(Any.newBuilder().setValue(body))
+                .setContentType(contentType)
+                .build();
+    }
+
+    @Override
+    public void listTopicSubscriptions(Empty request,
+                                       StreamObserver<DaprAppCallbackProtos.ListTopicSubscriptionsResponse> responseObserver) {
+        // Sin suscripciones pub/sub
+        responseObserver.onNext(DaprAppCallbackProtos.ListTopicSubscriptionsResponse.getDefaultInstance());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void listInputBindings(Empty request,
+                                  StreamObserver<DaprAppCallbackProtos.ListInputBindingsResponse> responseObserver) {
+        // Sin input bindings
+        responseObserver.onNext(DaprAppCallbackProtos.ListInputBindingsResponse.getDefaultInstance());
+        responseObserver.onCompleted();
+    }
+}
@@ -0,0 +1,78 @@
+package org.acme.pokemon.controller;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.EntityTag;
+
+/**
+ * Cabeceras de GET condicional en el callback de DAPR (AppCallback.OnInvoke).
+ *
+ * Con app-protocol grpc el sidecar reenvía las cabeceras HTTP del llamante como metadata gRPC
+ * y devuelve la metadata de la respuesta como cabeceras HTTP. Este interceptor deja el
+ * If-None-Match recibido en el Context de la llamada y añade a la respuesta el ETag que fije
+ * DaprAppCallbackService.
+ */
+@ApplicationScoped
+class DaprConditionalInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> IF_NONE_MATCH = Metadata.Key.of("if-none-match", Metadata.ASCII_STRING_MARSHALLER);
+    static final Metadata.Key<String> ETAG = Metadata.Key.of("etag", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Context.Key<Conditional> CONDITIONAL = Context.key("dapr-conditional");
+
+    /**
+     * Estado condicional de una invocación
+     */
+    static final class Conditional {
+
+        private final String ifNoneMatch;
+        private volatile EntityTag etag;
+
+        private Conditional(String ifNoneMatch) {
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        /**
+         * @return If-None-Match recibido, o null si no vino
+         */
+        String ifNoneMatch() {
+            return ifNoneMatch;
+        }
+
+        /**
+         * @param etag ETag que enviar en las cabeceras de la respuesta
+         */
+        void etag(EntityTag etag) {
+            this.etag = etag;
+        }
+    }
+
+    /**
+     * @return Estado de la invocación en curso, o null fuera de una llamada interceptada
+     */
+    static Conditional current() {
+        return CONDITIONAL.get();
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        Conditional conditional = new Conditional(headers.get(IF_NONE_MATCH));
+        ServerCall<ReqT, RespT> tagged = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendHeaders(Metadata responseHeaders) {
+                EntityTag etag = conditional.etag;
+                if (etag != null) {
+                    responseHeaders.put(ETAG, "\"" + etag.getValue() + "\"");
+                }
+                super.sendHeaders(responseHeaders);
+            }
+        };
+        return Contexts.interceptCall(Context.current().withValue(CONDITIONAL, conditional), tagged, headers, next);
+    }
+}
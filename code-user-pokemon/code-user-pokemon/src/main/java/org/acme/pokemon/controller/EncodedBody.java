@@ -0,0 +1,125 @@
+package org.acme.pokemon.controller;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cuerpo de respuesta ya serializado, con sus variantes comprimidas.
+ *
+ * El JSON se guarda tal cual; gzip y brotli se calculan la primera vez que un cliente los acepta
+ * y se reutilizan. Como se comprime una sola vez por versión, se usa el nivel máximo. Brotli
+ * solo se ofrece si la librería nativa de brotli4j (la que usa Vert.x) está disponible.
+ */
+final class EncodedBody {
+
+    static final String GZIP = "gzip";
+    static final String BROTLI = "br";
+    // Por debajo de este tamaño la cabecera gzip/brotli cuesta más de lo que ahorra
+    static final int MIN_COMPRESSED_SIZE = 1024;
+    private static final boolean BROTLI_AVAILABLE = brotliAvailable();
+
+    private final long version;
+    private final byte[] identity;
+    // Se calculan bajo demanda; una carrera solo comprime dos veces lo mismo
+    private volatile byte[] gzip;
+    private volatile byte[] brotli;
+
+    /**
+     * @param version Versión de los datos serializados (del catálogo o del Pokemon)
+     * @param identity JSON sin comprimir
+     */
+    EncodedBody(long version, byte[] identity) {
+        this.version = version;
+        this.identity = identity;
+    }
+
+    long version() {
+        return version;
+    }
+
+    /**
+     * Elige la codificación según Accept-Encoding: brotli si está disponible, si no gzip
+     *
+     * @param acceptEncoding Cabecera Accept-Encoding, o null
+     * @return "br", "gzip" o null para enviar el JSON sin comprimir
+     */
+    String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || identity.length < MIN_COMPRESSED_SIZE) {
+            return null;
+        }
+        boolean gzipAccepted = false;
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (parts.length > 1 && parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if ((name.equals(BROTLI) || name.equals("*")) && BROTLI_AVAILABLE) {
+                return BROTLI;
+            }
+            gzipAccepted |= name.equals(GZIP) || name.equals("*");
+        }
+        return gzipAccepted ? GZIP : null;
+    }
+
+    /**
+     * @param encoding Resultado de {@link #negotiate}
+     * @return Bytes del cuerpo en esa codificación
+     */
+    byte[] bytes(String encoding) {
+        if (GZIP.equals(encoding)) {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = gzip(identity);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+        if (BROTLI.equals(encoding)) {
+            byte[] compressed = brotli;
+            if (compressed == null) {
+                compressed = brotli(identity);
+                brotli = compressed;
+            }
+            return compressed;
+        }
+        return identity;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] brotli(byte[] data) {
+        try {
+            return Encoder.compress(data, new Encoder.Parameters().setQuality(11));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            return Brotli4jLoader.isAvailable();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.acme.pokemon.controller;
+
+import jakarta.ws.rs.core.EntityTag;
+
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ETags fuertes para los GET condicionales (If-None-Match → 304 Not Modified).
+ *
+ * El ETag de un listado es la versión de la colección precedida de un identificador de este
+ * arranque: tras un reinicio, o en otra réplica, la misma versión no describe los mismos datos
+ * y así nunca coincide por error. El de un recurso por ID es su versión con el mismo prefijo:
+ * el repositorio en memoria también reinicia las versiones de cada Pokemon en cada arranque.
+ *
+ * Un ETag fuerte identifica bytes exactos: las variantes comprimidas de un mismo cuerpo llevan el
+ * ETag con la codificación como sufijo ("abc-3-gzip"), y If-None-Match las compara con la versión.
+ */
+final class EntityTags {
+
+    // Identificador de este arranque del proceso
+    static final String EPOCH = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    // Versión inalcanzable para un If-Match de otro arranque: el compare-and-set falla con el ETag actual
+    static final long STALE_VERSION = Long.MAX_VALUE;
+    private static final String[] CODINGS = {EncodedBody.GZIP, EncodedBody.BROTLI};
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param version Versión de la colección
+     * @return ETag del listado para esa versión
+     */
+    static EntityTag collection(long version) {
+        return new EntityTag(EPOCH + "-" + version);
+    }
+
+    /**
+     * @param version Versión del Pokemon
+     * @return ETag del recurso para esa versión
+     */
+    static EntityTag resource(long version) {
+        return new EntityTag(EPOCH + "-" + version);
+    }
+
+    /**
+     * Versión esperada de un If-Match: un ETag de recurso de este arranque ("abc-3") o la versión
+     * sola ("3" o 3). Un ETag de otro arranque se traduce en una versión que nunca coincide (412).
+     *
+     * @param ifMatch Cabecera recibida (null si no vino)
+     * @return Versión esperada, o vacío sin cabecera o con "*" (actualización incondicional)
+     */
+    static OptionalLong expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return OptionalLong.empty();
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        int separator = tag.lastIndexOf('-');
+        String epoch = separator < 0 ? null : tag.substring(0, separator);
+        try {
+            long version = Long.parseLong(tag.substring(separator + 1));
+            if (version > 0 && epoch != null && !epoch.equals(EPOCH)) {
+                return OptionalLong.of(STALE_VERSION);
+            }
+            return OptionalLong.of(version);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match debe ser un único ETag fuerte del Pokemon: " + ifMatch);
+        }
+    }
+
+    /**
+     * @param tag ETag del cuerpo sin comprimir
+     * @param coding Content-Encoding de la respuesta ("gzip", "br"), o null sin comprimir
+     * @return ETag de esa variante
+     */
+    static EntityTag encoded(EntityTag tag, String coding) {
+        return tag == null || coding == null ? tag : new EntityTag(tag.getValue() + "-" + coding);
+    }
+
+    /**
+     * Comparación débil de If-None-Match: "*" o cualquiera de los ETags de la lista, de cualquier
+     * variante (sin comprimir o comprimida) de la versión actual
+     *
+     * @param ifNoneMatch Cabecera recibida (null si no vino)
+     * @param current ETag actual (null si el recurso no tiene)
+     * @return ETag que enviar en el 304 (el de la variante que tiene el cliente, para que su caché la
+     *         identifique), o null si el cliente no tiene la versión actual
+     */
+    static EntityTag matching(String ifNoneMatch, EntityTag current) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || current == null) {
+            return null;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return current;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (tag.equals(current.getValue())) {
+                return current;
+            }
+            for (String coding : CODINGS) {
+                if (tag.equals(current.getValue() + "-" + coding)) {
+                    return encoded(current, coding);
+                }
+            }
+        }
+        return null;
+    }
+}
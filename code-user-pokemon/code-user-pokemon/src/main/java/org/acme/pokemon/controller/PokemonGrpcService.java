@@ -0,0 +1,128 @@
+package org.acme.pokemon.controller;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.quarkus.grpc.GrpcService;
+import jakarta.inject.Inject;
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.grpc.GetPokemonRequest;
+import org.acme.pokemon.grpc.GetPokemonsByIdsRequest;
+import org.acme.pokemon.grpc.ListPokemonsRequest;
+import org.acme.pokemon.grpc.PokemonCatalogGrpc;
+import org.acme.pokemon.grpc.PokemonList;
+import org.acme.pokemon.grpc.PokemonMessage;
+import org.acme.pokemon.service.PokemonService;
+import org.jboss.logging.Logger;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Servicio gRPC del catálogo de Pokemons (contrato en src/main/proto/pokemon.proto).
+ *
+ * Se sirve en el mismo puerto HTTP/2 que la API REST; DAPR lo alcanza mediante
+ * proxy gRPC cuando el sidecar usa app-protocol grpc.
+ */
+@GrpcService
+public class PokemonGrpcService extends PokemonCatalogGrpc.PokemonCatalogImplBase {
+
+    private static final Logger LOG = Logger.getLogger(PokemonGrpcService.class);
+    // Un mensaje por Pokemon multiplica el coste de framing; se emiten páginas
+    static final int DEFAULT_PAGE_SIZE = 100;
+
+    @Inject
+    PokemonService pokemonService;
+
+    static {
+        LOG.info("=== INICIALIZACIÓN: PokemonGrpcService class ===");
+        LOG.info("Métodos gRPC disponibles (pokemon.v1.PokemonCatalog):");
+        LOG.info("  - GetPokemon (unario)");
+        LOG.info("  - GetPokemonsByIds (unario, batch)");
+        LOG.info("  - ListPokemons (server streaming por páginas)");
+        LOG.info("=== FIN INICIALIZACIÓN: PokemonGrpcService ===");
+    }
+
+    @Override
+    public void getPokemon(GetPokemonRequest request, StreamObserver<PokemonMessage> responseObserver) {
+        LOG.debugf("=== gRPC LLAMADO: GetPokemon(id=%s) ===", request.getId());
+
+        pokemonService.getPokemonById(request.getId()).ifPresentOrElse(pokemon -> {
+            responseObserver.onNext(toMessage(pokemon));
+            responseObserver.onCompleted();
+            LOG.debug("=== FIN gRPC: GetPokemon (OK) ===");
+        }, () -> {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("Pokemon con ID " + request.getId() + " no encontrado")
+                    .asRuntimeException());
+            LOG.debug("=== FIN gRPC: GetPokemon (NOT_FOUND) ===");
+        });
+    }
+
+    @Override
+    public void getPokemonsByIds(GetPokemonsByIdsRequest request, StreamObserver<PokemonList> responseObserver) {
+        LOG.debugf("=== gRPC LLAMADO: GetPokemonsByIds(%s ids) ===", request.getIdsCount());
+
+        List<Pokemon> pokemons;
+        try {
+            pokemons = pokemonService.getPokemonsByIds(request.getIdsList());
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Error de validación: " + e.getMessage())
+                    .asRuntimeException());
+            return;
+        }
+
+        PokemonList.Builder response = PokemonList.newBuilder();
+        for (Pokemon pokemon : pokemons) {
+            response.addPokemons(toMessage(pokemon));
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+        LOG.debugf("=== FIN gRPC: GetPokemonsByIds (%s Pokemons) ===", pokemons.size());
+    }
+
+    @Override
+    public void listPokemons(ListPokemonsRequest request, StreamObserver<PokemonList> responseObserver) {
+        int pageSize = request.getPageSize() > 0 ? request.getPageSize() : DEFAULT_PAGE_SIZE;
+        LOG.debugf("=== gRPC LLAMADO: ListPokemons(page_size=%s) ===", pageSize);
+
+        long emitted = 0;
+        PokemonList.Builder page = PokemonList.newBuilder();
+        // Se recorre el repositorio sin materializar la lista: en memoria solo la página en curso
+        try (Stream<Pokemon> pokemons = pokemonService.streamAllPokemons()) {
+            Iterator<Pokemon> iterator = pokemons.iterator();
+            while (iterator.hasNext()) {
+                page.addPokemons(toMessage(iterator.next()));
+                emitted++;
+                if (page.getPokemonsCount() == pageSize) {
+                    responseObserver.onNext(page.build());
+                    page.clear();
+                }
+            }
+        }
+        if (page.getPokemonsCount() > 0) {
+            responseObserver.onNext(page.build());
+        }
+        responseObserver.onCompleted();
+        LOG.debugf("=== FIN gRPC: ListPokemons (%s Pokemons emitidos) ===", emitted);
+    }
+
+    static PokemonMessage toMessage(Pokemon pokemon) {
+        PokemonMessage.Builder message = PokemonMessage.newBuilder()
+                .setId(pokemon.getId())
+                .setLevel(pokemon.getLevel());
+        // proto3 no admite null en strings
+        if (pokemon.getName() != null) {
+            message.setName(pokemon.getName());
+        }
+        if (pokemon.getType() != null) {
+            message.setType(pokemon.getType());
+        }
+        if (pokemon.getAbilities() != null) {
+            message.addAllAbilities(pokemon.getAbilities());
+        }
+        return message.build();
+    }
+}
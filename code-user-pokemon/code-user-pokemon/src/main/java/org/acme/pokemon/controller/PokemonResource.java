@@ -1,29 +1,74 @@
 package org.acme.pokemon.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.acme.pokemon.controller.FieldProjection.FieldWriter;
+import org.acme.pokemon.domain.Page;
 import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.repository.VersionConflictException;
 import org.acme.pokemon.service.PokemonService;
+import org.acme.pokemon.metrics.Measured;
 import org.jboss.logging.Logger;
+import jakarta.annotation.PostConstruct;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 @Path("/pokemon")
+@Measured("controller")
 public class PokemonResource {
     
     private static final Logger LOG = Logger.getLogger(PokemonResource.class);
     
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    // Cada cuántos Pokemons se vacía el buffer hacia el cliente en /pokemon/stream
+    private static final int STREAM_FLUSH_EVERY = 100;
+    // Campos admitidos en ?fields= (mismo orden y nombres que la serialización completa)
+    static final Map<String, FieldWriter<Pokemon>> POKEMON_FIELDS = FieldProjection.catalog(
+            Map.entry("id", (generator, pokemon) -> generator.writeNumberField("id", pokemon.getId())),
+            Map.entry("name", (generator, pokemon) -> generator.writeStringField("name", pokemon.getName())),
+            Map.entry("type", (generator, pokemon) -> generator.writeStringField("type", pokemon.getType())),
+            Map.entry("level", (generator, pokemon) -> generator.writeNumberField("level", pokemon.getLevel())),
+            Map.entry("abilities", (generator, pokemon) -> FieldProjection.writeStrings(generator, "abilities", pokemon.getAbilities())),
+            Map.entry("version", (generator, pokemon) -> generator.writeNumberField("version", pokemon.getVersion())));
+    
     @Inject
     PokemonService pokemonService;
     
+    @Inject
+    ObjectMapper objectMapper;
+    
+    @Inject
+    PokemonResponseCacheHolder responseCacheHolder;
+    
+    // null si la caché de respuestas está desactivada
+    private PokemonResponseCache responseCache;
+    
     static {
         LOG.info("=== INICIALIZACIÓN: PokemonResource class ===");
         LOG.info("PokemonResource cargado en memoria");
         LOG.info("Endpoints disponibles:");
         LOG.info("  - GET /pokemon/random");
-        LOG.info("  - GET /pokemon/{id}");
-        LOG.info("  - GET /pokemon/list");
+        LOG.info("  - GET /pokemon/{id}?fields=");
+        LOG.info("  - GET /pokemon/list?type=&minLevel=&maxLevel=&ability=&fields=");
+        LOG.info("  - GET /pokemon/page?cursor=&limit=");
+        LOG.info("  - GET /pokemon/stream (NDJSON)");
+        LOG.info("  - GET /pokemon/batch?ids=1,4,7");
+        LOG.info("  - POST /pokemon/batch");
         LOG.info("  - GET /pokemon/hello");
         LOG.info("  - POST /pokemon");
         LOG.info("  - PUT /pokemon/{id}");
@@ -31,20 +76,22 @@ public class PokemonResource {
         LOG.info("=== FIN INICIALIZACIÓN: PokemonResource ===");
     }
 
+    @PostConstruct
+    void init() {
+        responseCache = responseCacheHolder.cache();
+    }
+
     @GET
     @Path("/random")
     @Produces(MediaType.APPLICATION_JSON)
     public Pokemon getRandomPokemon() {
-        LOG.info("=== ENDPOINT LLAMADO: GET /pokemon/random ===");
-        LOG.info("Iniciando proceso para obtener Pokemon aleatorio");
+        LOG.debug("=== ENDPOINT LLAMADO: GET /pokemon/random ===");
+        LOG.debug("Iniciando proceso para obtener Pokemon aleatorio");
         
-        long startTime = System.currentTimeMillis();
         Pokemon pokemon = pokemonService.getRandomPokemon();
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Pokemon aleatorio obtenido: " + pokemon.getName());
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN ENDPOINT: GET /pokemon/random ===");
+        LOG.debugf("Pokemon aleatorio obtenido: %s", pokemon.getName());
+        LOG.debug("=== FIN ENDPOINT: GET /pokemon/random ===");
         
         return pokemon;
     }
@@ -52,63 +99,291 @@ public class PokemonResource {
     @GET
     @Path("/{id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getPokemonById(@PathParam("id") int id) {
-        LOG.info("=== ENDPOINT LLAMADO: GET /pokemon/" + id + " ===");
-        LOG.info("Iniciando proceso para obtener Pokemon con ID: " + id);
+    public Response getPokemonById(@PathParam("id") int id, @QueryParam("fields") String fields,
+                                   @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                   @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /pokemon/%s (fields=%s, If-None-Match: %s) ===", id, fields, ifNoneMatch);
+        LOG.debugf("Iniciando proceso para obtener Pokemon con ID: %s", id);
+        
+        FieldProjection<Pokemon> projection;
+        try {
+            projection = FieldProjection.parse(fields, POKEMON_FIELDS);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            LOG.debugf("=== FIN ENDPOINT: GET /pokemon/%s (BAD_REQUEST) ===", id);
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error de validación: " + e.getMessage())
+                    .build();
+        }
+        
+        if (projection == null && responseCache != null) {
+            // Cuerpo completo ya serializado: ni repositorio ni Jackson mientras el catálogo no cambie
+            Optional<EncodedBody> body = responseCache.pokemon(id);
+            if (body.isEmpty()) {
+                return pokemonNotFound(id);
+            }
+            EntityTag tag = EntityTags.resource(body.get().version());
+            EntityTag clientTag = EntityTags.matching(ifNoneMatch, tag);
+            if (clientTag != null) {
+                LOG.debugf("=== FIN ENDPOINT: GET /pokemon/%s (NOT_MODIFIED) ===", id);
+                return Response.notModified(clientTag).build();
+            }
+            LOG.debugf("=== FIN ENDPOINT: GET /pokemon/%s (SUCCESS, bytes en caché) ===", id);
+            return encoded(body.get(), acceptEncoding, tag).build();
+        }
         
-        long startTime = System.currentTimeMillis();
         var pokemonOptional = pokemonService.getPokemonById(id);
-        long endTime = System.currentTimeMillis();
         
         if (pokemonOptional.isPresent()) {
             Pokemon pokemon = pokemonOptional.get();
-            LOG.info("Pokemon encontrado: " + pokemon.getName() + " (ID: " + id + ")");
-            LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("=== FIN ENDPOINT: GET /pokemon/" + id + " (SUCCESS) ===");
-            return Response.ok(pokemon).build();
+            LOG.debugf("Pokemon encontrado: %s (ID: %s)", pokemon.getName(), id);
+            EntityTag tag = entityTag(pokemon);
+            EntityTag clientTag = EntityTags.matching(ifNoneMatch, tag);
+            if (clientTag != null) {
+                LOG.debugf("=== FIN ENDPOINT: GET /pokemon/%s (NOT_MODIFIED) ===", id);
+                return Response.notModified(clientTag).build();
+            }
+            LOG.debugf("=== FIN ENDPOINT: GET /pokemon/%s (SUCCESS) ===", id);
+            Object entity = projection == null ? pokemon : projection.object(objectMapper.getFactory(), pokemon);
+            return Response.ok(entity).tag(tag).build();
         } else {
-            LOG.warn("Pokemon no encontrado con ID: " + id);
-            LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("=== FIN ENDPOINT: GET /pokemon/" + id + " (NOT_FOUND) ===");
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Pokemon with ID " + id + " not found")
-                    .build();
+            return pokemonNotFound(id);
         }
     }
 
+    private static Response pokemonNotFound(int id) {
+        LOG.warn("Pokemon no encontrado con ID: " + id);
+        LOG.debugf("=== FIN ENDPOINT: GET /pokemon/%s (NOT_FOUND) ===", id);
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity("Pokemon with ID " + id + " not found")
+                .build();
+    }
+
+    /**
+     * Respuesta 200 con bytes ya serializados, comprimidos según Accept-Encoding
+     *
+     * @param tag ETag del cuerpo sin comprimir (null si no tiene); cada variante lleva el suyo
+     */
+    private static Response.ResponseBuilder encoded(EncodedBody body, String acceptEncoding, EntityTag tag) {
+        String encoding = body.negotiate(acceptEncoding);
+        Response.ResponseBuilder response = Response.ok(body.bytes(encoding), MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .tag(EntityTags.encoded(tag, encoding));
+        if (encoding != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        return response;
+    }
+
     @GET
     @Path("/list")
     @Produces(MediaType.APPLICATION_JSON)
-    public List<Pokemon> getAllPokemons() {
-        LOG.info("=== ENDPOINT LLAMADO: GET /pokemon/list ===");
-        LOG.info("Iniciando proceso para obtener lista de todos los Pokemons");
+    public Response getAllPokemons(@QueryParam("type") String type,
+                                   @QueryParam("minLevel") String minLevel,
+                                   @QueryParam("maxLevel") String maxLevel,
+                                   @QueryParam("ability") String ability,
+                                   @QueryParam("fields") String fields,
+                                   @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                   @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /pokemon/list (If-None-Match: %s) ===", ifNoneMatch);
+        
+        try {
+            PokemonFilter filter = new PokemonFilter(type, parseLevel("minLevel", minLevel),
+                    parseLevel("maxLevel", maxLevel), ability);
+            FieldProjection<Pokemon> projection = FieldProjection.parse(fields, POKEMON_FIELDS);
+            
+            // La versión se lee antes que los datos: el ETag nunca es más nuevo que el cuerpo
+            EntityTag tag = catalogTag();
+            EntityTag clientTag = EntityTags.matching(ifNoneMatch, tag);
+            if (clientTag != null) {
+                // El cliente ya tiene esta versión del catálogo: ni se lee ni se serializa
+                LOG.debug("=== FIN ENDPOINT: GET /pokemon/list (NOT_MODIFIED) ===");
+                return Response.notModified(clientTag).build();
+            }
+            
+            if (projection != null) {
+                // Solo los campos pedidos, escritos según se recorre el repositorio
+                LOG.debugf("Proyección de campos: %s (filtro: %s)", projection.fields(), filter);
+                Stream<Pokemon> pokemons = filter.isEmpty()
+                        ? pokemonService.streamAllPokemons()
+                        : pokemonService.findPokemons(filter).stream();
+                LOG.debug("=== FIN ENDPOINT: GET /pokemon/list (SUCCESS) ===");
+                return Response.ok(projection.array(objectMapper.getFactory(), pokemons)).tag(tag).build();
+            }
+            
+            if (filter.isEmpty() && responseCache != null) {
+                // El catálogo completo se serializa (y comprime) una vez por versión
+                EncodedBody body = responseCache.catalog();
+                LOG.debug("=== FIN ENDPOINT: GET /pokemon/list (SUCCESS, bytes en caché) ===");
+                // Etiqueta con la versión con la que se serializó (nunca anterior a la leída arriba)
+                return encoded(body, acceptEncoding, tag == null ? null : EntityTags.collection(body.version()))
+                        .build();
+            }
+            
+            List<Pokemon> pokemons;
+            if (filter.isEmpty()) {
+                LOG.debug("Iniciando proceso para obtener lista de todos los Pokemons");
+                pokemons = pokemonService.getAllPokemons();
+            } else {
+                // Filtrado en servidor con los índices secundarios: no viaja el catálogo completo
+                LOG.debugf("Iniciando búsqueda de Pokemons con filtro: %s", filter);
+                pokemons = pokemonService.findPokemons(filter);
+            }
+            
+            LOG.debugf("Lista de Pokemons obtenida: %s Pokemons", pokemons.size());
+            if (LOG.isDebugEnabled()) {
+                LOG.debugf("Pokemons en la lista: %s", pokemons.stream().map(Pokemon::getName).toList());
+            }
+            LOG.debug("=== FIN ENDPOINT: GET /pokemon/list (SUCCESS) ===");
+            return Response.ok(pokemons).tag(tag).build();
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            LOG.debug("=== FIN ENDPOINT: GET /pokemon/list (BAD_REQUEST) ===");
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error de validación: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * ETag del catálogo en su versión actual, o null si el repositorio no la mantiene
+     */
+    private EntityTag catalogTag() {
+        OptionalLong version = pokemonService.getCatalogVersion();
+        return version.isPresent() ? EntityTags.collection(version.getAsLong()) : null;
+    }
+
+    /**
+     * Convierte un parámetro de nivel opcional (null o vacío = sin límite)
+     */
+    static Integer parseLevel(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("el parámetro " + name + " debe ser numérico");
+        }
+    }
+
+    @GET
+    @Path("/page")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPokemonPage(@QueryParam("cursor") String cursor,
+                                   @QueryParam("limit") @DefaultValue("100") int limit) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /pokemon/page?cursor=%s&limit=%s ===", cursor, limit);
         
-        long startTime = System.currentTimeMillis();
-        List<Pokemon> pokemons = pokemonService.getAllPokemons();
-        long endTime = System.currentTimeMillis();
+        try {
+            Page<Pokemon> page = pokemonService.getPokemonPage(cursor, limit);
+            
+            LOG.debugf("Pokemons en la página: %s", page.items().size());
+            LOG.debug("=== FIN ENDPOINT: GET /pokemon/page (SUCCESS) ===");
+            return Response.ok(page).build();
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            LOG.debug("=== FIN ENDPOINT: GET /pokemon/page (BAD_REQUEST) ===");
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error de validación: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(APPLICATION_NDJSON)
+    public StreamingOutput streamAllPokemons() {
+        LOG.debug("=== ENDPOINT LLAMADO: GET /pokemon/stream ===");
         
-        LOG.info("Lista de Pokemons obtenida: " + pokemons.size() + " Pokemons");
-        LOG.info("Pokemons en la lista: " + pokemons.stream().map(Pokemon::getName).toList());
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN ENDPOINT: GET /pokemon/list ===");
+        // Un Pokemon por línea, escrito según se recorre el repositorio (sin lista intermedia)
+        ObjectWriter writer = objectMapper.writerFor(Pokemon.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return output -> {
+            long written = 0;
+            try (Stream<Pokemon> pokemons = pokemonService.streamAllPokemons();
+                 JsonGenerator generator = objectMapper.createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Separador propio ('\n' tras cada Pokemon) en lugar del espacio por defecto de Jackson
+                generator.setRootValueSeparator(null);
+                Iterator<Pokemon> iterator = pokemons.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    if (++written % STREAM_FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+            LOG.debugf("Pokemons emitidos: %s", written);
+            LOG.debug("=== FIN ENDPOINT: GET /pokemon/stream ===");
+        };
+    }
+
+    @GET
+    @Path("/batch")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPokemonsByIds(@QueryParam("ids") List<String> ids) {
+        LOG.debugf("=== ENDPOINT LLAMADO: GET /pokemon/batch?ids=%s ===", ids);
         
-        return pokemons;
+        // Acepta tanto ids=1,4,7 como ids=1&ids=4&ids=7
+        List<Integer> parsedIds = new ArrayList<>();
+        try {
+            for (String value : ids) {
+                for (String id : value.split(",")) {
+                    if (!id.isBlank()) {
+                        parsedIds.add(Integer.parseInt(id.trim()));
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            LOG.error("Error de validación: ID no numérico en " + ids);
+            LOG.debug("=== FIN ENDPOINT: GET /pokemon/batch (BAD_REQUEST) ===");
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error de validación: los IDs deben ser numéricos")
+                    .build();
+        }
+        
+        return getPokemonsByIds(parsedIds, "GET");
+    }
+
+    @POST
+    @Path("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response postPokemonsByIds(List<Integer> ids) {
+        LOG.debug("=== ENDPOINT LLAMADO: POST /pokemon/batch ===");
+        return getPokemonsByIds(ids, "POST");
+    }
+
+    private Response getPokemonsByIds(List<Integer> ids, String httpMethod) {
+        LOG.debugf("Iniciando proceso para obtener %s Pokemons en una sola consulta", ids == null ? 0 : ids.size());
+        
+        try {
+            List<Pokemon> pokemons = pokemonService.getPokemonsByIds(ids);
+            
+            LOG.debugf("Pokemons obtenidos: %s", pokemons.size());
+            LOG.debugf("=== FIN ENDPOINT: %s /pokemon/batch (SUCCESS) ===", httpMethod);
+            return Response.ok(pokemons).build();
+        } catch (IllegalArgumentException e) {
+            LOG.error("Error de validación: " + e.getMessage());
+            LOG.debugf("=== FIN ENDPOINT: %s /pokemon/batch (BAD_REQUEST) ===", httpMethod);
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error de validación: " + e.getMessage())
+                    .build();
+        }
     }
 
     @GET
     @Path("/hello")
     @Produces(MediaType.TEXT_PLAIN)
     public String hello() {
-        LOG.info("=== ENDPOINT LLAMADO: GET /pokemon/hello ===");
-        LOG.info("Respondiendo saludo del Pokemon Service");
+        LOG.debug("=== ENDPOINT LLAMADO: GET /pokemon/hello ===");
+        LOG.debug("Respondiendo saludo del Pokemon Service");
         
-        long startTime = System.currentTimeMillis();
         String response = "Hello from Pokemon Service!";
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Respuesta enviada: " + response);
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN ENDPOINT: GET /pokemon/hello ===");
+        LOG.debugf("Respuesta enviada: %s", response);
+        LOG.debug("=== FIN ENDPOINT: GET /pokemon/hello ===");
         
         return response;
     }
@@ -118,22 +393,19 @@ public class PokemonResource {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response createPokemon(Pokemon pokemon) {
-        LOG.info("=== ENDPOINT LLAMADO: POST /pokemon ===");
-        LOG.info("Iniciando proceso para crear nuevo Pokemon");
+        LOG.debug("=== ENDPOINT LLAMADO: POST /pokemon ===");
+        LOG.debug("Iniciando proceso para crear nuevo Pokemon");
         
         try {
-            long startTime = System.currentTimeMillis();
             Pokemon createdPokemon = pokemonService.createPokemon(pokemon);
-            long endTime = System.currentTimeMillis();
             
-            LOG.info("Pokemon creado: " + createdPokemon.getName() + " (ID: " + createdPokemon.getId() + ")");
-            LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-            LOG.info("=== FIN ENDPOINT: POST /pokemon (SUCCESS) ===");
+            LOG.debugf("Pokemon creado: %s (ID: %s)", createdPokemon.getName(), createdPokemon.getId());
+            LOG.debug("=== FIN ENDPOINT: POST /pokemon (SUCCESS) ===");
             
-            return Response.status(Response.Status.CREATED).entity(createdPokemon).build();
+            return Response.status(Response.Status.CREATED).entity(createdPokemon).tag(entityTag(createdPokemon)).build();
         } catch (IllegalArgumentException e) {
             LOG.error("Error de validación: " + e.getMessage());
-            LOG.info("=== FIN ENDPOINT: POST /pokemon (BAD_REQUEST) ===");
+            LOG.debug("=== FIN ENDPOINT: POST /pokemon (BAD_REQUEST) ===");
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Error de validación: " + e.getMessage())
                     .build();
@@ -144,66 +416,83 @@ public class PokemonResource {
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response updatePokemon(@PathParam("id") int id, Pokemon pokemon) {
-        LOG.info("=== ENDPOINT LLAMADO: PUT /pokemon/" + id + " ===");
-        LOG.info("Iniciando proceso para actualizar Pokemon con ID: " + id);
+    public Response updatePokemon(@PathParam("id") int id, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                  Pokemon pokemon) {
+        LOG.debugf("=== ENDPOINT LLAMADO: PUT /pokemon/%s (If-Match: %s) ===", id, ifMatch);
+        LOG.debugf("Iniciando proceso para actualizar Pokemon con ID: %s", id);
         
         pokemon.setId(id); // Asegurar que el ID coincida con el path parameter
         
         try {
-            long startTime = System.currentTimeMillis();
-            Pokemon updatedPokemon = pokemonService.updatePokemon(pokemon);
-            long endTime = System.currentTimeMillis();
+            // Con If-Match la actualización es compare-and-set sobre la versión (ETag)
+            OptionalLong expectedVersion = expectedVersion(ifMatch);
+            Pokemon updatedPokemon = expectedVersion.isPresent()
+                    ? pokemonService.updatePokemon(pokemon, expectedVersion.getAsLong())
+                    : pokemonService.updatePokemon(pokemon);
             
             if (updatedPokemon != null) {
-                LOG.info("Pokemon actualizado: " + updatedPokemon.getName());
-                LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-                LOG.info("=== FIN ENDPOINT: PUT /pokemon/" + id + " (SUCCESS) ===");
-                return Response.ok(updatedPokemon).build();
+                LOG.debugf("Pokemon actualizado: %s (versión %s)", updatedPokemon.getName(), updatedPokemon.getVersion());
+                LOG.debugf("=== FIN ENDPOINT: PUT /pokemon/%s (SUCCESS) ===", id);
+                return Response.ok(updatedPokemon).tag(entityTag(updatedPokemon)).build();
             } else {
                 LOG.warn("Pokemon con ID " + id + " no encontrado para actualizar");
-                LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-                LOG.info("=== FIN ENDPOINT: PUT /pokemon/" + id + " (NOT_FOUND) ===");
+                LOG.debugf("=== FIN ENDPOINT: PUT /pokemon/%s (NOT_FOUND) ===", id);
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("Pokemon con ID " + id + " no encontrado")
                         .build();
             }
+        } catch (VersionConflictException e) {
+            LOG.warn("Conflicto de versión: " + e.getMessage());
+            LOG.debugf("=== FIN ENDPOINT: PUT /pokemon/%s (PRECONDITION_FAILED) ===", id);
+            // El ETag actual permite al cliente releer y reintentar
+            return Response.status(Response.Status.PRECONDITION_FAILED)
+                    .tag(EntityTags.resource(e.getCurrentVersion()))
+                    .entity("Conflicto de versión: " + e.getMessage())
+                    .build();
         } catch (IllegalArgumentException e) {
             LOG.error("Error de validación: " + e.getMessage());
-            LOG.info("=== FIN ENDPOINT: PUT /pokemon/" + id + " (BAD_REQUEST) ===");
+            LOG.debugf("=== FIN ENDPOINT: PUT /pokemon/%s (BAD_REQUEST) ===", id);
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Error de validación: " + e.getMessage())
                     .build();
         }
     }
 
+    /**
+     * Versión esperada de un If-Match (ver {@link EntityTags#expectedVersion}). Sin cabecera o con "*"
+     * la actualización es incondicional (si el Pokemon no existe ya responde 404).
+     */
+    static OptionalLong expectedVersion(String ifMatch) {
+        return EntityTags.expectedVersion(ifMatch);
+    }
+
+    private static EntityTag entityTag(Pokemon pokemon) {
+        return EntityTags.resource(pokemon.getVersion());
+    }
+
     @DELETE
     @Path("/{id}")
     public Response deletePokemon(@PathParam("id") int id) {
-        LOG.info("=== ENDPOINT LLAMADO: DELETE /pokemon/" + id + " ===");
-        LOG.info("Iniciando proceso para eliminar Pokemon con ID: " + id);
+        LOG.debugf("=== ENDPOINT LLAMADO: DELETE /pokemon/%s ===", id);
+        LOG.debugf("Iniciando proceso para eliminar Pokemon con ID: %s", id);
         
         try {
-            long startTime = System.currentTimeMillis();
             boolean deleted = pokemonService.deletePokemon(id);
-            long endTime = System.currentTimeMillis();
             
             if (deleted) {
-                LOG.info("Pokemon con ID " + id + " eliminado correctamente");
-                LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-                LOG.info("=== FIN ENDPOINT: DELETE /pokemon/" + id + " (SUCCESS) ===");
+                LOG.debugf("Pokemon con ID %s eliminado correctamente", id);
+                LOG.debugf("=== FIN ENDPOINT: DELETE /pokemon/%s (SUCCESS) ===", id);
                 return Response.noContent().build();
             } else {
                 LOG.warn("Pokemon con ID " + id + " no encontrado para eliminar");
-                LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-                LOG.info("=== FIN ENDPOINT: DELETE /pokemon/" + id + " (NOT_FOUND) ===");
+                LOG.debugf("=== FIN ENDPOINT: DELETE /pokemon/%s (NOT_FOUND) ===", id);
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("Pokemon con ID " + id + " no encontrado")
                         .build();
             }
         } catch (IllegalArgumentException e) {
             LOG.error("Error de validación: " + e.getMessage());
-            LOG.info("=== FIN ENDPOINT: DELETE /pokemon/" + id + " (BAD_REQUEST) ===");
+            LOG.debugf("=== FIN ENDPOINT: DELETE /pokemon/%s (BAD_REQUEST) ===", id);
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Error de validación: " + e.getMessage())
                     .build();
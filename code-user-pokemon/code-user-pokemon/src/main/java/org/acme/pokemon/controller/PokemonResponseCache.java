@@ -0,0 +1,179 @@
+package org.acme.pokemon.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.acme.pokemon.domain.Pokemon;
+import org.jboss.logging.Logger;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas de GET /pokemon/list y GET /pokemon/{id} serializadas una sola vez.
+ *
+ * Cada cuerpo queda etiquetado con la versión del catálogo (PokemonRepository.collectionVersion)
+ * leída antes de obtener los datos, y solo se sirve mientras esa versión sea la actual. Cualquier
+ * alta, actualización o borrado avanza la versión, así que la siguiente lectura reconstruye el
+ * cuerpo; nunca se sirve uno anterior a una escritura ya confirmada. Si el repositorio no
+ * mantiene versión (dapr-state) no se guarda nada y cada petición se serializa.
+ *
+ * La lista completa se reconstruye bajo un lock: ante una ráfaga tras una escritura se serializa
+ * una vez y el resto espera ese resultado. Los Pokemons por ID se guardan en un mapa acotado.
+ */
+final class PokemonResponseCache {
+
+    private static final Logger LOG = Logger.getLogger(PokemonResponseCache.class);
+
+    private final Supplier<OptionalLong> catalogVersion;
+    private final Supplier<List<Pokemon>> catalogLoader;
+    private final IntFunction<Optional<Pokemon>> pokemonLoader;
+    private final ObjectMapper objectMapper;
+    private final int maxPokemons;
+
+    private volatile Slot catalog;
+    private final ReentrantLock catalogLock = new ReentrantLock();
+    private final ConcurrentHashMap<Integer, Slot> pokemons = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Contadores de la caché
+     * @param hits Respuestas servidas con bytes ya serializados
+     * @param misses Respuestas que hubo que serializar
+     * @param cachedPokemons Pokemons por ID guardados
+     */
+    record Stats(long hits, long misses, int cachedPokemons) {
+    }
+
+    /**
+     * @param catalogVersion Versión actual del catálogo
+     * @param body Cuerpo serializado con esa versión del catálogo
+     */
+    private record Slot(long catalogVersion, EncodedBody body) {
+    }
+
+    /**
+     * @param catalogVersion Versión actual del catálogo (vacía si el repositorio no la mantiene)
+     * @param catalogLoader Lista completa de Pokemons
+     * @param pokemonLoader Pokemon por ID
+     * @param objectMapper Mapper de la aplicación, para que los bytes coincidan con la serialización normal
+     * @param maxPokemons Máximo de Pokemons por ID guardados
+     * @param registry Registro de métricas, o null
+     */
+    PokemonResponseCache(Supplier<OptionalLong> catalogVersion, Supplier<List<Pokemon>> catalogLoader,
+                         IntFunction<Optional<Pokemon>> pokemonLoader, ObjectMapper objectMapper,
+                         int maxPokemons, MeterRegistry registry) {
+        if (maxPokemons < 0) {
+            throw new IllegalArgumentException("maxPokemons no puede ser negativo");
+        }
+        this.catalogVersion = catalogVersion;
+        this.catalogLoader = catalogLoader;
+        this.pokemonLoader = pokemonLoader;
+        this.objectMapper = objectMapper;
+        this.maxPokemons = maxPokemons;
+        if (registry != null) {
+            FunctionCounter.builder("pokemon.response.cache.hits", this, c -> c.stats().hits())
+                    .description("Respuestas servidas con bytes ya serializados")
+                    .register(registry);
+            FunctionCounter.builder("pokemon.response.cache.misses", this, c -> c.stats().misses())
+                    .description("Respuestas serializadas por no estar en caché o haber cambiado el catálogo")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * @return Lista completa serializada; su versión es la del catálogo (0 si no hay versión)
+     */
+    EncodedBody catalog() {
+        OptionalLong version = catalogVersion.get();
+        if (version.isEmpty()) {
+            misses.increment();
+            return new EncodedBody(0, serialize(catalogLoader.get()));
+        }
+        long current = version.getAsLong();
+        Slot slot = catalog;
+        if (slot != null && slot.catalogVersion() == current) {
+            hits.increment();
+            return slot.body();
+        }
+        catalogLock.lock();
+        try {
+            // Otro hilo puede haberlo reconstruido mientras se esperaba el lock
+            slot = catalog;
+            if (slot != null && slot.catalogVersion() >= current) {
+                hits.increment();
+                return slot.body();
+            }
+            misses.increment();
+            // La versión se vuelve a leer antes que los datos: el cuerpo nunca es más viejo que su etiqueta
+            long rebuilt = catalogVersion.get().orElse(current);
+            List<Pokemon> all = catalogLoader.get();
+            slot = new Slot(rebuilt, new EncodedBody(rebuilt, serialize(all)));
+            catalog = slot;
+            LOG.debugf("🗜️ Lista de Pokemons serializada para la versión %s: %s Pokemons, %s bytes",
+                    rebuilt, all.size(), slot.body().bytes(null).length);
+            return slot.body();
+        } finally {
+            catalogLock.unlock();
+        }
+    }
+
+    /**
+     * @param id ID del Pokemon
+     * @return Pokemon serializado, con su propia versión (la del ETag), o vacío si no existe
+     */
+    Optional<EncodedBody> pokemon(int id) {
+        OptionalLong version = catalogVersion.get();
+        if (version.isPresent()) {
+            Slot slot = pokemons.get(id);
+            if (slot != null && slot.catalogVersion() == version.getAsLong()) {
+                hits.increment();
+                return Optional.of(slot.body());
+            }
+        }
+        misses.increment();
+        Optional<Pokemon> pokemon = pokemonLoader.apply(id);
+        if (pokemon.isEmpty()) {
+            pokemons.remove(id);
+            return Optional.empty();
+        }
+        EncodedBody body = new EncodedBody(pokemon.get().getVersion(), serialize(pokemon.get()));
+        if (version.isPresent() && maxPokemons > 0) {
+            if (pokemons.size() >= maxPokemons && !pokemons.containsKey(id)) {
+                evictOne();
+            }
+            pokemons.put(id, new Slot(version.getAsLong(), body));
+        }
+        return Optional.of(body);
+    }
+
+    Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), pokemons.size());
+    }
+
+    private void evictOne() {
+        // Sin orden de acceso: sale cualquier entrada (tras una escritura todas están caducadas)
+        Iterator<Integer> ids = pokemons.keySet().iterator();
+        if (ids.hasNext()) {
+            pokemons.remove(ids.next());
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.acme.pokemon.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.acme.pokemon.service.PokemonService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Única PokemonResponseCache de la aplicación, compartida por PokemonResource (HTTP directo) y
+ * DaprAppCallbackService (invocaciones de DAPR con app-protocol grpc): los dos caminos sirven los
+ * mismos bytes, serializados una sola vez por versión del catálogo.
+ */
+@Singleton
+class PokemonResponseCacheHolder {
+
+    private static final Logger LOG = Logger.getLogger(PokemonResponseCacheHolder.class);
+
+    @Inject
+    PokemonService pokemonService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "pokemon-response-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "pokemon-response-cache.max-pokemons", defaultValue = "1024")
+    int maxPokemons;
+
+    // null si la caché de respuestas está desactivada
+    private PokemonResponseCache cache;
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            cache = new PokemonResponseCache(pokemonService::getCatalogVersion, pokemonService::getAllPokemons,
+                    pokemonService::getPokemonById, objectMapper, maxPokemons, registry);
+            LOG.info("✅ Caché de respuestas serializadas: lista completa y hasta " + maxPokemons + " Pokemons por ID");
+        }
+    }
+
+    /**
+     * @return La caché, o null si pokemon-response-cache.enabled=false
+     */
+    PokemonResponseCache cache() {
+        return cache;
+    }
+}
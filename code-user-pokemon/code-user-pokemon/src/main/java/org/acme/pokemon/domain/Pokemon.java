@@ -8,6 +8,8 @@ public class Pokemon {
     private String type;
     private int level;
     private List<String> abilities;
+    // Versión del registro: 1 al crearse, +1 en cada actualización (0 = sin guardar)
+    private long version;
 
     public Pokemon() {}
 
@@ -35,6 +37,9 @@ public class Pokemon {
     public List<String> getAbilities() { return abilities; }
     public void setAbilities(List<String> abilities) { this.abilities = abilities; }
 
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     @Override
     public String toString() {
         return "Pokemon{" +
@@ -43,6 +48,7 @@ public class Pokemon {
                 ", type='" + type + '\'' +
                 ", level=" + level +
                 ", abilities=" + abilities +
+                ", version=" + version +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,70 @@
+package org.acme.pokemon.domain;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Criterios de búsqueda sobre el catálogo. Los criterios nulos no filtran.
+ *
+ * Tipos y habilidades se comparan sin distinguir mayúsculas; un tipo compuesto
+ * ("Grass/Poison") exige que el Pokemon tenga todos sus componentes.
+ *
+ * @param type Tipo (o tipos separados por "/") que debe tener el Pokemon
+ * @param minLevel Nivel mínimo, inclusive
+ * @param maxLevel Nivel máximo, inclusive
+ * @param ability Habilidad que debe tener el Pokemon
+ */
+public record PokemonFilter(String type, Integer minLevel, Integer maxLevel, String ability) {
+
+    /**
+     * @return true si no hay ningún criterio (equivale a listar todo el catálogo)
+     */
+    public boolean isEmpty() {
+        return typeKeys().isEmpty() && minLevel == null && maxLevel == null && abilityKey(ability) == null;
+    }
+
+    public Set<String> typeKeys() {
+        return typeKeys(type);
+    }
+
+    public boolean matches(Pokemon pokemon) {
+        if (!typeKeys(pokemon.getType()).containsAll(typeKeys())) {
+            return false;
+        }
+        if (minLevel != null && pokemon.getLevel() < minLevel) {
+            return false;
+        }
+        if (maxLevel != null && pokemon.getLevel() > maxLevel) {
+            return false;
+        }
+        String abilityKey = abilityKey(ability);
+        return abilityKey == null || (pokemon.getAbilities() != null
+                && pokemon.getAbilities().stream().anyMatch(a -> abilityKey.equals(abilityKey(a))));
+    }
+
+    /**
+     * Descompone un tipo compuesto en claves normalizadas ("Fire/Flying" -> fire, flying)
+     */
+    public static Set<String> typeKeys(String type) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (type != null) {
+            for (String part : type.split("/")) {
+                if (!part.isBlank()) {
+                    keys.add(part.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @return Habilidad normalizada, o null si está vacía
+     */
+    public static String abilityKey(String ability) {
+        if (ability == null || ability.isBlank()) {
+            return null;
+        }
+        return ability.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,39 @@
+package org.acme.pokemon.logging;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+/**
+ * Equivalente gRPC de RequestSummaryFilter: una línea INFO por llamada al cerrarse
+ * (PokemonCatalog y AppCallback de DAPR).
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class GrpcRequestSummaryInterceptor implements ServerInterceptor {
+
+    private static final Logger LOG = Logger.getLogger(GrpcRequestSummaryInterceptor.class);
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!LOG.isInfoEnabled()) {
+            return next.startCall(call, headers);
+        }
+        long startNanos = System.nanoTime();
+        return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                LOG.infof("grpc method=%s status=%s duration_us=%d", call.getMethodDescriptor().getFullMethodName(),
+                        status.getCode(), (System.nanoTime() - startNanos) / 1_000);
+                super.close(status, trailers);
+            }
+        }, headers);
+    }
+}
@@ -0,0 +1,119 @@
+package org.acme.pokemon.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registra en Micrometer las métricas de los beans anotados con {@link Measured}.
+ *
+ * - app.layer.calls: Timer con resolución de nanosegundos, percentiles p50/p95/p99 e
+ *   histograma (agregable entre instancias), etiquetado con outcome=success|error
+ * - app.layer.errors: contador de excepciones por tipo
+ * - app.layer.in.flight: llamadas en curso
+ *
+ * Si el método devuelve un CompletionStage se mide hasta que la etapa se completa, no hasta
+ * que el método retorna. Los medidores de cada método se crean en la primera llamada y se
+ * reutilizan, así el coste por invocación es una búsqueda en un mapa y dos lecturas de reloj.
+ */
+@Measured
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_BEFORE)
+public class MeasuredInterceptor {
+
+    static final String CALLS = "app.layer.calls";
+    static final String ERRORS = "app.layer.errors";
+    static final String IN_FLIGHT = "app.layer.in.flight";
+
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Inject
+    MeterRegistry registry;
+
+    @AroundInvoke
+    Object measure(InvocationContext context) throws Exception {
+        MethodMeters methodMeters = meters.computeIfAbsent(context.getMethod(), this::register);
+        methodMeters.inFlight.incrementAndGet();
+        long start = registry.config().clock().monotonicTime();
+        Object result;
+        try {
+            result = context.proceed();
+        } catch (Exception | Error e) {
+            methodMeters.record(start, e);
+            throw e;
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            return stage.whenComplete((value, error) -> methodMeters.record(start, error));
+        }
+        methodMeters.record(start, null);
+        return result;
+    }
+
+    private MethodMeters register(Method method) {
+        Class<?> type = method.getDeclaringClass();
+        Tags tags = Tags.of("layer", layerOf(method), "class", type.getSimpleName(), "method", method.getName());
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder(IN_FLIGHT, inFlight, AtomicInteger::get)
+                .description("Llamadas en curso")
+                .tags(tags)
+                .register(registry);
+        return new MethodMeters(registry, tags, timer(tags, "success"), timer(tags, "error"), inFlight);
+    }
+
+    private Timer timer(Tags tags, String outcome) {
+        return Timer.builder(CALLS)
+                .description("Latencia por capa y método")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private static String layerOf(Method method) {
+        Measured measured = method.getAnnotation(Measured.class);
+        if (measured == null) {
+            measured = method.getDeclaringClass().getAnnotation(Measured.class);
+        }
+        return measured == null || measured.value().isEmpty() ? "unknown" : measured.value();
+    }
+
+    private record MethodMeters(MeterRegistry registry, Tags tags, Timer success, Timer error, AtomicInteger inFlight) {
+
+        void record(long start, Throwable failure) {
+            long elapsed = registry.config().clock().monotonicTime() - start;
+            inFlight.decrementAndGet();
+            if (failure == null) {
+                success.record(elapsed, TimeUnit.NANOSECONDS);
+                return;
+            }
+            error.record(elapsed, TimeUnit.NANOSECONDS);
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            Counter.builder(ERRORS)
+                    .description("Excepciones por capa, método y tipo")
+                    .tags(tags)
+                    .tag("exception", cause.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package org.acme.pokemon.repository;
 
 import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 public interface PokemonRepository {
     
@@ -25,6 +29,41 @@ public interface PokemonRepository {
      */
     List<Pokemon> findAll();
     
+    /**
+     * Recorre todos los Pokemons sin copiar la colección
+     * @return Stream sobre una instantánea de los datos
+     */
+    Stream<Pokemon> streamAll();
+    
+    /**
+     * Obtiene una página de Pokemons ordenada por ID
+     * @param afterId Solo se devuelven Pokemons con ID mayor que este (0 = desde el principio)
+     * @param limit Número máximo de Pokemons a devolver
+     * @return Pokemons de la página, ordenados por ID
+     */
+    List<Pokemon> findPage(int afterId, int limit);
+    
+    /**
+     * Obtiene varios Pokemons por sus IDs en una sola operación
+     * @param ids IDs de los Pokemons
+     * @return Pokemons encontrados, en el orden de los IDs solicitados (los inexistentes se omiten)
+     */
+    List<Pokemon> findAllById(Collection<Integer> ids);
+    
+    /**
+     * Busca Pokemons por tipo, rango de nivel y/o habilidad usando los índices secundarios
+     * @param filter Criterios de búsqueda (los nulos no filtran)
+     * @return Pokemons que cumplen todos los criterios, ordenados por ID
+     */
+    List<Pokemon> findByFilter(PokemonFilter filter);
+    
+    /**
+     * Versión de la colección: crece con cada alta, actualización o borrado. Debe leerse antes que
+     * los datos, para que una versión nunca sea más nueva que lo que se devuelve con ella
+     * @return Versión actual, o vacío si el repositorio no puede garantizarla (p. ej. escrituras de otras réplicas)
+     */
+    OptionalLong collectionVersion();
+    
     /**
      * Guarda un Pokemon
      * @param pokemon Pokemon a guardar
@@ -39,6 +78,15 @@ public interface PokemonRepository {
      */
     Pokemon update(Pokemon pokemon);
     
+    /**
+     * Actualiza un Pokemon solo si sigue en la versión esperada (compare-and-set)
+     * @param pokemon Pokemon a actualizar
+     * @param expectedVersion Versión que el cliente leyó
+     * @return Pokemon actualizado con su nueva versión, o null si no existe
+     * @throws VersionConflictException si el Pokemon ya está en otra versión
+     */
+    Pokemon update(Pokemon pokemon, long expectedVersion);
+    
     /**
      * Elimina un Pokemon por su ID
      * @param id ID del Pokemon a eliminar
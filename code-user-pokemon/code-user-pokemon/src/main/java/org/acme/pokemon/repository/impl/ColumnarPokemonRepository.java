@@ -0,0 +1,195 @@
+package org.acme.pokemon.repository.impl;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.metrics.Measured;
+import org.acme.pokemon.repository.PokemonRepository;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * PokemonRepository en memoria sobre ColumnarPokemonStore (pokemon-repository.type=columnar).
+ *
+ * Pensado para catálogos grandes: unas decenas de bytes por Pokemon frente a los cientos del
+ * grafo de objetos de PokemonRepositoryImpl (objeto, Strings, lista de habilidades, entrada del
+ * índice e índices secundarios). A cambio cada lectura materializa un Pokemon nuevo y
+ * findByFilter recorre las columnas en lugar de usar índices secundarios.
+ */
+@ApplicationScoped
+@Measured("repository")
+@IfBuildProperty(name = "pokemon-repository.type", stringValue = "columnar")
+public class ColumnarPokemonRepository implements PokemonRepository {
+
+    private static final Logger LOG = Logger.getLogger(ColumnarPokemonRepository.class);
+    // Pokemons materializados por página al recorrer el repositorio completo
+    private static final int STREAM_PAGE_SIZE = 256;
+    // Versión esperada de un update incondicional
+    private static final long ANY_VERSION = -1;
+
+    private final ColumnarPokemonStore store = new ColumnarPokemonStore();
+    // Último ID asignado; se adelanta también con los IDs explícitos para no repetirlos
+    private final AtomicInteger idSequence = new AtomicInteger();
+
+    public ColumnarPokemonRepository() {
+        PokemonRepositoryImpl.samplePokemons().forEach(this::save);
+        LOG.info("ColumnarPokemonRepository inicializado con " + store.size() + " Pokemons de ejemplo");
+    }
+
+    /**
+     * Bytes reservados por el almacenamiento columnar (aproximado)
+     */
+    long footprintBytes() {
+        return store.footprintBytes();
+    }
+
+    @Override
+    public Pokemon getRandomPokemon() {
+        LOG.debug("=== REPOSITORY: getRandomPokemon() ===");
+        return store.random();
+    }
+
+    @Override
+    public Optional<Pokemon> findById(int id) {
+        LOG.debugf("=== REPOSITORY: findById(id=%s) ===", id);
+        Optional<Pokemon> pokemon = Optional.ofNullable(store.get(id));
+        if (pokemon.isEmpty()) {
+            LOG.warn("Pokemon con ID " + id + " no encontrado");
+        }
+        return pokemon;
+    }
+
+    @Override
+    public List<Pokemon> findAll() {
+        LOG.debug("=== REPOSITORY: findAll() ===");
+        return streamAll().toList();
+    }
+
+    @Override
+    public Stream<Pokemon> streamAll() {
+        LOG.debug("=== REPOSITORY: streamAll() ===");
+        // Recorrido por páginas en orden de ID: solo se materializa la página en curso
+        Iterator<Pokemon> iterator = new Iterator<>() {
+            private List<Pokemon> page = List.of();
+            private int position;
+            private int lastId = Integer.MIN_VALUE;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (position < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = store.page(lastId, STREAM_PAGE_SIZE);
+                position = 0;
+                exhausted = page.size() < STREAM_PAGE_SIZE;
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getId();
+                }
+                return !page.isEmpty();
+            }
+
+            @Override
+            public Pokemon next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(position++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public List<Pokemon> findPage(int afterId, int limit) {
+        LOG.debugf("=== REPOSITORY: findPage(afterId=%s, limit=%s) ===", afterId, limit);
+        return store.page(afterId, limit);
+    }
+
+    @Override
+    public List<Pokemon> findAllById(Collection<Integer> ids) {
+        LOG.debugf("=== REPOSITORY: findAllById(ids=%s) ===", ids);
+        LinkedHashSet<Integer> requestedIds = new LinkedHashSet<>(ids);
+        List<Pokemon> result = new ArrayList<>(requestedIds.size());
+        for (Integer id : requestedIds) {
+            Pokemon pokemon = store.get(id);
+            if (pokemon != null) {
+                result.add(pokemon);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Pokemon> findByFilter(PokemonFilter filter) {
+        LOG.debugf("=== REPOSITORY: findByFilter(filter=%s) ===", filter);
+        if (filter.isEmpty()) {
+            return findAll();
+        }
+        List<Pokemon> result = store.filter(filter);
+        LOG.debugf("Pokemons encontrados: %s", result.size());
+        return result;
+    }
+
+    @Override
+    public OptionalLong collectionVersion() {
+        return OptionalLong.of(store.modCount());
+    }
+
+    @Override
+    public Pokemon save(Pokemon pokemon) {
+        LOG.debugf("=== REPOSITORY: save(pokemon=%s) ===", pokemon.getName());
+        if (pokemon.getId() == 0) {
+            pokemon.setId(idSequence.incrementAndGet());
+        } else {
+            idSequence.accumulateAndGet(pokemon.getId(), Math::max);
+        }
+        store.put(pokemon);
+        LOG.debugf("Pokemon guardado: %s (ID: %s)", pokemon.getName(), pokemon.getId());
+        return pokemon;
+    }
+
+    @Override
+    public Pokemon update(Pokemon pokemon) {
+        return update(pokemon, ANY_VERSION);
+    }
+
+    @Override
+    public Pokemon update(Pokemon pokemon, long expectedVersion) {
+        LOG.debugf("=== REPOSITORY: update(pokemon=%s, ID=%s, expectedVersion=%s) ===", pokemon.getName(), pokemon.getId(),
+                expectedVersion);
+        Pokemon updated = store.replace(pokemon, expectedVersion, ANY_VERSION);
+        if (updated == null) {
+            LOG.warn("Pokemon con ID " + pokemon.getId() + " no encontrado para actualizar");
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        LOG.debugf("=== REPOSITORY: deleteById(id=%s) ===", id);
+        boolean removed = store.remove(id);
+        if (!removed) {
+            LOG.warn("Pokemon con ID " + id + " no encontrado para eliminar");
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,490 @@
+package org.acme.pokemon.repository.impl;
+
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.repository.VersionConflictException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Almacenamiento columnar compacto del catálogo de Pokemons.
+ *
+ * En lugar de un objeto Pokemon por entrada (con su String de tipo y su lista de habilidades),
+ * cada atributo es un array primitivo indexado por ranura:
+ * - id, nivel y versión en int[] / long[]
+ * - tipo y lista de habilidades codificados con diccionario (un int por ranura): un catálogo
+ *   grande repite unas pocas decenas de valores distintos
+ * - nombres en UTF-8 dentro de un único byte[], con la longitud delante (offset por ranura)
+ *
+ * Las ranuras están ordenadas por ID: findById es una búsqueda binaria y las páginas son tramos
+ * contiguos. Un alta con ID mayor que el último (lo habitual) se añade al final; las demás
+ * desplazan las columnas. Un borrado deja la ranura con versión 0 (lápida), que se reutiliza si
+ * el ID vuelve a guardarse y se elimina al compactar. Los diccionarios solo crecen.
+ *
+ * Los Pokemon se materializan al leer como objetos nuevos que solo comparten los valores del
+ * diccionario (el String del tipo y la lista inmutable de habilidades).
+ *
+ * Concurrencia: las escrituras toman el lock de escritura de un StampedLock; las lecturas son
+ * optimistas (sin bloqueo) y se repiten con el lock de lectura si se cruzaron con una escritura.
+ */
+final class ColumnarPokemonStore {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int NULL_CODE = -1;
+    private static final int NULL_NAME = -1;
+
+    private final StampedLock lock = new StampedLock();
+    private final Dictionary<String> types = new Dictionary<>();
+    private final Dictionary<List<String>> abilitySets = new Dictionary<>();
+
+    // Columnas; las ranuras [0, slots) están ordenadas por ID (vivas + lápidas)
+    private int[] ids = new int[MIN_CAPACITY];
+    private int[] levels = new int[MIN_CAPACITY];
+    private int[] typeCodes = new int[MIN_CAPACITY];
+    private int[] abilityCodes = new int[MIN_CAPACITY];
+    private long[] versions = new long[MIN_CAPACITY];
+    private int[] nameOffsets = new int[MIN_CAPACITY];
+    private byte[] names = new byte[MIN_CAPACITY * 16];
+    private int namesEnd;
+    // Bytes de nombres ya sustituidos o borrados, recuperables compactando
+    private int deadNameBytes;
+    private int slots;
+    private int live;
+    // Escrituras aplicadas (versión de la colección)
+    private long modCount;
+
+    /**
+     * @return Pokemon con ese ID (materializado), o null si no existe
+     */
+    Pokemon get(int id) {
+        return read(() -> {
+            int slot = liveSlot(id);
+            return slot < 0 ? null : materialize(slot);
+        });
+    }
+
+    /**
+     * Guarda el Pokemon (alta o sustitución) y le asigna su versión: 1 si es nuevo, +1 si existía
+     */
+    void put(Pokemon pokemon) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = Arrays.binarySearch(ids, 0, slots, pokemon.getId());
+            if (slot < 0) {
+                slot = insertSlot(-slot - 1, pokemon.getId());
+            }
+            write(slot, pokemon, versions[slot] + 1);
+            modCount++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sustituye un Pokemon existente si sigue en la versión esperada (o siempre, con anyVersion)
+     *
+     * @return El Pokemon con su nueva versión, o null si no existe
+     * @throws VersionConflictException si la versión guardada es otra
+     */
+    Pokemon replace(Pokemon pokemon, long expectedVersion, long anyVersion) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = liveSlot(pokemon.getId());
+            if (slot < 0) {
+                return null;
+            }
+            if (expectedVersion != anyVersion && versions[slot] != expectedVersion) {
+                throw new VersionConflictException(pokemon.getId(), expectedVersion, versions[slot]);
+            }
+            write(slot, pokemon, versions[slot] + 1);
+            modCount++;
+            return pokemon;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    boolean remove(int id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = liveSlot(id);
+            if (slot < 0) {
+                return false;
+            }
+            releaseName(slot);
+            versions[slot] = 0;
+            live--;
+            modCount++;
+            // Con más de 1/4 de lápidas se compactan las columnas (coste amortizado)
+            if ((slots - live) * 4 > slots && slots > MIN_CAPACITY) {
+                compactSlots();
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return Hasta limit Pokemons con ID mayor que afterId, ordenados por ID
+     */
+    List<Pokemon> page(int afterId, int limit) {
+        return read(() -> {
+            int slot = Arrays.binarySearch(ids, 0, slots, afterId);
+            slot = slot >= 0 ? slot + 1 : -slot - 1;
+            List<Pokemon> page = new ArrayList<>(Math.min(limit, live));
+            for (; slot < slots && page.size() < limit; slot++) {
+                if (versions[slot] != 0) {
+                    page.add(materialize(slot));
+                }
+            }
+            return page;
+        });
+    }
+
+    /**
+     * Recorre las columnas de nivel y códigos: el filtro de tipo y habilidad se evalúa una vez
+     * por valor del diccionario, no por Pokemon
+     *
+     * @return Pokemons que cumplen el filtro, ordenados por ID
+     */
+    List<Pokemon> filter(PokemonFilter filter) {
+        Set<String> typeKeys = filter.typeKeys();
+        String abilityKey = PokemonFilter.abilityKey(filter.ability());
+        int minLevel = filter.minLevel() == null ? Integer.MIN_VALUE : filter.minLevel();
+        int maxLevel = filter.maxLevel() == null ? Integer.MAX_VALUE : filter.maxLevel();
+        return read(() -> {
+            boolean[] typeMatches = types.matches(type -> PokemonFilter.typeKeys(type).containsAll(typeKeys));
+            boolean[] abilityMatches = abilitySets.matches(abilities -> abilityKey == null || abilities.stream()
+                    .anyMatch(ability -> abilityKey.equals(PokemonFilter.abilityKey(ability))));
+            boolean nullTypeMatches = typeKeys.isEmpty();
+            boolean nullAbilitiesMatch = abilityKey == null;
+            List<Pokemon> result = new ArrayList<>();
+            for (int slot = 0; slot < slots; slot++) {
+                int level = levels[slot];
+                int typeCode = typeCodes[slot];
+                int abilityCode = abilityCodes[slot];
+                if (versions[slot] != 0 && level >= minLevel && level <= maxLevel
+                        && (typeCode == NULL_CODE ? nullTypeMatches : typeMatches[typeCode])
+                        && (abilityCode == NULL_CODE ? nullAbilitiesMatch : abilityMatches[abilityCode])) {
+                    result.add(materialize(slot));
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @return Un Pokemon al azar, o null si no hay ninguno
+     */
+    Pokemon random() {
+        return read(() -> {
+            if (live == 0) {
+                return null;
+            }
+            int start = ThreadLocalRandom.current().nextInt(slots);
+            for (int i = 0; i < slots; i++) {
+                int slot = (start + i) % slots;
+                if (versions[slot] != 0) {
+                    return materialize(slot);
+                }
+            }
+            return null;
+        });
+    }
+
+    int size() {
+        return read(() -> live);
+    }
+
+    /**
+     * @return Número de escrituras aplicadas desde la creación del almacén
+     */
+    long modCount() {
+        return read(() -> modCount);
+    }
+
+    /**
+     * Memoria reservada por las columnas, el área de nombres y los diccionarios (aproximada)
+     */
+    long footprintBytes() {
+        return read(() -> {
+            long columns = 4L * (ids.length + levels.length + typeCodes.length + abilityCodes.length + nameOffsets.length)
+                    + 8L * versions.length + names.length;
+            return columns + types.footprintBytes() + abilitySets.footprintBytes();
+        });
+    }
+
+    /**
+     * Lectura optimista: si una escritura se cruza (lo detecta validate o produce un estado
+     * incoherente que lanza una excepción) se repite con el lock de lectura
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Columnas a medio modificar: se descarta y se lee con el lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int liveSlot(int id) {
+        int slot = Arrays.binarySearch(ids, 0, slots, id);
+        return slot >= 0 && versions[slot] != 0 ? slot : -1;
+    }
+
+    private Pokemon materialize(int slot) {
+        Pokemon pokemon = new Pokemon(ids[slot], name(slot), types.decode(typeCodes[slot]), levels[slot],
+                abilitySets.decode(abilityCodes[slot]));
+        pokemon.setVersion(versions[slot]);
+        return pokemon;
+    }
+
+    /**
+     * Abre una ranura (vacía, versión 0) en la posición para el ID, desplazando las siguientes
+     */
+    private int insertSlot(int position, int id) {
+        if (slots == ids.length) {
+            grow();
+        }
+        int tail = slots - position;
+        if (tail > 0) {
+            System.arraycopy(ids, position, ids, position + 1, tail);
+            System.arraycopy(levels, position, levels, position + 1, tail);
+            System.arraycopy(typeCodes, position, typeCodes, position + 1, tail);
+            System.arraycopy(abilityCodes, position, abilityCodes, position + 1, tail);
+            System.arraycopy(versions, position, versions, position + 1, tail);
+            System.arraycopy(nameOffsets, position, nameOffsets, position + 1, tail);
+        }
+        ids[position] = id;
+        versions[position] = 0;
+        nameOffsets[position] = NULL_NAME;
+        slots++;
+        return position;
+    }
+
+    private void write(int slot, Pokemon pokemon, long version) {
+        if (versions[slot] == 0) {
+            live++;
+        }
+        levels[slot] = pokemon.getLevel();
+        typeCodes[slot] = types.encode(pokemon.getType(), UnaryOperator.identity());
+        abilityCodes[slot] = abilitySets.encode(pokemon.getAbilities(),
+                abilities -> Collections.unmodifiableList(new ArrayList<>(abilities)));
+        writeName(slot, pokemon.getName());
+        versions[slot] = version;
+        pokemon.setVersion(version);
+    }
+
+    // ===== Nombres: [longitud varint][UTF-8] en el área names =====
+
+    private String name(int slot) {
+        int offset = nameOffsets[slot];
+        if (offset == NULL_NAME) {
+            return null;
+        }
+        return new String(names, nameStart(offset), nameLength(offset), StandardCharsets.UTF_8);
+    }
+
+    private void writeName(int slot, String name) {
+        byte[] bytes = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+        int offset = nameOffsets[slot];
+        if (bytes != null && offset != NULL_NAME && sameName(offset, bytes)) {
+            // Lo habitual en un update: el nombre no cambia y no se reescribe
+            return;
+        }
+        releaseName(slot);
+        if (bytes == null) {
+            return;
+        }
+        int size = varintSize(bytes.length) + bytes.length;
+        if (namesEnd + size > names.length) {
+            reserveNames(size);
+        }
+        nameOffsets[slot] = namesEnd;
+        int position = namesEnd;
+        int length = bytes.length;
+        while (length >= 0x80) {
+            names[position++] = (byte) (length | 0x80);
+            length >>>= 7;
+        }
+        names[position++] = (byte) length;
+        System.arraycopy(bytes, 0, names, position, bytes.length);
+        namesEnd = position + bytes.length;
+    }
+
+    private boolean sameName(int offset, byte[] bytes) {
+        int start = nameStart(offset);
+        return nameLength(offset) == bytes.length && Arrays.equals(names, start, start + bytes.length, bytes, 0, bytes.length);
+    }
+
+    private void releaseName(int slot) {
+        int offset = nameOffsets[slot];
+        if (offset != NULL_NAME) {
+            deadNameBytes += nameSize(offset);
+            nameOffsets[slot] = NULL_NAME;
+        }
+    }
+
+    /**
+     * @return Bytes que ocupa el nombre en el área (prefijo + UTF-8)
+     */
+    private int nameSize(int offset) {
+        return nameStart(offset) - offset + nameLength(offset);
+    }
+
+    private int nameLength(int offset) {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = names[offset++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return length;
+    }
+
+    private int nameStart(int offset) {
+        while (names[offset] < 0) {
+            offset++;
+        }
+        return offset + 1;
+    }
+
+    /**
+     * Hace sitio para un nombre: si más de la mitad del área son nombres muertos se compacta,
+     * si no se amplía (x1.5)
+     */
+    private void reserveNames(int size) {
+        int liveBytes = namesEnd - deadNameBytes;
+        int capacity = deadNameBytes * 2 > namesEnd ? names.length : names.length + (names.length >> 1);
+        capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, ((long) liveBytes + size) * 3 / 2));
+        if ((long) liveBytes + size > capacity) {
+            throw new IllegalStateException("Área de nombres llena: " + liveBytes + " bytes en uso");
+        }
+        byte[] compacted = new byte[capacity];
+        int position = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            int offset = nameOffsets[slot];
+            if (offset != NULL_NAME) {
+                int nameSize = nameSize(offset);
+                System.arraycopy(names, offset, compacted, position, nameSize);
+                nameOffsets[slot] = position;
+                position += nameSize;
+            }
+        }
+        names = compacted;
+        namesEnd = position;
+        deadNameBytes = 0;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        typeCodes = Arrays.copyOf(typeCodes, capacity);
+        abilityCodes = Arrays.copyOf(abilityCodes, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+    }
+
+    /**
+     * Elimina las lápidas conservando el orden por ID
+     */
+    private void compactSlots() {
+        int target = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (versions[slot] != 0) {
+                ids[target] = ids[slot];
+                levels[target] = levels[slot];
+                typeCodes[target] = typeCodes[slot];
+                abilityCodes[target] = abilityCodes[slot];
+                versions[target] = versions[slot];
+                nameOffsets[target] = nameOffsets[slot];
+                target++;
+            }
+        }
+        slots = target;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while (value >= 0x80) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Diccionario valor -> código estable (índice en values); null se codifica como NULL_CODE
+     */
+    private static final class Dictionary<T> {
+
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        /**
+         * @param canonical Copia que se guarda la primera vez que aparece el valor
+         */
+        int encode(T value, UnaryOperator<T> canonical) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                T stored = canonical.apply(value);
+                code = values.size();
+                values.add(stored);
+                codes.put(stored, code);
+            }
+            return code;
+        }
+
+        T decode(int code) {
+            return code == NULL_CODE ? null : values.get(code);
+        }
+
+        /**
+         * @return Para cada código, si su valor cumple el predicado
+         */
+        boolean[] matches(Predicate<T> predicate) {
+            boolean[] matches = new boolean[values.size()];
+            for (int code = 0; code < matches.length; code++) {
+                matches[code] = predicate.test(values.get(code));
+            }
+            return matches;
+        }
+
+        /**
+         * Aproximación: ~100 bytes por valor distinto (entrada del mapa, String o lista)
+         */
+        long footprintBytes() {
+            return 100L * values.size();
+        }
+    }
+}
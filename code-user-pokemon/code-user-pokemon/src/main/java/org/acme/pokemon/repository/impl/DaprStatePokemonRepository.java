@@ -0,0 +1,540 @@
+package org.acme.pokemon.repository.impl;
+
+import io.dapr.client.DaprClient;
+import io.dapr.client.DaprClientBuilder;
+import io.dapr.client.domain.State;
+import io.dapr.client.domain.StateOptions;
+import io.dapr.client.domain.TransactionalStateOperation;
+import io.dapr.exceptions.DaprException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.metrics.Measured;
+import org.acme.pokemon.repository.PokemonRepository;
+import org.acme.pokemon.repository.VersionConflictException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * PokemonRepository persistente sobre la API de estado de DAPR (pokemon-repository.type=dapr-state).
+ *
+ * Cada Pokemon se guarda en la clave "pokemon-{id}"; la clave "pokemon-ids" guarda los IDs
+ * ordenados, porque la API de estado no permite listar claves. Las altas y bajas escriben el
+ * Pokemon y el índice en una sola transacción condicionada al ETag del índice, así dos réplicas
+ * no pueden perder el alta de la otra ni asignar el mismo ID; update condiciona la escritura al
+ * ETag leído. Un conflicto de ETag se reintenta con el estado nuevo hasta MAX_ATTEMPTS veces.
+ * Cada Pokemon lleva su versión (campo version del valor guardado): el update condicional la
+ * compara con la leída antes de escribir con el ETag, así que tampoco entre réplicas se cuela
+ * una escritura entre la comprobación y la escritura.
+ *
+ * Las lecturas de varios Pokemons (findAllById, páginas, recorrido completo) usan bulk get. No
+ * hay índices secundarios compartidos: findByFilter recorre el catálogo por páginas.
+ *
+ * Con pokemon-repository.write-behind.enabled, update y deleteById se acumulan en un
+ * WriteBehindBuffer y se vuelcan por lotes en una sola transacción (varias escrituras del mismo
+ * ID se funden); las lecturas de esta réplica ven lo pendiente. Las altas siguen siendo
+ * inmediatas porque el ID se asigna en el store. En ese modo la versión se compara con lo que
+ * ve esta réplica (lo pendiente o el store), no con escrituras aún no volcadas de otras.
+ */
+@ApplicationScoped
+@Measured("repository")
+@IfBuildProperty(name = "pokemon-repository.type", stringValue = "dapr-state")
+public class DaprStatePokemonRepository implements PokemonRepository {
+
+    private static final Logger LOG = Logger.getLogger(DaprStatePokemonRepository.class);
+    static final String INDEX_KEY = "pokemon-ids";
+    private static final String KEY_PREFIX = "pokemon-";
+    private static final int MAX_ATTEMPTS = 5;
+    // Versión esperada de un update incondicional
+    private static final long ANY_VERSION = -1;
+    // Pokemons pedidos por bulk get al recorrer el catálogo
+    private static final int BULK_PAGE_SIZE = 256;
+    private static final StateOptions FIRST_WRITE =
+            new StateOptions(StateOptions.Consistency.STRONG, StateOptions.Concurrency.FIRST_WRITE);
+
+    @ConfigProperty(name = "pokemon-repository.state-store", defaultValue = "pokemon-statestore")
+    String storeName;
+
+    @ConfigProperty(name = "pokemon-repository.write-behind.enabled", defaultValue = "false")
+    boolean writeBehindEnabled;
+
+    @ConfigProperty(name = "pokemon-repository.write-behind.batch-size", defaultValue = "100")
+    int writeBehindBatchSize;
+
+    @ConfigProperty(name = "pokemon-repository.write-behind.max-delay", defaultValue = "20ms")
+    Duration writeBehindMaxDelay;
+
+    @ConfigProperty(name = "pokemon-repository.write-behind.capacity", defaultValue = "5000")
+    int writeBehindCapacity;
+
+    @Inject
+    MeterRegistry registry;
+
+    private DaprClient daprClient;
+    // null sin write-behind
+    private WriteBehindBuffer<Pokemon> writeBehind;
+    // Serializa la comprobación de existencia y el encolado de update/deleteById
+    private final ReentrantLock writeBehindLock = new ReentrantLock();
+
+    public DaprStatePokemonRepository() {
+    }
+
+    /**
+     * Permite usar un DaprClient ya construido (tests y benchmarks contra un sidecar simulado)
+     * @param daprClient Cliente DAPR con acceso al state store
+     * @param storeName Nombre del componente de estado
+     */
+    DaprStatePokemonRepository(DaprClient daprClient, String storeName) {
+        this.daprClient = daprClient;
+        this.storeName = storeName;
+        seedIfEmpty();
+    }
+
+    @PostConstruct
+    void init() {
+        LOG.info("🔧 PokemonRepository sobre el state store DAPR '" + storeName + "'");
+        // Puerto gRPC del sidecar: DAPR_GRPC_PORT, que exporta "dapr run"
+        this.daprClient = new DaprClientBuilder().build();
+        seedIfEmpty();
+        if (writeBehindEnabled) {
+            enableWriteBehind(writeBehindBatchSize, writeBehindMaxDelay, writeBehindCapacity);
+        }
+    }
+
+    /**
+     * update y deleteById se encolan y se vuelcan por lotes: vuelven sin esperar al store y
+     * lo no volcado se pierde si el proceso cae
+     */
+    void enableWriteBehind(int batchSize, Duration maxDelay, int capacity) {
+        writeBehind = new WriteBehindBuffer<>("pokemons", this::flushBatch, batchSize, maxDelay, capacity, registry);
+        LOG.info("✅ Write-behind de Pokemons: lote=" + batchSize + ", espera máxima=" + maxDelay + ", capacidad=" + capacity);
+    }
+
+    WriteBehindBuffer<Pokemon> writeBehind() {
+        return writeBehind;
+    }
+
+    @PreDestroy
+    void shutdown() throws Exception {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+        if (daprClient != null) {
+            daprClient.close();
+        }
+    }
+
+    /**
+     * Siembra los Pokemons de ejemplo si el state store aún no tiene índice (si dos réplicas
+     * arrancan a la vez, ambas escriben los mismos datos)
+     */
+    private void seedIfEmpty() {
+        State<int[]> index = readIndex();
+        if (index.getValue() != null) {
+            LOG.info("State store '" + storeName + "' con " + index.getValue().length + " Pokemons");
+            return;
+        }
+        List<Pokemon> samples = PokemonRepositoryImpl.samplePokemons();
+        List<TransactionalStateOperation<?>> operations = new ArrayList<>();
+        for (Pokemon pokemon : samples) {
+            pokemon.setVersion(1);
+            operations.add(upsert(key(pokemon.getId()), pokemon, null));
+        }
+        int[] ids = samples.stream().mapToInt(Pokemon::getId).sorted().toArray();
+        operations.add(upsert(INDEX_KEY, ids, null));
+        daprClient.executeStateTransaction(storeName, operations).block();
+        LOG.info("State store '" + storeName + "' inicializado con " + ids.length + " Pokemons de ejemplo");
+    }
+
+    @Override
+    public Pokemon getRandomPokemon() {
+        LOG.debug("=== REPOSITORY: getRandomPokemon() ===");
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int[] ids = indexIds();
+            if (ids.length == 0) {
+                return null;
+            }
+            // El Pokemon elegido puede borrarse entre la lectura del índice y la suya
+            Optional<Pokemon> pokemon = findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+            if (pokemon.isPresent()) {
+                LOG.debugf("Pokemon aleatorio seleccionado: %s", pokemon.get().getName());
+                return pokemon.get();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Optional<Pokemon> findById(int id) {
+        LOG.debugf("=== REPOSITORY: findById(id=%s) ===", id);
+        WriteBehindBuffer.Mutation<Pokemon> pending = pendingMutation(id);
+        Optional<Pokemon> pokemon = pending != null
+                ? Optional.ofNullable(pending.value())
+                : Optional.ofNullable(daprClient.getState(storeName, key(id), Pokemon.class).block().getValue());
+        if (pokemon.isEmpty()) {
+            LOG.warn("Pokemon con ID " + id + " no encontrado");
+        }
+        return pokemon;
+    }
+
+    @Override
+    public List<Pokemon> findAll() {
+        LOG.debug("=== REPOSITORY: findAll() ===");
+        List<Pokemon> pokemonList = streamAll().toList();
+        LOG.debugf("Lista de Pokemons obtenida: %s Pokemons", pokemonList.size());
+        return pokemonList;
+    }
+
+    @Override
+    public Stream<Pokemon> streamAll() {
+        LOG.debug("=== REPOSITORY: streamAll() ===");
+        // Instantánea del índice; los Pokemons se piden por bulk get página a página
+        int[] ids = indexIds();
+        Iterator<Pokemon> iterator = new Iterator<>() {
+            private List<Pokemon> page = List.of();
+            private int position;
+            private int nextIndex;
+
+            @Override
+            public boolean hasNext() {
+                while (position >= page.size() && nextIndex < ids.length) {
+                    int end = Math.min(ids.length, nextIndex + BULK_PAGE_SIZE);
+                    page = bulkGet(IntStream.range(nextIndex, end).map(i -> ids[i]).boxed().toList());
+                    position = 0;
+                    nextIndex = end;
+                }
+                return position < page.size();
+            }
+
+            @Override
+            public Pokemon next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(position++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public List<Pokemon> findPage(int afterId, int limit) {
+        LOG.debugf("=== REPOSITORY: findPage(afterId=%s, limit=%s) ===", afterId, limit);
+        int[] ids = indexIds();
+        int from = Arrays.binarySearch(ids, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        List<Integer> pageIds = new ArrayList<>(Math.min(limit, Math.max(0, ids.length - from)));
+        for (int i = from; i < ids.length && pageIds.size() < limit; i++) {
+            // Los borrados pendientes siguen en el índice hasta el volcado
+            WriteBehindBuffer.Mutation<Pokemon> pending = pendingMutation(ids[i]);
+            if (pending == null || !pending.isDelete()) {
+                pageIds.add(ids[i]);
+            }
+        }
+        List<Pokemon> page = bulkGet(pageIds);
+        LOG.debugf("Página obtenida: %s Pokemons", page.size());
+        return page;
+    }
+
+    @Override
+    public List<Pokemon> findAllById(Collection<Integer> ids) {
+        LOG.debugf("=== REPOSITORY: findAllById(ids=%s) ===", ids);
+        List<Pokemon> result = bulkGet(new ArrayList<>(new LinkedHashSet<>(ids)));
+        LOG.debugf("Pokemons encontrados: %s de %s solicitados", result.size(), ids.size());
+        return result;
+    }
+
+    @Override
+    public List<Pokemon> findByFilter(PokemonFilter filter) {
+        LOG.debugf("=== REPOSITORY: findByFilter(filter=%s) ===", filter);
+        if (filter.isEmpty()) {
+            return findAll();
+        }
+        // Sin índices secundarios en el state store: recorrido completo por páginas
+        return streamAll().filter(filter::matches).toList();
+    }
+
+    @Override
+    public OptionalLong collectionVersion() {
+        // Otras réplicas escriben en el mismo store y los updates no tocan el índice: no hay una
+        // versión de colección fiable, así que los listados se sirven siempre completos
+        return OptionalLong.empty();
+    }
+
+    @Override
+    public Pokemon save(Pokemon pokemon) {
+        LOG.debugf("=== REPOSITORY: save(pokemon=%s) ===", pokemon.getName());
+        boolean generateId = pokemon.getId() == 0;
+        if (!generateId && pendingMutation(pokemon.getId()) != null) {
+            // El alta directa no debe quedar pisada por un volcado posterior del mismo ID
+            writeBehind.flush();
+        }
+        return retryOnConflict("save", () -> {
+            State<int[]> index = readIndex();
+            int[] ids = index.getValue() == null ? new int[0] : index.getValue();
+            if (generateId) {
+                // El siguiente al mayor ID: la condición sobre el ETag del índice evita duplicados entre réplicas
+                pokemon.setId(ids.length == 0 ? 1 : ids[ids.length - 1] + 1);
+            }
+            int position = Arrays.binarySearch(ids, pokemon.getId());
+            if (position >= 0) {
+                // Ya indexado: basta con sobrescribir el Pokemon, como una versión más de lo guardado
+                State<Pokemon> current = daprClient.getState(storeName, key(pokemon.getId()), Pokemon.class).block();
+                pokemon.setVersion(current.getValue() == null ? 1 : current.getValue().getVersion() + 1);
+                daprClient.saveState(storeName, key(pokemon.getId()), current.getEtag(), pokemon, FIRST_WRITE).block();
+            } else {
+                pokemon.setVersion(1);
+                int[] updated = new int[ids.length + 1];
+                int insertAt = -position - 1;
+                System.arraycopy(ids, 0, updated, 0, insertAt);
+                updated[insertAt] = pokemon.getId();
+                System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+                daprClient.executeStateTransaction(storeName, List.of(
+                        upsert(key(pokemon.getId()), pokemon, null),
+                        upsert(INDEX_KEY, updated, index.getEtag()))).block();
+            }
+            LOG.debugf("Pokemon guardado: %s (ID: %s)", pokemon.getName(), pokemon.getId());
+            return pokemon;
+        });
+    }
+
+    @Override
+    public Pokemon update(Pokemon pokemon) {
+        return update(pokemon, ANY_VERSION);
+    }
+
+    @Override
+    public Pokemon update(Pokemon pokemon, long expectedVersion) {
+        LOG.debugf("=== REPOSITORY: update(pokemon=%s, ID=%s, expectedVersion=%s) ===", pokemon.getName(), pokemon.getId(),
+                expectedVersion);
+        if (writeBehind != null) {
+            return enqueue(pokemon.getId(), pokemon, expectedVersion) ? pokemon : null;
+        }
+        Pokemon updated = retryOnConflict("update", () -> {
+            State<Pokemon> current = daprClient.getState(storeName, key(pokemon.getId()), Pokemon.class).block();
+            if (current.getValue() == null) {
+                return null;
+            }
+            checkVersion(pokemon.getId(), expectedVersion, current.getValue().getVersion());
+            pokemon.setVersion(current.getValue().getVersion() + 1);
+            // Solo se escribe si nadie lo ha modificado (ni borrado) desde la lectura
+            daprClient.saveState(storeName, key(pokemon.getId()), current.getEtag(), pokemon, FIRST_WRITE).block();
+            return pokemon;
+        });
+        if (updated == null) {
+            LOG.warn("Pokemon con ID " + pokemon.getId() + " no encontrado para actualizar");
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        LOG.debugf("=== REPOSITORY: deleteById(id=%s) ===", id);
+        if (writeBehind != null) {
+            return enqueue(id, null, ANY_VERSION);
+        }
+        boolean removed = retryOnConflict("deleteById", () -> {
+            State<int[]> index = readIndex();
+            int[] ids = index.getValue() == null ? new int[0] : index.getValue();
+            int position = Arrays.binarySearch(ids, id);
+            if (position < 0) {
+                return false;
+            }
+            int[] updated = new int[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, position);
+            System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+            daprClient.executeStateTransaction(storeName, List.of(
+                    new TransactionalStateOperation<>(TransactionalStateOperation.OperationType.DELETE,
+                            new State<>(key(id))),
+                    upsert(INDEX_KEY, updated, index.getEtag()))).block();
+            return true;
+        });
+        if (!removed) {
+            LOG.warn("Pokemon con ID " + id + " no encontrado para eliminar");
+        }
+        return removed;
+    }
+
+    /**
+     * Encola un update (value) o un borrado (null) si el Pokemon existe y sigue en la versión esperada
+     *
+     * @return false si no existe (ni pendiente ni en el store)
+     */
+    private boolean enqueue(int id, Pokemon value, long expectedVersion) {
+        writeBehindLock.lock();
+        try {
+            WriteBehindBuffer.Mutation<Pokemon> pending = writeBehind.lookup(id);
+            Pokemon current = pending != null
+                    ? pending.value()
+                    : daprClient.getState(storeName, key(id), Pokemon.class).block().getValue();
+            if (current == null) {
+                LOG.warn("Pokemon con ID " + id + " no encontrado");
+                return false;
+            }
+            checkVersion(id, expectedVersion, current.getVersion());
+            if (value == null) {
+                writeBehind.delete(id);
+            } else {
+                value.setVersion(current.getVersion() + 1);
+                writeBehind.put(id, value);
+            }
+            return true;
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    /**
+     * Vuelca un lote en una transacción: Pokemons actualizados, borrados y el índice (con su
+     * ETag, para no pisar altas o bajas de otra réplica). Lo que otra réplica ya borró se descarta.
+     */
+    private void flushBatch(List<WriteBehindBuffer.Mutation<Pokemon>> batch) {
+        retryOnConflict("write-behind", () -> {
+            State<int[]> index = readIndex();
+            int[] ids = index.getValue() == null ? new int[0] : index.getValue();
+            List<TransactionalStateOperation<?>> operations = new ArrayList<>(batch.size() + 1);
+            BitSet removed = new BitSet(ids.length);
+            for (WriteBehindBuffer.Mutation<Pokemon> mutation : batch) {
+                int position = Arrays.binarySearch(ids, mutation.id());
+                if (position < 0) {
+                    continue;
+                }
+                if (mutation.isDelete()) {
+                    removed.set(position);
+                    operations.add(new TransactionalStateOperation<>(TransactionalStateOperation.OperationType.DELETE,
+                            new State<>(key(mutation.id()))));
+                } else {
+                    operations.add(upsert(key(mutation.id()), mutation.value(), null));
+                }
+            }
+            if (operations.isEmpty()) {
+                return null;
+            }
+            int[] remaining = IntStream.range(0, ids.length).filter(i -> !removed.get(i)).map(i -> ids[i]).toArray();
+            operations.add(upsert(INDEX_KEY, remaining, index.getEtag()));
+            daprClient.executeStateTransaction(storeName, operations).block();
+            return null;
+        });
+    }
+
+    private static void checkVersion(int id, long expectedVersion, long currentVersion) {
+        if (expectedVersion != ANY_VERSION && currentVersion != expectedVersion) {
+            throw new VersionConflictException(id, expectedVersion, currentVersion);
+        }
+    }
+
+    private WriteBehindBuffer.Mutation<Pokemon> pendingMutation(int id) {
+        return writeBehind == null ? null : writeBehind.lookup(id);
+    }
+
+    private State<int[]> readIndex() {
+        return daprClient.getState(storeName, INDEX_KEY, int[].class).block();
+    }
+
+    private int[] indexIds() {
+        int[] ids = readIndex().getValue();
+        return ids == null ? new int[0] : ids;
+    }
+
+    /**
+     * Un solo round trip para varios IDs; conserva el orden pedido y omite los inexistentes
+     */
+    private List<Pokemon> bulkGet(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Lo pendiente del write-behind tiene prioridad sobre el store
+        Map<Integer, WriteBehindBuffer.Mutation<Pokemon>> pending = new HashMap<>();
+        List<String> keys = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            WriteBehindBuffer.Mutation<Pokemon> mutation = pendingMutation(id);
+            if (mutation != null) {
+                pending.put(id, mutation);
+            } else {
+                keys.add(key(id));
+            }
+        }
+        Map<String, Pokemon> byKey = new HashMap<>(keys.size() * 2);
+        if (!keys.isEmpty()) {
+            for (State<Pokemon> state : daprClient.getBulkState(storeName, keys, Pokemon.class).block()) {
+                if (state.getValue() != null) {
+                    byKey.put(state.getKey(), state.getValue());
+                }
+            }
+        }
+        List<Pokemon> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            WriteBehindBuffer.Mutation<Pokemon> mutation = pending.get(id);
+            Pokemon pokemon = mutation != null ? mutation.value() : byKey.get(key(id));
+            if (pokemon != null) {
+                result.add(pokemon);
+            }
+        }
+        return result;
+    }
+
+    private <T> T retryOnConflict(String operation, Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (DaprException e) {
+                if (!isEtagMismatch(e)) {
+                    throw e;
+                }
+                if (i == MAX_ATTEMPTS) {
+                    throw new IllegalStateException("Conflicto de concurrencia en " + operation
+                            + " tras " + MAX_ATTEMPTS + " intentos", e);
+                }
+                LOG.debugf("Conflicto de ETag en %s, reintento %s", operation, i);
+            }
+        }
+    }
+
+    /**
+     * ETag que no coincide: ABORTED por gRPC; por HTTP el mensaje del sidecar lo indica
+     */
+    static boolean isEtagMismatch(DaprException e) {
+        return "ABORTED".equals(e.getErrorCode())
+                || (e.getMessage() != null && e.getMessage().toLowerCase(Locale.ROOT).contains("etag mismatch"));
+    }
+
+    private static <T> TransactionalStateOperation<T> upsert(String key, T value, String etag) {
+        State<T> state = etag == null || etag.isEmpty()
+                ? new State<>(key, value, null)
+                : new State<>(key, value, etag, FIRST_WRITE);
+        return new TransactionalStateOperation<>(TransactionalStateOperation.OperationType.UPSERT, state);
+    }
+
+    static String key(int id) {
+        return KEY_PREFIX + id;
+    }
+}
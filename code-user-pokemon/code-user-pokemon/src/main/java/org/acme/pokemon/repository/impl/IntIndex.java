@@ -0,0 +1,296 @@
+package org.acme.pokemon.repository.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice hash concurrente con clave int primitiva (sin boxing a Integer).
+ *
+ * Direccionamiento abierto con sondeo lineal sobre entradas inmutables: las lecturas
+ * no toman ningún lock y ven siempre un par clave/valor consistente. Las escrituras que
+ * cambian la estructura (altas, bajas) se serializan con el write lock y solo copian la
+ * tabla al crecer (coste amortizado); la sustitución condicional de una clave existente es
+ * un compare-and-swap sobre su ranura bajo el read lock, así que las de claves distintas
+ * no se esperan entre sí.
+ * Los borrados dejan una marca para no romper las cadenas de sondeo; se limpian al
+ * redimensionar. El factor de carga (vivas + borradas) se mantiene por debajo de 1/2,
+ * así toda búsqueda termina en una ranura vacía.
+ * Las claves vivas se mantienen además ordenadas en una skip list para paginar por clave
+ * sin recorrer la tabla; solo las altas y bajas la tocan, las lecturas y CAS no.
+ */
+final class IntIndex<V> {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final Entry<?> DELETED = new Entry<>(0, null);
+
+    // Read lock: compare-and-swap de ranuras existentes; write lock: cambios de estructura y redimensionado
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile AtomicReferenceArray<Entry<V>> table;
+    private volatile int size;
+    // Claves vivas en orden, para valuesAfter; se actualiza con el write lock tras cambiar la tabla
+    private final ConcurrentSkipListSet<Integer> keys = new ConcurrentSkipListSet<>();
+    // Ranuras ocupadas (vivas + borradas), solo se accede con el write lock
+    private int used;
+
+    IntIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    IntIndex(int expectedSize) {
+        this.table = new AtomicReferenceArray<>(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return Valor asociado a la clave, o null si no existe
+     */
+    V get(int key) {
+        AtomicReferenceArray<Entry<V>> current = table;
+        int mask = current.length() - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            Entry<V> entry = current.get(slot);
+            if (entry == null) {
+                return null;
+            }
+            if (entry != DELETED && entry.key == key) {
+                return entry.value;
+            }
+        }
+    }
+
+    boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Inserta o reemplaza el valor de la clave
+     * @return Valor anterior, o null si no existía
+     */
+    V put(int key, V value) {
+        lock.writeLock().lock();
+        try {
+            return write(key, value, true, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserta el valor solo si la clave no existe
+     * @return Valor existente (sin modificar), o null si se insertó
+     */
+    V putIfAbsent(int key, V value) {
+        lock.writeLock().lock();
+        try {
+            return write(key, value, true, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza el valor solo si la clave ya existe
+     * @return Valor anterior, o null si la clave no existía (no se inserta nada)
+     */
+    V replace(int key, V value) {
+        lock.writeLock().lock();
+        try {
+            return write(key, value, false, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compare-and-swap del valor de una clave existente: solo se sustituye si sigue siendo
+     * 'expected' (la misma instancia leída con get)
+     * @return true si se sustituyó; false si la clave no existe o su valor ya cambió
+     */
+    boolean replace(int key, V expected, V value) {
+        lock.readLock().lock();
+        try {
+            // Con el read lock la tabla no se redimensiona ni cambia de estructura: solo compiten otros CAS
+            AtomicReferenceArray<Entry<V>> current = table;
+            int mask = current.length() - 1;
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                Entry<V> entry = current.get(slot);
+                if (entry == null) {
+                    return false;
+                }
+                if (entry != DELETED && entry.key == key) {
+                    return entry.value == expected && current.compareAndSet(slot, entry, new Entry<>(key, value));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Valor eliminado, o null si la clave no existía
+     */
+    V remove(int key) {
+        lock.writeLock().lock();
+        try {
+            AtomicReferenceArray<Entry<V>> current = table;
+            int mask = current.length() - 1;
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                Entry<V> entry = current.get(slot);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry != DELETED && entry.key == key) {
+                    current.set(slot, deleted());
+                    size--;
+                    keys.remove(key);
+                    return entry.value;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Recorre los valores de la tabla vigente (orden hash, débilmente consistente)
+     */
+    void forEach(Consumer<? super V> action) {
+        AtomicReferenceArray<Entry<V>> current = table;
+        for (int slot = 0; slot < current.length(); slot++) {
+            Entry<V> entry = current.get(slot);
+            if (entry != null && entry != DELETED) {
+                action.accept(entry.value);
+            }
+        }
+    }
+
+    /**
+     * Valor de una ranura ocupada elegida al azar (null si el índice está vacío).
+     * Las entradas que siguen a huecos largos tienen algo más de probabilidad.
+     */
+    V randomValue() {
+        AtomicReferenceArray<Entry<V>> current = table;
+        int length = current.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            Entry<V> entry = current.get((start + i) & (length - 1));
+            if (entry != null && entry != DELETED) {
+                return entry.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Devuelve hasta 'limit' valores con clave mayor que 'afterKey', ordenados por clave.
+     *
+     * Parte de la skip list de claves: O(log n + limit) con claves densas o dispersas, sin
+     * recorrer la tabla. Débilmente consistente: una clave borrada mientras se recorre se omite.
+     */
+    List<V> valuesAfter(int afterKey, int limit) {
+        List<V> page = new ArrayList<>(Math.min(limit, size));
+        for (Integer key : keys.tailSet(afterKey, false)) {
+            if (page.size() == limit) {
+                break;
+            }
+            V value = get(key);
+            if (value != null) {
+                page.add(value);
+            }
+        }
+        return page;
+    }
+
+    private V write(int key, V value, boolean insertIfAbsent, boolean replaceIfPresent) {
+        AtomicReferenceArray<Entry<V>> current = table;
+        int mask = current.length() - 1;
+        int firstDeleted = -1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            Entry<V> entry = current.get(slot);
+            if (entry == null) {
+                if (!insertIfAbsent) {
+                    return null;
+                }
+                if (firstDeleted >= 0) {
+                    current.set(firstDeleted, new Entry<>(key, value));
+                } else {
+                    current.set(slot, new Entry<>(key, value));
+                    used++;
+                }
+                size++;
+                keys.add(key);
+                if (used * 2 > current.length()) {
+                    resize();
+                }
+                return null;
+            }
+            if (entry == DELETED) {
+                if (firstDeleted < 0) {
+                    firstDeleted = slot;
+                }
+            } else if (entry.key == key) {
+                if (replaceIfPresent) {
+                    current.set(slot, new Entry<>(key, value));
+                }
+                return entry.value;
+            }
+        }
+    }
+
+    /**
+     * Reconstruye la tabla sin marcas de borrado (creciendo si hace falta) y la publica.
+     * Los lectores que aún usan la tabla anterior siguen viendo un estado consistente.
+     */
+    private void resize() {
+        AtomicReferenceArray<Entry<V>> current = table;
+        AtomicReferenceArray<Entry<V>> resized = new AtomicReferenceArray<>(capacityFor(size));
+        int mask = resized.length() - 1;
+        for (int i = 0; i < current.length(); i++) {
+            Entry<V> entry = current.get(i);
+            if (entry != null && entry != DELETED) {
+                int slot = hash(entry.key) & mask;
+                while (resized.get(slot) != null) {
+                    slot = (slot + 1) & mask;
+                }
+                resized.set(slot, entry);
+            }
+        }
+        used = size;
+        table = resized;
+    }
+
+    /**
+     * Capacidad potencia de 2 con factor de carga <= 1/4 tras redimensionar
+     */
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < entries * 4L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Mezcla los bits para que claves consecutivas no formen racimos en el sondeo lineal
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V> deleted() {
+        return (Entry<V>) DELETED;
+    }
+
+    private record Entry<V>(int key, V value) {
+    }
+}
@@ -1,133 +1,336 @@
 package org.acme.pokemon.repository.impl;
 
 import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
 import org.acme.pokemon.repository.PokemonRepository;
+import org.acme.pokemon.repository.VersionConflictException;
+import org.acme.pokemon.metrics.Measured;
 import org.jboss.logging.Logger;
+import io.quarkus.arc.properties.IfBuildProperty;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Random;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @ApplicationScoped
+@Measured("repository")
+// Implementación por defecto; pokemon-repository.type=dapr-state o columnar la sustituyen por
+// DaprStatePokemonRepository o ColumnarPokemonRepository
+@IfBuildProperty(name = "pokemon-repository.type", stringValue = "memory", enableIfMissing = true)
 public class PokemonRepositoryImpl implements PokemonRepository {
     
     private static final Logger LOG = Logger.getLogger(PokemonRepositoryImpl.class);
+    // Pokemons leídos por página al recorrer el repositorio completo
+    private static final int STREAM_PAGE_SIZE = 256;
+    // Versión esperada de un update incondicional
+    private static final long ANY_VERSION = -1;
+    // Locks de escritura por ID (potencia de 2): las escrituras sobre IDs distintos no se esperan
+    private static final int WRITE_STRIPES = 64;
     
     // Datos mock - en una implementación real esto vendría de una base de datos
-    private final CopyOnWriteArrayList<Pokemon> pokemons = new CopyOnWriteArrayList<>();
+    // Índice por ID: lecturas O(1) sin lock, escrituras sin copiar la colección
+    private final IntIndex<Pokemon> pokemons = new IntIndex<>();
+    // Último ID asignado; se adelanta también con los IDs explícitos para no repetirlos
+    private final AtomicInteger idSequence = new AtomicInteger();
+    // Índices por tipo, nivel y habilidad, mantenidos en cada escritura
+    private final PokemonSecondaryIndexes secondaryIndexes = new PokemonSecondaryIndexes();
+    // Ordenan las escrituras de un mismo ID, para que el índice primario y los secundarios no diverjan
+    private final ReentrantLock[] writeLocks = new ReentrantLock[WRITE_STRIPES];
+    // Versión de la colección: se incrementa después de aplicar cada escritura
+    private final AtomicLong collectionVersion = new AtomicLong();
     
     public PokemonRepositoryImpl() {
+        for (int i = 0; i < WRITE_STRIPES; i++) {
+            writeLocks[i] = new ReentrantLock();
+        }
         // Inicializar con Pokemons de ejemplo
-        pokemons.add(new Pokemon(1, "Bulbasaur", "Grass/Poison", 5, List.of("Overgrow", "Chlorophyll")));
-        pokemons.add(new Pokemon(4, "Charmander", "Fire", 5, List.of("Blaze", "Solar Power")));
-        pokemons.add(new Pokemon(7, "Squirtle", "Water", 5, List.of("Torrent", "Rain Dish")));
-        pokemons.add(new Pokemon(25, "Pikachu", "Electric", 5, List.of("Static", "Lightning Rod")));
-        pokemons.add(new Pokemon(133, "Eevee", "Normal", 5, List.of("Run Away", "Adaptability")));
-        pokemons.add(new Pokemon(6, "Charizard", "Fire/Flying", 36, List.of("Blaze", "Solar Power")));
-        pokemons.add(new Pokemon(9, "Blastoise", "Water", 36, List.of("Torrent", "Rain Dish")));
-        pokemons.add(new Pokemon(3, "Venusaur", "Grass/Poison", 32, List.of("Overgrow", "Chlorophyll")));
+        samplePokemons().forEach(this::save);
         
         LOG.info("PokemonRepositoryImpl inicializado con " + pokemons.size() + " Pokemons de ejemplo");
     }
 
+    /**
+     * Pokemons de ejemplo con los que arranca un repositorio vacío (instancias nuevas en cada llamada)
+     */
+    static List<Pokemon> samplePokemons() {
+        return List.of(
+            new Pokemon(1, "Bulbasaur", "Grass/Poison", 5, List.of("Overgrow", "Chlorophyll")),
+            new Pokemon(4, "Charmander", "Fire", 5, List.of("Blaze", "Solar Power")),
+            new Pokemon(7, "Squirtle", "Water", 5, List.of("Torrent", "Rain Dish")),
+            new Pokemon(25, "Pikachu", "Electric", 5, List.of("Static", "Lightning Rod")),
+            new Pokemon(133, "Eevee", "Normal", 5, List.of("Run Away", "Adaptability")),
+            new Pokemon(6, "Charizard", "Fire/Flying", 36, List.of("Blaze", "Solar Power")),
+            new Pokemon(9, "Blastoise", "Water", 36, List.of("Torrent", "Rain Dish")),
+            new Pokemon(3, "Venusaur", "Grass/Poison", 32, List.of("Overgrow", "Chlorophyll")));
+    }
+
     @Override
     public Pokemon getRandomPokemon() {
-        LOG.info("=== REPOSITORY: getRandomPokemon() ===");
-        LOG.debug("Creando array de Pokemons disponibles");
+        LOG.debug("=== REPOSITORY: getRandomPokemon() ===");
         
-        Random random = new Random();
-        int selectedIndex = random.nextInt(pokemons.size());
-        Pokemon selectedPokemon = pokemons.get(selectedIndex);
+        Pokemon selectedPokemon = pokemons.randomValue();
         
-        LOG.info("Pokemon aleatorio seleccionado: " + selectedPokemon.getName() + " (índice: " + selectedIndex + ")");
-        LOG.info("=== FIN REPOSITORY: getRandomPokemon() ===");
+        LOG.debugf("Pokemon aleatorio seleccionado: %s", selectedPokemon.getName());
+        LOG.debug("=== FIN REPOSITORY: getRandomPokemon() ===");
         
         return selectedPokemon;
     }
 
     @Override
     public Optional<Pokemon> findById(int id) {
-        LOG.info("=== REPOSITORY: findById(id=" + id + ") ===");
+        LOG.debugf("=== REPOSITORY: findById(id=%s) ===", id);
         
-        Optional<Pokemon> pokemon = pokemons.stream()
-                .filter(p -> p.getId() == id)
-                .findFirst();
+        Optional<Pokemon> pokemon = Optional.ofNullable(pokemons.get(id));
         
         if (pokemon.isPresent()) {
-            LOG.info("Pokemon encontrado: " + pokemon.get().getName());
+            LOG.debugf("Pokemon encontrado: %s", pokemon.get().getName());
         } else {
             LOG.warn("Pokemon con ID " + id + " no encontrado");
         }
         
-        LOG.info("=== FIN REPOSITORY: findById(id=" + id + ") ===");
+        LOG.debugf("=== FIN REPOSITORY: findById(id=%s) ===", id);
         return pokemon;
     }
 
     @Override
     public List<Pokemon> findAll() {
-        LOG.info("=== REPOSITORY: findAll() ===");
-        List<Pokemon> pokemonList = List.copyOf(pokemons);
+        LOG.debug("=== REPOSITORY: findAll() ===");
+        List<Pokemon> pokemonList = streamAll().toList();
         
-        LOG.info("Lista de Pokemons obtenida: " + pokemonList.size() + " Pokemons");
-        LOG.info("Pokemons en la lista: " + pokemonList.stream().map(Pokemon::getName).toList());
-        LOG.info("=== FIN REPOSITORY: findAll() ===");
+        LOG.debugf("Lista de Pokemons obtenida: %s Pokemons", pokemonList.size());
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Pokemons en la lista: %s", pokemonList.stream().map(Pokemon::getName).toList());
+        }
+        LOG.debug("=== FIN REPOSITORY: findAll() ===");
         
         return pokemonList;
     }
 
+    @Override
+    public Stream<Pokemon> streamAll() {
+        LOG.debug("=== REPOSITORY: streamAll() ===");
+        // Recorrido por páginas en orden de ID: en memoria solo la página en curso
+        Iterator<Pokemon> iterator = new Iterator<>() {
+            private List<Pokemon> page = List.of();
+            private int position;
+            private int lastId = Integer.MIN_VALUE;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (position < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = pokemons.valuesAfter(lastId, STREAM_PAGE_SIZE);
+                position = 0;
+                exhausted = page.size() < STREAM_PAGE_SIZE;
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getId();
+                }
+                return !page.isEmpty();
+            }
+
+            @Override
+            public Pokemon next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(position++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public List<Pokemon> findPage(int afterId, int limit) {
+        LOG.debugf("=== REPOSITORY: findPage(afterId=%s, limit=%s) ===", afterId, limit);
+        
+        List<Pokemon> page = pokemons.valuesAfter(afterId, limit);
+        
+        LOG.debugf("Página obtenida: %s Pokemons", page.size());
+        LOG.debug("=== FIN REPOSITORY: findPage() ===");
+        return page;
+    }
+
+    @Override
+    public List<Pokemon> findAllById(Collection<Integer> ids) {
+        LOG.debugf("=== REPOSITORY: findAllById(ids=%s) ===", ids);
+        
+        // Una búsqueda O(1) por ID solicitado, en el orden pedido y sin duplicados
+        LinkedHashSet<Integer> requestedIds = new LinkedHashSet<>(ids);
+        List<Pokemon> result = new ArrayList<>(requestedIds.size());
+        for (Integer id : requestedIds) {
+            Pokemon pokemon = pokemons.get(id);
+            if (pokemon != null) {
+                result.add(pokemon);
+            }
+        }
+        
+        LOG.debugf("Pokemons encontrados: %s de %s solicitados", result.size(), requestedIds.size());
+        LOG.debug("=== FIN REPOSITORY: findAllById() ===");
+        return result;
+    }
+
+    @Override
+    public List<Pokemon> findByFilter(PokemonFilter filter) {
+        LOG.debugf("=== REPOSITORY: findByFilter(filter=%s) ===", filter);
+        
+        if (filter.isEmpty()) {
+            LOG.debug("Filtro sin criterios: se devuelve el catálogo completo");
+            return findAll();
+        }
+        
+        // Solo se resuelven los candidatos del índice secundario más selectivo
+        int[] candidateIds = secondaryIndexes.candidateIds(filter);
+        List<Pokemon> result = new ArrayList<>(candidateIds.length);
+        for (int id : candidateIds) {
+            Pokemon pokemon = pokemons.get(id);
+            if (pokemon != null && filter.matches(pokemon)) {
+                result.add(pokemon);
+            }
+        }
+        
+        LOG.debugf("Pokemons encontrados: %s (candidatos evaluados: %s)", result.size(), candidateIds.length);
+        LOG.debug("=== FIN REPOSITORY: findByFilter() ===");
+        return result;
+    }
+
+    @Override
+    public OptionalLong collectionVersion() {
+        return OptionalLong.of(collectionVersion.get());
+    }
+
     @Override
     public Pokemon save(Pokemon pokemon) {
-        LOG.info("=== REPOSITORY: save(pokemon=" + pokemon.getName() + ") ===");
-        
-        // Generar ID si no tiene uno
-        if (pokemon.getId() == 0) {
-            int newId = pokemons.stream()
-                    .mapToInt(Pokemon::getId)
-                    .max()
-                    .orElse(0) + 1;
-            pokemon.setId(newId);
-            LOG.info("ID generado para nuevo Pokemon: " + newId);
+        LOG.debugf("=== REPOSITORY: save(pokemon=%s) ===", pokemon.getName());
+        
+        // Generar ID si no tiene uno (secuencia atómica: sin IDs duplicados bajo concurrencia)
+        int id = pokemon.getId();
+        if (id == 0) {
+            id = idSequence.incrementAndGet();
+            LOG.debugf("ID generado para nuevo Pokemon: %s", id);
+        } else {
+            idSequence.accumulateAndGet(id, Math::max);
         }
         
-        pokemons.add(pokemon);
-        LOG.info("Pokemon guardado: " + pokemon.getName() + " (ID: " + pokemon.getId() + ")");
-        LOG.info("=== FIN REPOSITORY: save() ===");
+        Pokemon stored;
+        ReentrantLock lock = writeLock(id);
+        lock.lock();
+        try {
+            // Guardar sobre un ID existente cuenta como una versión más
+            Pokemon current = pokemons.get(id);
+            stored = copyOf(pokemon, id, current == null ? 1 : current.getVersion() + 1);
+            pokemons.put(id, stored);
+            secondaryIndexes.index(stored);
+        } finally {
+            lock.unlock();
+        }
+        collectionVersion.incrementAndGet();
+        LOG.debugf("Pokemon guardado: %s (ID: %s)", stored.getName(), id);
+        LOG.debug("=== FIN REPOSITORY: save() ===");
         
-        return pokemon;
+        return stored;
     }
 
     @Override
     public Pokemon update(Pokemon pokemon) {
-        LOG.info("=== REPOSITORY: update(pokemon=" + pokemon.getName() + ", ID=" + pokemon.getId() + ") ===");
-        
-        for (int i = 0; i < pokemons.size(); i++) {
-            if (pokemons.get(i).getId() == pokemon.getId()) {
-                pokemons.set(i, pokemon);
-                LOG.info("Pokemon actualizado: " + pokemon.getName());
-                LOG.info("=== FIN REPOSITORY: update() ===");
-                return pokemon;
+        return update(pokemon, ANY_VERSION);
+    }
+
+    @Override
+    public Pokemon update(Pokemon pokemon, long expectedVersion) {
+        LOG.debugf("=== REPOSITORY: update(pokemon=%s, ID=%s, expectedVersion=%s) ===", pokemon.getName(), pokemon.getId(),
+                expectedVersion);
+        
+        int id = pokemon.getId();
+        Pokemon stored = null;
+        ReentrantLock lock = writeLock(id);
+        lock.lock();
+        try {
+            // Compare-and-set sobre la ranura del ID: solo se sustituye la versión comprobada. El lock del
+            // ID ordena además la actualización de los índices secundarios entre escrituras del mismo ID
+            for (Pokemon current = pokemons.get(id); current != null; current = pokemons.get(id)) {
+                if (expectedVersion != ANY_VERSION && current.getVersion() != expectedVersion) {
+                    throw new VersionConflictException(id, expectedVersion, current.getVersion());
+                }
+                Pokemon candidate = copyOf(pokemon, id, current.getVersion() + 1);
+                if (pokemons.replace(id, current, candidate)) {
+                    secondaryIndexes.index(candidate);
+                    stored = candidate;
+                    break;
+                }
             }
+        } finally {
+            lock.unlock();
+        }
+        
+        if (stored != null) {
+            collectionVersion.incrementAndGet();
+            LOG.debugf("Pokemon actualizado: %s (versión %s)", stored.getName(), stored.getVersion());
+            LOG.debug("=== FIN REPOSITORY: update() ===");
+            return stored;
         }
         
-        LOG.warn("Pokemon con ID " + pokemon.getId() + " no encontrado para actualizar");
-        LOG.info("=== FIN REPOSITORY: update() ===");
+        LOG.warn("Pokemon con ID " + id + " no encontrado para actualizar");
+        LOG.debug("=== FIN REPOSITORY: update() ===");
         return null;
     }
 
     @Override
     public boolean deleteById(int id) {
-        LOG.info("=== REPOSITORY: deleteById(id=" + id + ") ===");
+        LOG.debugf("=== REPOSITORY: deleteById(id=%s) ===", id);
         
-        boolean removed = pokemons.removeIf(pokemon -> pokemon.getId() == id);
+        boolean removed;
+        ReentrantLock lock = writeLock(id);
+        lock.lock();
+        try {
+            removed = pokemons.remove(id) != null;
+            if (removed) {
+                secondaryIndexes.remove(id);
+            }
+        } finally {
+            lock.unlock();
+        }
         
         if (removed) {
-            LOG.info("Pokemon con ID " + id + " eliminado correctamente");
+            collectionVersion.incrementAndGet();
+            LOG.debugf("Pokemon con ID %s eliminado correctamente", id);
         } else {
             LOG.warn("Pokemon con ID " + id + " no encontrado para eliminar");
         }
         
-        LOG.info("=== FIN REPOSITORY: deleteById() ===");
+        LOG.debug("=== FIN REPOSITORY: deleteById() ===");
         return removed;
     }
-} 
\ No newline at end of file
+
+    private ReentrantLock writeLock(int id) {
+        return writeLocks[id & (WRITE_STRIPES - 1)];
+    }
+
+    /**
+     * Copia que guarda el repositorio: la instancia del llamante no se modifica ni se comparte
+     */
+    private static Pokemon copyOf(Pokemon pokemon, int id, long version) {
+        Pokemon copy = new Pokemon(id, pokemon.getName(), pokemon.getType(), pokemon.getLevel(),
+                pokemon.getAbilities() == null ? null : Collections.unmodifiableList(new ArrayList<>(pokemon.getAbilities())));
+        copy.setVersion(version);
+        return copy;
+    }
+}
@@ -0,0 +1,157 @@
+package org.acme.pokemon.repository.impl;
+
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Índices secundarios del catálogo: tipo (multivalor, "Grass/Poison" se indexa en
+ * grass y poison), nivel (ordenado, para rangos) e índice invertido de habilidades.
+ *
+ * Solo guardan IDs; el repositorio resuelve los Pokemons en el índice primario y vuelve
+ * a comprobar el filtro, así una lectura concurrente con una escritura nunca devuelve
+ * un Pokemon que ya no cumple los criterios.
+ */
+final class PokemonSecondaryIndexes {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, TreeSet<Integer>> byType = new HashMap<>();
+    private final Map<String, TreeSet<Integer>> byAbility = new HashMap<>();
+    private final TreeMap<Integer, TreeSet<Integer>> byLevel = new TreeMap<>();
+    // Claves con las que se indexó cada ID: el objeto Pokemon puede cambiar después de guardarse
+    private final Map<Integer, IndexedKeys> indexed = new HashMap<>();
+
+    /**
+     * Indexa el Pokemon, sustituyendo las claves de una versión anterior con el mismo ID
+     */
+    void index(Pokemon pokemon) {
+        IndexedKeys keys = new IndexedKeys(
+                PokemonFilter.typeKeys(pokemon.getType()),
+                pokemon.getLevel(),
+                pokemon.getAbilities() == null ? Set.of() : pokemon.getAbilities().stream()
+                        .map(PokemonFilter::abilityKey)
+                        .filter(key -> key != null)
+                        .collect(Collectors.toSet()));
+        lock.writeLock().lock();
+        try {
+            unindex(pokemon.getId());
+            int id = pokemon.getId();
+            keys.types().forEach(type -> byType.computeIfAbsent(type, k -> new TreeSet<>()).add(id));
+            keys.abilities().forEach(ability -> byAbility.computeIfAbsent(ability, k -> new TreeSet<>()).add(id));
+            byLevel.computeIfAbsent(keys.level(), k -> new TreeSet<>()).add(id);
+            indexed.put(id, keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs candidatos para el filtro, ordenados de menor a mayor.
+     *
+     * Con criterios de tipo o habilidad se parte del conjunto más pequeño de entre ellos;
+     * si solo hay rango de niveles se recorre el tramo del índice ordenado. En ambos casos
+     * el coste depende del número de candidatos, no del tamaño del catálogo.
+     *
+     * @return Candidatos (superconjunto del resultado), o null si el filtro no tiene criterios
+     */
+    int[] candidateIds(PokemonFilter filter) {
+        Set<String> typeKeys = filter.typeKeys();
+        String abilityKey = PokemonFilter.abilityKey(filter.ability());
+        boolean byRange = filter.minLevel() != null || filter.maxLevel() != null;
+        if (typeKeys.isEmpty() && abilityKey == null && !byRange) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            TreeSet<Integer> smallest = null;
+            for (String type : typeKeys) {
+                smallest = smaller(smallest, byType.get(type));
+                if (smallest.isEmpty()) {
+                    return NO_IDS;
+                }
+            }
+            if (abilityKey != null) {
+                smallest = smaller(smallest, byAbility.get(abilityKey));
+                if (smallest.isEmpty()) {
+                    return NO_IDS;
+                }
+            }
+            if (smallest != null) {
+                return toArray(smallest);
+            }
+
+            int min = filter.minLevel() != null ? filter.minLevel() : Integer.MIN_VALUE;
+            int max = filter.maxLevel() != null ? filter.maxLevel() : Integer.MAX_VALUE;
+            if (min > max) {
+                return NO_IDS;
+            }
+            int[] ids = toArray(byLevel.subMap(min, true, max, true).values().stream()
+                    .flatMap(Collection::stream)
+                    .toList());
+            Arrays.sort(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void unindex(int id) {
+        IndexedKeys previous = indexed.remove(id);
+        if (previous == null) {
+            return;
+        }
+        previous.types().forEach(type -> removeId(byType, type, id));
+        previous.abilities().forEach(ability -> removeId(byAbility, ability, id));
+        removeId(byLevel, previous.level(), id);
+    }
+
+    private static <K> void removeId(Map<K, TreeSet<Integer>> index, K key, int id) {
+        TreeSet<Integer> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static TreeSet<Integer> smaller(TreeSet<Integer> current, TreeSet<Integer> candidate) {
+        if (candidate == null) {
+            return new TreeSet<>();
+        }
+        return current == null || candidate.size() < current.size() ? candidate : current;
+    }
+
+    private static int[] toArray(Collection<Integer> ids) {
+        int[] result = new int[ids.size()];
+        int i = 0;
+        for (Integer id : ids) {
+            result[i++] = id;
+        }
+        return result;
+    }
+
+    private record IndexedKeys(Set<String> types, int level, Set<String> abilities) {
+    }
+}
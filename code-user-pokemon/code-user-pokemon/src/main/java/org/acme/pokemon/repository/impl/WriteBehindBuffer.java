@@ -0,0 +1,348 @@
+package org.acme.pokemon.repository.impl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Etapa write-behind delante de un almacenamiento durable.
+ *
+ * Las mutaciones (valor nuevo o borrado por ID) se acumulan en memoria y un hilo las vuelca por
+ * lotes cuando hay batchSize pendientes o la más antigua supera maxDelay. Varias mutaciones del
+ * mismo ID pendientes se funden en la última. La cola está acotada: con capacity IDs pendientes
+ * el escritor espera a que el volcado libere sitio (backpressure). {@link #lookup(int)} devuelve
+ * la última mutación aún no volcada para que las lecturas la vean.
+ *
+ * Si el volcado falla, el lote vuelve a la cola (sin pisar mutaciones más nuevas) y se reintenta.
+ *
+ * Métricas (tag buffer=name): repository.write.behind.flush (latencia del volcado),
+ * repository.write.behind.batch.size, repository.write.behind.queue.depth y
+ * repository.write.behind.coalesced.
+ *
+ * @param <V> Tipo del valor almacenado
+ */
+final class WriteBehindBuffer<V> implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(WriteBehindBuffer.class);
+    private static final long RETRY_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * @param id ID afectado
+     * @param value Valor nuevo, o null si es un borrado
+     */
+    record Mutation<V>(int id, V value) {
+        boolean isDelete() {
+            return value == null;
+        }
+    }
+
+    /**
+     * Escribe un lote en el almacenamiento durable (un solo ID por mutación, en orden de llegada)
+     */
+    @FunctionalInterface
+    interface Sink<V> {
+        void flush(List<Mutation<V>> batch) throws Exception;
+    }
+
+    /**
+     * @param enqueued Mutaciones recibidas
+     * @param coalesced Mutaciones fundidas con otra pendiente del mismo ID
+     * @param flushes Volcados correctos
+     * @param flushed Mutaciones volcadas
+     * @param failures Volcados fallidos (reintentados)
+     * @param queueDepth IDs pendientes (en cola + en vuelo)
+     */
+    record Stats(long enqueued, long coalesced, long flushes, long flushed, long failures, int queueDepth) {
+    }
+
+    private final String name;
+    private final Sink<V> sink;
+    private final int batchSize;
+    private final int capacity;
+    private final long maxDelayNanos;
+    // null sin registro de métricas (tests y benchmarks)
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition work = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushedCondition = lock.newCondition();
+    private final Thread flusher;
+
+    // Estado protegido por lock
+    private LinkedHashMap<Integer, Mutation<V>> pending = new LinkedHashMap<>();
+    private Map<Integer, Mutation<V>> inFlight = Map.of();
+    private long oldestPendingNanos;
+    // Número de orden de la última mutación recibida y de la última volcada
+    private long enqueuedSequence;
+    private long flushedSequence;
+    private long flushRequestedSequence;
+    private boolean closed;
+    private long coalesced;
+    private long flushes;
+    private long flushedMutations;
+    private long failures;
+
+    /**
+     * @param name Nombre para el hilo y los logs
+     * @param sink Destino de los lotes
+     * @param batchSize IDs pendientes que disparan un volcado
+     * @param maxDelay Espera máxima de una mutación antes de volcarse
+     * @param capacity IDs pendientes a partir de los cuales los escritores esperan
+     * @param registry Registro de métricas, o null
+     */
+    WriteBehindBuffer(String name, Sink<V> sink, int batchSize, Duration maxDelay, int capacity, MeterRegistry registry) {
+        if (batchSize < 1 || capacity < batchSize) {
+            throw new IllegalArgumentException("Se requiere 1 <= batchSize <= capacity");
+        }
+        this.name = name;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.maxDelayNanos = maxDelay.toNanos();
+        if (registry != null) {
+            this.flushTimer = Timer.builder("repository.write.behind.flush")
+                    .description("Latencia de cada volcado write-behind")
+                    .tag("buffer", name)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+            this.batchSizes = DistributionSummary.builder("repository.write.behind.batch.size")
+                    .description("Mutaciones por volcado write-behind")
+                    .tag("buffer", name)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+            Gauge.builder("repository.write.behind.queue.depth", this, b -> b.stats().queueDepth())
+                    .tag("buffer", name).register(registry);
+            FunctionCounter.builder("repository.write.behind.coalesced", this, b -> b.stats().coalesced())
+                    .tag("buffer", name).register(registry);
+        } else {
+            this.flushTimer = null;
+            this.batchSizes = null;
+        }
+        this.flusher = Thread.ofPlatform().name(name + "-write-behind").daemon().start(this::flushLoop);
+    }
+
+    void put(int id, V value) {
+        offer(new Mutation<>(id, value));
+    }
+
+    void delete(int id) {
+        offer(new Mutation<>(id, null));
+    }
+
+    private void offer(Mutation<V> mutation) {
+        lock.lock();
+        try {
+            while (!pending.containsKey(mutation.id()) && pending.size() >= capacity && !closed) {
+                // Cola llena: se adelanta el volcado y se espera a que libere sitio
+                work.signal();
+                notFull.awaitUninterruptibly();
+            }
+            if (closed) {
+                throw new IllegalStateException("Write-behind " + name + " cerrado");
+            }
+            boolean first = pending.isEmpty();
+            if (first) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            if (pending.put(mutation.id(), mutation) != null) {
+                coalesced++;
+            }
+            enqueuedSequence++;
+            // La primera mutación arranca el plazo de maxDelay en el hilo de volcado
+            if (first || pending.size() >= batchSize) {
+                work.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Última mutación del ID aún no volcada, o null si no hay ninguna
+     */
+    Mutation<V> lookup(int id) {
+        lock.lock();
+        try {
+            Mutation<V> mutation = pending.get(id);
+            return mutation != null ? mutation : inFlight.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true si el ID tiene mutaciones sin volcar
+     */
+    boolean isPending(int id) {
+        return lookup(id) != null;
+    }
+
+    /**
+     * Vuelca ya lo pendiente y espera a que esté en el almacenamiento durable
+     */
+    void flush() {
+        lock.lock();
+        try {
+            long target = enqueuedSequence;
+            flushRequestedSequence = Math.max(flushRequestedSequence, target);
+            work.signal();
+            while (flushedSequence < target) {
+                if (!flusher.isAlive()) {
+                    throw new IllegalStateException("Write-behind " + name + " detenido con mutaciones pendientes");
+                }
+                flushedCondition.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(enqueuedSequence, coalesced, flushes, flushedMutations, failures,
+                    pending.size() + inFlight.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Vuelca lo pendiente y detiene el hilo
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            work.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            LOG.error("❌ Write-behind " + name + " cerrado con " + stats().queueDepth() + " mutaciones sin volcar");
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<Mutation<V>> batch;
+            long batchSequence;
+            lock.lock();
+            try {
+                while (!isDue()) {
+                    if (closed && pending.isEmpty()) {
+                        return;
+                    }
+                    if (pending.isEmpty()) {
+                        work.awaitUninterruptibly();
+                    } else {
+                        long remaining = oldestPendingNanos + maxDelayNanos - System.nanoTime();
+                        try {
+                            work.awaitNanos(remaining);
+                        } catch (InterruptedException e) {
+                            // Se vuelve a comprobar si toca volcar
+                        }
+                    }
+                }
+                inFlight = pending;
+                batch = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+                batchSequence = enqueuedSequence;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            long start = System.nanoTime();
+            try {
+                sink.flush(batch);
+            } catch (Exception e) {
+                LOG.error("❌ Error volcando " + batch.size() + " mutaciones de " + name + ": " + e.getMessage());
+                requeue(batch);
+                sleepBeforeRetry();
+                continue;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            lock.lock();
+            try {
+                inFlight = Map.of();
+                flushedSequence = batchSequence;
+                flushes++;
+                flushedMutations += batch.size();
+                flushedCondition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (flushTimer != null) {
+                flushTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                batchSizes.record(batch.size());
+            }
+            LOG.debugf("Write-behind %s: %s mutaciones volcadas en %s µs", name, batch.size(),
+                    TimeUnit.NANOSECONDS.toMicros(elapsed));
+        }
+    }
+
+    /**
+     * Toca volcar por tamaño, por antigüedad, por petición explícita o por cierre; requiere el lock
+     */
+    private boolean isDue() {
+        if (pending.isEmpty()) {
+            return false;
+        }
+        return pending.size() >= batchSize
+                || System.nanoTime() - oldestPendingNanos >= maxDelayNanos
+                || flushRequestedSequence > flushedSequence
+                || closed;
+    }
+
+    private void requeue(List<Mutation<V>> batch) {
+        lock.lock();
+        try {
+            failures++;
+            LinkedHashMap<Integer, Mutation<V>> merged = new LinkedHashMap<>();
+            for (Mutation<V> mutation : batch) {
+                merged.put(mutation.id(), mutation);
+            }
+            // Las mutaciones llegadas durante el volcado son más nuevas: sustituyen a las del lote
+            merged.putAll(pending);
+            pending = merged;
+            inFlight = Map.of();
+            oldestPendingNanos = System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void sleepBeforeRetry() {
+        try {
+            TimeUnit.NANOSECONDS.sleep(RETRY_BACKOFF_NANOS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package org.acme.pokemon.service;
 
+import org.acme.pokemon.domain.Page;
 import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 public interface PokemonService {
     
@@ -25,6 +29,40 @@ public interface PokemonService {
      */
     List<Pokemon> getAllPokemons();
     
+    /**
+     * Versión del catálogo (crece con cada escritura); se lee antes que los datos que etiqueta
+     * @return Versión actual, o vacío si el repositorio no la mantiene
+     */
+    OptionalLong getCatalogVersion();
+    
+    /**
+     * Recorre todos los Pokemons sin materializar la lista completa
+     * @return Stream de Pokemons (debe consumirse una sola vez)
+     */
+    Stream<Pokemon> streamAllPokemons();
+    
+    /**
+     * Obtiene una página de Pokemons ordenada por ID
+     * @param cursor Cursor devuelto por la página anterior (null o vacío para la primera)
+     * @param limit Tamaño de página (entre 1 y el máximo permitido)
+     * @return Página con los Pokemons y el cursor de la siguiente
+     */
+    Page<Pokemon> getPokemonPage(String cursor, int limit);
+    
+    /**
+     * Obtiene varios Pokemons por sus IDs en una sola operación
+     * @param ids IDs de los Pokemons
+     * @return Pokemons encontrados, en el orden de los IDs solicitados (los inexistentes se omiten)
+     */
+    List<Pokemon> getPokemonsByIds(List<Integer> ids);
+    
+    /**
+     * Busca Pokemons por tipo, rango de nivel y/o habilidad
+     * @param filter Criterios de búsqueda (los nulos no filtran)
+     * @return Pokemons que cumplen todos los criterios, ordenados por ID
+     */
+    List<Pokemon> findPokemons(PokemonFilter filter);
+    
     /**
      * Crea un nuevo Pokemon
      * @param pokemon Pokemon a crear
@@ -39,6 +77,15 @@ public interface PokemonService {
      */
     Pokemon updatePokemon(Pokemon pokemon);
     
+    /**
+     * Actualiza un Pokemon existente solo si sigue en la versión esperada (If-Match)
+     * @param pokemon Pokemon a actualizar
+     * @param expectedVersion Versión que el cliente leyó
+     * @return Pokemon actualizado, o null si no existe
+     * @throws org.acme.pokemon.repository.VersionConflictException si el Pokemon ya está en otra versión
+     */
+    Pokemon updatePokemon(Pokemon pokemon, long expectedVersion);
+    
     /**
      * Elimina un Pokemon por su ID
      * @param id ID del Pokemon a eliminar
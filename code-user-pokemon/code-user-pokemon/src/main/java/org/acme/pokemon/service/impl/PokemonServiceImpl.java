@@ -1,80 +1,184 @@
 package org.acme.pokemon.service.impl;
 
+import org.acme.pokemon.domain.Page;
 import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
 import org.acme.pokemon.repository.PokemonRepository;
 import org.acme.pokemon.service.PokemonService;
+import org.acme.pokemon.metrics.Measured;
 import org.jboss.logging.Logger;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 @ApplicationScoped
+@Measured("service")
 public class PokemonServiceImpl implements PokemonService {
     
     private static final Logger LOG = Logger.getLogger(PokemonServiceImpl.class);
     
+    // Máximo de IDs aceptados en una consulta batch
+    static final int MAX_BATCH_SIZE = 100;
+    
+    // Máximo de Pokemons por página
+    static final int MAX_PAGE_SIZE = 500;
+    
     @Inject
     PokemonRepository pokemonRepository;
     
     @Override
     public Pokemon getRandomPokemon() {
-        LOG.info("=== SERVICE: getRandomPokemon() ===");
-        LOG.info("Iniciando proceso para obtener Pokemon aleatorio");
+        LOG.debug("=== SERVICE: getRandomPokemon() ===");
+        LOG.debug("Iniciando proceso para obtener Pokemon aleatorio");
         
-        long startTime = System.currentTimeMillis();
         Pokemon pokemon = pokemonRepository.getRandomPokemon();
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Pokemon aleatorio obtenido: " + pokemon.getName());
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: getRandomPokemon() ===");
+        LOG.debugf("Pokemon aleatorio obtenido: %s", pokemon.getName());
+        LOG.debug("=== FIN SERVICE: getRandomPokemon() ===");
         
         return pokemon;
     }
 
     @Override
     public Optional<Pokemon> getPokemonById(int id) {
-        LOG.info("=== SERVICE: getPokemonById(id=" + id + ") ===");
-        LOG.info("Iniciando proceso para obtener Pokemon con ID: " + id);
+        LOG.debugf("=== SERVICE: getPokemonById(id=%s) ===", id);
+        LOG.debugf("Iniciando proceso para obtener Pokemon con ID: %s", id);
         
-        long startTime = System.currentTimeMillis();
         Optional<Pokemon> pokemon = pokemonRepository.findById(id);
-        long endTime = System.currentTimeMillis();
         
         if (pokemon.isPresent()) {
-            LOG.info("Pokemon encontrado: " + pokemon.get().getName() + " (ID: " + id + ")");
+            LOG.debugf("Pokemon encontrado: %s (ID: %s)", pokemon.get().getName(), id);
         } else {
             LOG.warn("Pokemon no encontrado con ID: " + id);
         }
         
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: getPokemonById(id=" + id + ") ===");
+        LOG.debugf("=== FIN SERVICE: getPokemonById(id=%s) ===", id);
         
         return pokemon;
     }
 
     @Override
     public List<Pokemon> getAllPokemons() {
-        LOG.info("=== SERVICE: getAllPokemons() ===");
-        LOG.info("Iniciando proceso para obtener lista de todos los Pokemons");
+        LOG.debug("=== SERVICE: getAllPokemons() ===");
+        LOG.debug("Iniciando proceso para obtener lista de todos los Pokemons");
         
-        long startTime = System.currentTimeMillis();
         List<Pokemon> pokemons = pokemonRepository.findAll();
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Lista de Pokemons obtenida: " + pokemons.size() + " Pokemons");
-        LOG.info("Pokemons en la lista: " + pokemons.stream().map(Pokemon::getName).toList());
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: getAllPokemons() ===");
+        LOG.debugf("Lista de Pokemons obtenida: %s Pokemons", pokemons.size());
+        if (LOG.isDebugEnabled()) {
+            LOG.debugf("Pokemons en la lista: %s", pokemons.stream().map(Pokemon::getName).toList());
+        }
+        LOG.debug("=== FIN SERVICE: getAllPokemons() ===");
+        
+        return pokemons;
+    }
+
+    @Override
+    public OptionalLong getCatalogVersion() {
+        return pokemonRepository.collectionVersion();
+    }
+
+    @Override
+    public Stream<Pokemon> streamAllPokemons() {
+        LOG.debug("=== SERVICE: streamAllPokemons() ===");
+        return pokemonRepository.streamAll();
+    }
+
+    @Override
+    public Page<Pokemon> getPokemonPage(String cursor, int limit) {
+        LOG.debugf("=== SERVICE: getPokemonPage(cursor=%s, limit=%s) ===", cursor, limit);
+        
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            LOG.error("Error: Tamaño de página inválido: " + limit);
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        
+        int afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Integer.parseInt(cursor.trim());
+            } catch (NumberFormatException e) {
+                LOG.error("Error: Cursor inválido: " + cursor);
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+        }
+        
+        // Se pide un elemento de más para saber si existe una página siguiente
+        List<Pokemon> pokemons = pokemonRepository.findPage(afterId, limit + 1);
+        
+        String nextCursor = null;
+        if (pokemons.size() > limit) {
+            pokemons = pokemons.subList(0, limit);
+            nextCursor = String.valueOf(pokemons.get(limit - 1).getId());
+        }
+        
+        LOG.debugf("Página obtenida: %s Pokemons, siguiente cursor: %s", pokemons.size(), nextCursor);
+        LOG.debug("=== FIN SERVICE: getPokemonPage() ===");
+        
+        return new Page<>(List.copyOf(pokemons), nextCursor);
+    }
+
+    @Override
+    public List<Pokemon> getPokemonsByIds(List<Integer> ids) {
+        LOG.debugf("=== SERVICE: getPokemonsByIds(ids=%s) ===", ids);
+        LOG.debug("Iniciando proceso para obtener varios Pokemons por ID");
+        
+        // Validaciones de negocio
+        if (ids == null || ids.isEmpty()) {
+            LOG.error("Error: La lista de IDs no puede estar vacía");
+            throw new IllegalArgumentException("La lista de IDs no puede estar vacía");
+        }
+        
+        if (ids.size() > MAX_BATCH_SIZE) {
+            LOG.error("Error: Demasiados IDs en la consulta batch: " + ids.size());
+            throw new IllegalArgumentException("No se pueden consultar más de " + MAX_BATCH_SIZE + " IDs a la vez");
+        }
+        
+        for (Integer id : ids) {
+            if (id == null || id <= 0) {
+                LOG.error("Error: ID de Pokemon inválido: " + id);
+                throw new IllegalArgumentException("ID de Pokemon inválido: " + id);
+            }
+        }
+        
+        List<Pokemon> pokemons = pokemonRepository.findAllById(ids);
+        
+        LOG.debugf("Pokemons obtenidos: %s de %s solicitados", pokemons.size(), ids.size());
+        LOG.debug("=== FIN SERVICE: getPokemonsByIds() ===");
+        
+        return pokemons;
+    }
+
+    @Override
+    public List<Pokemon> findPokemons(PokemonFilter filter) {
+        LOG.debugf("=== SERVICE: findPokemons(filter=%s) ===", filter);
+        
+        // Validaciones de negocio
+        if ((filter.minLevel() != null && filter.minLevel() < 0) || (filter.maxLevel() != null && filter.maxLevel() < 0)) {
+            LOG.error("Error: Nivel negativo en el filtro");
+            throw new IllegalArgumentException("El nivel no puede ser negativo");
+        }
+        
+        if (filter.minLevel() != null && filter.maxLevel() != null && filter.minLevel() > filter.maxLevel()) {
+            LOG.error("Error: Rango de niveles inválido: " + filter.minLevel() + " > " + filter.maxLevel());
+            throw new IllegalArgumentException("El nivel mínimo no puede ser mayor que el máximo");
+        }
+        
+        List<Pokemon> pokemons = pokemonRepository.findByFilter(filter);
+        
+        LOG.debugf("Pokemons encontrados: %s", pokemons.size());
+        LOG.debug("=== FIN SERVICE: findPokemons() ===");
         
         return pokemons;
     }
 
     @Override
     public Pokemon createPokemon(Pokemon pokemon) {
-        LOG.info("=== SERVICE: createPokemon(pokemon=" + pokemon.getName() + ") ===");
-        LOG.info("Iniciando proceso para crear nuevo Pokemon");
+        LOG.debugf("=== SERVICE: createPokemon(pokemon=%s) ===", pokemon.getName());
+        LOG.debug("Iniciando proceso para crear nuevo Pokemon");
         
         // Validaciones de negocio
         if (pokemon.getName() == null || pokemon.getName().trim().isEmpty()) {
@@ -92,22 +196,44 @@ public class PokemonServiceImpl implements PokemonService {
             throw new IllegalArgumentException("El nivel del Pokemon debe ser mayor a 0");
         }
         
-        long startTime = System.currentTimeMillis();
         Pokemon createdPokemon = pokemonRepository.save(pokemon);
-        long endTime = System.currentTimeMillis();
         
-        LOG.info("Pokemon creado: " + createdPokemon.getName() + " (ID: " + createdPokemon.getId() + ")");
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: createPokemon() ===");
+        LOG.debugf("Pokemon creado: %s (ID: %s)", createdPokemon.getName(), createdPokemon.getId());
+        LOG.debug("=== FIN SERVICE: createPokemon() ===");
         
         return createdPokemon;
     }
 
     @Override
     public Pokemon updatePokemon(Pokemon pokemon) {
-        LOG.info("=== SERVICE: updatePokemon(pokemon=" + pokemon.getName() + ", ID=" + pokemon.getId() + ") ===");
-        LOG.info("Iniciando proceso para actualizar Pokemon");
+        LOG.debugf("=== SERVICE: updatePokemon(pokemon=%s, ID=%s) ===", pokemon.getName(), pokemon.getId());
+        LOG.debug("Iniciando proceso para actualizar Pokemon");
+        
+        validateForUpdate(pokemon);
+        Pokemon updatedPokemon = pokemonRepository.update(pokemon);
+        logUpdate(pokemon, updatedPokemon);
         
+        return updatedPokemon;
+    }
+
+    @Override
+    public Pokemon updatePokemon(Pokemon pokemon, long expectedVersion) {
+        LOG.debugf("=== SERVICE: updatePokemon(pokemon=%s, ID=%s, expectedVersion=%s) ===", pokemon.getName(),
+                pokemon.getId(), expectedVersion);
+        LOG.debug("Iniciando proceso para actualizar Pokemon de forma condicional");
+        
+        validateForUpdate(pokemon);
+        if (expectedVersion <= 0) {
+            LOG.error("Error: Versión esperada inválida: " + expectedVersion);
+            throw new IllegalArgumentException("La versión esperada debe ser mayor que 0");
+        }
+        Pokemon updatedPokemon = pokemonRepository.update(pokemon, expectedVersion);
+        logUpdate(pokemon, updatedPokemon);
+        
+        return updatedPokemon;
+    }
+
+    private static void validateForUpdate(Pokemon pokemon) {
         // Validaciones de negocio
         if (pokemon.getId() <= 0) {
             LOG.error("Error: ID de Pokemon inválido: " + pokemon.getId());
@@ -128,27 +254,22 @@ public class PokemonServiceImpl implements PokemonService {
             LOG.error("Error: El nivel del Pokemon debe ser mayor a 0");
             throw new IllegalArgumentException("El nivel del Pokemon debe ser mayor a 0");
         }
-        
-        long startTime = System.currentTimeMillis();
-        Pokemon updatedPokemon = pokemonRepository.update(pokemon);
-        long endTime = System.currentTimeMillis();
-        
+    }
+
+    private static void logUpdate(Pokemon pokemon, Pokemon updatedPokemon) {
         if (updatedPokemon != null) {
-            LOG.info("Pokemon actualizado: " + updatedPokemon.getName());
+            LOG.debugf("Pokemon actualizado: %s (versión %s)", updatedPokemon.getName(), updatedPokemon.getVersion());
         } else {
             LOG.warn("Pokemon con ID " + pokemon.getId() + " no encontrado para actualizar");
         }
         
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: updatePokemon() ===");
-        
-        return updatedPokemon;
+        LOG.debug("=== FIN SERVICE: updatePokemon() ===");
     }
 
     @Override
     public boolean deletePokemon(int id) {
-        LOG.info("=== SERVICE: deletePokemon(id=" + id + ") ===");
-        LOG.info("Iniciando proceso para eliminar Pokemon");
+        LOG.debugf("=== SERVICE: deletePokemon(id=%s) ===", id);
+        LOG.debug("Iniciando proceso para eliminar Pokemon");
         
         // Validaciones de negocio
         if (id <= 0) {
@@ -156,18 +277,15 @@ public class PokemonServiceImpl implements PokemonService {
             throw new IllegalArgumentException("ID de Pokemon inválido");
         }
         
-        long startTime = System.currentTimeMillis();
         boolean deleted = pokemonRepository.deleteById(id);
-        long endTime = System.currentTimeMillis();
         
         if (deleted) {
-            LOG.info("Pokemon con ID " + id + " eliminado correctamente");
+            LOG.debugf("Pokemon con ID %s eliminado correctamente", id);
         } else {
             LOG.warn("Pokemon con ID " + id + " no encontrado para eliminar");
         }
         
-        LOG.info("Tiempo de respuesta: " + (endTime - startTime) + " ms");
-        LOG.info("=== FIN SERVICE: deletePokemon() ===");
+        LOG.debug("=== FIN SERVICE: deletePokemon() ===");
         
         return deleted;
     }
@@ -0,0 +1,180 @@
+package org.acme.pokemon.controller;
+
+import io.dapr.v1.AppCallbackGrpc;
+import io.dapr.v1.CommonProtos;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.MetadataUtils;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.acme.pokemon.grpc.GetPokemonRequest;
+import org.acme.pokemon.grpc.GetPokemonsByIdsRequest;
+import org.acme.pokemon.grpc.ListPokemonsRequest;
+import org.acme.pokemon.grpc.PokemonCatalogGrpc;
+import org.acme.pokemon.grpc.PokemonList;
+import org.acme.pokemon.grpc.PokemonMessage;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class PokemonGrpcServiceTest {
+
+    @GrpcClient("catalog")
+    PokemonCatalogGrpc.PokemonCatalogBlockingStub catalog;
+
+    @GrpcClient("dapr-callback")
+    AppCallbackGrpc.AppCallbackBlockingStub daprCallback;
+
+    @Inject
+    PokemonResponseCacheHolder responseCacheHolder;
+
+    @Test
+    void getPokemonReturnsPokemonOrNotFound() {
+        PokemonMessage pikachu = catalog.getPokemon(GetPokemonRequest.newBuilder().setId(25).build());
+        assertEquals("Pikachu", pikachu.getName());
+
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class,
+                () -> catalog.getPokemon(GetPokemonRequest.newBuilder().setId(9999).build()));
+        assertEquals(Status.Code.NOT_FOUND, error.getStatus().getCode());
+    }
+
+    @Test
+    void getPokemonsByIdsKeepsRequestOrder() {
+        PokemonList pokemons = catalog.getPokemonsByIds(GetPokemonsByIdsRequest.newBuilder()
+                .addAllIds(List.of(25, 4, 9999, 1))
+                .build());
+
+        assertEquals(List.of(25, 4, 1), pokemons.getPokemonsList().stream().map(PokemonMessage::getId).toList());
+    }
+
+    @Test
+    void listPokemonsStreamsWholeCatalogInPages() {
+        List<PokemonList> pages = new ArrayList<>();
+        catalog.listPokemons(ListPokemonsRequest.newBuilder().setPageSize(2).build()).forEachRemaining(pages::add);
+
+        List<PokemonMessage> pokemons = pages.stream().flatMap(page -> page.getPokemonsList().stream()).toList();
+        assertTrue(pages.size() > 1);
+        assertTrue(pages.stream().allMatch(page -> page.getPokemonsCount() <= 2));
+        assertEquals(1, pokemons.get(0).getId());
+    }
+
+    @Test
+    void daprOnInvokeServesJsonQueries() {
+        CommonProtos.InvokeResponse response = daprCallback.onInvoke(CommonProtos.InvokeRequest.newBuilder()
+                .setMethod("pokemon/batch")
+                .setHttpExtension(CommonProtos.HTTPExtension.newBuilder()
+                        .setVerb(CommonProtos.HTTPExtension.Verb.GET)
+                        .setQuerystring("ids=7%2C133"))
+                .build());
+
+        assertEquals("application/json", response.getContentType());
+        String json = response.getData().getValue().toString(StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"Squirtle\"") && json.contains("\"Eevee\""), json);
+
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class,
+                () -> daprCallback.onInvoke(CommonProtos.InvokeRequest.newBuilder()
+                        .setMethod("pokemon/9999")
+                        .setHttpExtension(CommonProtos.HTTPExtension.newBuilder()
+                                .setVerb(CommonProtos.HTTPExtension.Verb.GET))
+                        .build()));
+        assertEquals(Status.Code.NOT_FOUND, error.getStatus().getCode());
+    }
+
+    @Test
+    void daprOnInvokeProjectsFields() {
+        assertEquals("{\"name\":\"Pikachu\"}", invoke("pokemon/25", "fields=name"));
+        assertEquals("[{\"id\":7,\"name\":\"Squirtle\"},{\"id\":25,\"name\":\"Pikachu\"}]",
+                invoke("pokemon/batch", "ids=7%2C25&fields=name%2Cid"));
+        assertEquals("{\"items\":[{\"id\":1},{\"id\":3}],\"nextCursor\":\"3\"}",
+                invoke("pokemon/page", "limit=2&fields=id"));
+
+        String list = invoke("pokemon/list", "type=fire&fields=id%2Cname");
+        assertTrue(list.startsWith("[{\"id\":4,\"name\":\"Charmander\"}"), list);
+        assertTrue(!list.contains("abilities") && !list.contains("level"), list);
+        // Sin fields= se sigue enviando el Pokemon completo
+        assertTrue(invoke("pokemon/25", "").contains("\"abilities\""));
+
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class,
+                () -> invoke("pokemon/list", "fields=id%2Cweight"));
+        assertEquals(Status.Code.INVALID_ARGUMENT, error.getStatus().getCode());
+    }
+
+    @Test
+    void daprOnInvokeRevalidatesWithIfNoneMatch() {
+        for (String method : List.of("pokemon/list", "pokemon/25")) {
+            AtomicReference<Metadata> headers = new AtomicReference<>();
+            AtomicReference<Metadata> trailers = new AtomicReference<>();
+            AppCallbackGrpc.AppCallbackBlockingStub capturing = daprCallback
+                    .withInterceptors(MetadataUtils.newCaptureMetadataInterceptor(headers, trailers));
+
+            CommonProtos.InvokeResponse full = capturing.onInvoke(request(method, ""));
+            String etag = headers.get().get(DaprConditionalInterceptor.ETAG);
+            assertNotNull(etag, method);
+            assertTrue(etag.startsWith("\"" + EntityTags.EPOCH + "-"), etag);
+            assertFalse(full.getData().getValue().isEmpty());
+
+            // Equivalente del 304: OK sin cuerpo y el mismo ETag
+            Metadata ifNoneMatch = new Metadata();
+            ifNoneMatch.put(DaprConditionalInterceptor.IF_NONE_MATCH, etag);
+            CommonProtos.InvokeResponse notModified = capturing
+                    .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(ifNoneMatch))
+                    .onInvoke(request(method, ""));
+            assertTrue(notModified.getData().getValue().isEmpty(), method);
+            assertEquals(etag, headers.get().get(DaprConditionalInterceptor.ETAG));
+
+            // Un ETag de otro arranque no coincide: cuerpo completo con el ETag actual
+            ifNoneMatch.put(DaprConditionalInterceptor.IF_NONE_MATCH, "\"otro-1\"");
+            CommonProtos.InvokeResponse stale = capturing
+                    .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(ifNoneMatch))
+                    .onInvoke(request(method, ""));
+            assertEquals(full.getData(), stale.getData());
+            assertEquals(etag, headers.get().get(DaprConditionalInterceptor.ETAG));
+        }
+    }
+
+    @Test
+    void daprOnInvokeServesTheSerializedCatalogFromTheResponseCache() {
+        PokemonResponseCache cache = responseCacheHolder.cache();
+        invoke("pokemon/list", "");
+        invoke("pokemon/25", "");
+        long hits = cache.stats().hits();
+        long misses = cache.stats().misses();
+
+        String list = invoke("pokemon/list", "");
+        String pikachu = invoke("pokemon/25", "");
+        // Mismo catálogo: ni repositorio ni Jackson, los bytes que ya sirve la API REST
+        assertEquals(hits + 2, cache.stats().hits());
+        assertEquals(misses, cache.stats().misses());
+        assertEquals(new String(cache.catalog().bytes(null), StandardCharsets.UTF_8), list);
+        assertTrue(pikachu.contains("\"Pikachu\""), pikachu);
+        // Con filtros o fields= no se usa la caché
+        invoke("pokemon/list", "type=fire");
+        invoke("pokemon/25", "fields=id");
+        assertEquals(hits + 3, cache.stats().hits());
+    }
+
+    private String invoke(String method, String querystring) {
+        return daprCallback.onInvoke(request(method, querystring)).getData().getValue().toString(StandardCharsets.UTF_8);
+    }
+
+    private static CommonProtos.InvokeRequest request(String method, String querystring) {
+        return CommonProtos.InvokeRequest.newBuilder()
+                .setMethod(method)
+                .setHttpExtension(CommonProtos.HTTPExtension.newBuilder()
+                        .setVerb(CommonProtos.HTTPExtension.Verb.GET)
+                        .setQuerystring(querystring))
+                .build();
+    }
+}
@@ -0,0 +1,405 @@
+package org.acme.pokemon.controller;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class PokemonResourceTest {
+
+    @Test
+    void batchReturnsRequestedPokemonsInRequestOrder() {
+        given()
+          .when().get("/pokemon/batch?ids=25,4,9999,1")
+          .then()
+             .statusCode(200)
+             .body("id", contains(25, 4, 1));
+    }
+
+    @Test
+    void batchAcceptsRepeatedQueryParamsAndPostBody() {
+        given()
+          .when().get("/pokemon/batch?ids=7&ids=133")
+          .then()
+             .statusCode(200)
+             .body("name", contains("Squirtle", "Eevee"));
+
+        given()
+          .contentType(ContentType.JSON)
+          .body("[6, 9]")
+          .when().post("/pokemon/batch")
+          .then()
+             .statusCode(200)
+             .body("$", hasSize(2))
+             .body("[0].name", is("Charizard"));
+    }
+
+    @Test
+    void batchRejectsInvalidIds() {
+        given()
+          .when().get("/pokemon/batch?ids=1,abc")
+          .then()
+             .statusCode(400);
+
+        given()
+          .when().get("/pokemon/batch")
+          .then()
+             .statusCode(400);
+    }
+
+    @Test
+    void pageWalksCatalogInIdOrderWithCursor() {
+        given()
+          .when().get("/pokemon/page?limit=3")
+          .then()
+             .statusCode(200)
+             .body("items.id", contains(1, 3, 4))
+             .body("nextCursor", is("4"));
+
+        given()
+          .when().get("/pokemon/page?cursor=25&limit=3")
+          .then()
+             .statusCode(200)
+             .body("items.id", contains(133))
+             .body("nextCursor", nullValue());
+    }
+
+    @Test
+    void pageRejectsInvalidCursorAndLimit() {
+        given()
+          .when().get("/pokemon/page?cursor=abc")
+          .then()
+             .statusCode(400);
+
+        given()
+          .when().get("/pokemon/page?limit=0")
+          .then()
+             .statusCode(400);
+    }
+
+    @Test
+    void streamEmitsOnePokemonPerLine() {
+        String body = given()
+          .when().get("/pokemon/stream")
+          .then()
+             .statusCode(200)
+             .contentType("application/x-ndjson")
+             .extract().asString();
+
+        List<String> lines = Arrays.asList(body.split("\n"));
+        assertTrue(lines.size() >= 8);
+        assertTrue(lines.stream().allMatch(line -> line.startsWith("{\"id\":") && line.endsWith("}")), body);
+        assertEquals('\n', body.charAt(body.length() - 1));
+    }
+
+    @Test
+    void listFiltersByTypeLevelRangeAndAbility() {
+        given()
+          .when().get("/pokemon/list?type=fire")
+          .then()
+             .statusCode(200)
+             .body("id", contains(4, 6));
+
+        given()
+          .when().get("/pokemon/list?minLevel=30&maxLevel=35")
+          .then()
+             .statusCode(200)
+             .body("name", contains("Venusaur"));
+
+        given()
+          .when().get("/pokemon/list?type=Water&ability=Torrent&minLevel=30")
+          .then()
+             .statusCode(200)
+             .body("name", contains("Blastoise"));
+
+        given()
+          .when().get("/pokemon/list?minLevel=40&maxLevel=10")
+          .then()
+             .statusCode(400);
+
+        given()
+          .when().get("/pokemon/list?minLevel=abc")
+          .then()
+             .statusCode(400);
+    }
+
+    @Test
+    void fieldsProjectListAndGetToTheRequestedProperties() {
+        String list = given()
+          .when().get("/pokemon/list?type=Water&fields=name, id")
+          .then()
+             .statusCode(200)
+             .contentType(ContentType.JSON)
+             .extract().asString();
+        // Orden de serialización fijo (id, name) y sin el resto de propiedades
+        assertEquals("[{\"id\":7,\"name\":\"Squirtle\"},{\"id\":9,\"name\":\"Blastoise\"}]", list);
+
+        given()
+          .when().get("/pokemon/list?fields=id")
+          .then()
+             .statusCode(200)
+             .body("id", hasSize(greaterThanOrEqualTo(8)))
+             .body("name", everyItem(nullValue()));
+
+        given()
+          .when().get("/pokemon/25?fields=name,abilities")
+          .then()
+             .statusCode(200)
+             .header("ETag", matchesPattern("\"[0-9a-z]+-1\""))
+             .body("name", is("Pikachu"))
+             .body("abilities", contains("Static", "Lightning Rod"))
+             .body("type", nullValue());
+
+        given()
+          .when().get("/pokemon/list?fields=id,weight")
+          .then()
+             .statusCode(400)
+             .body(containsString("weight"));
+    }
+
+    @Test
+    void putWithIfMatchIsACompareAndSetOnTheVersion() {
+        String etag = given()
+          .when().get("/pokemon/133")
+          .then()
+             .statusCode(200)
+             .extract().header("ETag");
+        String epoch = etag.substring(1, etag.lastIndexOf('-'));
+        long version = Long.parseLong(etag.substring(etag.lastIndexOf('-') + 1, etag.length() - 1));
+        String eevee = "{\"name\":\"Eevee\",\"type\":\"Normal\",\"level\":5,\"abilities\":[\"Run Away\",\"Adaptability\"]}";
+
+        String updated = given()
+          .contentType(ContentType.JSON)
+          .header("If-Match", etag)
+          .body(eevee)
+          .when().put("/pokemon/133")
+          .then()
+             .statusCode(200)
+             .body("version", is((int) version + 1))
+             .extract().header("ETag");
+        assertEquals("\"" + epoch + "-" + (version + 1) + "\"", updated);
+
+        // Otro cliente con la versión anterior: 412 con el ETag actual, sin pisar el cambio
+        given()
+          .contentType(ContentType.JSON)
+          .header("If-Match", etag)
+          .body(eevee.replace("Eevee", "Stale"))
+          .when().put("/pokemon/133")
+          .then()
+             .statusCode(412)
+             .header("ETag", updated);
+        // ETag con la versión actual pero de otro arranque: los datos de esa versión pueden ser otros
+        given()
+          .contentType(ContentType.JSON)
+          .header("If-Match", "\"otro" + epoch + "-" + (version + 1) + "\"")
+          .body(eevee.replace("Eevee", "Stale"))
+          .when().put("/pokemon/133")
+          .then()
+             .statusCode(412)
+             .header("ETag", updated);
+
+        given()
+          .when().get("/pokemon/133")
+          .then()
+             .statusCode(200)
+             .header("ETag", updated)
+             .body("name", is("Eevee"));
+
+        given()
+          .contentType(ContentType.JSON)
+          .header("If-Match", "\"abc\"")
+          .body(eevee)
+          .when().put("/pokemon/133")
+          .then()
+             .statusCode(400)
+             .body(containsString("If-Match"));
+    }
+
+    @Test
+    void ifNoneMatchAnswersNotModifiedUntilTheCatalogChanges() {
+        String etag = given()
+          .when().get("/pokemon/list")
+          .then()
+             .statusCode(200)
+             .extract().header("ETag");
+        // RestAssured acepta gzip: el ETag puede ser el de la variante comprimida
+        assertTrue(etag.matches("\"[0-9a-z]+-\\d+(-gzip|-br)?\""), etag);
+
+        given()
+          .header("If-None-Match", etag)
+          .when().get("/pokemon/list")
+          .then()
+             .statusCode(304)
+             .header("ETag", etag)
+             .body(is(""));
+        // Lista de ETags y otras representaciones de la misma versión del catálogo
+        given()
+          .header("If-None-Match", "\"otro\", " + etag)
+          .when().get("/pokemon/list?type=Water&fields=id")
+          .then()
+             .statusCode(304);
+
+        given()
+          .contentType(ContentType.JSON)
+          .body("{\"name\":\"Abra\",\"type\":\"Psychic\",\"level\":10,\"abilities\":[\"Synchronize\"]}")
+          .when().post("/pokemon")
+          .then()
+             .statusCode(201);
+
+        String changed = given()
+          .header("If-None-Match", etag)
+          .when().get("/pokemon/list")
+          .then()
+             .statusCode(200)
+             .body("name", hasItem("Abra"))
+             .extract().header("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void ifNoneMatchOnASinglePokemonComparesItsVersion() {
+        String etag = given()
+          .when().get("/pokemon/4")
+          .then()
+             .statusCode(200)
+             .extract().header("ETag");
+
+        given()
+          .header("If-None-Match", etag)
+          .when().get("/pokemon/4?fields=name")
+          .then()
+             .statusCode(304)
+             .header("ETag", etag);
+        given()
+          .header("If-None-Match", "*")
+          .when().get("/pokemon/4")
+          .then()
+             .statusCode(304);
+        // La versión sola (ETag de antes de un reinicio) ya no valida la copia del cliente
+        assertTrue(etag.matches("\"[0-9a-z]+-\\d+\""), etag);
+        given()
+          .header("If-None-Match", "\"" + etag.substring(etag.lastIndexOf('-') + 1))
+          .when().get("/pokemon/4")
+          .then()
+             .statusCode(200);
+        given()
+          .header("If-None-Match", "\"999\"")
+          .when().get("/pokemon/4")
+          .then()
+             .statusCode(200)
+             .body("name", is("Charmander"));
+    }
+
+    @Test
+    void compressedVariantsCarryTheirOwnETag() {
+        // Un Pokemon con muchas habilidades garantiza un catálogo por encima del mínimo para comprimir
+        String abilities = String.join(",", Collections.nCopies(40, "\"Pressure\""));
+        int id = given()
+          .contentType(ContentType.JSON)
+          .body("{\"name\":\"Mewtwo\",\"type\":\"Psychic\",\"level\":70,\"abilities\":[" + abilities + "]}")
+          .when().post("/pokemon")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+        try {
+            // Sin los decodificadores de RestAssured no se envía su Accept-Encoding por defecto
+            RestAssuredConfig identityOnly = RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+            String identity = given()
+              .config(identityOnly)
+              .when().get("/pokemon/list")
+              .then()
+                 .statusCode(200)
+                 .extract().header("ETag");
+            String gzip = given()
+              .header("Accept-Encoding", "gzip")
+              .when().get("/pokemon/list")
+              .then()
+                 .statusCode(200)
+                 .header("Content-Encoding", "gzip")
+                 .extract().header("ETag");
+            assertEquals(identity.substring(0, identity.length() - 1) + "-gzip\"", gzip);
+
+            // Cualquier variante de la versión actual valida; el 304 devuelve la del cliente
+            given()
+              .header("Accept-Encoding", "gzip")
+              .header("If-None-Match", gzip)
+              .when().get("/pokemon/list")
+              .then()
+                 .statusCode(304)
+                 .header("ETag", gzip);
+            given()
+              .config(identityOnly)
+              .header("If-None-Match", "W/" + gzip)
+              .when().get("/pokemon/list")
+              .then()
+                 .statusCode(304);
+        } finally {
+            given().when().delete("/pokemon/" + id).then().statusCode(204);
+        }
+    }
+
+    @Test
+    void cachedResponsesFollowCreateAndDelete() {
+        int id = given()
+          .contentType(ContentType.JSON)
+          .body("{\"name\":\"Gastly\",\"type\":\"Ghost\",\"level\":20,\"abilities\":[\"Levitate\"]}")
+          .when().post("/pokemon")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+
+        given()
+          .header("Accept-Encoding", "gzip")
+          .when().get("/pokemon/" + id)
+          .then()
+             .statusCode(200)
+             .contentType(ContentType.JSON)
+             .header("ETag", matchesPattern("\"[0-9a-z]+-1\""))
+             .header("Vary", containsString("Accept-Encoding"))
+             .body("name", is("Gastly"));
+        given()
+          .header("Accept-Encoding", "gzip")
+          .when().get("/pokemon/list")
+          .then()
+             .statusCode(200)
+             .header("Vary", containsString("Accept-Encoding"))
+             .body("name", hasItem("Gastly"));
+
+        given()
+          .when().delete("/pokemon/" + id)
+          .then()
+             .statusCode(204);
+
+        given()
+          .when().get("/pokemon/" + id)
+          .then()
+             .statusCode(404);
+        given()
+          .when().get("/pokemon/list")
+          .then()
+             .statusCode(200)
+             .body("name", not(hasItem("Gastly")));
+    }
+}
@@ -0,0 +1,115 @@
+package org.acme.pokemon.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.repository.impl.PokemonRepositoryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PokemonResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PokemonRepositoryImpl repository = new PokemonRepositoryImpl();
+    private final AtomicInteger catalogLoads = new AtomicInteger();
+
+    private PokemonResponseCache cache(int maxPokemons) {
+        return new PokemonResponseCache(repository::collectionVersion,
+                () -> {
+                    catalogLoads.incrementAndGet();
+                    return repository.findAll();
+                },
+                repository::findById, objectMapper, maxPokemons, null);
+    }
+
+    @Test
+    void catalogIsSerializedOncePerVersion() throws IOException {
+        PokemonResponseCache cache = cache(16);
+
+        EncodedBody first = cache.catalog();
+        assertSame(first, cache.catalog());
+        assertEquals(1, catalogLoads.get());
+        assertArrayEquals(objectMapper.writeValueAsBytes(repository.findAll()), first.bytes(null));
+        assertEquals(repository.collectionVersion().getAsLong(), first.version());
+
+        repository.save(new Pokemon(0, "Abra", "Psychic", 10, List.of("Synchronize")));
+        EncodedBody rebuilt = cache.catalog();
+        assertNotSame(first, rebuilt);
+        assertTrue(new String(rebuilt.bytes(null)).contains("\"Abra\""));
+        assertEquals(2, catalogLoads.get());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void pokemonsAreServedUntilAnyWriteChangesTheCatalog() {
+        PokemonResponseCache cache = cache(2);
+
+        EncodedBody pikachu = cache.pokemon(25).orElseThrow();
+        assertSame(pikachu, cache.pokemon(25).orElseThrow());
+        assertEquals(1, pikachu.version());
+
+        Pokemon updated = repository.findById(25).orElseThrow();
+        updated.setLevel(30);
+        repository.update(updated);
+        EncodedBody afterUpdate = cache.pokemon(25).orElseThrow();
+        assertEquals(2, afterUpdate.version());
+        assertTrue(new String(afterUpdate.bytes(null)).contains("\"level\":30"));
+
+        repository.deleteById(25);
+        assertTrue(cache.pokemon(25).isEmpty());
+
+        // Acotada: nunca más de maxPokemons entradas
+        cache.pokemon(1);
+        cache.pokemon(4);
+        cache.pokemon(6);
+        assertEquals(2, cache.stats().cachedPokemons());
+    }
+
+    @Test
+    void withoutCatalogVersionNothingIsKept() {
+        PokemonResponseCache cache = new PokemonResponseCache(OptionalLong::empty,
+                () -> {
+                    catalogLoads.incrementAndGet();
+                    return repository.findAll();
+                },
+                repository::findById, objectMapper, 16, null);
+
+        assertNotSame(cache.catalog(), cache.catalog());
+        assertNotSame(cache.pokemon(1).orElseThrow(), cache.pokemon(1).orElseThrow());
+        assertEquals(2, catalogLoads.get());
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void gzipIsNegotiatedForLargeBodiesAndBuiltOnce() throws IOException {
+        byte[] json = ("[" + "{\"id\":1,\"name\":\"Bulbasaur\"},".repeat(100) + "{}]").getBytes();
+        EncodedBody body = new EncodedBody(1, json);
+
+        String encoding = body.negotiate("gzip, deflate");
+        assertTrue(encoding.equals(EncodedBody.GZIP) || encoding.equals(EncodedBody.BROTLI), encoding);
+        assertEquals(EncodedBody.GZIP, body.negotiate("deflate, gzip;q=0.5"));
+        assertNull(body.negotiate("gzip;q=0"));
+        assertNull(body.negotiate("identity"));
+        assertNull(body.negotiate(null));
+        assertNull(new EncodedBody(1, "{}".getBytes()).negotiate("gzip"), "Los cuerpos pequeños no se comprimen");
+
+        byte[] gzip = body.bytes(EncodedBody.GZIP);
+        assertSame(gzip, body.bytes(EncodedBody.GZIP));
+        assertTrue(gzip.length < json.length / 5, "gzip: " + gzip.length + " bytes");
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(json, input.readAllBytes());
+        }
+    }
+}
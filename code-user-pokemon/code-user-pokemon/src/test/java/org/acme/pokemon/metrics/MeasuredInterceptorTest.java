@@ -0,0 +1,43 @@
+package org.acme.pokemon.metrics;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+
+@QuarkusTest
+class MeasuredInterceptorTest {
+
+    @Test
+    void recordsLatencyPercentilesPerLayer() {
+        given().when().get("/pokemon/25").then().statusCode(200);
+
+        given()
+          .when().get("/q/metrics")
+          .then()
+             .statusCode(200)
+             .body(containsString("app_layer_calls_seconds_count{class=\"PokemonResource\",layer=\"controller\",method=\"getPokemonById\",outcome=\"success\"}"))
+             .body(containsString("app_layer_calls_seconds{class=\"PokemonServiceImpl\",layer=\"service\",method=\"getPokemonById\",outcome=\"success\",quantile=\"0.99\"}"))
+             .body(containsString("app_layer_calls_seconds_bucket{class=\"PokemonRepositoryImpl\",layer=\"repository\",method=\"findById\",outcome=\"success\""))
+             .body(containsString("app_layer_in_flight{class=\"PokemonRepositoryImpl\",layer=\"repository\",method=\"findById\"} 0.0"));
+    }
+
+    @Test
+    void countsErrorsByExceptionType() {
+        given()
+          .contentType(ContentType.JSON)
+          .body("{\"name\": \"\", \"type\": \"Fire\", \"level\": 5}")
+          .when().post("/pokemon")
+          .then()
+             .statusCode(400);
+
+        given()
+          .when().get("/q/metrics")
+          .then()
+             .statusCode(200)
+             .body(containsString("app_layer_errors_total{class=\"PokemonServiceImpl\",exception=\"IllegalArgumentException\",layer=\"service\",method=\"createPokemon\"}"))
+             .body(containsString("app_layer_calls_seconds_count{class=\"PokemonServiceImpl\",layer=\"service\",method=\"createPokemon\",outcome=\"error\"}"));
+    }
+}
@@ -0,0 +1,165 @@
+package org.acme.pokemon.repository.impl;
+
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.repository.VersionConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarPokemonRepositoryTest {
+
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 250;
+
+    @Test
+    void behavesLikeTheInMemoryRepository() {
+        ColumnarPokemonRepository columnar = new ColumnarPokemonRepository();
+        PokemonRepositoryImpl memory = new PokemonRepositoryImpl();
+        assertEquals(describe(memory.findAll()), describe(columnar.findAll()));
+
+        for (var repository : List.of(columnar, memory)) {
+            repository.update(new Pokemon(4, "Charmeleon", "Fire/Dragon", 16, List.of("Blaze")));
+            repository.save(new Pokemon(0, "Dratini", "Dragon", 30, List.of("Shed Skin")));
+            repository.save(new Pokemon(2, "Ivysaur", null, 16, null));
+            repository.deleteById(6);
+            assertNull(repository.update(new Pokemon(9999, "MissingNo", "Bird", 1, List.of())));
+        }
+
+        assertEquals(describe(memory.findAll()), describe(columnar.findAll()));
+        assertEquals(describe(memory.findPage(3, 3)), describe(columnar.findPage(3, 3)));
+        assertEquals(describe(memory.findAllById(List.of(134, 6, 1, 134))),
+                describe(columnar.findAllById(List.of(134, 6, 1, 134))));
+        for (PokemonFilter filter : List.of(
+                new PokemonFilter("dragon", null, null, null),
+                new PokemonFilter("Poison/Grass", null, null, null),
+                new PokemonFilter(null, 10, 30, null),
+                new PokemonFilter(null, null, null, "solar power"),
+                new PokemonFilter("Dragon", 20, null, "Shed Skin"))) {
+            assertEquals(describe(memory.findByFilter(filter)), describe(columnar.findByFilter(filter)), filter.toString());
+        }
+        assertTrue(columnar.findById(6).isEmpty());
+        assertEquals(List.of(1, 2, 3, 4, 7, 9, 25, 133, 134), ids(columnar.streamAll().toList()));
+    }
+
+    @Test
+    void compareAndSetUpdateRejectsStaleVersions() {
+        ColumnarPokemonRepository repository = new ColumnarPokemonRepository();
+        assertEquals(1, repository.findById(4).orElseThrow().getVersion());
+        long collectionVersion = repository.collectionVersion().orElseThrow();
+
+        assertEquals(2, repository.update(new Pokemon(4, "Charmeleon", "Fire", 16, List.of("Blaze")), 1).getVersion());
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> repository.update(new Pokemon(4, "Stale", "Water", 5, List.of()), 1));
+        assertEquals(2, conflict.getCurrentVersion());
+        assertEquals(collectionVersion + 1, repository.collectionVersion().orElseThrow());
+        assertEquals("Charmeleon", repository.findById(4).orElseThrow().getName());
+        assertEquals(List.of(4, 6), ids(repository.findByFilter(new PokemonFilter("fire", null, null, null))));
+
+        // Un ID borrado y vuelto a guardar empieza de nuevo en la versión 1
+        repository.deleteById(4);
+        assertEquals(1, repository.save(new Pokemon(4, "Charmander", "Fire", 5, List.of("Blaze"))).getVersion());
+        assertEquals(collectionVersion + 3, repository.collectionVersion().orElseThrow());
+    }
+
+    @Test
+    void valuesAreDictionaryEncoded() {
+        ColumnarPokemonRepository repository = new ColumnarPokemonRepository();
+        repository.save(new Pokemon(0, "Vulpix", "Fire", 10, new ArrayList<>(List.of("Flash Fire"))));
+        repository.save(new Pokemon(0, "Growlithe", "Fire", 10, new ArrayList<>(List.of("Flash Fire"))));
+
+        Pokemon vulpix = repository.findById(134).orElseThrow();
+        Pokemon growlithe = repository.findById(135).orElseThrow();
+        // Cada lectura es un objeto nuevo, pero tipo y habilidades son los valores del diccionario
+        assertSame(vulpix.getType(), growlithe.getType());
+        assertSame(vulpix.getAbilities(), growlithe.getAbilities());
+        assertThrows(UnsupportedOperationException.class, () -> vulpix.getAbilities().add("Drought"));
+    }
+
+    @Test
+    void deletesAndRenamesReclaimSpace() {
+        ColumnarPokemonStore store = new ColumnarPokemonStore();
+        for (int id = 1; id <= 10_000; id++) {
+            store.put(new Pokemon(id, "Pokemon " + id, "Normal", id % 100, List.of("Run Away")));
+        }
+        long footprint = store.footprintBytes();
+
+        // Renombrar muchas veces no hace crecer el área de nombres sin límite
+        for (int round = 0; round < 20; round++) {
+            for (int id = 1; id <= 10_000; id++) {
+                store.replace(new Pokemon(id, "Renamed " + round + " " + id, "Normal", 1, List.of("Run Away")), -1, -1);
+            }
+        }
+        assertTrue(store.footprintBytes() < footprint * 2, "Footprint: " + store.footprintBytes());
+        assertEquals("Renamed 19 42", store.get(42).getName());
+        assertEquals(21, store.get(42).getVersion());
+
+        for (int id = 1; id <= 10_000; id += 2) {
+            store.remove(id);
+        }
+        assertEquals(5_000, store.size());
+        assertNull(store.get(41));
+        assertEquals(List.of(9_996, 9_998, 10_000), ids(store.page(9_994, 10)));
+        // Un alta en medio de las columnas queda en su sitio
+        store.put(new Pokemon(41, "Back", "Normal", 1, List.of()));
+        assertEquals(List.of(40, 41, 42), ids(store.page(39, 3)));
+    }
+
+    @Test
+    void concurrentSavesAndReadsStayConsistent() throws Exception {
+        ColumnarPokemonRepository repository = new ColumnarPokemonRepository();
+        int seeded = repository.findAll().size();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<Integer> ids = new ArrayList<>();
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        ids.add(repository.save(new Pokemon(0, "Ditto " + i, "Normal", 1, List.of("Limber"))).getId());
+                        // Las lecturas optimistas nunca ven un Pokemon a medio escribir
+                        Pokemon pikachu = repository.findById(25).orElseThrow();
+                        assertEquals("Pikachu", pikachu.getName());
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            Set<Integer> ids = new HashSet<>();
+            for (Future<List<Integer>> result : results) {
+                ids.addAll(result.get());
+            }
+            assertEquals(THREADS * SAVES_PER_THREAD, ids.size());
+            assertEquals(seeded + THREADS * SAVES_PER_THREAD, repository.findAll().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Pokemon no define equals: se comparan por su toString (todos los campos, versión incluida)
+     */
+    private static List<String> describe(List<Pokemon> pokemons) {
+        return pokemons.stream().map(Pokemon::toString).toList();
+    }
+
+    private static List<Integer> ids(List<Pokemon> pokemons) {
+        return pokemons.stream().map(Pokemon::getId).toList();
+    }
+}
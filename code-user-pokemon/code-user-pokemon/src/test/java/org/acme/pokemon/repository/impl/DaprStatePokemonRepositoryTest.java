@@ -0,0 +1,202 @@
+package org.acme.pokemon.repository.impl;
+
+import io.dapr.client.DaprClient;
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.repository.VersionConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DaprStatePokemonRepository con un DaprClient real contra el sidecar de estado simulado.
+ * Dos instancias sobre el mismo store hacen de dos réplicas del pokemon-service.
+ */
+class DaprStatePokemonRepositoryTest {
+
+    private static final String STORE_NAME = "pokemon-statestore";
+    private static final int REPLICAS = 2;
+    private static final int THREADS_PER_REPLICA = 4;
+    private static final int SAVES_PER_THREAD = 25;
+
+    private StateStoreSidecarStandIn sidecar;
+    private final List<DaprClient> clients = new ArrayList<>();
+
+    @BeforeEach
+    void startSidecar() throws Exception {
+        sidecar = StateStoreSidecarStandIn.start(STORE_NAME);
+    }
+
+    @AfterEach
+    void stopSidecar() throws Exception {
+        for (DaprClient client : clients) {
+            client.close();
+        }
+        sidecar.close();
+    }
+
+    @Test
+    void behavesLikeTheInMemoryRepository() {
+        DaprStatePokemonRepository repository = newReplica();
+
+        assertEquals(8, repository.findAll().size());
+        assertEquals("Pikachu", repository.findById(25).orElseThrow().getName());
+        assertTrue(repository.findById(2).isEmpty());
+        assertEquals(List.of(25, 1), repository.findAllById(List.of(25, 2, 1, 25)).stream().map(Pokemon::getId).toList());
+        assertEquals(List.of(6, 7, 9), repository.findPage(4, 3).stream().map(Pokemon::getId).toList());
+        assertEquals(List.of(4, 6), repository.findByFilter(new PokemonFilter("fire", null, null, null))
+                .stream().map(Pokemon::getId).toList());
+
+        Pokemon ditto = repository.save(new Pokemon(0, "Ditto", "Normal", 10, List.of("Limber")));
+        assertEquals(134, ditto.getId());
+        ditto.setLevel(11);
+        assertEquals(11, repository.update(ditto).getLevel());
+        assertEquals(11, repository.findById(134).orElseThrow().getLevel());
+
+        assertTrue(repository.deleteById(134));
+        assertFalse(repository.deleteById(134));
+        assertNull(repository.update(ditto));
+        assertTrue(repository.findById(134).isEmpty());
+        assertEquals(8, repository.findAll().size());
+    }
+
+    @Test
+    void dataSurvivesARestart() {
+        newReplica().save(new Pokemon(0, "Mew", "Psychic", 50, List.of("Synchronize")));
+
+        // Una instancia nueva (reinicio o réplica) no vuelve a sembrar y ve el alta
+        DaprStatePokemonRepository restarted = newReplica();
+        assertEquals(9, restarted.findAll().size());
+        assertEquals("Mew", restarted.findById(134).orElseThrow().getName());
+    }
+
+    @Test
+    void concurrentSavesFromSeveralReplicasNeverRepeatOrLoseIds() throws Exception {
+        List<DaprStatePokemonRepository> replicas = new ArrayList<>();
+        for (int r = 0; r < REPLICAS; r++) {
+            replicas.add(newReplica());
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(REPLICAS * THREADS_PER_REPLICA);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (DaprStatePokemonRepository replica : replicas) {
+                for (int t = 0; t < THREADS_PER_REPLICA; t++) {
+                    Callable<List<Integer>> task = () -> {
+                        start.await();
+                        List<Integer> ids = new ArrayList<>();
+                        for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                            ids.add(saveWithRetry(replica));
+                        }
+                        return ids;
+                    };
+                    results.add(executor.submit(task));
+                }
+            }
+            start.countDown();
+
+            Set<Integer> ids = new HashSet<>();
+            for (Future<List<Integer>> result : results) {
+                ids.addAll(result.get());
+            }
+            int expected = REPLICAS * THREADS_PER_REPLICA * SAVES_PER_THREAD;
+            assertEquals(expected, ids.size());
+            // Ningún alta se pierde en el índice compartido
+            assertEquals(8 + expected, replicas.get(0).findAll().size());
+            assertEquals(8 + expected, replicas.get(1).findAll().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void writeBehindBatchesUpdatesAndDeletesAndReadsSeePendingChanges() {
+        DaprStatePokemonRepository repository = newReplica();
+        repository.enableWriteBehind(100, Duration.ofHours(1), 1000);
+        long callsBefore = sidecar.calls();
+
+        for (int level = 6; level <= 50; level++) {
+            Pokemon pikachu = new Pokemon(25, "Pikachu", "Electric", level, List.of("Static"));
+            assertEquals(level, repository.update(pikachu).getLevel());
+        }
+        assertTrue(repository.deleteById(133));
+        assertFalse(repository.deleteById(133));
+        assertNull(repository.update(new Pokemon(133, "Eevee", "Normal", 6, List.of())));
+        // Solo la primera escritura de cada ID consulta el store: el resto no hace round trips
+        assertEquals(2, sidecar.calls() - callsBefore);
+
+        // Esta réplica ve lo pendiente; otra réplica aún no
+        assertEquals(50, repository.findById(25).orElseThrow().getLevel());
+        assertTrue(repository.findById(133).isEmpty());
+        assertEquals(List.of(9, 25), repository.findPage(7, 2).stream().map(Pokemon::getId).toList());
+        assertEquals(8, newReplica().findAll().size());
+
+        repository.writeBehind().flush();
+        WriteBehindBuffer.Stats stats = repository.writeBehind().stats();
+        assertEquals(1, stats.flushes());
+        assertEquals(2, stats.flushed());
+
+        DaprStatePokemonRepository other = newReplica();
+        assertEquals(50, other.findById(25).orElseThrow().getLevel());
+        assertEquals(7, other.findAll().size());
+    }
+
+    @Test
+    void conditionalUpdateDetectsWritesFromAnotherReplica() {
+        DaprStatePokemonRepository first = newReplica();
+        DaprStatePokemonRepository second = newReplica();
+        assertEquals(1, first.findById(7).orElseThrow().getVersion());
+
+        assertEquals(2, first.update(new Pokemon(7, "Squirtle", "Water", 6, List.of("Torrent")), 1).getVersion());
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> second.update(new Pokemon(7, "Squirtle", "Water", 99, List.of("Torrent")), 1));
+        assertEquals(2, conflict.getCurrentVersion());
+        assertEquals(6, second.findById(7).orElseThrow().getLevel());
+
+        // Con write-behind la versión se compara con lo pendiente en la réplica
+        second.enableWriteBehind(100, Duration.ofHours(1), 1000);
+        assertEquals(3, second.update(new Pokemon(7, "Squirtle", "Water", 7, List.of("Torrent")), 2).getVersion());
+        assertThrows(VersionConflictException.class,
+                () -> second.update(new Pokemon(7, "Squirtle", "Water", 99, List.of("Torrent")), 2));
+        second.writeBehind().flush();
+        assertEquals(3, first.findById(7).orElseThrow().getVersion());
+        assertEquals(7, first.findById(7).orElseThrow().getLevel());
+    }
+
+    /**
+     * Con mucha contención se pueden agotar los reintentos por ETag: el llamante lo ve como
+     * IllegalStateException y puede repetir la operación
+     */
+    private static int saveWithRetry(DaprStatePokemonRepository repository) {
+        while (true) {
+            try {
+                return repository.save(new Pokemon(0, "Ditto", "Normal", 1, List.of("Limber"))).getId();
+            } catch (IllegalStateException e) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private DaprStatePokemonRepository newReplica() {
+        DaprClient client = sidecar.newDaprClient();
+        clients.add(client);
+        return new DaprStatePokemonRepository(client, STORE_NAME);
+    }
+}
@@ -0,0 +1,259 @@
+package org.acme.pokemon.repository.impl;
+
+import org.acme.pokemon.domain.Pokemon;
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.repository.VersionConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PokemonRepositoryImplTest {
+
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 250;
+
+    @Test
+    void concurrentSavesNeverRepeatIds() throws Exception {
+        PokemonRepositoryImpl repository = new PokemonRepositoryImpl();
+        int seeded = repository.findAll().size();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<List<Integer>> task = () -> {
+                    start.await();
+                    List<Integer> ids = new ArrayList<>();
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        ids.add(repository.save(new Pokemon(0, "Ditto", "Normal", 1, List.of("Limber"))).getId());
+                    }
+                    return ids;
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+
+            Set<Integer> ids = new HashSet<>();
+            for (Future<List<Integer>> result : results) {
+                ids.addAll(result.get());
+            }
+            assertEquals(THREADS * SAVES_PER_THREAD, ids.size());
+            // Los IDs generados continúan la secuencia tras el ID más alto sembrado (133)
+            assertTrue(ids.stream().allMatch(id -> id > 133));
+            assertEquals(seeded + THREADS * SAVES_PER_THREAD, repository.findAll().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void updateAndDeleteWorkById() {
+        PokemonRepositoryImpl repository = new PokemonRepositoryImpl();
+
+        assertNull(repository.update(new Pokemon(9999, "MissingNo", "Bird", 1, List.of())));
+        Pokemon evolved = repository.update(new Pokemon(25, "Raichu", "Electric", 30, List.of("Static")));
+        assertEquals("Raichu", repository.findById(25).orElseThrow().getName());
+        assertEquals(evolved, repository.findById(25).orElseThrow());
+
+        assertTrue(repository.deleteById(25));
+        assertTrue(repository.findById(25).isEmpty());
+        assertEquals(List.of(1, 3, 4, 6, 7, 9, 133), repository.findAll().stream().map(Pokemon::getId).toList());
+        assertEquals(List.of(6, 7), repository.findPage(4, 2).stream().map(Pokemon::getId).toList());
+    }
+
+    @Test
+    void compareAndSetUpdateRejectsStaleVersionsAndKeepsIndexes() {
+        PokemonRepositoryImpl repository = new PokemonRepositoryImpl();
+        assertEquals(1, repository.findById(4).orElseThrow().getVersion());
+        long collectionVersion = repository.collectionVersion().orElseThrow();
+
+        assertEquals(2, repository.update(new Pokemon(4, "Charmeleon", "Fire", 16, List.of("Blaze")), 1).getVersion());
+        assertEquals(collectionVersion + 1, repository.collectionVersion().orElseThrow());
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> repository.update(new Pokemon(4, "Stale", "Water", 5, List.of()), 1));
+        assertEquals(2, conflict.getCurrentVersion());
+        // La escritura rechazada no toca ni el Pokemon ni los índices secundarios
+        assertEquals("Charmeleon", repository.findById(4).orElseThrow().getName());
+        assertEquals(List.of(4, 6), repository.findByFilter(new PokemonFilter("fire", null, null, null))
+                .stream().map(Pokemon::getId).toList());
+        assertNull(repository.update(new Pokemon(9999, "MissingNo", "Bird", 1, List.of()), 1));
+        // Ni la escritura rechazada ni la de un ID inexistente cambian la versión de la colección
+        assertEquals(collectionVersion + 1, repository.collectionVersion().orElseThrow());
+        assertTrue(repository.deleteById(4));
+        assertEquals(collectionVersion + 2, repository.collectionVersion().orElseThrow());
+    }
+
+    @Test
+    void writesStoreACopyAndConcurrentCompareAndSetsNeverLoseAVersion() throws Exception {
+        PokemonRepositoryImpl repository = new PokemonRepositoryImpl();
+        Pokemon draft = new Pokemon(0, "Ditto", "Normal", 1, List.of("Limber"));
+        Pokemon saved = repository.save(draft);
+        // La instancia del llamante no se modifica ni queda guardada
+        assertNotSame(draft, saved);
+        assertEquals(0, draft.getId());
+        assertEquals(0, draft.getVersion());
+        assertEquals(1, saved.getVersion());
+
+        long collectionVersion = repository.collectionVersion().orElseThrow();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int conflicts = 0;
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        // Lectura + compare-and-set con reintento, como un cliente con If-Match
+                        while (true) {
+                            long version = repository.findById(25).orElseThrow().getVersion();
+                            try {
+                                repository.update(new Pokemon(25, "Pikachu", "Electric", thread, List.of("Static")), version);
+                                break;
+                            } catch (VersionConflictException e) {
+                                conflicts++;
+                            }
+                        }
+                    }
+                    return conflicts;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Cada update confirmado avanzó exactamente una versión
+        assertEquals(1 + THREADS * SAVES_PER_THREAD, repository.findById(25).orElseThrow().getVersion());
+        assertEquals(collectionVersion + THREADS * SAVES_PER_THREAD, repository.collectionVersion().orElseThrow());
+        int level = repository.findById(25).orElseThrow().getLevel();
+        assertEquals(List.of(25), ids(repository.findByFilter(new PokemonFilter("Electric", level, level, null))));
+    }
+
+    @Test
+    void compareAndSwapOnlyReplacesTheExpectedValue() {
+        IntIndex<String> index = new IntIndex<>();
+        String first = "v1";
+        index.put(1, first);
+
+        assertTrue(index.replace(1, first, "v2"));
+        assertFalse(index.replace(1, first, "v3"));
+        assertFalse(index.replace(2, first, "v3"));
+        assertEquals("v2", index.get(1));
+        assertFalse(index.containsKey(2));
+    }
+
+    @Test
+    void sparseKeysArePagedInOrder() {
+        IntIndex<String> index = new IntIndex<>();
+        for (int key = 1_000_000; key > 0; key -= 99_991) {
+            index.put(key, "v" + key);
+        }
+        index.remove(500_045);
+
+        List<String> page = index.valuesAfter(200_000, 3);
+        assertEquals(List.of("v200072", "v300063", "v400054"), page);
+        assertEquals(List.of("v600036"), index.valuesAfter(500_000, 1));
+        assertTrue(index.valuesAfter(1_000_000, 10).isEmpty());
+        // Cursor inicial de streamAll: la primera página empieza en la clave mínima
+        assertEquals(List.of("v90", "v100081"), index.valuesAfter(Integer.MIN_VALUE, 2));
+    }
+
+    @Test
+    void streamAllWalksSparseIdsInOrder() {
+        PokemonRepositoryImpl repository = new PokemonRepositoryImpl();
+        List<Integer> expected = new ArrayList<>(ids(repository.findAll()));
+        for (int i = 0; i < 3_000; i++) {
+            expected.add(repository.save(new Pokemon(0, "Ditto", "Normal", 1, List.of("Limber"))).getId());
+        }
+        // Borrar dos de cada tres deja IDs dispersos en varias páginas de streamAll
+        for (int i = 0; i < expected.size(); i++) {
+            if (i % 3 != 0) {
+                assertTrue(repository.deleteById(expected.get(i)));
+            }
+        }
+        List<Integer> remaining = new ArrayList<>();
+        for (int i = 0; i < expected.size(); i += 3) {
+            remaining.add(expected.get(i));
+        }
+
+        assertEquals(remaining, repository.streamAll().map(Pokemon::getId).toList());
+        assertEquals(remaining.subList(1, 4), ids(repository.findPage(remaining.get(0), 3)));
+    }
+
+    @Test
+    void lookupsAndReplacementsSurviveResizes() {
+        IntIndex<String> index = new IntIndex<>();
+        for (int key = 1; key <= 10_000; key++) {
+            index.put(key, "v" + key);
+        }
+        for (int key = 1; key <= 10_000; key += 7) {
+            assertEquals("v" + key, index.replace(key, "u" + key));
+        }
+
+        assertEquals(10_000, index.size());
+        assertEquals("u7001", index.get(7001));
+        assertEquals("v7002", index.get(7002));
+        assertNull(index.replace(10_001, "u10001"));
+    }
+
+    @Test
+    void secondaryIndexesFollowSaveUpdateAndDelete() {
+        PokemonRepositoryImpl repository = new PokemonRepositoryImpl();
+
+        // Los tipos compuestos se indexan por cada componente
+        assertEquals(List.of(6), ids(repository.findByFilter(new PokemonFilter("Flying", null, null, null))));
+        assertEquals(List.of(1, 3), ids(repository.findByFilter(new PokemonFilter("Poison/Grass", null, null, null))));
+        assertEquals(List.of(3, 6, 9), ids(repository.findByFilter(new PokemonFilter(null, 30, null, null))));
+        assertEquals(List.of(4, 6), ids(repository.findByFilter(new PokemonFilter(null, null, null, "solar power"))));
+
+        repository.update(new Pokemon(4, "Charmeleon", "Fire/Dragon", 16, List.of("Blaze")));
+        repository.save(new Pokemon(0, "Dratini", "Dragon", 30, List.of("Shed Skin")));
+        repository.deleteById(6);
+
+        assertEquals(List.of(4, 134), ids(repository.findByFilter(new PokemonFilter("dragon", null, null, null))));
+        assertTrue(repository.findByFilter(new PokemonFilter("Flying", null, null, null)).isEmpty());
+        assertTrue(repository.findByFilter(new PokemonFilter(null, null, null, "Solar Power")).isEmpty());
+        assertEquals(List.of(4, 134), ids(repository.findByFilter(new PokemonFilter(null, 10, 30, null))));
+        assertEquals(List.of(134), ids(repository.findByFilter(new PokemonFilter("Dragon", 20, null, "Shed Skin"))));
+    }
+
+    @Test
+    void filterCandidatesAreProportionalToTheMostSelectiveIndex() {
+        PokemonSecondaryIndexes indexes = new PokemonSecondaryIndexes();
+        for (int id = 1; id <= 100_000; id++) {
+            String type = id % 1_000 == 0 ? "Dragon" : "Normal";
+            indexes.index(new Pokemon(id, "Pokemon " + id, type, id % 100, List.of("Run Away")));
+        }
+
+        // Nivel 99 y tipo Dragon: solo se evalúan los 100 Dragon, no los 100.000 del catálogo
+        int[] candidates = indexes.candidateIds(new PokemonFilter("Dragon", 99, null, "Run Away"));
+        assertEquals(100, candidates.length);
+        assertEquals(1_000, indexes.candidateIds(new PokemonFilter(null, 42, 42, null)).length);
+        assertEquals(0, indexes.candidateIds(new PokemonFilter("Ghost", null, null, null)).length);
+        assertNull(indexes.candidateIds(new PokemonFilter(" ", null, null, null)));
+    }
+
+    private static List<Integer> ids(List<Pokemon> pokemons) {
+        return pokemons.stream().map(Pokemon::getId).toList();
+    }
+}
@@ -0,0 +1,255 @@
+package org.acme.pokemon.repository.impl;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Empty;
+import io.dapr.client.DaprClient;
+import io.dapr.client.DaprClientBuilder;
+import io.dapr.v1.CommonProtos;
+import io.dapr.v1.DaprGrpc;
+import io.dapr.v1.DaprProtos;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Sidecar DAPR simulado con la API gRPC de estado (GetState, GetBulkState, SaveState,
+ * DeleteState, ExecuteStateTransaction) sobre un almacén en memoria con ETags, con la
+ * misma semántica que el componente state.in-memory:
+ * - cada escritura genera un ETag nuevo
+ * - una escritura o borrado con ETag falla con ABORTED si no coincide (o la clave no existe)
+ * - una transacción se valida entera antes de aplicar nada
+ *
+ * Permite probar y medir DaprStatePokemonRepository con un DaprClient real sin daprd.
+ */
+final class StateStoreSidecarStandIn implements AutoCloseable {
+
+    private static final ReentrantLock CLIENT_BUILD_LOCK = new ReentrantLock();
+
+    private final String storeName;
+    private final Server server;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private long etagSequence;
+
+    private StateStoreSidecarStandIn(String storeName) throws IOException {
+        this.storeName = storeName;
+        this.server = Grpc.newServerBuilderForPort(0, InsecureServerCredentials.create())
+                .addService(new StateApi())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()
+                .start();
+    }
+
+    static StateStoreSidecarStandIn start(String storeName) throws IOException {
+        return new StateStoreSidecarStandIn(storeName);
+    }
+
+    /**
+     * DaprClient del SDK (API gRPC) apuntando a este sidecar. El SDK 1.10 lee el puerto de
+     * las propiedades de sistema al construir el cliente: se fijan y se restauran bajo lock.
+     */
+    DaprClient newDaprClient() {
+        CLIENT_BUILD_LOCK.lock();
+        String previousPort = System.getProperty("dapr.grpc.port");
+        String previousProtocol = System.getProperty("dapr.api.protocol");
+        try {
+            System.setProperty("dapr.grpc.port", Integer.toString(server.getPort()));
+            System.setProperty("dapr.api.protocol", "GRPC");
+            return new DaprClientBuilder().build();
+        } finally {
+            restore("dapr.grpc.port", previousPort);
+            restore("dapr.api.protocol", previousProtocol);
+            CLIENT_BUILD_LOCK.unlock();
+        }
+    }
+
+    /**
+     * @return Número de llamadas recibidas por la API de estado (round trips del cliente)
+     */
+    long calls() {
+        return calls.sum();
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static void restore(String key, String value) {
+        if (value == null) {
+            System.clearProperty(key);
+        } else {
+            System.setProperty(key, value);
+        }
+    }
+
+    private void checkStore(String requested) {
+        if (!storeName.equals(requested)) {
+            throw Status.INVALID_ARGUMENT
+                    .withDescription("state store " + requested + " is not found")
+                    .asRuntimeException();
+        }
+    }
+
+    /**
+     * Comprueba el ETag de una operación (vacío = sin control de concurrencia); requiere el lock
+     */
+    private void checkEtag(CommonProtos.StateItem item) {
+        if (!item.hasEtag() || item.getEtag().getValue().isEmpty()) {
+            return;
+        }
+        Entry current = entries.get(item.getKey());
+        if (current == null || !current.etag().equals(item.getEtag().getValue())) {
+            throw Status.ABORTED
+                    .withDescription("possible etag mismatch. error from state store: key " + item.getKey())
+                    .asRuntimeException();
+        }
+    }
+
+    private void upsert(CommonProtos.StateItem item) {
+        entries.put(item.getKey(), new Entry(item.getValue(), Long.toString(++etagSequence)));
+    }
+
+    private <T> void respond(StreamObserver<T> observer, Supplier<T> action) {
+        calls.increment();
+        T response;
+        try {
+            response = action.get();
+        } catch (StatusRuntimeException e) {
+            observer.onError(e);
+            return;
+        }
+        observer.onNext(response);
+        observer.onCompleted();
+    }
+
+    private final class StateApi extends DaprGrpc.DaprImplBase {
+
+        @Override
+        public void getState(DaprProtos.GetStateRequest request, StreamObserver<DaprProtos.GetStateResponse> observer) {
+            respond(observer, () -> {
+                checkStore(request.getStoreName());
+                lock.lock();
+                try {
+                    Entry entry = entries.get(request.getKey());
+                    return entry == null
+                            ? DaprProtos.GetStateResponse.getDefaultInstance()
+                            : DaprProtos.GetStateResponse.newBuilder().setData(entry.data()).setEtag(entry.etag()).build();
+                } finally {
+                    lock.unlock();
+                }
+            });
+        }
+
+        @Override
+        public void getBulkState(DaprProtos.GetBulkStateRequest request,
+                                 StreamObserver<DaprProtos.GetBulkStateResponse> observer) {
+            respond(observer, () -> {
+                checkStore(request.getStoreName());
+                DaprProtos.GetBulkStateResponse.Builder response = DaprProtos.GetBulkStateResponse.newBuilder();
+                lock.lock();
+                try {
+                    for (String key : request.getKeysList()) {
+                        DaprProtos.BulkStateItem.Builder item = DaprProtos.BulkStateItem.newBuilder().setKey(key);
+                        Entry entry = entries.get(key);
+                        if (entry != null) {
+                            item.setData(entry.data()).setEtag(entry.etag());
+                        }
+                        response.addItems(item);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                return response.build();
+            });
+        }
+
+        @Override
+        public void saveState(DaprProtos.SaveStateRequest request, StreamObserver<Empty> observer) {
+            respond(observer, () -> {
+                checkStore(request.getStoreName());
+                lock.lock();
+                try {
+                    // Como el componente in-memory: cada elemento se valida y aplica por separado
+                    for (CommonProtos.StateItem item : request.getStatesList()) {
+                        checkEtag(item);
+                        upsert(item);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                return Empty.getDefaultInstance();
+            });
+        }
+
+        @Override
+        public void deleteState(DaprProtos.DeleteStateRequest request, StreamObserver<Empty> observer) {
+            respond(observer, () -> {
+                checkStore(request.getStoreName());
+                lock.lock();
+                try {
+                    checkEtag(CommonProtos.StateItem.newBuilder()
+                            .setKey(request.getKey())
+                            .setEtag(request.getEtag())
+                            .build());
+                    entries.remove(request.getKey());
+                } finally {
+                    lock.unlock();
+                }
+                return Empty.getDefaultInstance();
+            });
+        }
+
+        @Override
+        public void executeStateTransaction(DaprProtos.ExecuteStateTransactionRequest request,
+                                            StreamObserver<Empty> observer) {
+            respond(observer, () -> {
+                checkStore(request.getStoreName());
+                List<DaprProtos.TransactionalStateOperation> operations = request.getOperationsList();
+                lock.lock();
+                try {
+                    // Todo o nada: primero se validan todos los ETags, después se aplica
+                    operations.forEach(operation -> checkEtag(operation.getRequest()));
+                    for (DaprProtos.TransactionalStateOperation operation : operations) {
+                        switch (operation.getOperationType()) {
+                            case "upsert" -> upsert(operation.getRequest());
+                            case "delete" -> entries.remove(operation.getRequest().getKey());
+                            default -> throw Status.INVALID_ARGUMENT
+                                    .withDescription("operation type " + operation.getOperationType() + " not supported")
+                                    .asRuntimeException();
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                return Empty.getDefaultInstance();
+            });
+        }
+    }
+
+    private record Entry(ByteString data, String etag) {
+    }
+}
@@ -0,0 +1,67 @@
+package org.acme.pokemon.service.impl;
+
+import org.acme.pokemon.domain.PokemonFilter;
+import org.acme.pokemon.repository.impl.PokemonRepositoryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * En modo de producción (org.acme en INFO) service y repository no escriben nada por petición: solo
+ * queda la línea resumen. La comparación de peticiones/segundo entre modos está en el módulo
+ * benchmarks (LoggingModeBenchmark).
+ */
+class LoggingModeTest {
+
+    @Test
+    void productionModeLogsNothingPerRequestBelowTheSummary() {
+        assertTrue(recordsPerRequestMix(Level.INFO).isEmpty());
+        assertFalse(recordsPerRequestMix(Level.FINE).isEmpty(), "En DEBUG se mantiene el detalle por capa");
+    }
+
+    private static List<LogRecord> recordsPerRequestMix(Level level) {
+        // Los logs de arranque del repositorio no cuentan
+        PokemonServiceImpl service = new PokemonServiceImpl();
+        service.pokemonRepository = new PokemonRepositoryImpl();
+
+        Logger appLogger = Logger.getLogger("org.acme.pokemon");
+        Level previousLevel = appLogger.getLevel();
+        List<LogRecord> records = new CopyOnWriteArrayList<>();
+        Handler capture = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (isLoggable(record)) {
+                    records.add(record);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        appLogger.setLevel(level);
+        appLogger.addHandler(capture);
+        try {
+            service.getPokemonById(25);
+            service.getAllPokemons();
+            service.getPokemonPage(null, 4);
+            service.findPokemons(new PokemonFilter("Fire", null, null, null));
+        } finally {
+            appLogger.removeHandler(capture);
+            appLogger.setLevel(previousLevel);
+        }
+        return records;
+    }
+}
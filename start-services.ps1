@@ -22,7 +22,7 @@ Start-Sleep -Seconds 3
 
 # Iniciar el microservicio Pokemon
 Write-Host "🎮 Iniciando Pokemon Service en puerto 8086..." -ForegroundColor Cyan
-Start-Process -FilePath "dapr" -ArgumentList "run", "--app-id", "pokemon-service", "--app-port", "8086", "--dapr-http-port", "3501", "--dapr-grpc-port", "50002", "--", "cd", "code-user-pokemon/code-user-pokemon", "&&", "./gradlew", "quarkusDev" -WindowStyle Normal
+Start-Process -FilePath "dapr" -ArgumentList "run", "--app-id", "pokemon-service", "--app-port", "8086", "--app-protocol", "grpc", "--dapr-http-port", "3501", "--dapr-grpc-port", "50002", "--", "cd", "code-user-pokemon/code-user-pokemon", "&&", "./gradlew", "quarkusDev" -WindowStyle Normal
 
 # Esperar un momento para que el servicio Pokemon se inicie
 Start-Sleep -Seconds 5